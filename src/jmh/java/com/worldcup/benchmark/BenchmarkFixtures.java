@@ -0,0 +1,153 @@
+package com.worldcup.benchmark;
+
+import com.worldcup.automation.WorldCupAutomation;
+import com.worldcup.database.DatabaseManager;
+import com.worldcup.generator.DataGenerator;
+import com.worldcup.manager.ObjectManager;
+import com.worldcup.model.Player;
+import com.worldcup.model.Team;
+import com.worldcup.model.Tournament;
+import com.worldcup.repository.WorldCupAutomationRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dữ liệu có sẵn cho benchmark: file SQLite chứa N giải đấu lịch sử.
+ * Mỗi kích thước chỉ được mô phỏng một lần (cache trong thư mục tạm theo seed),
+ * mỗi trial làm việc trên bản copy riêng nên các lần ghi không cộng dồn giữa các trial.
+ */
+final class BenchmarkFixtures {
+
+    static final long SEED = 20240611L;
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * File database chứa đúng tournaments giải đấu, tạo bằng WorldCupAutomation nếu chưa có
+     */
+    static synchronized Path historyDatabase(int tournaments) throws IOException {
+        Path file = Paths.get(System.getProperty("java.io.tmpdir"),
+                "worldcup-history-" + tournaments + "-" + SEED + ".db");
+        // Fixture cũ tạo trước khi teams nhận đúng group id thì tạo lại
+        if (Files.exists(file) && teamsJoinOwnGroups(file)) {
+            return file;
+        }
+
+        // Tạo ở file tạm rồi move để không để lại fixture dở dang khi bị ngắt giữa chừng
+        Path building = Files.createTempFile("worldcup-history-", ".db");
+        Files.delete(building);
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            DatabaseManager dbManager = open(building);
+            for (int i = 0; i < tournaments; i++) {
+                WorldCupAutomation automation = new WorldCupAutomation(dbManager);
+                automation.setClearOldData(false);
+                automation.setSeed(SEED + i);
+                automation.runCompleteWorldCup();
+            }
+            dbManager.close();
+        } finally {
+            System.setOut(out);
+        }
+        if (!teamsJoinOwnGroups(building)) {
+            delete(building);
+            throw new IllegalStateException("Fixture " + tournaments + " giải đấu có team không thuộc group của tournament");
+        }
+
+        Files.move(building, file, StandardCopyOption.REPLACE_EXISTING);
+        return file;
+    }
+
+    /**
+     * Bản copy của fixture cho một trial
+     */
+    static Path workingCopy(int tournaments) throws IOException {
+        Path copy = Files.createTempFile("worldcup-benchmark-", ".db");
+        Files.copy(historyDatabase(tournaments), copy, StandardCopyOption.REPLACE_EXISTING);
+        return copy;
+    }
+
+    /**
+     * Mỗi team của mọi tournament đều join được với một group của chính tournament đó
+     */
+    private static boolean teamsJoinOwnGroups(Path file) throws IOException {
+        DatabaseManager dbManager = open(file);
+        try (PreparedStatement pstmt = dbManager.getConnection().prepareStatement("""
+                SELECT COUNT(*) FROM teams t
+                LEFT JOIN groups g ON g.id = t.group_id AND g.tournament_id = t.tournament_id
+                WHERE g.id IS NULL
+            """);
+             ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() && rs.getInt(1) == 0;
+        } catch (SQLException e) {
+            throw new IOException("Không đọc được fixture " + file, e);
+        } finally {
+            dbManager.close();
+        }
+    }
+
+    static DatabaseManager open(Path file) {
+        return new DatabaseManager("jdbc:sqlite:" + file, 1);
+    }
+
+    static void delete(Path file) throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(Paths.get(file + "-wal"));
+        Files.deleteIfExists(Paths.get(file + "-shm"));
+    }
+
+    static int latestTournamentId(DatabaseManager dbManager) throws SQLException {
+        PreparedStatement pstmt = dbManager.getConnection().prepareStatement("SELECT MAX(id) FROM tournaments");
+        ResultSet rs = pstmt.executeQuery();
+        int id = rs.next() ? rs.getInt(1) : 0;
+        rs.close();
+        pstmt.close();
+        return id;
+    }
+
+    /**
+     * Hai đội mới (kèm cầu thủ đã có id) trong một tournament riêng, lưu giống WorldCupAutomation.generateTeams
+     */
+    static List<Team> saveMatchTeams(DatabaseManager dbManager) throws Exception {
+        ObjectManager objectManager = ObjectManager.getInstance(dbManager);
+        List<Team> teams = DataGenerator.generateTeams(2);
+
+        Tournament tournament = new Tournament(2026, teams.get(0), "Benchmark Cup",
+                LocalDate.of(2026, 6, 11), LocalDate.of(2026, 7, 19));
+        int tournamentId = new WorldCupAutomationRepository(dbManager).saveTournament(tournament);
+
+        for (Team team : teams) {
+            team.reset();
+            team.setTournamentId(tournamentId);
+            team.setStartingPlayers(DataGenerator.generateStartingPlayers(team));
+            team.setSubstitutePlayers(DataGenerator.generateSubstitutePlayers(team));
+        }
+        objectManager.saveTeams(teams);
+
+        Map<Integer, List<Player>> playersByTeamId = new LinkedHashMap<>();
+        for (Team team : teams) {
+            for (Player player : team.getPlayers()) {
+                player.setStarting(team.getStartingPlayers().contains(player));
+            }
+            playersByTeamId.put(team.getId(), team.getPlayers());
+        }
+        objectManager.savePlayers(playersByTeamId);
+
+        return teams;
+    }
+}
@@ -0,0 +1,90 @@
+package com.worldcup.benchmark;
+
+import com.worldcup.database.DatabaseManager;
+import com.worldcup.manager.ObjectManager;
+import com.worldcup.model.Goal;
+import com.worldcup.model.Match;
+import com.worldcup.model.Player;
+import com.worldcup.model.Team;
+import com.worldcup.repository.GoalRepository;
+import com.worldcup.repository.PlayerRepository;
+import com.worldcup.repository.impl.MatchUnitOfWork;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ghi từng row qua repository: GoalRepositoryImpl.save và PlayerRepositoryImpl.updateCards
+ * trên database đã có historySize giải đấu
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int historySize;
+
+    private Path file;
+    private DatabaseManager dbManager;
+    private GoalRepository goalRepository;
+    private PlayerRepository playerRepository;
+    private Team team;
+    private Player player;
+    private Match match;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        file = BenchmarkFixtures.workingCopy(historySize);
+        dbManager = BenchmarkFixtures.open(file);
+        ObjectManager objectManager = ObjectManager.getInstance(dbManager);
+        goalRepository = objectManager.getGoalRepository();
+        playerRepository = objectManager.getPlayerRepository();
+
+        List<Team> teams = BenchmarkFixtures.saveMatchTeams(dbManager);
+        team = teams.get(0);
+        player = team.getStartingPlayers().get(0);
+
+        match = new Match(teams.get(0), teams.get(1), "Benchmark Stadium", "Benchmark Referee", false);
+        match.setMatchType("GROUP");
+        MatchUnitOfWork unitOfWork = objectManager.beginUnitOfWork();
+        unitOfWork.registerNewMatch(match, match.getVenue(), match.getReferee());
+        unitOfWork.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        dbManager.close();
+        BenchmarkFixtures.delete(file);
+    }
+
+    @Benchmark
+    public int goalSave() throws Exception {
+        Goal goal = new Goal(player, team, 45, match);
+        goalRepository.save(goal);
+        return goal.getId();
+    }
+
+    @Benchmark
+    public Player playerUpdateCards() throws Exception {
+        playerRepository.updateCards(player, team.getName(), team.getTournamentId(), "YELLOW");
+        return player;
+    }
+}
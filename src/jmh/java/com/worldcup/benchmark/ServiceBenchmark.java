@@ -0,0 +1,69 @@
+package com.worldcup.benchmark;
+
+import com.worldcup.database.DatabaseManager;
+import com.worldcup.model.Team;
+import com.worldcup.service.TeamService;
+import com.worldcup.service.TournamentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Truy vấn báo cáo của services cho giải đấu mới nhất, database có historySize giải đấu
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int historySize;
+
+    private Path file;
+    private DatabaseManager dbManager;
+    private TeamService teamService;
+    private TournamentService tournamentService;
+    private int tournamentId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        file = BenchmarkFixtures.workingCopy(historySize);
+        dbManager = BenchmarkFixtures.open(file);
+        teamService = new TeamService(dbManager);
+        tournamentService = new TournamentService(dbManager);
+        tournamentId = BenchmarkFixtures.latestTournamentId(dbManager);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        dbManager.close();
+        BenchmarkFixtures.delete(file);
+    }
+
+    @Benchmark
+    public List<Team> teamStatistics() throws Exception {
+        return teamService.getAllTeamsWithCalculatedStats(tournamentId);
+    }
+
+    @Benchmark
+    public TournamentService.TournamentStats tournamentStatistics() throws Exception {
+        return tournamentService.calculateTournamentStats(tournamentId);
+    }
+}
@@ -0,0 +1,88 @@
+package com.worldcup.benchmark;
+
+import com.worldcup.database.DatabaseManager;
+import com.worldcup.generator.DataGenerator;
+import com.worldcup.manager.ObjectManager;
+import com.worldcup.model.Match;
+import com.worldcup.model.Team;
+import com.worldcup.repository.impl.MatchUnitOfWork;
+import com.worldcup.service.MatchService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sinh dữ liệu và mô phỏng: DataGenerator.generateTeams và một trận đấu đầy đủ
+ * giống WorldCupAutomation.simulateMatch (tạo match, kết quả, sự kiện, commit unit of work)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimulationBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int historySize;
+
+    private Path file;
+    private DatabaseManager dbManager;
+    private ObjectManager objectManager;
+    private MatchService matchService;
+    private Team teamA;
+    private Team teamB;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        DataGenerator.setSeed(BenchmarkFixtures.SEED);
+        file = BenchmarkFixtures.workingCopy(historySize);
+        dbManager = BenchmarkFixtures.open(file);
+        objectManager = ObjectManager.getInstance(dbManager);
+        matchService = new MatchService(objectManager);
+
+        List<Team> teams = BenchmarkFixtures.saveMatchTeams(dbManager);
+        teamA = teams.get(0);
+        teamB = teams.get(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        dbManager.close();
+        BenchmarkFixtures.delete(file);
+    }
+
+    @Benchmark
+    public List<Team> generateTeams() {
+        return DataGenerator.generateTeams(32);
+    }
+
+    @Benchmark
+    public Match simulateMatch() throws Exception {
+        int[] score = DataGenerator.generateMatchScore();
+        String venue = DataGenerator.getRandomVenue();
+        String referee = DataGenerator.getRandomReferee();
+
+        MatchUnitOfWork unitOfWork = objectManager.beginUnitOfWork();
+        Match match = matchService.createMatch(teamA, teamB, venue, referee, false, unitOfWork);
+        match.setMatchType("GROUP");
+        matchService.updateResult(match, score[0], score[1], unitOfWork);
+        matchService.generateEvents(match, score[0], score[1], unitOfWork);
+        unitOfWork.commit();
+        return match;
+    }
+}
@@ -5,6 +5,14 @@ import com.worldcup.automation.WorldCupAutomation;
 public class Main {
     public static void main(String[] args) {
         WorldCupAutomation automation = new WorldCupAutomation();
+        // --parallel-groups: mô phỏng các bảng song song, --seed=N: cố định toàn bộ giải đấu
+        for (String arg : args) {
+            if (arg.equals("--parallel-groups")) {
+                automation.setParallelGroupStage(true);
+            } else if (arg.startsWith("--seed=")) {
+                automation.setSeed(Long.parseLong(arg.substring("--seed=".length())));
+            }
+        }
         automation.runCompleteWorldCup();
         automation.close();
     }
@@ -0,0 +1,181 @@
+package com.worldcup.automation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.worldcup.database.DatabaseManager;
+import com.worldcup.database.JdbcStatistics;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Benchmark end-to-end: chạy runCompleteWorldCup K lần với cùng seed trên một database tạm
+ * và in kết quả dạng JSON (thời gian từng phase, số câu lệnh JDBC, số commit, peak heap)
+ * để so sánh chi phí của toàn bộ pipeline giữa các phiên bản.
+ * Mỗi lần chạy xóa dữ liệu cũ nên mọi lần chạy có cùng khối lượng công việc.
+ *
+ * Cách dùng: TournamentThroughputBenchmark [số giải] [seed] [số giải warm up] [file JSON] [--parallel-groups]
+ */
+public class TournamentThroughputBenchmark {
+
+    private static final int DEFAULT_RUNS = 10;
+    private static final long DEFAULT_SEED = 20240611L;
+    private static final int DEFAULT_WARMUP_RUNS = 2;
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    public static void main(String[] args) throws Exception {
+        boolean parallelGroups = false;
+        String[] positional = new String[4];
+        int count = 0;
+        for (String arg : args) {
+            if (arg.equals("--parallel-groups")) {
+                parallelGroups = true;
+            } else if (count < positional.length) {
+                positional[count++] = arg;
+            }
+        }
+        int runs = positional[0] != null ? Integer.parseInt(positional[0]) : DEFAULT_RUNS;
+        long seed = positional[1] != null ? Long.parseLong(positional[1]) : DEFAULT_SEED;
+        int warmupRuns = positional[2] != null ? Integer.parseInt(positional[2]) : DEFAULT_WARMUP_RUNS;
+        Path output = positional[3] != null ? Paths.get(positional[3]) : null;
+
+        ObjectNode report = run(runs, seed, warmupRuns, parallelGroups);
+        String json = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValueAsString(report);
+        if (output != null) {
+            Files.writeString(output, json);
+        }
+        System.out.println(json);
+    }
+
+    public static ObjectNode run(int runs, long seed, int warmupRuns, boolean parallelGroups) throws Exception {
+        if (runs < 1) {
+            throw new IllegalArgumentException("Số giải phải lớn hơn 0.");
+        }
+
+        Path file = Files.createTempFile("worldcup-throughput-", ".db");
+        JdbcStatistics statistics = new JdbcStatistics();
+        DatabaseManager dbManager = new DatabaseManager("jdbc:sqlite:" + file, 1, statistics);
+
+        // Output của mô phỏng rất dài, chỉ giữ lại JSON
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode report = mapper.createObjectNode();
+        try {
+            for (int i = 0; i < warmupRuns; i++) {
+                runOnce(dbManager, seed, parallelGroups);
+            }
+
+            resetPeakHeap();
+            Map<String, Long> phaseTotals = new LinkedHashMap<>();
+            ArrayNode runReports = mapper.createArrayNode();
+            long totalNanos = 0;
+            long totalStatements = 0;
+            long totalBatchedRows = 0;
+            long totalCommits = 0;
+
+            for (int i = 0; i < runs; i++) {
+                statistics.reset();
+                long start = System.nanoTime();
+                Map<String, Long> phases = runOnce(dbManager, seed, parallelGroups);
+                long wall = System.nanoTime() - start;
+
+                ObjectNode runReport = runReports.addObject();
+                runReport.put("wallMs", wall / NANOS_PER_MILLI);
+                ObjectNode phaseReport = runReport.putObject("phasesMs");
+                for (Map.Entry<String, Long> phase : phases.entrySet()) {
+                    phaseReport.put(phase.getKey(), phase.getValue() / NANOS_PER_MILLI);
+                    phaseTotals.merge(phase.getKey(), phase.getValue(), Long::sum);
+                }
+                runReport.put("statements", statistics.getStatements());
+                runReport.put("batchedRows", statistics.getBatchedRows());
+                runReport.put("commits", statistics.getCommits());
+
+                totalNanos += wall;
+                totalStatements += statistics.getStatements();
+                totalBatchedRows += statistics.getBatchedRows();
+                totalCommits += statistics.getCommits();
+            }
+
+            report.put("runs", runs);
+            report.put("warmupRuns", warmupRuns);
+            report.put("seed", seed);
+            report.put("parallelGroups", parallelGroups);
+            report.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+            report.put("javaVersion", System.getProperty("java.version"));
+            report.put("totalSeconds", totalNanos / 1e9);
+            report.put("tournamentsPerSecond", runs / (totalNanos / 1e9));
+            report.put("meanWallMs", totalNanos / NANOS_PER_MILLI / runs);
+
+            ObjectNode meanPhases = report.putObject("meanPhasesMs");
+            for (Map.Entry<String, Long> phase : phaseTotals.entrySet()) {
+                meanPhases.put(phase.getKey(), phase.getValue() / NANOS_PER_MILLI / runs);
+            }
+
+            ObjectNode jdbc = report.putObject("jdbc");
+            jdbc.put("statements", totalStatements);
+            jdbc.put("batchedRows", totalBatchedRows);
+            jdbc.put("commits", totalCommits);
+            jdbc.put("statementsPerTournament", (double) totalStatements / runs);
+            jdbc.put("commitsPerTournament", (double) totalCommits / runs);
+
+            report.put("peakHeapBytes", peakHeapBytes());
+            report.set("perRun", runReports);
+        } finally {
+            System.setOut(out);
+            dbManager.close();
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(Paths.get(file + "-wal"));
+            Files.deleteIfExists(Paths.get(file + "-shm"));
+        }
+        return report;
+    }
+
+    /**
+     * Một giải đấu đầy đủ, ném exception nếu mô phỏng không chạy tới phase cuối
+     */
+    private static Map<String, Long> runOnce(DatabaseManager dbManager, long seed, boolean parallelGroups) {
+        WorldCupAutomation automation = new WorldCupAutomation(dbManager);
+        automation.setSeed(seed);
+        automation.setParallelGroupStage(parallelGroups);
+        automation.runCompleteWorldCup();
+
+        Map<String, Long> phases = automation.getPhaseNanos();
+        if (!phases.containsKey("statistics")) {
+            throw new IllegalStateException("Mô phỏng World Cup bị lỗi, xem log phía trên.");
+        }
+        return new LinkedHashMap<>(phases);
+    }
+
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    /**
+     * Tổng peak của các heap pool kể từ lần reset (cận trên của peak heap thực tế)
+     */
+    private static long peakHeapBytes() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+}
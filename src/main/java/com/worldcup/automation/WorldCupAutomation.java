@@ -3,9 +3,12 @@ package com.worldcup.automation;
 
 import com.worldcup.database.DatabaseManager;
 import com.worldcup.generator.DataGenerator;
+import com.worldcup.generator.RandomSource;
 import com.worldcup.manager.ObjectManager;
 import com.worldcup.model.*;
 import com.worldcup.repository.WorldCupAutomationRepository;
+import com.worldcup.repository.impl.MatchUnitOfWork;
+import com.worldcup.repository.memory.InMemoryWorldCupAutomationRepository;
 import com.worldcup.service.MatchService;
 import com.worldcup.service.PlayerService;
 import com.worldcup.service.TeamService;
@@ -16,8 +19,16 @@ import java.text.SimpleDateFormat;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 public class WorldCupAutomation {
@@ -35,17 +46,39 @@ public class WorldCupAutomation {
     private Tournament tournament;
     private List<Group> groups;
     private KnockoutStageManager knockoutManager;
-    private Random random = new Random();
+    private StandingsTable standingsTable;
+    private DisciplineEngine disciplineEngine;
+    private RandomSource randomSource = RandomSource.unseeded();
+    private boolean parallelGroupStage = false;
+    private boolean clearOldData = true;
+    private final Map<String, Long> phaseNanos = new LinkedHashMap<>();
+    // Đội hình (id cầu thủ đá chính) đã ghi xuống database của từng team, chỉ writer thread cập nhật
+    private final Map<Integer, Set<Integer>> persistedLineups = new ConcurrentHashMap<>();
 
+    /**
+     * Backend memory không ghi store xuống SQLite thì không mở database
+     */
     public WorldCupAutomation() {
-        this.dbManager = new DatabaseManager();
+        this(ObjectManager.isMemoryBackendSelected() && !Boolean.getBoolean(ObjectManager.FLUSH_PROPERTY)
+                ? null : new DatabaseManager());
+    }
+
+    /**
+     * dbManager chỉ được null với backend memory
+     */
+    public WorldCupAutomation(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
         this.objectManager = ObjectManager.getInstance(dbManager);
-        this.repository = new WorldCupAutomationRepository(dbManager); // NEW: Initialize repository
+        // NEW: Initialize repository
+        this.repository = objectManager.isInMemory()
+                ? new InMemoryWorldCupAutomationRepository(objectManager.getMemoryStore())
+                : new WorldCupAutomationRepository(dbManager);
         // DataGenerator uses static methods only
 
         this.teamService = new TeamService(dbManager);
-        this.tournamentService = new TournamentService(dbManager);
-        this.playerService = new PlayerService(dbManager);
+        this.tournamentService = new TournamentService(dbManager, objectManager.getScorerLeaderboard(),
+                objectManager.getMemoryStore());
+        this.playerService = new PlayerService(dbManager, objectManager.getScorerLeaderboard());
         this.matchService = new MatchService(objectManager);
 
         this.teams = new ArrayList<>();
@@ -54,25 +87,72 @@ public class WorldCupAutomation {
         this.knockoutManager = new KnockoutStageManager();
     }
 
+    /**
+     * Mô phỏng các bảng đấu song song, kết quả giống chế độ tuần tự với cùng seed
+     */
+    public void setParallelGroupStage(boolean parallelGroupStage) {
+        this.parallelGroupStage = parallelGroupStage;
+    }
+
+    /**
+     * Seed cho toàn bộ giải đấu: cùng seed cho cùng đội bóng, bốc thăm và kết quả
+     */
+    public void setSeed(long seed) {
+        this.randomSource = RandomSource.seeded(seed);
+    }
+
+    public void setRandomSource(RandomSource randomSource) {
+        this.randomSource = randomSource;
+    }
+
+    /**
+     * false để giữ lại các giải đấu trước trong database (dùng khi tạo dữ liệu lịch sử)
+     */
+    public void setClearOldData(boolean clearOldData) {
+        this.clearOldData = clearOldData;
+    }
+
     public void runCompleteWorldCup() {
+        // Mọi lời gọi DataGenerator trên thread này dùng nguồn random của giải đấu
+        RandomSource previous = DataGenerator.bindRandom(randomSource);
         try {
+            phaseNanos.clear();
+            long start = System.nanoTime();
+
             // Bước 0: Xóa dữ liệu cũ
-            clearOldData();
-            
+            if (clearOldData) {
+                clearOldData();
+            }
+            start = recordPhase("clearOldData", start);
+
             // Bước 1: Tạo các đội bóng
             generateTeams();
+            start = recordPhase("generateTeams", start);
 
             // Bước 2: Tạo bảng đấu và phân chia đội
             createGroupsAndAssignTeams();
+            start = recordPhase("createGroups", start);
 
-            // Bước 3: Chạy vòng bảng
-            runGroupStage();
+            // Bước 3: Chạy vòng bảng, update team / player được gom và ghi một lần cuối vòng
+            objectManager.beginPhase();
+            try {
+                runGroupStage();
+            } finally {
+                objectManager.endPhase();
+            }
+            start = recordPhase("runGroupStage", start);
 
             // Bước 4: Xác định đội nhất và nhì bảng
             List<Team> qualifiedTeams = determineQualifiedTeams();
 
             // Bước 5: Chạy vòng loại trực tiếp
-            runKnockoutStage(qualifiedTeams);
+            objectManager.beginPhase();
+            try {
+                runKnockoutStage(qualifiedTeams);
+            } finally {
+                objectManager.endPhase();
+            }
+            start = recordPhase("runKnockoutStage", start);
 
             // Bước 6: Tạo thống kê cuối giải
             generateTournamentStatistics();
@@ -88,17 +168,37 @@ public class WorldCupAutomation {
             
             // Bước 10: Tính toán lại tournament stats lần cuối
             recalculateCurrentTournamentStats();
+            recordPhase("statistics", start);
             
         } catch (Exception e) {
             System.err.println("❌ Lỗi trong quá trình mô phỏng World Cup: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            DataGenerator.bindRandom(previous);
         }
     }
 
+    /**
+     * Cộng thời gian từ start vào phase, trả về mốc bắt đầu cho phase tiếp theo
+     */
+    private long recordPhase(String phase, long start) {
+        long now = System.nanoTime();
+        phaseNanos.merge(phase, now - start, Long::sum);
+        return now;
+    }
+
+    /**
+     * Thời gian (nano giây) của từng phase trong lần runCompleteWorldCup gần nhất, theo thứ tự chạy
+     */
+    public Map<String, Long> getPhaseNanos() {
+        return Collections.unmodifiableMap(phaseNanos);
+    }
+
     /**
      * Chạy chỉ vòng bảng và in kết quả
      */
     public void runGroupStageOnly() {
+        RandomSource previous = DataGenerator.bindRandom(randomSource);
         try {
             // Bước 1: Tạo các đội bóng
             generateTeams();
@@ -107,7 +207,12 @@ public class WorldCupAutomation {
             createGroupsAndAssignTeams();
 
             // Bước 3: Chạy vòng bảng
-            runGroupStage();
+            objectManager.beginPhase();
+            try {
+                runGroupStage();
+            } finally {
+                objectManager.endPhase();
+            }
 
             // Bước 4: In kết quả vòng bảng
             printGroupStageResults();
@@ -115,6 +220,8 @@ public class WorldCupAutomation {
         } catch (Exception e) {
             System.err.println("❌ Lỗi trong quá trình mô phỏng vòng bảng: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            DataGenerator.bindRandom(previous);
         }
     }
 
@@ -131,6 +238,7 @@ public class WorldCupAutomation {
                 tournament = new Tournament(randomYear, team, name, randomDates[0], randomDates[1]);
                 int id = repository.saveTournament(tournament);
                 tournament.setId(id);
+                objectManager.getScorerLeaderboard().startTournament(id);
             }
 
             team.reset();
@@ -138,35 +246,35 @@ public class WorldCupAutomation {
             // Set starting players và substitute players ngay khi tạo team
             team.setStartingPlayers(DataGenerator.generateStartingPlayers(team));
             team.setSubstitutePlayers(DataGenerator.generateSubstitutePlayers(team));
-            
-            saveTeam(team);
-            savePlayer(team);
         }
+
+        saveTeams(teams);
+        savePlayers(teams);
         tournament.setTeamList(teams);
 
         return teams;
     }
 
-    private void saveTeam(Team team) throws Exception {
-        team.setTournamentId(tournament.getId());
-        objectManager.saveTeam(team);
+    private void saveTeams(List<Team> teams) throws Exception {
+        for (Team team : teams) {
+            team.setTournamentId(tournament.getId());
+        }
+        objectManager.saveTeams(teams);
     }
 
-    private void savePlayer(Team team) throws Exception {
-        for (Player player : team.getPlayers()) {
-            try {
+    private void savePlayers(List<Team> teams) throws Exception {
+        Map<Integer, List<Player>> playersByTeamId = new LinkedHashMap<>();
+        for (Team team : teams) {
+            for (Player player : team.getPlayers()) {
                 // Kiểm tra xem player có trong starting lineup không
-                boolean isStarting = team.getStartingPlayers().contains(player);
-                objectManager.savePlayer(player, team.getId(), isStarting);
-            } catch (SQLException e) {
-                if (e.getMessage().contains("UNIQUE constraint failed")) {
-                    
-                    // Skip this player and continue
-                    continue;
-                } else {
-                    throw e; // Re-throw other SQL exceptions
-                }
+                player.setStarting(team.getStartingPlayers().contains(player));
             }
+            playersByTeamId.put(team.getId(), team.getPlayers());
+        }
+        // Players trùng số áo với đội hình đã lưu bị bỏ qua
+        objectManager.savePlayers(playersByTeamId);
+        for (Team team : teams) {
+            persistedLineups.put(team.getId(), startingPlayerIds(team));
         }
     }
 
@@ -181,31 +289,113 @@ public class WorldCupAutomation {
         }
 
         // đảo vị trí của team
-        Collections.shuffle(teams);
+        randomSource.shuffle(teams);
         for (int i = 0; i < teams.size(); i++) {
             int groupIndex = i / 4; // 4 đội mỗi bảng
-            int groupId = groupIndex + 1; // ID bảng bắt đầu từ 1
             Team team = teams.get(i);
             Group group = groups.get(groupIndex);
+            // Id do database cấp khi lưu group, không bắt đầu từ 1 khi database đã có tournament trước
+            int groupId = group.getId();
 
             // Cập nhật đội với bảng được phân - sử dụng team ID thay vì name để đảm bảo chính xác
             repository.updateTeamGroup(team.getId(), groupId);
 
-            // Cập nhật group ID trong team object
+            // Cập nhật group ID trong team object, cột group_id vừa được ghi nên team không còn thay đổi
             team.setGroupId(groupId);
+            team.markPersisted();
             // Thêm đội vào đối tượng bảng
             group.addTeam(team);
         }
 
         tournament.setGroupList(groups);
+
+        // Bảng xếp hạng được cập nhật theo từng kết quả vòng bảng thông qua MatchService
+        standingsTable = new StandingsTable(groups);
+        matchService.setStandingsTable(standingsTable);
+
+        // Án treo giò theo thẻ phạt được giữ suốt tournament, trước mỗi trận đội hình loại cầu thủ bị treo giò
+        disciplineEngine = new DisciplineEngine();
+        matchService.setDisciplineEngine(disciplineEngine);
     }
 
+    /**
+     * Chạy vòng bảng. Các bảng độc lập với nhau cho tới determineQualifiedTeams nên mỗi bảng
+     * được mô phỏng với một nhánh split riêng của nguồn random giải đấu: chế độ song song cho kết quả
+     * giống hệt chế độ tuần tự. Mọi thao tác ghi database đi qua một writer thread duy nhất
+     * và được commit theo thứ tự bảng, output của mỗi bảng được in sau khi bảng đó commit.
+     */
     private void runGroupStage() throws Exception {
-        for (int groupIndex = 0; groupIndex < groups.size(); groupIndex++) {
-            Group group = groups.get(groupIndex);
+        // Split theo thứ tự bảng trên thread hiện tại nên không phụ thuộc thứ tự chạy của các thread
+        RandomSource[] groupRandoms = new RandomSource[groups.size()];
+        for (int i = 0; i < groupRandoms.length; i++) {
+            groupRandoms[i] = randomSource.split();
+        }
+
+        // Id của mọi player được gán trước khi fork, simulator threads chỉ tra identity map
+        for (Group group : groups) {
+            for (Team team : group.getTeams()) {
+                objectManager.resolvePlayerIds(team);
+            }
+        }
+
+        if (!parallelGroupStage) {
+            for (int i = 0; i < groups.size(); i++) {
+                simulateGroup(groups.get(i), groupRandoms[i]).commit();
+            }
+            return;
+        }
+
+        int threads = Math.min(groups.size(), Runtime.getRuntime().availableProcessors());
+        ExecutorService simulators = Executors.newFixedThreadPool(Math.max(1, threads));
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+        try {
+            CompletableFuture<Void> writes = CompletableFuture.completedFuture(null);
+            for (int i = 0; i < groups.size(); i++) {
+                Group group = groups.get(i);
+                RandomSource groupRandom = groupRandoms[i];
+                CompletableFuture<GroupStageResult> simulated = CompletableFuture.supplyAsync(() -> {
+                    ObjectManager.setSimulatorThread(true);
+                    try {
+                        return simulateGroup(group, groupRandom);
+                    } catch (Exception e) {
+                        throw new CompletionException(e);
+                    } finally {
+                        ObjectManager.setSimulatorThread(false);
+                    }
+                }, simulators);
+
+                // Bảng sau chỉ được ghi khi bảng trước đã ghi xong để id trong database giống chế độ tuần tự
+                writes = writes.thenCombineAsync(simulated, (ignored, result) -> {
+                    try {
+                        result.commit();
+                    } catch (Exception e) {
+                        throw new CompletionException(e);
+                    }
+                    return null;
+                }, writer);
+            }
+            writes.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        } finally {
+            simulators.shutdown();
+            writer.shutdown();
+        }
+    }
+
+    /**
+     * Mô phỏng 6 trận của một bảng chỉ trong bộ nhớ, các thao tác ghi được gom lại trong kết quả
+     */
+    private GroupStageResult simulateGroup(Group group, RandomSource groupRandom) throws Exception {
+        RandomSource previous = DataGenerator.bindRandom(groupRandom);
+        try {
+            GroupStageResult result = new GroupStageResult();
             List<Team> groupTeams = group.getTeams();
 
-            System.out.println("Các trận đấu Bảng " + group.getName() + ":");
+            result.output.append("Các trận đấu Bảng ").append(group.getName()).append(":\n");
 
             // Tạo tất cả các trận đấu có thể trong bảng (tổng 6 trận)
             for (int i = 0; i < groupTeams.size(); i++) {
@@ -214,16 +404,21 @@ public class WorldCupAutomation {
                     Team teamB = groupTeams.get(j);
 
                     // Cập nhật is_starting status cho trận đấu này
-                    updatePlayersStartingStatus(teamA);
-                    updatePlayersStartingStatus(teamB);
+                    benchSuspendedPlayers(teamA);
+                    benchSuspendedPlayers(teamB);
+                    result.writes.add(startingStatusWrite(teamA));
+                    result.writes.add(startingStatusWrite(teamB));
 
-                    simulateMatch(teamA, teamB, "GROUP");
+                    simulateMatch(teamA, teamB, "GROUP", result);
                 }
             }
+            return result;
+        } finally {
+            DataGenerator.bindRandom(previous);
         }
     }
 
-    private void simulateMatch(Team teamA, Team teamB, String matchType) throws Exception {
+    private void simulateMatch(Team teamA, Team teamB, String matchType, GroupStageResult result) throws Exception {
         // Generate match score
         int[] score = DataGenerator.generateMatchScore();
         int teamAScore = score[0];
@@ -233,29 +428,46 @@ public class WorldCupAutomation {
         String referee = DataGenerator.getRandomReferee();
         boolean isKnockout = !matchType.equals("GROUP");
 
-        Match match = matchService.createMatch(teamA, teamB, venue, referee, isKnockout);
+        // Toàn bộ trận đấu được ghi trong một transaction
+        MatchUnitOfWork unitOfWork = objectManager.beginUnitOfWork();
+        Match match = matchService.createMatch(teamA, teamB, venue, referee, isKnockout, unitOfWork);
         
         // Cập nhật match_type đúng format
         match.setMatchType(matchType);
         
-        matchService.updateResult(match, teamAScore, teamBScore);
-        matchService.generateEvents(match, teamAScore, teamBScore);
+        matchService.updateResult(match, teamAScore, teamBScore, unitOfWork);
+        matchService.generateEvents(match, teamAScore, teamBScore, unitOfWork);
+        result.writes.add(unitOfWork::commit);
 
-        System.out.println("  ⚽ " + teamA.getName() + " " + teamAScore + " - " + teamBScore + " " + teamB.getName());
+        result.output.append("  ⚽ ").append(teamA.getName()).append(" ").append(teamAScore)
+                .append(" - ").append(teamBScore).append(" ").append(teamB.getName()).append("\n");
     }
 
+    /**
+     * Một thao tác ghi database được hoãn lại cho writer thread
+     */
+    @FunctionalInterface
+    private interface DatabaseWrite {
+        void execute() throws Exception;
+    }
 
     /**
-     * Lưu Match vào database
+     * Kết quả mô phỏng một bảng: các thao tác ghi theo đúng thứ tự và output chờ in
      */
-    private int saveMatchToDatabase(Match match) throws SQLException {
-        int matchId = repository.saveMatch(match, tournament.getId());
-        match.setId(matchId);
-        return matchId;
+    private static class GroupStageResult {
+        final List<DatabaseWrite> writes = new ArrayList<>();
+        final StringBuilder output = new StringBuilder();
+
+        void commit() throws Exception {
+            for (DatabaseWrite write : writes) {
+                write.execute();
+            }
+            System.out.print(output);
+        }
     }
 
 
-    private void generateMatchEvents(Match match) throws Exception {
+    private void generateMatchEvents(Match match, MatchUnitOfWork unitOfWork) throws Exception {
         Team teamA = match.getTeamA();
         Team teamB = match.getTeamB();
 
@@ -263,15 +475,15 @@ public class WorldCupAutomation {
         int teamBScore = match.getGoalsTeamB();
 
         // Tạo bàn thắng cho đội A
-        generateGoalsForTeam(match, teamA, teamAScore);
+        generateGoalsForTeam(match, teamA, teamAScore, unitOfWork);
 
         // Tạo bàn thắng cho đội B
-        generateGoalsForTeam(match, teamB, teamBScore);
+        generateGoalsForTeam(match, teamB, teamBScore, unitOfWork);
 
         // Tạo thẻ cho đội A
-        generateCards(match, teamA);
+        generateCards(match, teamA, unitOfWork);
         // Tạo thẻ cho đội B
-        generateCards(match, teamB);
+        generateCards(match, teamB, unitOfWork);
 
         // thay người cho đội A
         // thay người cho đội B
@@ -280,7 +492,7 @@ public class WorldCupAutomation {
     /**
      * Tạo bàn thắng
      */
-    private void generateGoalsForTeam(Match match, Team team, int goalCount) throws Exception {
+    private void generateGoalsForTeam(Match match, Team team, int goalCount, MatchUnitOfWork unitOfWork) throws Exception {
         for (int i = 0; i < goalCount; i++) {
             // Chọn cầu thủ ngẫu nhiên từ đội hình xuất phát
             List<Player> startingPlayers = team.getStartingPlayers();
@@ -288,8 +500,8 @@ public class WorldCupAutomation {
                 Player scorer = DataGenerator.getRandomElement(startingPlayers);
                 int minute = DataGenerator.generateRandomMinute();
 
-                // Tạo Goal object và lưu vào database sử dụng ObjectManager
-                Goal goal = objectManager.createGoal(scorer, team, minute, match);
+                // Tạo Goal object, được lưu khi unit of work commit
+                Goal goal = objectManager.createGoal(scorer, team, minute, match, unitOfWork);
 
                 // Thêm goal vào match object
                 match.addGoal(goal);
@@ -301,7 +513,7 @@ public class WorldCupAutomation {
     /**
      * Tạo thẻ phạt
      */
-    private void generateCards(Match match, Team team) throws Exception {
+    private void generateCards(Match match, Team team, MatchUnitOfWork unitOfWork) throws Exception {
         // Lấy tất cả cầu thủ của đội (chỉ đá chính)
         List<Player> startingPlayers = new ArrayList<>(team.getStartingPlayers());
 
@@ -311,13 +523,12 @@ public class WorldCupAutomation {
             if (player != null) {
                 int minute = DataGenerator.generateRandomMinute();
 
-                // Tạo Card object và lưu vào database sử dụng ObjectManager
-                Card yellowCard = objectManager.createCard(player, team, match, minute, Card.CardType.YELLOW);
+                // Tạo Card object, được lưu khi unit of work commit
+                Card yellowCard = objectManager.createCard(player, team, match, minute, Card.CardType.YELLOW, unitOfWork);
 
                 // Thêm card vào match object
                 match.addCard(player, team, "YELLOW");
-
-
+                disciplineEngine.applyCard(yellowCard);
             }
         }
 
@@ -327,13 +538,12 @@ public class WorldCupAutomation {
             if (player != null) {
                 int minute = DataGenerator.generateRandomMinute();
 
-                // Tạo Card object và lưu vào database sử dụng ObjectManager
-                Card redCard = objectManager.createCard(player, team, match, minute, Card.CardType.RED);
+                // Tạo Card object, được lưu khi unit of work commit
+                Card redCard = objectManager.createCard(player, team, match, minute, Card.CardType.RED, unitOfWork);
 
                 // Thêm card vào match object
                 match.addCard(player, team, "RED");
-
-
+                disciplineEngine.applyCard(redCard);
             }
         }
     }
@@ -353,8 +563,8 @@ public class WorldCupAutomation {
                 "Tên đội", "W", "D", "L", "GF", "GA", "GD", "Pts");
             System.out.println("-".repeat(70));
             
-            // Sắp xếp các đội theo điểm số và hiệu số bàn thắng
-            List<Team> sortedTeams = teamService.sortTeamsByStanding(group.getTeams());
+            // Bảng xếp hạng đã được duy trì đúng thứ tự theo từng kết quả
+            List<Team> sortedTeams = standingsTable.getStandings(group);
             
             int position = 1;
             for (Team team : sortedTeams) {
@@ -402,9 +612,9 @@ public class WorldCupAutomation {
         List<Team> secondPlaceTeams = new ArrayList<>();
 
         for (Group group : groups) {
-            List<Team> groupTeams = teamService.sortTeamsByStanding(group.getTeams());
-            firstPlaceTeams.add(groupTeams.get(0)); // Nhất bảng
-            secondPlaceTeams.add(groupTeams.get(1)); // Nhì bảng
+            List<Team> topTwo = standingsTable.getTopTwo(group);
+            firstPlaceTeams.add(topTwo.get(0)); // Nhất bảng
+            secondPlaceTeams.add(topTwo.get(1)); // Nhì bảng
         }
 
         // Tạo danh sách đội vượt qua với ghép đôi vòng 16 đội phù hợp
@@ -445,71 +655,93 @@ public class WorldCupAutomation {
 
 
     private void runKnockoutStage(List<Team> qualifiedTeams) throws Exception {
-        // Vòng 16 đội
-        List<Team> quarterFinalists = runKnockoutRound(qualifiedTeams, "ROUND_16");
-
-        // Cập nhật KnockoutStageManager với kết quả vòng 16
-        List<String> quarterFinalistNames = quarterFinalists.stream().map(Team::getName).collect(Collectors.toList());
-        knockoutManager.setRoundOf16Winners(quarterFinalistNames);
-
-        // Tứ kết
-        List<Team> semiFinalists = runKnockoutRound(quarterFinalists, "QUARTER");
-
-        // Cập nhật KnockoutStageManager với kết quả tứ kết
-        List<String> semiFinalistNames = semiFinalists.stream().map(Team::getName).collect(Collectors.toList());
-        knockoutManager.setQuarterFinalWinners(semiFinalistNames);
-
-        // Bán kết
-        List<Team> finalists = runKnockoutRound(semiFinalists, "SEMI_FINAL");
-
-        // Xác định 2 đội thua bán kết (đồng hạng 3 theo quy định FIFA mới)
-        List<Team> thirdPlaceTeams = getThirdPlaceTeams(semiFinalists, finalists);
-
-        // Cập nhật KnockoutStageManager với kết quả bán kết
-        List<String> finalistNames = finalists.stream().map(Team::getName).collect(Collectors.toList());
-        List<String> thirdPlaceNames = thirdPlaceTeams.stream().map(Team::getName).collect(Collectors.toList());
-        knockoutManager.setSemiFinalWinners(finalistNames, thirdPlaceNames);
-
-        // Chung kết
-        if (finalists.size() == 2) {
-            System.out.println("Trận chung kết:");
-            Team champion = runKnockoutMatch(finalists.get(0), finalists.get(1), "FINAL");
-            tournament.setChampion(champion);
-
-            // Cập nhật KnockoutStageManager với kết quả chung kết
-            Team runnerUp = finalists.stream().filter(t -> !t.equals(champion)).findFirst().orElse(null);
-            knockoutManager.setFinalResult(champion.getName(), runnerUp != null ? runnerUp.getName() : null);
-            tournament.setRunnerUp(runnerUp);
+        if (qualifiedTeams.size() < 2) {
+            tournament.setThirdPlace(new ArrayList<>());
+            return;
+        }
 
-            // Cập nhật giải đấu với kết quả cuối cùng
-            updateTournamentResults(champion, finalists, thirdPlaceTeams);
+        // Số vòng và tên vòng suy ra từ số đội của nhánh đấu (16 đội: ROUND_16, QUARTER, SEMI_FINAL, FINAL)
+        KnockoutBracket bracket = knockoutManager.createBracket(qualifiedTeams);
+        List<Team> thirdPlaceTeams = new ArrayList<>();
+        for (int round = 0; round < bracket.getRoundCount(); round++) {
+            runKnockoutRound(bracket, round);
+
+            // Cập nhật KnockoutStageManager với kết quả của vòng
+            switch (bracket.getRoundName(round)) {
+                case "ROUND_16":
+                    knockoutManager.setRoundOf16Winners(teamNames(knockoutManager.getRoundTeams(round + 1)));
+                    break;
+                case "QUARTER":
+                    // Thẻ vàng tích lũy được xóa sau tứ kết, án treo giò đang có vẫn phải chấp hành
+                    disciplineEngine.resetYellowCards();
+                    knockoutManager.setQuarterFinalWinners(teamNames(knockoutManager.getRoundTeams(round + 1)));
+                    break;
+                case "SEMI_FINAL":
+                    // 2 đội thua bán kết đồng hạng 3 theo quy định FIFA mới
+                    for (int i = 0; i < bracket.getMatchCount(round); i++) {
+                        thirdPlaceTeams.add(knockoutManager.getBracketTeam(bracket.getLoser(bracket.getMatch(round, i))));
+                    }
+                    knockoutManager.setSemiFinalWinners(teamNames(knockoutManager.getRoundTeams(round + 1)),
+                            teamNames(thirdPlaceTeams));
+                    break;
+                case "FINAL":
+                    Team champion = knockoutManager.getBracketTeam(bracket.getChampion());
+                    Team runnerUp = knockoutManager.getBracketTeam(bracket.getRunnerUp());
+                    tournament.setChampion(champion);
+                    knockoutManager.setFinalResult(champion.getName(), runnerUp.getName());
+                    tournament.setRunnerUp(runnerUp);
+
+                    // Cập nhật giải đấu với kết quả cuối cùng
+                    updateTournamentResults(champion, knockoutManager.getRoundTeams(round), thirdPlaceTeams);
+                    break;
+                default:
+                    break;
+            }
         }
         tournament.setThirdPlace(thirdPlaceTeams);
     }
 
-    private List<Team> runKnockoutRound(List<Team> teams, String roundType) throws Exception {
-        System.out.println("Các trận đấu " + roundType + ":");
-
-        List<Team> winners = new ArrayList<>();
+    /**
+     * Đá các trận của một vòng theo thứ tự nhánh đấu, trận có BYE đã được cho đi tiếp từ trước
+     */
+    private void runKnockoutRound(KnockoutBracket bracket, int round) throws Exception {
+        String roundType = bracket.getRoundName(round);
+        if (round == bracket.getRoundCount() - 1) {
+            System.out.println("Trận chung kết:");
+        } else {
+            System.out.println("Các trận đấu " + roundType + ":");
+        }
 
-        for (int i = 0; i < teams.size(); i += 2) {
-            if (i + 1 < teams.size()) {
-                Team winner = runKnockoutMatch(teams.get(i), teams.get(i + 1), roundType);
-                winners.add(winner);
+        for (int i = 0; i < bracket.getMatchCount(round); i++) {
+            int match = bracket.getMatch(round, i);
+            if (bracket.isPlayable(match)) {
+                Team winner = runKnockoutMatch(knockoutManager.getBracketTeam(bracket.getTeamA(match)),
+                        knockoutManager.getBracketTeam(bracket.getTeamB(match)), roundType);
+                knockoutManager.recordWinner(match, winner);
             }
         }
+    }
 
-        return winners;
+    private static List<String> teamNames(List<Team> teams) {
+        return teams.stream().map(Team::getName).collect(Collectors.toList());
     }
 
     private Team runKnockoutMatch(Team teamA, Team teamB, String matchType) throws Exception {
         // Cập nhật is_starting cho cả hai đội trước khi thi đấu
+        benchSuspendedPlayers(teamA);
+        benchSuspendedPlayers(teamB);
         updatePlayersStartingStatus(teamA);
         updatePlayersStartingStatus(teamB);
         
         String venue = DataGenerator.getRandomVenue();
         String referee = DataGenerator.getRandomReferee();
         Match match = new Match(teamA, teamB, venue, referee, true);
+        disciplineEngine.startMatch(match);
+
+        // Lưu Match object và các sự kiện trận đấu trong một transaction.
+        // Đăng ký trước khi cập nhật thống kê để rollback trả hai đội về giá trị cũ.
+        MatchUnitOfWork unitOfWork = objectManager.beginUnitOfWork();
+        unitOfWork.registerNewMatch(match, venue, referee);
         
         // Cập nhật match_type đúng format
         match.setMatchType(matchType);
@@ -521,7 +753,7 @@ public class WorldCupAutomation {
         // Trong vòng loại trực tiếp, cần có người thắng - mô phỏng hiệp phụ/penalty nếu cần
         if (teamAScore == teamBScore) {
             // Mô phỏng loạt sút penalty
-            teamAScore += random.nextBoolean() ? 1 : 0;
+            teamAScore += randomSource.nextBoolean() ? 1 : 0;
             teamBScore += (teamAScore > teamBScore) ? 0 : 1;
         }
 
@@ -537,33 +769,18 @@ public class WorldCupAutomation {
 
         // Format date as yyyy/mm/dd
         SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy/MM/dd");
-        String matchDate = dateFormat.format(new java.util.Date(System.currentTimeMillis() + random.nextInt(1000000000)));
+        String matchDate = dateFormat.format(new java.util.Date(System.currentTimeMillis() + randomSource.nextInt(1000000000)));
 
         match.setMatchDate(matchDate);
 
-        // Lưu Match object vào database
-        int matchId = saveMatchToDatabase(match);
-        match.setId(matchId);
-        // Tạo các sự kiện trận đấu
-        generateMatchEvents(match);
+        generateMatchEvents(match, unitOfWork);
+        unitOfWork.commit();
 
         System.out.println("  " + teamA.getName() + " " + teamAScore + " - " + teamBScore + " " + teamB.getName());
 
         return winner;
     }
 
-    private List<Team> getThirdPlaceTeams(List<Team> semiFinalists, List<Team> finalists) {
-        List<Team> thirdPlaceTeams = new ArrayList<>();
-
-        for (Team team : semiFinalists) {
-            if (!finalists.contains(team)) {
-                thirdPlaceTeams.add(team);
-            }
-        }
-
-        return thirdPlaceTeams;
-    }
-
     private void updateTournamentResults(Team champion, List<Team> finalists, List<Team> thirdPlaceTeams) throws SQLException {
         Team runnerUp = finalists.stream().filter(t -> !t.equals(champion)).findFirst().orElse(null);
 
@@ -600,10 +817,10 @@ public class WorldCupAutomation {
 
 
     /**
-     * Lấy team ID từ tên team
+     * Lấy team ID từ tên team, qua identity map của ObjectManager
      */
     private Integer getTeamId(String teamName) throws SQLException {
-        return repository.getTeamIdByName(teamName, tournament.getId());
+        return objectManager.getTeamId(teamName, tournament.getId()).orElse(null);
     }
 
     /**
@@ -699,15 +916,55 @@ public class WorldCupAutomation {
      * Cập nhật trạng thái is_starting cho các cầu thủ trong danh sách starting
      */
     private void updatePlayersStartingStatus(Team team) throws Exception {
-        // Reset tất cả players của team về is_starting = false
-        for (Player player : team.getPlayers()) {
-            objectManager.getPlayerRepository().updateStartingStatus(player.getId(), false);
+        startingStatusWrite(team).execute();
+    }
+
+    /**
+     * Chụp lại đội hình hiện tại, thao tác ghi không bị ảnh hưởng bởi các lần thay người sau đó.
+     * Cả đội hình được ghi bằng một câu UPDATE và bỏ qua nếu không đổi so với lần ghi trước.
+     */
+    private DatabaseWrite startingStatusWrite(Team team) {
+        int teamId = team.getId();
+        Set<Integer> startingPlayerIds = startingPlayerIds(team);
+        return () -> {
+            if (startingPlayerIds.equals(persistedLineups.get(teamId))) {
+                return;
+            }
+            objectManager.getPlayerRepository().updateLineup(teamId, startingPlayerIds);
+            persistedLineups.put(teamId, startingPlayerIds);
+        };
+    }
+
+    /**
+     * Cầu thủ đá chính bị treo giò ở trận tới của đội được thay bằng cầu thủ dự bị đủ điều kiện đầu tiên.
+     * Chỉ đọc danh sách treo giò của đội nên không phải duyệt cả đội hình hay lịch sử thẻ.
+     */
+    private void benchSuspendedPlayers(Team team) {
+        int nextMatch = disciplineEngine.getMatchesStarted(team) + 1;
+        for (Player suspended : disciplineEngine.getSuspendedPlayers(team, nextMatch)) {
+            if (!team.getStartingPlayers().contains(suspended)) {
+                continue;
+            }
+            for (Player substitute : team.getSubstitutePlayers()) {
+                if (disciplineEngine.isEligible(team, substitute, nextMatch)) {
+                    team.swapLineup(suspended, substitute);
+                    break;
+                }
+            }
         }
-        
-        // Cập nhật is_starting = true cho starting players
+    }
+
+    /**
+     * Id các cầu thủ đá chính đã được lưu (player trùng số áo bị bỏ qua khi lưu có id = 0)
+     */
+    private static Set<Integer> startingPlayerIds(Team team) {
+        Set<Integer> ids = new TreeSet<>();
         for (Player player : team.getStartingPlayers()) {
-            objectManager.getPlayerRepository().updateStartingStatus(player.getId(), true);
+            if (player.getId() > 0) {
+                ids.add(player.getId());
+            }
         }
+        return ids;
     }
     
     /**
@@ -715,27 +972,9 @@ public class WorldCupAutomation {
      */
     private void clearOldData() {
         try {
-            
-            // Xóa theo thứ tự để tránh foreign key constraint
-            String[] deleteQueries = {
-                "DELETE FROM substitutions",
-                "DELETE FROM cards", 
-                "DELETE FROM goals",
-                "DELETE FROM matches",
-                "DELETE FROM tournament_stats",
-                "DELETE FROM players",
-                "DELETE FROM assistant_coaches",
-                "DELETE FROM teams",
-                "DELETE FROM groups",
-                "DELETE FROM tournaments"
-            };
-            
-            for (String query : deleteQueries) {
-                PreparedStatement pstmt = dbManager.getConnection().prepareStatement(query);
-                pstmt.executeUpdate();
-                pstmt.close();
-            }
-            
+            repository.clearAllData();
+            // Id cũ có thể được cấp lại (backend memory đếm lại từ 1), identity map không được giữ object cũ
+            objectManager.getIdentityMap().clear();
         } catch (Exception e) {
             System.err.println("❌ Lỗi khi xóa dữ liệu cũ: " + e.getMessage());
         }
@@ -746,24 +985,7 @@ public class WorldCupAutomation {
      */
     public void updatePlayerGoalsFromDatabase() {
         try {
-            
-            
-            String sql = """
-                UPDATE players 
-                SET goals = (
-                    SELECT COUNT(*) 
-                    FROM goals g 
-                    WHERE g.player_id = players.id
-                )
-                WHERE id IN (
-                    SELECT DISTINCT player_id FROM goals
-                )
-            """;
-            
-            PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
-            int updatedRows = pstmt.executeUpdate();
-            pstmt.close();
-
+            repository.updatePlayerGoalsFromGoals();
         } catch (Exception e) {
             System.err.println("❌ Lỗi khi cập nhật player goals: " + e.getMessage());
         }
@@ -774,24 +996,7 @@ public class WorldCupAutomation {
      */
     public void updateAllMatchTypes() {
         try {
-            
-            
-            String sql = """
-                UPDATE matches 
-                SET match_type = CASE 
-                    WHEN (SELECT COUNT(*) FROM matches m2 WHERE m2.id <= matches.id) <= 48 THEN 'GROUP'
-                    WHEN (SELECT COUNT(*) FROM matches m2 WHERE m2.id <= matches.id) <= 56 THEN 'ROUND_16'
-                    WHEN (SELECT COUNT(*) FROM matches m2 WHERE m2.id <= matches.id) <= 60 THEN 'QUARTER'
-                    WHEN (SELECT COUNT(*) FROM matches m2 WHERE m2.id <= matches.id) <= 62 THEN 'SEMI_FINAL'
-                    ELSE 'FINAL'
-                END
-                WHERE match_type IS NULL OR match_type = 'KNOCKOUT'
-            """;
-            
-            PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
-            int updatedRows = pstmt.executeUpdate();
-            pstmt.close();
-
+            repository.updateAllMatchTypes();
         } catch (Exception e) {
             System.err.println("❌ Lỗi khi cập nhật match_type: " + e.getMessage());
         }
@@ -0,0 +1,151 @@
+package com.worldcup.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Helper cho multi-row INSERT ... VALUES (...), (...) RETURNING.
+ * sqlite-jdbc không hỗ trợ getGeneratedKeys nên id được lấy qua RETURNING,
+ * nhiều rows chỉ tốn một câu lệnh thay vì một INSERT + một last_insert_rowid() mỗi row.
+ */
+public final class BatchInsert {
+
+    // Giới hạn SQLITE_MAX_VARIABLE_NUMBER mặc định từ SQLite 3.32
+    private static final int MAX_VARIABLES = 32766;
+
+    private BatchInsert() {
+    }
+
+    /**
+     * Gán giá trị cho một row, bắt đầu từ parameter index offset
+     */
+    @FunctionalInterface
+    public interface RowBinder<T> {
+        void bind(PreparedStatement pstmt, int offset, T row) throws SQLException;
+    }
+
+    /**
+     * Xử lý từng row được trả về bởi RETURNING
+     */
+    @FunctionalInterface
+    public interface ReturningHandler {
+        void handle(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Insert tất cả rows và trả về id theo đúng thứ tự rows.
+     * Thứ tự output của RETURNING không được đảm bảo, nhưng rowid được cấp tăng dần
+     * theo thứ tự VALUES nên sort id là đủ để map lại. Không dùng khi có row bị bỏ qua (ON CONFLICT DO NOTHING).
+     */
+    public static <T> int[] insertReturningIds(Connection conn, String insertHead, int columnCount,
+                                               List<T> rows, RowBinder<T> binder) throws SQLException {
+        int[] ids = new int[rows.size()];
+        int chunkSize = chunkSize(columnCount);
+
+        for (int start = 0; start < rows.size(); start += chunkSize) {
+            List<T> chunk = rows.subList(start, Math.min(rows.size(), start + chunkSize));
+            List<Integer> chunkIds = new ArrayList<>(chunk.size());
+            executeChunk(conn, insertHead, columnCount, chunk, binder, null, "id", rs -> chunkIds.add(rs.getInt(1)));
+
+            if (chunkIds.size() != chunk.size()) {
+                throw new SQLException("Số id trả về (" + chunkIds.size() + ") khác số rows (" + chunk.size() + ")");
+            }
+            int[] sorted = chunkIds.stream().mapToInt(Integer::intValue).toArray();
+            Arrays.sort(sorted);
+            System.arraycopy(sorted, 0, ids, start, sorted.length);
+        }
+
+        return ids;
+    }
+
+    /**
+     * Insert tất cả rows, gọi handler cho mỗi row RETURNING trả về.
+     * Dùng khi cần map kết quả theo cột tự nhiên.
+     */
+    public static <T> void insertReturning(Connection conn, String insertHead, int columnCount, List<T> rows,
+                                           RowBinder<T> binder, String returning,
+                                           ReturningHandler handler) throws SQLException {
+        insertReturning(conn, insertHead, columnCount, rows, binder, null, returning, handler);
+    }
+
+    /**
+     * Như trên, onConflict (ví dụ "ON CONFLICT(team_id, jersey_number) DO NOTHING") được đặt sau VALUES.
+     * Row bị bỏ qua không có trong RETURNING nên handler phải map theo cột tự nhiên, không theo thứ tự.
+     */
+    public static <T> void insertReturning(Connection conn, String insertHead, int columnCount, List<T> rows,
+                                           RowBinder<T> binder, String onConflict, String returning,
+                                           ReturningHandler handler) throws SQLException {
+        int chunkSize = chunkSize(columnCount);
+        for (int start = 0; start < rows.size(); start += chunkSize) {
+            List<T> chunk = rows.subList(start, Math.min(rows.size(), start + chunkSize));
+            executeChunk(conn, insertHead, columnCount, chunk, binder, onConflict, returning, handler);
+        }
+    }
+
+    /**
+     * Insert tất cả rows khi không cần id trả về
+     */
+    public static <T> void insertAll(Connection conn, String insertHead, int columnCount, List<T> rows,
+                                     RowBinder<T> binder) throws SQLException {
+        insertReturning(conn, insertHead, columnCount, rows, binder, null, null);
+    }
+
+    private static <T> void executeChunk(Connection conn, String insertHead, int columnCount, List<T> chunk,
+                                         RowBinder<T> binder, String onConflict, String returning,
+                                         ReturningHandler handler) throws SQLException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        String sql = buildSql(insertHead, columnCount, chunk.size(), onConflict, returning);
+        PreparedStatement pstmt = conn.prepareStatement(sql);
+        int offset = 1;
+        for (T row : chunk) {
+            binder.bind(pstmt, offset, row);
+            offset += columnCount;
+        }
+
+        if (returning == null) {
+            pstmt.executeUpdate();
+        } else {
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                handler.handle(rs);
+            }
+            rs.close();
+        }
+        pstmt.close();
+    }
+
+    private static String buildSql(String insertHead, int columnCount, int rowCount, String onConflict,
+                                   String returning) {
+        String placeholders = "(" + String.join(", ", Collections.nCopies(columnCount, "?")) + ")";
+        StringBuilder sql = new StringBuilder(insertHead.strip()).append(" VALUES ");
+        for (int i = 0; i < rowCount; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(placeholders);
+        }
+        if (onConflict != null) {
+            sql.append(' ').append(onConflict.strip());
+        }
+        if (returning != null) {
+            sql.append(" RETURNING ").append(returning);
+        }
+        return sql.toString();
+    }
+
+    private static int chunkSize(int columnCount) {
+        if (columnCount < 1) {
+            throw new IllegalArgumentException("columnCount phải lớn hơn 0");
+        }
+        return Math.max(1, MAX_VARIABLES / columnCount);
+    }
+}
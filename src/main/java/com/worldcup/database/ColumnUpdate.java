@@ -0,0 +1,42 @@
+package com.worldcup.database;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * UPDATE chỉ các cột đã thay đổi của một row theo id.
+ * SQL được sinh theo tập cột nên mỗi tổ hợp cột chỉ được prepare một lần nhờ statement cache.
+ */
+public final class ColumnUpdate {
+
+    private ColumnUpdate() {
+    }
+
+    /**
+     * UPDATE table SET col = ?, ... WHERE id = ?; không làm gì nếu columns rỗng.
+     * Tên bảng và tên cột phải là hằng số trong code, không lấy từ input người dùng.
+     */
+    public static int execute(DatabaseManager dbManager, String table, int id, Map<String, Object> columns)
+            throws SQLException {
+        if (columns.isEmpty()) {
+            return 0;
+        }
+
+        StringBuilder sql = new StringBuilder("UPDATE ").append(table).append(" SET ");
+        String separator = "";
+        for (String column : columns.keySet()) {
+            sql.append(separator).append(column).append(" = ?");
+            separator = ", ";
+        }
+        sql.append(" WHERE id = ?");
+
+        PreparedStatement pstmt = dbManager.prepareCached(sql.toString());
+        int index = 1;
+        for (Object value : columns.values()) {
+            pstmt.setObject(index++, value);
+        }
+        pstmt.setInt(index, id);
+        return pstmt.executeUpdate();
+    }
+}
@@ -0,0 +1,129 @@
+package com.worldcup.database;
+
+import org.sqlite.SQLiteConfig;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool kết nối SQLite: một writer connection duy nhất và nhiều reader read-only.
+ * Database chạy ở chế độ WAL nên các reader không bị block khi writer đang ghi.
+ * Mỗi thread được gán cố định một reader (round-robin) để các truy vấn báo cáo
+ * chạy song song được trên nhiều connection.
+ */
+public class ConnectionPool implements AutoCloseable {
+    public static final int DEFAULT_READER_COUNT = 4;
+
+    // Pragma tuning cho SQLite
+    private static final int CACHE_SIZE_KIB = -20000;            // ~20MB page cache mỗi connection
+    private static final long MMAP_SIZE_BYTES = 256L * 1024 * 1024; // 256MB memory-mapped I/O
+    private static final int BUSY_TIMEOUT_MS = 5000;
+
+    private final String dbUrl;
+    private final int readerCount;
+    private final JdbcStatistics statistics;
+    private final Connection writer;
+    private final List<Connection> readers;
+    private final AtomicInteger nextReader = new AtomicInteger();
+    private final ThreadLocal<Connection> boundReader = new ThreadLocal<>();
+    private volatile boolean readersOpened;
+
+    public ConnectionPool(String dbUrl, int readerCount) throws SQLException {
+        this(dbUrl, readerCount, null);
+    }
+
+    /**
+     * statistics khác null thì mọi connection được bọc để đếm câu lệnh và commit
+     */
+    public ConnectionPool(String dbUrl, int readerCount, JdbcStatistics statistics) throws SQLException {
+        if (readerCount < 1) {
+            throw new IllegalArgumentException("Cần ít nhất 1 reader connection.");
+        }
+        this.dbUrl = dbUrl;
+        this.readerCount = readerCount;
+        this.statistics = statistics;
+        this.readers = new ArrayList<>(readerCount);
+        // Writer mở trước để chuyển database sang WAL trước khi có reader
+        this.writer = instrument(createConfig(false).createConnection(dbUrl));
+    }
+
+    /**
+     * Connection duy nhất được phép ghi. Chỉ nên dùng từ một thread tại một thời điểm.
+     */
+    public Connection getWriter() {
+        return writer;
+    }
+
+    /**
+     * Lấy reader read-only gắn với thread hiện tại
+     */
+    public Connection getReader() throws SQLException {
+        Connection reader = boundReader.get();
+        if (reader == null) {
+            openReadersIfNeeded();
+            reader = readers.get(Math.floorMod(nextReader.getAndIncrement(), readerCount));
+            boundReader.set(reader);
+        }
+        return reader;
+    }
+
+    public int getReaderCount() {
+        return readerCount;
+    }
+
+    /**
+     * Reader được mở lazily sau khi schema đã được tạo bởi writer
+     */
+    private synchronized void openReadersIfNeeded() throws SQLException {
+        if (readersOpened) {
+            return;
+        }
+        for (int i = 0; i < readerCount; i++) {
+            readers.add(instrument(createConfig(true).createConnection(dbUrl)));
+        }
+        readersOpened = true;
+    }
+
+    private Connection instrument(Connection connection) {
+        return statistics == null ? connection : statistics.wrap(connection);
+    }
+
+    private static SQLiteConfig createConfig(boolean readOnly) {
+        SQLiteConfig config = new SQLiteConfig();
+        if (!readOnly) {
+            // journal_mode được lưu trong file database nên chỉ writer cần set
+            config.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        }
+        config.setReadOnly(readOnly);
+        config.setSynchronous(SQLiteConfig.SynchronousMode.NORMAL);
+        config.setCacheSize(CACHE_SIZE_KIB);
+        config.setTempStore(SQLiteConfig.TempStore.MEMORY);
+        config.setPragma(SQLiteConfig.Pragma.MMAP_SIZE, String.valueOf(MMAP_SIZE_BYTES));
+        config.setBusyTimeout(BUSY_TIMEOUT_MS);
+        return config;
+    }
+
+    @Override
+    public synchronized void close() {
+        for (Connection reader : readers) {
+            closeQuietly(reader);
+        }
+        readers.clear();
+        readersOpened = false;
+        // Đóng writer cuối cùng để SQLite checkpoint WAL vào file chính
+        closeQuietly(writer);
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            if (connection != null && !connection.isClosed()) {
+                connection.close();
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+}
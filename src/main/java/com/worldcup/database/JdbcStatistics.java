@@ -0,0 +1,145 @@
+package com.worldcup.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Đếm số câu lệnh JDBC và số commit đi qua các connection của ConnectionPool.
+ * Connection và Statement được bọc bằng dynamic proxy nên không cần sửa repository nào.
+ *
+ * - statements: mỗi lần execute/executeQuery/executeUpdate/executeBatch là một lần gọi xuống SQLite
+ * - batchedRows: số lần addBatch (số row được ghi qua executeBatch)
+ * - commits: commit() tường minh cộng với các câu ghi chạy ở auto-commit (mỗi câu là một transaction)
+ */
+public class JdbcStatistics {
+
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder batchedRows = new LongAdder();
+    private final LongAdder commits = new LongAdder();
+    private final LongAdder rollbacks = new LongAdder();
+
+    public long getStatements() {
+        return statements.sum();
+    }
+
+    public long getBatchedRows() {
+        return batchedRows.sum();
+    }
+
+    public long getCommits() {
+        return commits.sum();
+    }
+
+    public long getRollbacks() {
+        return rollbacks.sum();
+    }
+
+    public void reset() {
+        statements.reset();
+        batchedRows.reset();
+        commits.reset();
+        rollbacks.reset();
+    }
+
+    /**
+     * Connection đếm thống kê, mọi lời gọi khác được chuyển nguyên cho connection thật
+     */
+    public Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+        private final Connection connection;
+
+        ConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = JdbcStatistics.invoke(connection, method, args);
+            switch (method.getName()) {
+                case "commit":
+                    commits.increment();
+                    break;
+                case "rollback":
+                    rollbacks.increment();
+                    break;
+                case "createStatement":
+                    return wrapStatement(Statement.class, result, (Connection) proxy, null);
+                case "prepareStatement":
+                    return wrapStatement(PreparedStatement.class, result, (Connection) proxy, (String) args[0]);
+                case "prepareCall":
+                    return wrapStatement(CallableStatement.class, result, (Connection) proxy, (String) args[0]);
+                default:
+                    break;
+            }
+            return result;
+        }
+
+        private Object wrapStatement(Class<?> type, Object statement, Connection proxy, String sql) {
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                    new StatementHandler((Statement) statement, connection, proxy, sql));
+        }
+    }
+
+    private class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final Connection connection;
+        private final Connection proxyConnection;
+        private final String sql;
+
+        StatementHandler(Statement statement, Connection connection, Connection proxyConnection, String sql) {
+            this.statement = statement;
+            this.connection = connection;
+            this.proxyConnection = proxyConnection;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("getConnection")) {
+                return proxyConnection;
+            }
+            if (name.equals("addBatch")) {
+                batchedRows.increment();
+            } else if (name.startsWith("execute")) {
+                statements.increment();
+                // Statement thường truyền SQL khi execute, PreparedStatement đã có SQL từ lúc prepare
+                String executed = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : sql;
+                if (connection.getAutoCommit() && isWrite(executed)) {
+                    commits.increment();
+                }
+            }
+            return JdbcStatistics.invoke(statement, method, args);
+        }
+
+        /**
+         * Câu lệnh không bắt đầu bằng SELECT/WITH được coi là ghi (kể cả INSERT ... RETURNING qua executeQuery)
+         */
+        private boolean isWrite(String executed) {
+            if (executed == null) {
+                return true;
+            }
+            String trimmed = executed.stripLeading();
+            return !trimmed.regionMatches(true, 0, "SELECT", 0, 6) && !trimmed.regionMatches(true, 0, "WITH", 0, 4);
+        }
+    }
+}
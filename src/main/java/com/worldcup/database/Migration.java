@@ -0,0 +1,44 @@
+package com.worldcup.database;
+
+import java.util.List;
+
+/**
+ * Một bước thay đổi schema: version, các câu lệnh nâng cấp (up) và hoàn tác (down)
+ */
+public class Migration {
+    private final int version;
+    private final String description;
+    private final List<String> upStatements;
+    private final List<String> downStatements;
+
+    public Migration(int version, String description, List<String> upStatements, List<String> downStatements) {
+        if (version < 1) {
+            throw new IllegalArgumentException("Version của migration phải lớn hơn 0");
+        }
+        this.version = version;
+        this.description = description;
+        this.upStatements = List.copyOf(upStatements);
+        this.downStatements = List.copyOf(downStatements);
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public List<String> getUpStatements() {
+        return upStatements;
+    }
+
+    public List<String> getDownStatements() {
+        return downStatements;
+    }
+
+    @Override
+    public String toString() {
+        return "V" + version + " - " + description;
+    }
+}
@@ -0,0 +1,97 @@
+package com.worldcup.database;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Chạy migrations dựa trên PRAGMA user_version.
+ * Mỗi migration chạy trong một transaction cùng với việc ghi user_version,
+ * nên database luôn ở đúng một version kể cả khi migration lỗi giữa chừng.
+ */
+public class MigrationRunner {
+    private final Connection connection;
+    private final List<Migration> migrations;
+
+    public MigrationRunner(Connection connection, List<Migration> migrations) {
+        this.connection = connection;
+        this.migrations = new ArrayList<>(migrations);
+        this.migrations.sort(Comparator.comparingInt(Migration::getVersion));
+
+        for (int i = 0; i < this.migrations.size(); i++) {
+            if (this.migrations.get(i).getVersion() != i + 1) {
+                throw new IllegalArgumentException("Migrations phải có version liên tiếp từ 1, thiếu V" + (i + 1));
+            }
+        }
+    }
+
+    public int getCurrentVersion() throws SQLException {
+        Statement stmt = connection.createStatement();
+        ResultSet rs = stmt.executeQuery("PRAGMA user_version");
+        int version = rs.next() ? rs.getInt(1) : 0;
+        rs.close();
+        stmt.close();
+        return version;
+    }
+
+    public int getLatestVersion() {
+        return migrations.size();
+    }
+
+    /**
+     * Nâng schema lên version mới nhất
+     */
+    public void migrate() throws SQLException {
+        migrateTo(getLatestVersion());
+    }
+
+    /**
+     * Nâng hoặc hạ schema tới targetVersion
+     */
+    public void migrateTo(int targetVersion) throws SQLException {
+        if (targetVersion < 0 || targetVersion > getLatestVersion()) {
+            throw new IllegalArgumentException("Version không hợp lệ: " + targetVersion);
+        }
+
+        int current = getCurrentVersion();
+        if (current > getLatestVersion()) {
+            throw new SQLException("Database ở version " + current + " mới hơn code (" + getLatestVersion() + ")");
+        }
+
+        while (current < targetVersion) {
+            Migration migration = migrations.get(current);
+            apply(migration.getUpStatements(), migration.getVersion());
+            current = migration.getVersion();
+        }
+
+        while (current > targetVersion) {
+            Migration migration = migrations.get(current - 1);
+            apply(migration.getDownStatements(), migration.getVersion() - 1);
+            current = migration.getVersion() - 1;
+        }
+    }
+
+    private void apply(List<String> statements, int resultingVersion) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        Statement stmt = connection.createStatement();
+        try {
+            for (String sql : statements) {
+                stmt.execute(sql);
+            }
+            // PRAGMA không nhận bind parameter
+            stmt.execute("PRAGMA user_version = " + resultingVersion);
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            stmt.close();
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.worldcup.database;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * So sánh query plan và thời gian chạy của các truy vấn báo cáo trước và sau migration index (V1 vs V2).
+ * Chạy trên bản copy của database nên không ảnh hưởng file gốc.
+ *
+ * Cách dùng: QueryPlanBenchmark [đường dẫn database] [số lần lặp]
+ */
+public class QueryPlanBenchmark {
+
+    private static final int DEFAULT_ITERATIONS = 200;
+
+    /**
+     * Một truy vấn cần đo, tham số được bind theo thứ tự
+     */
+    private static class BenchmarkQuery {
+        final String name;
+        final String sql;
+        final Object[] params;
+
+        BenchmarkQuery(String name, String sql, Object... params) {
+            this.name = name;
+            this.sql = sql;
+            this.params = params;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path source = Paths.get(args.length > 0 ? args[0] : "worldcup.db");
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_ITERATIONS;
+
+        Path copy = Files.createTempFile("worldcup-benchmark", ".db");
+        Files.copy(source, copy, StandardCopyOption.REPLACE_EXISTING);
+
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + copy)) {
+            MigrationRunner runner = new MigrationRunner(conn, SchemaMigrations.all());
+            List<BenchmarkQuery> queries = buildQueries(conn);
+            if (queries.isEmpty()) {
+                System.out.println("Database không có dữ liệu tournament, hãy chạy Main trước.");
+                return;
+            }
+
+            runner.migrateTo(1);
+            // Lượt đầu chỉ để JIT warm up, không tính kết quả
+            runAll(conn, queries, iterations);
+            List<String[]> before = runAll(conn, queries, iterations);
+
+            runner.migrateTo(runner.getLatestVersion());
+            List<String[]> after = runAll(conn, queries, iterations);
+
+            System.out.println("Query plan benchmark (" + iterations + " lần lặp mỗi truy vấn)");
+            for (int i = 0; i < queries.size(); i++) {
+                System.out.println("\n=== " + queries.get(i).name + " ===");
+                System.out.println("  V1 (không index) " + before.get(i)[0]);
+                System.out.println(before.get(i)[1]);
+                System.out.println("  V" + runner.getLatestVersion() + " (có index)   " + after.get(i)[0]);
+                System.out.println(after.get(i)[1]);
+            }
+        } finally {
+            Files.deleteIfExists(copy);
+        }
+    }
+
+    private static List<BenchmarkQuery> buildQueries(Connection conn) throws SQLException {
+        List<BenchmarkQuery> queries = new ArrayList<>();
+
+        PreparedStatement pstmt = conn.prepareStatement("""
+            SELECT t.id, t.name, t.tournament_id
+            FROM teams t
+            WHERE t.tournament_id = (SELECT MAX(id) FROM tournaments)
+            LIMIT 1
+        """);
+        ResultSet rs = pstmt.executeQuery();
+        if (!rs.next()) {
+            rs.close();
+            pstmt.close();
+            return queries;
+        }
+        int teamId = rs.getInt("id");
+        String teamName = rs.getString("name");
+        int tournamentId = rs.getInt("tournament_id");
+        rs.close();
+        pstmt.close();
+
+        queries.add(new BenchmarkQuery("Teams của tournament (TeamService)", """
+            SELECT t.id, t.name, t.group_id FROM teams t WHERE t.tournament_id = ?
+        """, tournamentId));
+
+        queries.add(new BenchmarkQuery("Trận vòng bảng của team (TeamService)", """
+            SELECT m.team_a_score, m.team_b_score, ta.name, tb.name
+            FROM matches m
+            JOIN teams ta ON m.team_a_id = ta.id
+            JOIN teams tb ON m.team_b_id = tb.id
+            WHERE (ta.name = ? OR tb.name = ?)
+            AND ta.tournament_id = ? AND tb.tournament_id = ?
+            AND m.match_type = 'GROUP'
+        """, teamName, teamName, tournamentId, tournamentId));
+
+        queries.add(new BenchmarkQuery("Thẻ phạt vòng bảng của team (TeamService)", """
+            SELECT card_type, COUNT(*)
+            FROM cards c
+            JOIN teams t ON c.team_id = t.id
+            JOIN matches m ON c.match_id = m.id
+            WHERE t.name = ? AND t.tournament_id = ? AND m.match_type = 'GROUP'
+            GROUP BY card_type
+        """, teamName, tournamentId));
+
+        queries.add(new BenchmarkQuery("Số lần thay người của team (TeamService)", """
+            SELECT COUNT(*)
+            FROM substitutions s
+            JOIN teams t ON s.team_id = t.id
+            WHERE t.name = ? AND t.tournament_id = ?
+        """, teamName, tournamentId));
+
+        queries.add(new BenchmarkQuery("Bàn thắng theo cầu thủ (PlayerService)", """
+            SELECT p.id, p.name, t.name, g.id
+            FROM players p
+            JOIN teams t ON p.team_id = t.id
+            LEFT JOIN goals g ON p.id = g.player_id
+            WHERE t.tournament_id = ?
+        """, tournamentId));
+
+        queries.add(new BenchmarkQuery("Tổng thẻ của tournament (TournamentService)", """
+            SELECT COUNT(*)
+            FROM cards c
+            JOIN teams t ON c.team_id = t.id
+            WHERE t.tournament_id = ? AND c.card_type = 'YELLOW'
+        """, tournamentId));
+
+        queries.add(new BenchmarkQuery("Tìm cầu thủ theo tên trong team (PlayerRepository)", """
+            SELECT id FROM players WHERE name = ? AND team_id = ?
+        """, "benchmark", teamId));
+
+        return queries;
+    }
+
+    /**
+     * Trả về [thời gian trung bình, query plan] cho mỗi truy vấn
+     */
+    private static List<String[]> runAll(Connection conn, List<BenchmarkQuery> queries, int iterations)
+            throws SQLException {
+        List<String[]> results = new ArrayList<>();
+        for (BenchmarkQuery query : queries) {
+            String plan = explain(conn, query);
+
+            PreparedStatement pstmt = conn.prepareStatement(query.sql);
+            bind(pstmt, query.params);
+            // Warm up page cache trước khi đo
+            drain(pstmt);
+
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                drain(pstmt);
+            }
+            long avgMicros = (System.nanoTime() - start) / iterations / 1000;
+            pstmt.close();
+
+            results.add(new String[]{avgMicros + " µs/query", plan});
+        }
+        return results;
+    }
+
+    private static String explain(Connection conn, BenchmarkQuery query) throws SQLException {
+        PreparedStatement pstmt = conn.prepareStatement("EXPLAIN QUERY PLAN " + query.sql);
+        bind(pstmt, query.params);
+        ResultSet rs = pstmt.executeQuery();
+
+        StringBuilder plan = new StringBuilder();
+        while (rs.next()) {
+            if (plan.length() > 0) {
+                plan.append('\n');
+            }
+            plan.append("      ").append(rs.getString("detail"));
+        }
+        rs.close();
+        pstmt.close();
+        return plan.toString();
+    }
+
+    private static void bind(PreparedStatement pstmt, Object[] params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            pstmt.setObject(i + 1, params[i]);
+        }
+    }
+
+    private static void drain(PreparedStatement pstmt) throws SQLException {
+        ResultSet rs = pstmt.executeQuery();
+        while (rs.next()) {
+            // chỉ đọc hết kết quả
+        }
+        rs.close();
+    }
+}
@@ -0,0 +1,223 @@
+package com.worldcup.database;
+
+import java.util.List;
+
+/**
+ * Danh sách migrations của schema, theo thứ tự version.
+ * Thêm thay đổi schema mới bằng một Migration với version kế tiếp thay vì sửa migration cũ.
+ */
+public final class SchemaMigrations {
+
+    private SchemaMigrations() {
+    }
+
+    public static List<Migration> all() {
+        return List.of(baseSchema(), foreignKeyAndFilterIndexes());
+    }
+
+    /**
+     * Version 1: schema gốc. Dùng IF NOT EXISTS nên chạy được trên database cũ chưa có user_version.
+     */
+    private static Migration baseSchema() {
+        // Bảng cha được tạo trước bảng con
+        List<String> up = List.of(
+                """
+                    CREATE TABLE IF NOT EXISTS tournaments (
+                        id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        name TEXT NOT NULL,
+                        year INTEGER NOT NULL,
+                        host_country TEXT NOT NULL,
+                        start_date DATE,
+                        end_date DATE
+                    )
+                """,
+                """
+                    CREATE TABLE IF NOT EXISTS teams (
+                        id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        name TEXT NOT NULL,
+                        region TEXT NOT NULL,
+                        coach TEXT NOT NULL,
+                        medical_staff TEXT NOT NULL,
+                        is_host BOOLEAN DEFAULT FALSE,
+                        group_id INTEGER,
+                        tournament_id INTEGER NOT NULL,
+                        FOREIGN KEY (tournament_id) REFERENCES tournaments(id),
+                        UNIQUE(name, tournament_id)
+                    )
+                """,
+                """
+                    CREATE TABLE IF NOT EXISTS groups (
+                        id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        name TEXT NOT NULL,
+                        tournament_id INTEGER NOT NULL,
+                        FOREIGN KEY (tournament_id) REFERENCES tournaments(id),
+                        UNIQUE(name, tournament_id)
+                    )
+                """,
+                """
+                    CREATE TABLE IF NOT EXISTS players (
+                        id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        name TEXT NOT NULL,
+                        jersey_number INTEGER NOT NULL,
+                        position TEXT NOT NULL,
+                        team_id INTEGER NOT NULL,
+                        is_starting BOOLEAN DEFAULT FALSE,
+                        yellow_cards INTEGER DEFAULT 0,
+                        red_cards INTEGER DEFAULT 0,
+                        goals INTEGER DEFAULT 0,
+                        is_eligible BOOLEAN DEFAULT TRUE,
+                        FOREIGN KEY (team_id) REFERENCES teams(id),
+                        UNIQUE(team_id, jersey_number)
+                    )
+                """,
+                """
+                    CREATE TABLE IF NOT EXISTS assistant_coaches (
+                        id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        name TEXT NOT NULL,
+                        team_id INTEGER NOT NULL,
+                        FOREIGN KEY (team_id) REFERENCES teams(id)
+                    )
+                """,
+                """
+                    CREATE TABLE IF NOT EXISTS matches (
+                        id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        team_a_id INTEGER NOT NULL,
+                        team_b_id INTEGER NOT NULL,
+                        team_a_score INTEGER DEFAULT 0,
+                        team_b_score INTEGER DEFAULT 0,
+                        match_type TEXT NOT NULL, -- 'GROUP', 'ROUND_16', 'QUARTER', 'SEMI', 'FINAL', 'THIRD_PLACE'
+                        match_date TEXT, -- Format: yyyy/mm/dd
+                        venue TEXT,
+                        referee TEXT,
+                        winner_id INTEGER, -- ID of winning team, NULL for draws
+                        FOREIGN KEY (team_a_id) REFERENCES teams(id),
+                        FOREIGN KEY (team_b_id) REFERENCES teams(id),
+                        FOREIGN KEY (winner_id) REFERENCES teams(id)
+                    )
+                """,
+                """
+                    CREATE TABLE IF NOT EXISTS goals (
+                        id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        match_id INTEGER NOT NULL,
+                        player_id INTEGER NOT NULL,
+                        team_id INTEGER NOT NULL,
+                        minute INTEGER NOT NULL,
+                        goal_type TEXT DEFAULT 'REGULAR', -- 'REGULAR', 'PENALTY', 'OWN_GOAL', 'FREE_KICK'
+                        FOREIGN KEY (match_id) REFERENCES matches(id),
+                        FOREIGN KEY (player_id) REFERENCES players(id),
+                        FOREIGN KEY (team_id) REFERENCES teams(id)
+                    )
+                """,
+                """
+                    CREATE TABLE IF NOT EXISTS substitutions (
+                        id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        match_id INTEGER NOT NULL,
+                        team_id INTEGER NOT NULL,
+                        player_in_id INTEGER NOT NULL,
+                        player_out_id INTEGER NOT NULL,
+                        minute INTEGER NOT NULL,
+                        FOREIGN KEY (match_id) REFERENCES matches(id),
+                        FOREIGN KEY (team_id) REFERENCES teams(id),
+                        FOREIGN KEY (player_in_id) REFERENCES players(id),
+                        FOREIGN KEY (player_out_id) REFERENCES players(id)
+                    )
+                """,
+                """
+                    CREATE TABLE IF NOT EXISTS cards (
+                        id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        match_id INTEGER NOT NULL,
+                        player_id INTEGER NOT NULL,
+                        team_id INTEGER NOT NULL,
+                        card_type TEXT NOT NULL, -- 'YELLOW', 'RED'
+                        minute INTEGER NOT NULL,
+                        FOREIGN KEY (match_id) REFERENCES matches(id),
+                        FOREIGN KEY (player_id) REFERENCES players(id),
+                        FOREIGN KEY (team_id) REFERENCES teams(id)
+                    )
+                """,
+                """
+                    CREATE TABLE IF NOT EXISTS tournament_stats (
+                        id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        tournament_id INTEGER NOT NULL,
+                        total_goals INTEGER DEFAULT 0,
+                        total_matches INTEGER DEFAULT 0,
+                        total_yellow_cards INTEGER DEFAULT 0,
+                        total_red_cards INTEGER DEFAULT 0,
+                        total_substitutions INTEGER DEFAULT 0,
+                        top_scorer_id INTEGER,
+                        top_scorer_goals INTEGER DEFAULT 0,
+                        champion_id INTEGER,
+                        runner_up_id INTEGER,
+                        third_place_id_01 INTEGER,
+                        third_place_id_02 INTEGER,
+                        FOREIGN KEY (tournament_id) REFERENCES tournaments(id),
+                        FOREIGN KEY (top_scorer_id) REFERENCES players(id),
+                        FOREIGN KEY (champion_id) REFERENCES teams(id),
+                        FOREIGN KEY (runner_up_id) REFERENCES teams(id),
+                        FOREIGN KEY (third_place_id_01) REFERENCES teams(id),
+                        FOREIGN KEY (third_place_id_02) REFERENCES teams(id)
+                    )
+                """
+        );
+
+        List<String> down = List.of(
+                "DROP TABLE IF EXISTS tournament_stats",
+                "DROP TABLE IF EXISTS cards",
+                "DROP TABLE IF EXISTS substitutions",
+                "DROP TABLE IF EXISTS goals",
+                "DROP TABLE IF EXISTS matches",
+                "DROP TABLE IF EXISTS assistant_coaches",
+                "DROP TABLE IF EXISTS players",
+                "DROP TABLE IF EXISTS groups",
+                "DROP TABLE IF EXISTS teams",
+                "DROP TABLE IF EXISTS tournaments"
+        );
+
+        return new Migration(1, "Base schema", up, down);
+    }
+
+    /**
+     * Version 2: index cho foreign keys và các cột filter mà services dùng.
+     * teams(name, tournament_id), groups(name, tournament_id) và players(team_id, jersey_number)
+     * đã có autoindex từ ràng buộc UNIQUE nên không tạo lại.
+     */
+    private static Migration foreignKeyAndFilterIndexes() {
+        List<String> up = List.of(
+                // WHERE t.tournament_id = ? (UNIQUE(name, tournament_id) không dùng được vì name đứng đầu)
+                "CREATE INDEX IF NOT EXISTS idx_teams_tournament_group ON teams(tournament_id, group_id)",
+                // updateGoals/updateCards/getPlayerId lọc theo team_id + name
+                "CREATE INDEX IF NOT EXISTS idx_players_team_name ON players(team_id, name)",
+                "CREATE INDEX IF NOT EXISTS idx_matches_type ON matches(match_type)",
+                "CREATE INDEX IF NOT EXISTS idx_matches_team_a ON matches(team_a_id)",
+                "CREATE INDEX IF NOT EXISTS idx_matches_team_b ON matches(team_b_id)",
+                "CREATE INDEX IF NOT EXISTS idx_goals_match ON goals(match_id)",
+                "CREATE INDEX IF NOT EXISTS idx_goals_player ON goals(player_id)",
+                "CREATE INDEX IF NOT EXISTS idx_goals_team ON goals(team_id)",
+                "CREATE INDEX IF NOT EXISTS idx_cards_match ON cards(match_id)",
+                "CREATE INDEX IF NOT EXISTS idx_cards_player ON cards(player_id)",
+                "CREATE INDEX IF NOT EXISTS idx_cards_team_type ON cards(team_id, card_type)",
+                "CREATE INDEX IF NOT EXISTS idx_substitutions_match_team ON substitutions(match_id, team_id)",
+                "CREATE INDEX IF NOT EXISTS idx_substitutions_team ON substitutions(team_id)",
+                "CREATE INDEX IF NOT EXISTS idx_tournament_stats_tournament ON tournament_stats(tournament_id)"
+        );
+
+        List<String> down = List.of(
+                "DROP INDEX IF EXISTS idx_tournament_stats_tournament",
+                "DROP INDEX IF EXISTS idx_substitutions_team",
+                "DROP INDEX IF EXISTS idx_substitutions_match_team",
+                "DROP INDEX IF EXISTS idx_cards_team_type",
+                "DROP INDEX IF EXISTS idx_cards_player",
+                "DROP INDEX IF EXISTS idx_cards_match",
+                "DROP INDEX IF EXISTS idx_goals_team",
+                "DROP INDEX IF EXISTS idx_goals_player",
+                "DROP INDEX IF EXISTS idx_goals_match",
+                "DROP INDEX IF EXISTS idx_matches_team_b",
+                "DROP INDEX IF EXISTS idx_matches_team_a",
+                "DROP INDEX IF EXISTS idx_matches_type",
+                "DROP INDEX IF EXISTS idx_players_team_name",
+                "DROP INDEX IF EXISTS idx_teams_tournament_group"
+        );
+
+        return new Migration(2, "Indexes on foreign keys and filter columns", up, down);
+    }
+}
@@ -0,0 +1,246 @@
+package com.worldcup.database;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * Export tournament ra file JSON bằng Jackson streaming API.
+ * Mỗi row được ghi thẳng từ JDBC cursor vào JsonGenerator, không dựng object graph,
+ * nên bộ nhớ không phụ thuộc số giải đấu trong database.
+ *
+ * Định dạng: {"format", "version", "tournaments": [{"tournament": {...}, "groups": [...], "teams": [...],
+ * "assistant_coaches", "players", "matches", "goals", "cards", "substitutions", "standings", "tournament_stats"}]}.
+ * Các section theo thứ tự bảng cha trước bảng con để TournamentJsonImporter import được trong một lượt đọc.
+ * Tên field là tên cột, "standings" được tính từ các trận vòng bảng và chỉ dùng để đọc.
+ *
+ * Cách dùng: TournamentJsonExporter [đường dẫn database] [file JSON] [tournament id, bỏ trống để export tất cả]
+ */
+public class TournamentJsonExporter {
+
+    public static final String FORMAT = "worldcup-tournament-export";
+    public static final int VERSION = 1;
+
+    private static final String TEAMS_OF_TOURNAMENT = "SELECT id FROM teams WHERE tournament_id = ?";
+    private static final String MATCHES_OF_TOURNAMENT = "SELECT id FROM matches WHERE team_a_id IN (" + TEAMS_OF_TOURNAMENT + ")";
+
+    private final Connection conn;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public TournamentJsonExporter(Connection conn) {
+        this.conn = conn;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String database = args.length > 0 ? args[0] : "worldcup.db";
+        Path output = Paths.get(args.length > 1 ? args[1] : "worldcup-export.json");
+        Integer tournamentId = args.length > 2 ? Integer.valueOf(args[2]) : null;
+
+        DatabaseManager dbManager = new DatabaseManager("jdbc:sqlite:" + database, 1);
+        try {
+            TournamentJsonExporter exporter = new TournamentJsonExporter(dbManager.getReadConnection());
+            int exported = tournamentId != null ? exporter.export(output, tournamentId) : exporter.exportAll(output);
+            System.out.println("Đã export " + exported + " tournament ra " + output);
+        } finally {
+            dbManager.close();
+        }
+    }
+
+    /**
+     * Export một tournament, trả về số tournament được ghi (0 nếu id không tồn tại)
+     */
+    public int export(Path file, int tournamentId) throws IOException, SQLException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            return write(out, tournamentId);
+        }
+    }
+
+    /**
+     * Export tất cả tournaments theo thứ tự id
+     */
+    public int exportAll(Path file) throws IOException, SQLException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            return write(out, null);
+        }
+    }
+
+    /**
+     * Ghi JSON ra out, tournamentId null nghĩa là tất cả. Không đóng out.
+     */
+    public int write(OutputStream out, Integer tournamentId) throws IOException, SQLException {
+        JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        generator.writeStartObject();
+        generator.writeStringField("format", FORMAT);
+        generator.writeNumberField("version", VERSION);
+        generator.writeArrayFieldStart("tournaments");
+
+        String sql = tournamentId != null
+                ? "SELECT id FROM tournaments WHERE id = ?"
+                : "SELECT id FROM tournaments ORDER BY id";
+        PreparedStatement pstmt = conn.prepareStatement(sql);
+        if (tournamentId != null) {
+            pstmt.setInt(1, tournamentId);
+        }
+        ResultSet rs = pstmt.executeQuery();
+        int count = 0;
+        try {
+            while (rs.next()) {
+                writeTournament(generator, rs.getInt("id"));
+                count++;
+            }
+        } finally {
+            rs.close();
+            pstmt.close();
+        }
+
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.close();
+        return count;
+    }
+
+    private void writeTournament(JsonGenerator generator, int tournamentId) throws IOException, SQLException {
+        generator.writeStartObject();
+
+        generator.writeFieldName("tournament");
+        PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT id, name, year, host_country, start_date, end_date FROM tournaments WHERE id = ?");
+        pstmt.setInt(1, tournamentId);
+        ResultSet rs = pstmt.executeQuery();
+        if (rs.next()) {
+            writeRow(generator, rs);
+        } else {
+            generator.writeNull();
+        }
+        rs.close();
+        pstmt.close();
+
+        writeSection(generator, "groups", """
+            SELECT id, name, tournament_id FROM groups WHERE tournament_id = ? ORDER BY id
+        """, tournamentId);
+
+        writeSection(generator, "teams", """
+            SELECT id, name, region, coach, medical_staff, is_host, tournament_id, group_id
+            FROM teams WHERE tournament_id = ? ORDER BY id
+        """, tournamentId);
+
+        writeSection(generator, "assistant_coaches", """
+            SELECT id, name, team_id FROM assistant_coaches
+            WHERE team_id IN (%s) ORDER BY id
+        """.formatted(TEAMS_OF_TOURNAMENT), tournamentId);
+
+        writeSection(generator, "players", """
+            SELECT id, name, jersey_number, position, team_id, is_starting,
+                   yellow_cards, red_cards, goals, is_eligible
+            FROM players WHERE team_id IN (%s) ORDER BY id
+        """.formatted(TEAMS_OF_TOURNAMENT), tournamentId);
+
+        writeSection(generator, "matches", """
+            SELECT id, team_a_id, team_b_id, team_a_score, team_b_score, match_type,
+                   match_date, venue, referee, winner_id
+            FROM matches WHERE team_a_id IN (%s) ORDER BY id
+        """.formatted(TEAMS_OF_TOURNAMENT), tournamentId);
+
+        writeSection(generator, "goals", """
+            SELECT id, match_id, player_id, team_id, minute, goal_type
+            FROM goals WHERE match_id IN (%s) ORDER BY id
+        """.formatted(MATCHES_OF_TOURNAMENT), tournamentId);
+
+        writeSection(generator, "cards", """
+            SELECT id, match_id, player_id, team_id, card_type, minute
+            FROM cards WHERE match_id IN (%s) ORDER BY id
+        """.formatted(MATCHES_OF_TOURNAMENT), tournamentId);
+
+        writeSection(generator, "substitutions", """
+            SELECT id, match_id, team_id, player_in_id, player_out_id, minute
+            FROM substitutions WHERE match_id IN (%s) ORDER BY id
+        """.formatted(MATCHES_OF_TOURNAMENT), tournamentId);
+
+        // Bảng xếp hạng vòng bảng tính bằng SQL, cùng thứ tự với TeamStandingComparator:
+        // điểm, hiệu số, điểm thẻ phạt vòng bảng (thẻ đỏ = 2 thẻ vàng, ít hơn xếp trên) rồi tên đội
+        writeSection(generator, "standings", """
+            SELECT team_id, group_id, played, wins, draws, losses, goals_for, goals_against,
+                   goals_for - goals_against AS goal_difference, wins * 3 + draws AS points,
+                   yellow_cards, red_cards
+            FROM (
+                SELECT t.id AS team_id, t.group_id, t.name,
+                       COUNT(m.id) AS played,
+                       COALESCE(SUM(CASE WHEN m.winner_id = t.id THEN 1 ELSE 0 END), 0) AS wins,
+                       COALESCE(SUM(CASE WHEN m.id IS NOT NULL AND m.winner_id IS NULL THEN 1 ELSE 0 END), 0) AS draws,
+                       COALESCE(SUM(CASE WHEN m.winner_id IS NOT NULL AND m.winner_id != t.id THEN 1 ELSE 0 END), 0) AS losses,
+                       COALESCE(SUM(CASE WHEN m.team_a_id = t.id THEN m.team_a_score ELSE m.team_b_score END), 0) AS goals_for,
+                       COALESCE(SUM(CASE WHEN m.team_a_id = t.id THEN m.team_b_score ELSE m.team_a_score END), 0) AS goals_against,
+                       (SELECT COUNT(*) FROM cards c JOIN matches cm ON cm.id = c.match_id
+                        WHERE c.team_id = t.id AND cm.match_type = 'GROUP' AND c.card_type = 'YELLOW') AS yellow_cards,
+                       (SELECT COUNT(*) FROM cards c JOIN matches cm ON cm.id = c.match_id
+                        WHERE c.team_id = t.id AND cm.match_type = 'GROUP' AND c.card_type = 'RED') AS red_cards
+                FROM teams t
+                LEFT JOIN matches m ON m.match_type = 'GROUP' AND (m.team_a_id = t.id OR m.team_b_id = t.id)
+                WHERE t.tournament_id = ?
+                GROUP BY t.id
+            )
+            ORDER BY group_id, points DESC, goal_difference DESC, yellow_cards + red_cards * 2, name
+        """, tournamentId);
+
+        writeSection(generator, "tournament_stats", """
+            SELECT id, tournament_id, total_goals, total_matches, total_yellow_cards, total_red_cards,
+                   total_substitutions, top_scorer_id, top_scorer_goals, champion_id, runner_up_id,
+                   third_place_id_01, third_place_id_02
+            FROM tournament_stats WHERE tournament_id = ? ORDER BY id
+        """, tournamentId);
+
+        generator.writeEndObject();
+    }
+
+    /**
+     * Ghi kết quả truy vấn thành mảng JSON, mỗi row một object theo thứ tự cursor trả về
+     */
+    private void writeSection(JsonGenerator generator, String name, String sql, int tournamentId)
+            throws IOException, SQLException {
+        generator.writeArrayFieldStart(name);
+        PreparedStatement pstmt = conn.prepareStatement(sql);
+        pstmt.setInt(1, tournamentId);
+        ResultSet rs = pstmt.executeQuery();
+        try {
+            while (rs.next()) {
+                writeRow(generator, rs);
+            }
+        } finally {
+            rs.close();
+            pstmt.close();
+        }
+        generator.writeEndArray();
+    }
+
+    private void writeRow(JsonGenerator generator, ResultSet rs) throws IOException, SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        generator.writeStartObject();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            generator.writeFieldName(metaData.getColumnLabel(i));
+            Object value = rs.getObject(i);
+            if (value == null) {
+                generator.writeNull();
+            } else if (value instanceof Integer || value instanceof Long) {
+                generator.writeNumber(((Number) value).longValue());
+            } else if (value instanceof Number) {
+                generator.writeNumber(((Number) value).doubleValue());
+            } else {
+                generator.writeString(value.toString());
+            }
+        }
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,321 @@
+package com.worldcup.database;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Import file của TournamentJsonExporter bằng Jackson streaming API.
+ * Rows được đọc từng cái và ghi theo chunk bằng multi-row INSERT (BatchInsert), id được cấp mới
+ * và các cột khóa ngoại được map lại theo id cũ trong file. Mỗi tournament là một transaction,
+ * chỉ bảng id của tournament đang import được giữ trong bộ nhớ.
+ *
+ * Cách dùng: TournamentJsonImporter [file JSON] [đường dẫn database]
+ */
+public class TournamentJsonImporter {
+
+    private static final int CHUNK_SIZE = 500;
+
+    /**
+     * Bảng được import: cột ghi vào (không gồm id) và bảng mà mỗi cột khóa ngoại tham chiếu tới.
+     * Tham chiếu optional (group_id, winner_id, top_scorer_id...) không có trong file được ghi NULL.
+     */
+    private static final class Table {
+        final String name;
+        final String[] columns;
+        final Map<String, String> references = new HashMap<>();
+        final Map<String, Boolean> optional = new HashMap<>();
+
+        Table(String name, String... columns) {
+            this.name = name;
+            this.columns = columns;
+        }
+
+        Table references(String column, String table) {
+            references.put(column, table);
+            optional.put(column, false);
+            return this;
+        }
+
+        Table optionalReference(String column, String table) {
+            references.put(column, table);
+            optional.put(column, true);
+            return this;
+        }
+    }
+
+    private static final Map<String, Table> TABLES = new LinkedHashMap<>();
+
+    static {
+        register(new Table("tournaments", "name", "year", "host_country", "start_date", "end_date"));
+        register(new Table("groups", "name", "tournament_id")
+                .references("tournament_id", "tournaments"));
+        register(new Table("teams", "name", "region", "coach", "medical_staff", "is_host", "tournament_id", "group_id")
+                .references("tournament_id", "tournaments")
+                .optionalReference("group_id", "groups"));
+        register(new Table("assistant_coaches", "name", "team_id")
+                .references("team_id", "teams"));
+        register(new Table("players", "name", "jersey_number", "position", "team_id", "is_starting",
+                "yellow_cards", "red_cards", "goals", "is_eligible")
+                .references("team_id", "teams"));
+        register(new Table("matches", "team_a_id", "team_b_id", "team_a_score", "team_b_score", "match_type",
+                "match_date", "venue", "referee", "winner_id")
+                .references("team_a_id", "teams")
+                .references("team_b_id", "teams")
+                .optionalReference("winner_id", "teams"));
+        register(new Table("goals", "match_id", "player_id", "team_id", "minute", "goal_type")
+                .references("match_id", "matches")
+                .references("player_id", "players")
+                .references("team_id", "teams"));
+        register(new Table("cards", "match_id", "player_id", "team_id", "card_type", "minute")
+                .references("match_id", "matches")
+                .references("player_id", "players")
+                .references("team_id", "teams"));
+        register(new Table("substitutions", "match_id", "team_id", "player_in_id", "player_out_id", "minute")
+                .references("match_id", "matches")
+                .references("team_id", "teams")
+                .references("player_in_id", "players")
+                .references("player_out_id", "players"));
+        register(new Table("tournament_stats", "tournament_id", "total_goals", "total_matches", "total_yellow_cards",
+                "total_red_cards", "total_substitutions", "top_scorer_id", "top_scorer_goals", "champion_id",
+                "runner_up_id", "third_place_id_01", "third_place_id_02")
+                .references("tournament_id", "tournaments")
+                .optionalReference("top_scorer_id", "players")
+                .optionalReference("champion_id", "teams")
+                .optionalReference("runner_up_id", "teams")
+                .optionalReference("third_place_id_01", "teams")
+                .optionalReference("third_place_id_02", "teams"));
+    }
+
+    private static void register(Table table) {
+        TABLES.put(table.name, table);
+    }
+
+    private final DatabaseManager dbManager;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    // Id cũ trong file -> id mới theo bảng, chỉ cho tournament đang import
+    private final Map<String, Map<Integer, Integer>> idMaps = new HashMap<>();
+
+    public TournamentJsonImporter(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path input = Paths.get(args.length > 0 ? args[0] : "worldcup-export.json");
+        String database = args.length > 1 ? args[1] : "worldcup.db";
+
+        DatabaseManager dbManager = new DatabaseManager("jdbc:sqlite:" + database, 1);
+        try {
+            int imported = new TournamentJsonImporter(dbManager).importFile(input);
+            System.out.println("Đã import " + imported + " tournament vào " + database);
+        } finally {
+            dbManager.close();
+        }
+    }
+
+    public int importFile(Path file) throws IOException, SQLException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Đọc toàn bộ input, trả về số tournament đã import. Không đóng in.
+     */
+    public int read(InputStream in) throws IOException, SQLException {
+        JsonParser parser = jsonFactory.createParser(in);
+        parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+        try {
+            expect(parser.nextToken(), JsonToken.START_OBJECT, parser);
+            int imported = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "format":
+                        if (!TournamentJsonExporter.FORMAT.equals(parser.getText())) {
+                            throw new IOException("File không phải định dạng " + TournamentJsonExporter.FORMAT);
+                        }
+                        break;
+                    case "version":
+                        if (parser.getIntValue() > TournamentJsonExporter.VERSION) {
+                            throw new IOException("Không hỗ trợ version " + parser.getIntValue() + " của file export");
+                        }
+                        break;
+                    case "tournaments":
+                        expect(value, JsonToken.START_ARRAY, parser);
+                        while (parser.nextToken() != JsonToken.END_ARRAY) {
+                            expect(parser.currentToken(), JsonToken.START_OBJECT, parser);
+                            importTournament(parser);
+                            imported++;
+                        }
+                        break;
+                    default:
+                        parser.skipChildren();
+                        break;
+                }
+            }
+            return imported;
+        } finally {
+            parser.close();
+        }
+    }
+
+    /**
+     * Một tournament trong một transaction, parser đang ở START_OBJECT của tournament
+     */
+    private void importTournament(JsonParser parser) throws IOException, SQLException {
+        idMaps.clear();
+        Connection conn = dbManager.getConnection();
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String section = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (section.equals("tournament")) {
+                    if (value == JsonToken.START_OBJECT) {
+                        List<Map<String, Object>> rows = new ArrayList<>();
+                        rows.add(readRow(parser));
+                        insertChunk(conn, TABLES.get("tournaments"), rows);
+                    }
+                } else if (TABLES.containsKey(section)) {
+                    expect(value, JsonToken.START_ARRAY, parser);
+                    importSection(conn, parser, TABLES.get(section));
+                } else {
+                    // "standings" là dữ liệu tính toán, section lạ được bỏ qua
+                    parser.skipChildren();
+                }
+            }
+            conn.commit();
+        } catch (SQLException | IOException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    private void importSection(Connection conn, JsonParser parser, Table table) throws IOException, SQLException {
+        List<Map<String, Object>> chunk = new ArrayList<>(CHUNK_SIZE);
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            expect(parser.currentToken(), JsonToken.START_OBJECT, parser);
+            chunk.add(readRow(parser));
+            if (chunk.size() == CHUNK_SIZE) {
+                insertChunk(conn, table, chunk);
+                chunk.clear();
+            }
+        }
+        insertChunk(conn, table, chunk);
+    }
+
+    /**
+     * Đọc một object phẳng, parser đang ở START_OBJECT và dừng ở END_OBJECT
+     */
+    private Map<String, Object> readRow(JsonParser parser) throws IOException {
+        Map<String, Object> row = new HashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String column = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            switch (token) {
+                case VALUE_NUMBER_INT:
+                    row.put(column, parser.getLongValue());
+                    break;
+                case VALUE_NUMBER_FLOAT:
+                    row.put(column, parser.getDoubleValue());
+                    break;
+                case VALUE_STRING:
+                    row.put(column, parser.getText());
+                    break;
+                case VALUE_TRUE:
+                    row.put(column, 1L);
+                    break;
+                case VALUE_FALSE:
+                    row.put(column, 0L);
+                    break;
+                case VALUE_NULL:
+                    row.put(column, null);
+                    break;
+                default:
+                    throw new IOException("Giá trị không hợp lệ cho cột " + column + " tại " + parser.getCurrentLocation());
+            }
+        }
+        return row;
+    }
+
+    private void insertChunk(Connection conn, Table table, List<Map<String, Object>> rows) throws SQLException {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> values = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            Object[] rowValues = new Object[table.columns.length];
+            for (int i = 0; i < table.columns.length; i++) {
+                rowValues[i] = resolve(table, table.columns[i], row.get(table.columns[i]));
+            }
+            values.add(rowValues);
+        }
+
+        String insertHead = "INSERT INTO " + table.name + " (" + String.join(", ", table.columns) + ")";
+        int[] ids = BatchInsert.insertReturningIds(conn, insertHead, table.columns.length, values,
+                (pstmt, offset, rowValues) -> {
+                    for (int i = 0; i < rowValues.length; i++) {
+                        pstmt.setObject(offset + i, rowValues[i]);
+                    }
+                });
+
+        Map<Integer, Integer> idMap = idMaps.computeIfAbsent(table.name, name -> new HashMap<>());
+        for (int i = 0; i < rows.size(); i++) {
+            Object oldId = rows.get(i).get("id");
+            if (oldId instanceof Number) {
+                idMap.put(((Number) oldId).intValue(), ids[i]);
+            }
+        }
+    }
+
+    /**
+     * Giá trị ghi vào cột, map lại khóa ngoại theo id mới
+     */
+    private Object resolve(Table table, String column, Object value) throws SQLException {
+        String referenced = table.references.get(column);
+        if (referenced == null || !(value instanceof Number)) {
+            return value;
+        }
+
+        int oldId = ((Number) value).intValue();
+        Integer newId = idMaps.getOrDefault(referenced, Map.of()).get(oldId);
+        if (newId != null) {
+            return newId;
+        }
+        if (table.optional.get(column)) {
+            // Tham chiếu optional không có trong file không được trỏ nhầm sang row khác của database đích
+            return null;
+        }
+        if (oldId <= 0) {
+            return value;
+        }
+        throw new SQLException(table.name + "." + column + " tham chiếu tới " + referenced
+                + " id " + oldId + " không có trong file export");
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected, JsonParser parser) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Cần " + expected + " nhưng gặp " + actual + " tại " + parser.getCurrentLocation());
+        }
+    }
+}
@@ -0,0 +1,578 @@
+package com.worldcup.database;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Snapshot nhị phân của một tournament đã kết thúc, đọc qua memory-mapped FileChannel.
+ * Mở file chỉ đọc header và index block; các field được đọc trực tiếp từ vùng map khi truy cập,
+ * không dựng Team / Player / Match nên mở hàng nghìn snapshot chỉ tốn vài millisecond.
+ *
+ * Định dạng (big-endian, version 1), ghi bởi TournamentSnapshotWriter:
+ * - header 48 bytes: magic, version, số section, tournament id, year, string ref của name / host_country / start_date / end_date
+ * - index block: mỗi section 16 bytes (type, số record, kích thước record, offset)
+ * - sections: record có độ dài cố định gồm các int, sắp xếp theo id để tìm bằng binary search.
+ *   String được mã hóa bằng dictionary: field lưu ref vào STRING_INDEX (offset, độ dài trong STRING_DATA), -1 là null.
+ * Section GROUPS được thêm sau, file cũ không có section này được đọc như không có group nào.
+ * File bị cắt cụt hoặc hỏng (section, record, string ref ngoài file) bị từ chối khi mở bằng IOException.
+ */
+public class TournamentSnapshot {
+
+    public static final int MAGIC = 0x57435350; // "WCSP"
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 48;
+    public static final int INDEX_ENTRY_SIZE = 16;
+    public static final int NULL_REF = -1;
+
+    public static final int STRING_INDEX = 1;
+    public static final int STRING_DATA = 2;
+    public static final int TEAMS = 3;
+    public static final int PLAYERS = 4;
+    public static final int MATCHES = 5;
+    public static final int GOALS = 6;
+    public static final int CARDS = 7;
+    public static final int SUBSTITUTIONS = 8;
+    public static final int STATS = 9;
+    public static final int GROUPS = 10;
+    static final int SECTION_TYPES = 10;
+
+    // Số int của mỗi loại record
+    static final int TEAM_FIELDS = 7;
+    static final int PLAYER_FIELDS = 9;
+    static final int MATCH_FIELDS = 10;
+    static final int EVENT_FIELDS = 6;
+    static final int SUBSTITUTION_FIELDS = 6;
+    static final int STATS_FIELDS = 11;
+    static final int GROUP_FIELDS = 2;
+
+    private final ByteBuffer buffer;
+    private final int[] sectionOffsets = new int[SECTION_TYPES + 1];
+    private final int[] sectionCounts = new int[SECTION_TYPES + 1];
+    private final int[] sectionRecordSizes = new int[SECTION_TYPES + 1];
+
+    private final TeamRecords teams;
+    private final PlayerRecords players;
+    private final MatchRecords matches;
+    private final EventRecords goals;
+    private final EventRecords cards;
+    private final SubstitutionRecords substitutions;
+    private final GroupRecords groups;
+
+    TournamentSnapshot(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("File không phải tournament snapshot.");
+        }
+        int version = buffer.getShort(4);
+        if (version != VERSION) {
+            throw new IOException("Không hỗ trợ version " + version + " của tournament snapshot.");
+        }
+
+        int sectionCount = buffer.getShort(6);
+        if (HEADER_SIZE + sectionCount * INDEX_ENTRY_SIZE > buffer.capacity()) {
+            throw new IOException("Index block của snapshot bị hỏng.");
+        }
+        for (int i = 0; i < sectionCount; i++) {
+            int entry = HEADER_SIZE + i * INDEX_ENTRY_SIZE;
+            int type = buffer.getInt(entry);
+            int count = buffer.getInt(entry + 4);
+            int recordSize = buffer.getInt(entry + 8);
+            int offset = buffer.getInt(entry + 12);
+            if (offset < 0 || count < 0 || recordSize < 0
+                    || (long) offset + (long) count * recordSize > buffer.capacity()) {
+                throw new IOException("Section " + type + " vượt quá kích thước file.");
+            }
+            // Section type lạ (version sau) được bỏ qua
+            if (type > 0 && type <= SECTION_TYPES) {
+                // Record của version sau có thể dài hơn, các field đã biết vẫn ở cùng vị trí
+                if (count > 0 && recordSize < minRecordSize(type)) {
+                    throw new IOException("Record của section " + type + " ngắn hơn " + minRecordSize(type) + " bytes.");
+                }
+                sectionOffsets[type] = offset;
+                sectionCounts[type] = count;
+                sectionRecordSizes[type] = recordSize;
+            }
+        }
+        checkStrings();
+
+        teams = new TeamRecords(this);
+        players = new PlayerRecords(this);
+        matches = new MatchRecords(this);
+        goals = new EventRecords(this, GOALS);
+        cards = new EventRecords(this, CARDS);
+        substitutions = new SubstitutionRecords(this);
+        groups = new GroupRecords(this);
+    }
+
+    /**
+     * Kích thước tối thiểu của một record theo loại section
+     */
+    private static int minRecordSize(int type) {
+        switch (type) {
+            case STRING_INDEX:
+                return 2 * Integer.BYTES;
+            case STRING_DATA:
+                return 1;
+            case TEAMS:
+                return TEAM_FIELDS * Integer.BYTES;
+            case PLAYERS:
+                return PLAYER_FIELDS * Integer.BYTES;
+            case MATCHES:
+                return MATCH_FIELDS * Integer.BYTES;
+            case GOALS:
+            case CARDS:
+                return EVENT_FIELDS * Integer.BYTES;
+            case SUBSTITUTIONS:
+                return SUBSTITUTION_FIELDS * Integer.BYTES;
+            case STATS:
+                return STATS_FIELDS * Integer.BYTES;
+            case GROUPS:
+                return GROUP_FIELDS * Integer.BYTES;
+            default:
+                throw new IllegalArgumentException("Section type không hợp lệ: " + type);
+        }
+    }
+
+    /**
+     * Mọi string trong dictionary và các ref của header phải nằm trong file, để string(ref) không đọc ra ngoài
+     */
+    private void checkStrings() throws IOException {
+        int stringCount = sectionCounts[STRING_INDEX];
+        long dataSize = (long) sectionCounts[STRING_DATA] * sectionRecordSizes[STRING_DATA];
+        for (int ref = 0; ref < stringCount; ref++) {
+            int entry = sectionOffsets[STRING_INDEX] + ref * sectionRecordSizes[STRING_INDEX];
+            int start = buffer.getInt(entry);
+            int length = buffer.getInt(entry + 4);
+            if (start < 0 || length < 0 || (long) start + length > dataSize) {
+                throw new IOException("String " + ref + " vượt quá STRING_DATA.");
+            }
+        }
+        for (int position = 16; position <= 28; position += Integer.BYTES) {
+            int ref = buffer.getInt(position);
+            if (ref != NULL_REF && (ref < 0 || ref >= stringCount)) {
+                throw new IOException("Header tham chiếu string " + ref + " không có trong dictionary.");
+            }
+        }
+    }
+
+    /**
+     * Map file ở chế độ chỉ đọc. Channel được đóng ngay, vùng map vẫn dùng được tới khi bị GC.
+     */
+    public static TournamentSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new TournamentSnapshot(mapped);
+        }
+    }
+
+    public int getTournamentId() {
+        return buffer.getInt(8);
+    }
+
+    public int getYear() {
+        return buffer.getInt(12);
+    }
+
+    public String getName() {
+        return string(buffer.getInt(16));
+    }
+
+    public String getHostCountry() {
+        return string(buffer.getInt(20));
+    }
+
+    public String getStartDate() {
+        return string(buffer.getInt(24));
+    }
+
+    public String getEndDate() {
+        return string(buffer.getInt(28));
+    }
+
+    public TeamRecords teams() {
+        return teams;
+    }
+
+    public PlayerRecords players() {
+        return players;
+    }
+
+    public MatchRecords matches() {
+        return matches;
+    }
+
+    public EventRecords goals() {
+        return goals;
+    }
+
+    public EventRecords cards() {
+        return cards;
+    }
+
+    public SubstitutionRecords substitutions() {
+        return substitutions;
+    }
+
+    public GroupRecords groups() {
+        return groups;
+    }
+
+    public boolean hasStats() {
+        return sectionCounts[STATS] > 0;
+    }
+
+    public int getTotalGoals() {
+        return statsField(0);
+    }
+
+    public int getTotalMatches() {
+        return statsField(1);
+    }
+
+    public int getTotalYellowCards() {
+        return statsField(2);
+    }
+
+    public int getTotalRedCards() {
+        return statsField(3);
+    }
+
+    public int getTotalSubstitutions() {
+        return statsField(4);
+    }
+
+    public int getTopScorerId() {
+        return statsField(5);
+    }
+
+    public int getTopScorerGoals() {
+        return statsField(6);
+    }
+
+    public int getChampionId() {
+        return statsField(7);
+    }
+
+    public int getRunnerUpId() {
+        return statsField(8);
+    }
+
+    public int getThirdPlaceId01() {
+        return statsField(9);
+    }
+
+    public int getThirdPlaceId02() {
+        return statsField(10);
+    }
+
+    /**
+     * Số string trong dictionary
+     */
+    public int getStringCount() {
+        return sectionCounts[STRING_INDEX];
+    }
+
+    /**
+     * Giải mã string theo ref, chỉ đọc đúng các byte của string đó
+     */
+    public String string(int ref) {
+        if (ref == NULL_REF) {
+            return null;
+        }
+        if (ref < 0 || ref >= sectionCounts[STRING_INDEX]) {
+            throw new IndexOutOfBoundsException("String ref " + ref + " không có trong dictionary.");
+        }
+        int entry = sectionOffsets[STRING_INDEX] + ref * sectionRecordSizes[STRING_INDEX];
+        int start = sectionOffsets[STRING_DATA] + buffer.getInt(entry);
+        int length = buffer.getInt(entry + 4);
+        return StandardCharsets.UTF_8.decode(buffer.slice(start, length)).toString();
+    }
+
+    private int statsField(int field) {
+        if (!hasStats()) {
+            return 0;
+        }
+        if (field < 0 || (field + 1) * Integer.BYTES > sectionRecordSizes[STATS]) {
+            throw new IndexOutOfBoundsException("Field " + field + " ngoài record thống kê "
+                    + sectionRecordSizes[STATS] + " bytes.");
+        }
+        return buffer.getInt(sectionOffsets[STATS] + field * Integer.BYTES);
+    }
+
+    /**
+     * Các record độ dài cố định của một section, field thứ i của record nằm ở offset + index * recordSize + i * 4
+     */
+    public abstract static class Records {
+        final TournamentSnapshot snapshot;
+        final ByteBuffer buffer;
+        final int offset;
+        final int count;
+        final int recordSize;
+
+        // Kích thước record đã được kiểm tra khi mở snapshot
+        Records(TournamentSnapshot snapshot, int type) {
+            this.snapshot = snapshot;
+            this.buffer = snapshot.buffer;
+            this.offset = snapshot.sectionOffsets[type];
+            this.count = snapshot.sectionCounts[type];
+            this.recordSize = snapshot.sectionRecordSizes[type];
+        }
+
+        public int size() {
+            return count;
+        }
+
+        int field(int index, int field) {
+            if (index < 0 || index >= count) {
+                throw new IndexOutOfBoundsException("Index " + index + " ngoài khoảng 0.." + (count - 1));
+            }
+            return buffer.getInt(offset + index * recordSize + field * Integer.BYTES);
+        }
+
+        String stringField(int index, int field) {
+            return snapshot.string(field(index, field));
+        }
+
+        public int id(int index) {
+            return field(index, 0);
+        }
+
+        /**
+         * Index của record theo id (records được ghi theo id tăng dần), -1 nếu không có
+         */
+        public int indexOf(int id) {
+            int low = 0;
+            int high = count - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int midId = id(mid);
+                if (midId < id) {
+                    low = mid + 1;
+                } else if (midId > id) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * id, name, region, coach, medical_staff, is_host, group_id
+     */
+    public static class TeamRecords extends Records {
+        TeamRecords(TournamentSnapshot snapshot) {
+            super(snapshot, TEAMS);
+        }
+
+        public String name(int index) {
+            return stringField(index, 1);
+        }
+
+        public String region(int index) {
+            return stringField(index, 2);
+        }
+
+        public String coach(int index) {
+            return stringField(index, 3);
+        }
+
+        public String medicalStaff(int index) {
+            return stringField(index, 4);
+        }
+
+        public boolean isHost(int index) {
+            return field(index, 5) != 0;
+        }
+
+        public int groupId(int index) {
+            return field(index, 6);
+        }
+
+        /**
+         * Tên team theo id, null nếu không có
+         */
+        public String nameOf(int teamId) {
+            int index = indexOf(teamId);
+            return index < 0 ? null : name(index);
+        }
+    }
+
+    /**
+     * id, team_id, name, jersey_number, position, yellow_cards, red_cards, goals, flags (bit 0 is_starting, bit 1 is_eligible)
+     */
+    public static class PlayerRecords extends Records {
+        static final int STARTING = 1;
+        static final int ELIGIBLE = 2;
+
+        PlayerRecords(TournamentSnapshot snapshot) {
+            super(snapshot, PLAYERS);
+        }
+
+        public int teamId(int index) {
+            return field(index, 1);
+        }
+
+        public String name(int index) {
+            return stringField(index, 2);
+        }
+
+        public int jerseyNumber(int index) {
+            return field(index, 3);
+        }
+
+        public String position(int index) {
+            return stringField(index, 4);
+        }
+
+        public int yellowCards(int index) {
+            return field(index, 5);
+        }
+
+        public int redCards(int index) {
+            return field(index, 6);
+        }
+
+        public int goals(int index) {
+            return field(index, 7);
+        }
+
+        public boolean isStarting(int index) {
+            return (field(index, 8) & STARTING) != 0;
+        }
+
+        public boolean isEligible(int index) {
+            return (field(index, 8) & ELIGIBLE) != 0;
+        }
+    }
+
+    /**
+     * id, team_a_id, team_b_id, team_a_score, team_b_score, match_type, match_date, venue, referee, winner_id (0 là hòa)
+     */
+    public static class MatchRecords extends Records {
+        MatchRecords(TournamentSnapshot snapshot) {
+            super(snapshot, MATCHES);
+        }
+
+        public int teamAId(int index) {
+            return field(index, 1);
+        }
+
+        public int teamBId(int index) {
+            return field(index, 2);
+        }
+
+        public int teamAScore(int index) {
+            return field(index, 3);
+        }
+
+        public int teamBScore(int index) {
+            return field(index, 4);
+        }
+
+        public String matchType(int index) {
+            return stringField(index, 5);
+        }
+
+        public String matchDate(int index) {
+            return stringField(index, 6);
+        }
+
+        public String venue(int index) {
+            return stringField(index, 7);
+        }
+
+        public String referee(int index) {
+            return stringField(index, 8);
+        }
+
+        public int winnerId(int index) {
+            return field(index, 9);
+        }
+    }
+
+    /**
+     * Goals và cards: id, match_id, player_id, team_id, minute, type (goal_type / card_type)
+     */
+    public static class EventRecords extends Records {
+        EventRecords(TournamentSnapshot snapshot, int type) {
+            super(snapshot, type);
+        }
+
+        public int matchId(int index) {
+            return field(index, 1);
+        }
+
+        public int playerId(int index) {
+            return field(index, 2);
+        }
+
+        public int teamId(int index) {
+            return field(index, 3);
+        }
+
+        public int minute(int index) {
+            return field(index, 4);
+        }
+
+        public String type(int index) {
+            return stringField(index, 5);
+        }
+    }
+
+    /**
+     * id, match_id, team_id, player_in_id, player_out_id, minute
+     */
+    public static class SubstitutionRecords extends Records {
+        SubstitutionRecords(TournamentSnapshot snapshot) {
+            super(snapshot, SUBSTITUTIONS);
+        }
+
+        public int matchId(int index) {
+            return field(index, 1);
+        }
+
+        public int teamId(int index) {
+            return field(index, 2);
+        }
+
+        public int playerInId(int index) {
+            return field(index, 3);
+        }
+
+        public int playerOutId(int index) {
+            return field(index, 4);
+        }
+
+        public int minute(int index) {
+            return field(index, 5);
+        }
+    }
+
+    /**
+     * id, name
+     */
+    public static class GroupRecords extends Records {
+        GroupRecords(TournamentSnapshot snapshot) {
+            super(snapshot, GROUPS);
+        }
+
+        public String name(int index) {
+            return stringField(index, 1);
+        }
+
+        /**
+         * Tên group theo id (ví dụ TeamRecords.groupId), null nếu không có
+         */
+        public String nameOf(int groupId) {
+            int index = indexOf(groupId);
+            return index < 0 ? null : name(index);
+        }
+    }
+}
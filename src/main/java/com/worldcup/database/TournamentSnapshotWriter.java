@@ -0,0 +1,383 @@
+package com.worldcup.database;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.worldcup.database.TournamentSnapshot.*;
+
+/**
+ * Ghi TournamentSnapshot: các row được thêm theo id tăng dần và mã hóa ngay thành record độ dài cố định,
+ * string được đưa vào dictionary nên mỗi giá trị (tên vị trí, trọng tài, loại trận...) chỉ lưu một lần.
+ * Dữ liệu từ database được đọc bằng fromDatabase, mỗi row đi thẳng từ cursor vào record.
+ *
+ * Cách dùng: TournamentSnapshotWriter [đường dẫn database] [thư mục output]
+ * (ghi mỗi tournament thành tournament-{id}.wcsnap rồi đo thời gian mở lại tất cả)
+ */
+public class TournamentSnapshotWriter {
+
+    public static final String FILE_EXTENSION = ".wcsnap";
+
+    private final int tournamentId;
+    private final int year;
+    private final int nameRef;
+    private final int hostCountryRef;
+    private final int startDateRef;
+    private final int endDateRef;
+
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+    private final Section[] sections = new Section[SECTION_TYPES + 1];
+
+    /**
+     * Các record của một section, id phải tăng dần để reader tìm bằng binary search
+     */
+    private static final class Section {
+        final int fields;
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        int count;
+        int lastId = Integer.MIN_VALUE;
+
+        Section(int fields) {
+            this.fields = fields;
+        }
+
+        void add(int... values) {
+            if (values.length != fields) {
+                throw new IllegalArgumentException("Record cần " + fields + " field.");
+            }
+            if (values[0] <= lastId) {
+                throw new IllegalArgumentException("Id " + values[0] + " phải lớn hơn id trước đó " + lastId + ".");
+            }
+            lastId = values[0];
+            try {
+                for (int value : values) {
+                    out.writeInt(value);
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            count++;
+        }
+    }
+
+    public TournamentSnapshotWriter(int tournamentId, String name, int year, String hostCountry,
+                                    String startDate, String endDate) {
+        this.tournamentId = tournamentId;
+        this.year = year;
+        this.nameRef = ref(name);
+        this.hostCountryRef = ref(hostCountry);
+        this.startDateRef = ref(startDate);
+        this.endDateRef = ref(endDate);
+
+        sections[TEAMS] = new Section(TEAM_FIELDS);
+        sections[PLAYERS] = new Section(PLAYER_FIELDS);
+        sections[MATCHES] = new Section(MATCH_FIELDS);
+        sections[GOALS] = new Section(EVENT_FIELDS);
+        sections[CARDS] = new Section(EVENT_FIELDS);
+        sections[SUBSTITUTIONS] = new Section(SUBSTITUTION_FIELDS);
+        sections[STATS] = new Section(STATS_FIELDS);
+        sections[GROUPS] = new Section(GROUP_FIELDS);
+    }
+
+    public static void main(String[] args) throws Exception {
+        String database = args.length > 0 ? args[0] : "worldcup.db";
+        Path directory = Paths.get(args.length > 1 ? args[1] : "snapshots");
+        Files.createDirectories(directory);
+
+        DatabaseManager dbManager = new DatabaseManager("jdbc:sqlite:" + database, 1);
+        List<Path> files = new ArrayList<>();
+        try {
+            Connection conn = dbManager.getReadConnection();
+            PreparedStatement pstmt = conn.prepareStatement("SELECT id FROM tournaments ORDER BY id");
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                int id = rs.getInt("id");
+                Path file = directory.resolve("tournament-" + id + FILE_EXTENSION);
+                fromDatabase(conn, id).write(file);
+                files.add(file);
+            }
+            rs.close();
+            pstmt.close();
+        } finally {
+            dbManager.close();
+        }
+
+        long start = System.nanoTime();
+        long goals = 0;
+        for (Path file : files) {
+            goals += TournamentSnapshot.open(file).getTotalGoals();
+        }
+        double millis = (System.nanoTime() - start) / 1_000_000.0;
+        System.out.printf("Đã ghi %d snapshot vào %s, mở lại tất cả mất %.2f ms (%d bàn thắng)%n",
+                files.size(), directory, millis, goals);
+    }
+
+    /**
+     * Đọc tournament từ database, trả về null nếu tournament không tồn tại
+     */
+    public static TournamentSnapshotWriter fromDatabase(Connection conn, int tournamentId) throws SQLException {
+        PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT name, year, host_country, start_date, end_date FROM tournaments WHERE id = ?");
+        pstmt.setInt(1, tournamentId);
+        ResultSet rs = pstmt.executeQuery();
+        if (!rs.next()) {
+            rs.close();
+            pstmt.close();
+            return null;
+        }
+        TournamentSnapshotWriter writer = new TournamentSnapshotWriter(tournamentId, rs.getString("name"),
+                rs.getInt("year"), rs.getString("host_country"), rs.getString("start_date"), rs.getString("end_date"));
+        rs.close();
+        pstmt.close();
+
+        String teamsOfTournament = "SELECT id FROM teams WHERE tournament_id = ?";
+        String matchesOfTournament = "SELECT id FROM matches WHERE team_a_id IN (" + teamsOfTournament + ")";
+
+        rs = query(conn, "SELECT id, name FROM groups WHERE tournament_id = ? ORDER BY id", tournamentId);
+        while (rs.next()) {
+            writer.addGroup(rs.getInt("id"), rs.getString("name"));
+        }
+        close(rs);
+
+        rs = query(conn, """
+            SELECT id, name, region, coach, medical_staff, is_host, group_id
+            FROM teams WHERE tournament_id = ? ORDER BY id
+        """, tournamentId);
+        while (rs.next()) {
+            writer.addTeam(rs.getInt("id"), rs.getString("name"), rs.getString("region"), rs.getString("coach"),
+                    rs.getString("medical_staff"), rs.getBoolean("is_host"), rs.getInt("group_id"));
+        }
+        close(rs);
+
+        rs = query(conn, """
+            SELECT id, team_id, name, jersey_number, position, yellow_cards, red_cards, goals, is_starting, is_eligible
+            FROM players WHERE team_id IN (%s) ORDER BY id
+        """.formatted(teamsOfTournament), tournamentId);
+        while (rs.next()) {
+            writer.addPlayer(rs.getInt("id"), rs.getInt("team_id"), rs.getString("name"), rs.getInt("jersey_number"),
+                    rs.getString("position"), rs.getInt("yellow_cards"), rs.getInt("red_cards"), rs.getInt("goals"),
+                    rs.getBoolean("is_starting"), rs.getBoolean("is_eligible"));
+        }
+        close(rs);
+
+        rs = query(conn, """
+            SELECT id, team_a_id, team_b_id, team_a_score, team_b_score, match_type,
+                   match_date, venue, referee, winner_id
+            FROM matches WHERE team_a_id IN (%s) ORDER BY id
+        """.formatted(teamsOfTournament), tournamentId);
+        while (rs.next()) {
+            writer.addMatch(rs.getInt("id"), rs.getInt("team_a_id"), rs.getInt("team_b_id"),
+                    rs.getInt("team_a_score"), rs.getInt("team_b_score"), rs.getString("match_type"),
+                    rs.getString("match_date"), rs.getString("venue"), rs.getString("referee"), rs.getInt("winner_id"));
+        }
+        close(rs);
+
+        rs = query(conn, """
+            SELECT id, match_id, player_id, team_id, minute, goal_type
+            FROM goals WHERE match_id IN (%s) ORDER BY id
+        """.formatted(matchesOfTournament), tournamentId);
+        while (rs.next()) {
+            writer.addGoal(rs.getInt("id"), rs.getInt("match_id"), rs.getInt("player_id"), rs.getInt("team_id"),
+                    rs.getInt("minute"), rs.getString("goal_type"));
+        }
+        close(rs);
+
+        rs = query(conn, """
+            SELECT id, match_id, player_id, team_id, minute, card_type
+            FROM cards WHERE match_id IN (%s) ORDER BY id
+        """.formatted(matchesOfTournament), tournamentId);
+        while (rs.next()) {
+            writer.addCard(rs.getInt("id"), rs.getInt("match_id"), rs.getInt("player_id"), rs.getInt("team_id"),
+                    rs.getInt("minute"), rs.getString("card_type"));
+        }
+        close(rs);
+
+        rs = query(conn, """
+            SELECT id, match_id, team_id, player_in_id, player_out_id, minute
+            FROM substitutions WHERE match_id IN (%s) ORDER BY id
+        """.formatted(matchesOfTournament), tournamentId);
+        while (rs.next()) {
+            writer.addSubstitution(rs.getInt("id"), rs.getInt("match_id"), rs.getInt("team_id"),
+                    rs.getInt("player_in_id"), rs.getInt("player_out_id"), rs.getInt("minute"));
+        }
+        close(rs);
+
+        rs = query(conn, """
+            SELECT total_goals, total_matches, total_yellow_cards, total_red_cards, total_substitutions,
+                   top_scorer_id, top_scorer_goals, champion_id, runner_up_id, third_place_id_01, third_place_id_02
+            FROM tournament_stats WHERE tournament_id = ? ORDER BY id LIMIT 1
+        """, tournamentId);
+        if (rs.next()) {
+            writer.setStats(rs.getInt("total_goals"), rs.getInt("total_matches"), rs.getInt("total_yellow_cards"),
+                    rs.getInt("total_red_cards"), rs.getInt("total_substitutions"), rs.getInt("top_scorer_id"),
+                    rs.getInt("top_scorer_goals"), rs.getInt("champion_id"), rs.getInt("runner_up_id"),
+                    rs.getInt("third_place_id_01"), rs.getInt("third_place_id_02"));
+        }
+        close(rs);
+
+        return writer;
+    }
+
+    private static ResultSet query(Connection conn, String sql, int tournamentId) throws SQLException {
+        PreparedStatement pstmt = conn.prepareStatement(sql);
+        pstmt.setInt(1, tournamentId);
+        return pstmt.executeQuery();
+    }
+
+    private static void close(ResultSet rs) throws SQLException {
+        Statement statement = rs.getStatement();
+        rs.close();
+        statement.close();
+    }
+
+    public void addGroup(int id, String name) {
+        sections[GROUPS].add(id, ref(name));
+    }
+
+    public void addTeam(int id, String name, String region, String coach, String medicalStaff,
+                        boolean isHost, int groupId) {
+        sections[TEAMS].add(id, ref(name), ref(region), ref(coach), ref(medicalStaff), isHost ? 1 : 0, groupId);
+    }
+
+    public void addPlayer(int id, int teamId, String name, int jerseyNumber, String position,
+                          int yellowCards, int redCards, int goals, boolean isStarting, boolean isEligible) {
+        int flags = (isStarting ? PlayerRecords.STARTING : 0) | (isEligible ? PlayerRecords.ELIGIBLE : 0);
+        sections[PLAYERS].add(id, teamId, ref(name), jerseyNumber, ref(position), yellowCards, redCards, goals, flags);
+    }
+
+    /**
+     * winnerId = 0 với trận hòa
+     */
+    public void addMatch(int id, int teamAId, int teamBId, int teamAScore, int teamBScore, String matchType,
+                         String matchDate, String venue, String referee, int winnerId) {
+        sections[MATCHES].add(id, teamAId, teamBId, teamAScore, teamBScore, ref(matchType),
+                ref(matchDate), ref(venue), ref(referee), winnerId);
+    }
+
+    public void addGoal(int id, int matchId, int playerId, int teamId, int minute, String goalType) {
+        sections[GOALS].add(id, matchId, playerId, teamId, minute, ref(goalType));
+    }
+
+    public void addCard(int id, int matchId, int playerId, int teamId, int minute, String cardType) {
+        sections[CARDS].add(id, matchId, playerId, teamId, minute, ref(cardType));
+    }
+
+    public void addSubstitution(int id, int matchId, int teamId, int playerInId, int playerOutId, int minute) {
+        sections[SUBSTITUTIONS].add(id, matchId, teamId, playerInId, playerOutId, minute);
+    }
+
+    /**
+     * Thống kê cuối giải, các id không có giá trị là 0
+     */
+    public void setStats(int totalGoals, int totalMatches, int totalYellowCards, int totalRedCards,
+                         int totalSubstitutions, int topScorerId, int topScorerGoals, int championId,
+                         int runnerUpId, int thirdPlaceId01, int thirdPlaceId02) {
+        if (sections[STATS].count > 0) {
+            throw new IllegalStateException("Snapshot chỉ có một bản thống kê.");
+        }
+        sections[STATS].add(totalGoals, totalMatches, totalYellowCards, totalRedCards, totalSubstitutions, topScorerId,
+                topScorerGoals, championId, runnerUpId, thirdPlaceId01, thirdPlaceId02);
+    }
+
+    /**
+     * Ghi ra file tạm rồi move để reader không bao giờ thấy snapshot ghi dở
+     */
+    public void write(Path file) throws IOException {
+        Path absolute = file.toAbsolutePath();
+        Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                write(out);
+            }
+            Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public void write(OutputStream target) throws IOException {
+        ByteArrayOutputStream stringData = new ByteArrayOutputStream();
+        ByteArrayOutputStream stringIndex = new ByteArrayOutputStream();
+        DataOutputStream indexOut = new DataOutputStream(stringIndex);
+        for (String value : strings) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            indexOut.writeInt(stringData.size());
+            indexOut.writeInt(bytes.length);
+            stringData.write(bytes);
+        }
+
+        // Thứ tự section trong file: string table rồi tới các bảng theo type
+        List<int[]> entries = new ArrayList<>();
+        List<ByteArrayOutputStream> bodies = new ArrayList<>();
+        int sectionCount = 2 + SECTION_TYPES - TEAMS + 1;
+        int offset = HEADER_SIZE + sectionCount * INDEX_ENTRY_SIZE;
+
+        entries.add(new int[]{STRING_INDEX, strings.size(), 8, offset});
+        bodies.add(stringIndex);
+        offset += stringIndex.size();
+        entries.add(new int[]{STRING_DATA, stringData.size(), 1, offset});
+        bodies.add(stringData);
+        offset += stringData.size();
+        for (int type = TEAMS; type <= SECTION_TYPES; type++) {
+            Section section = sections[type];
+            entries.add(new int[]{type, section.count, section.fields * Integer.BYTES, offset});
+            bodies.add(section.bytes);
+            offset += section.bytes.size();
+        }
+
+        DataOutputStream out = new DataOutputStream(target);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeShort(sectionCount);
+        out.writeInt(tournamentId);
+        out.writeInt(year);
+        out.writeInt(nameRef);
+        out.writeInt(hostCountryRef);
+        out.writeInt(startDateRef);
+        out.writeInt(endDateRef);
+        out.write(new byte[HEADER_SIZE - 32]);
+        for (int[] entry : entries) {
+            for (int value : entry) {
+                out.writeInt(value);
+            }
+        }
+        for (ByteArrayOutputStream body : bodies) {
+            body.writeTo(out);
+        }
+        out.flush();
+    }
+
+    /**
+     * Ref của string trong dictionary, thêm mới nếu chưa có
+     */
+    private int ref(String value) {
+        if (value == null) {
+            return NULL_REF;
+        }
+        Integer existing = dictionary.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        int ref = strings.size();
+        strings.add(value);
+        dictionary.put(value, ref);
+        return ref;
+    }
+}
@@ -11,43 +11,73 @@ import java.util.*;
 import static com.worldcup.constant.Constant.*;
 
 public class DataGenerator {
-    public static final Random random = new Random();
+    // Nguồn gốc, mỗi thread nhận một nhánh split riêng nên không tranh chấp một seed chung
+    private static RandomSource root = RandomSource.unseeded();
+    private static final ThreadLocal<RandomSource> current = ThreadLocal.withInitial(DataGenerator::splitRoot);
 
+    private static synchronized RandomSource splitRoot() {
+        return root.split();
+    }
+
+    /**
+     * Nguồn random của thread hiện tại
+     */
+    public static RandomSource random() {
+        return current.get();
+    }
+
+    /**
+     * Gắn nguồn random (thường là nhánh split từ seed của giải đấu) cho thread hiện tại.
+     * Trả về nguồn cũ để caller khôi phục khi xong việc.
+     */
+    public static RandomSource bindRandom(RandomSource source) {
+        RandomSource previous = current.get();
+        current.set(source);
+        return previous;
+    }
+
+    /**
+     * Seed lại nguồn gốc và nguồn của thread hiện tại, các thread khác nhận nhánh mới khi được tạo
+     */
+    public static synchronized void setSeed(long seed) {
+        root = RandomSource.seeded(seed);
+        current.set(root.split());
+    }
 
     public static int generateRandomMinute() {
         // Goals more likely in certain periods
-        double rand = random.nextDouble();
+        double rand = random().nextDouble();
         if (rand < 0.4) {
-            return random.nextInt(45) + 1; // First half
+            return random().nextInt(45) + 1; // First half
         } else if (rand < 0.8) {
-            return random.nextInt(45) + 46; // Second half
+            return random().nextInt(45) + 46; // Second half
         } else {
-            return random.nextInt(15) + 91; // Extra time
+            return random().nextInt(15) + 91; // Extra time
         }
     }
 
     public static boolean shouldHaveYellowCard() {
-        return random.nextDouble() < 0.3; // 30% chance
+        return random().nextDouble() < 0.3; // 30% chance
     }
 
     public static boolean shouldHaveRedCard() {
-        return random.nextDouble() < 0.05; // 5% chance
+        return random().nextDouble() < 0.05; // 5% chance
     }
 
     public static boolean shouldHaveSubstitution() {
-        return random.nextDouble() < 0.8; // 80% chance of at least one substitution
+        return random().nextDouble() < 0.8; // 80% chance of at least one substitution
     }
 
     public static int generateSubstitutionMinute() {
         // Substitutions more common in second half
-        return random.nextInt(60) + 30; // Between minute 30-90
+        return random().nextInt(60) + 30; // Between minute 30-90
     }
 
 
     // Utility method to get random element from list
     public static <T> T getRandomElement(List<T> list) {
         if (list.isEmpty()) return null;
-        return list.get(random.nextInt(list.size()));
+        return list.get(random().nextInt(list.size()));
     }
 
 
@@ -55,7 +85,7 @@ public class DataGenerator {
     public java.sql.Date generateRandomMatchDate(java.sql.Date startDate, java.sql.Date endDate) {
         long startTime = startDate.getTime();
         long endTime = endDate.getTime();
-        long randomTime = startTime + (long) (random.nextDouble() * (endTime - startTime));
+        long randomTime = startTime + (long) (random().nextDouble() * (endTime - startTime));
         return new java.sql.Date(randomTime);
     }
 
@@ -69,7 +99,7 @@ public class DataGenerator {
      * Random một năm World Cup thực tế
      */
     public int getRandomYear() {
-        return WORLD_CUP_YEARS[random.nextInt(WORLD_CUP_YEARS.length)];
+        return WORLD_CUP_YEARS[random().nextInt(WORLD_CUP_YEARS.length)];
     }
 
     /**
@@ -92,13 +122,13 @@ public class DataGenerator {
     // Generate random match events
     public static int generateRandomGoals() {
         // Most matches have 0-4 goals, with 1-2 being most common
-        double rand = random.nextDouble();
+        double rand = random().nextDouble();
         if (rand < 0.15) return 0;      // 15% chance of 0 goals
         else if (rand < 0.35) return 1; // 20% chance of 1 goal
         else if (rand < 0.60) return 2; // 25% chance of 2 goals
         else if (rand < 0.80) return 3; // 20% chance of 3 goals
         else if (rand < 0.95) return 4; // 15% chance of 4 goals
-        else return 5 + random.nextInt(3); // 5% chance of 5-7 goals
+        else return 5 + random().nextInt(3); // 5% chance of 5-7 goals
     }
 
     public static int[] generateMatchScore() {
@@ -109,7 +139,7 @@ public class DataGenerator {
         }
 
         // Distribute goals between teams
-        int teamAGoals = random.nextInt(totalGoals + 1);
+        int teamAGoals = random().nextInt(totalGoals + 1);
         int teamBGoals = totalGoals - teamAGoals;
 
         return new int[]{teamAGoals, teamBGoals};
@@ -120,7 +150,7 @@ public class DataGenerator {
      */
     public static int getRandomWorldCupYear() {
         int[] WORLD_CUP_YEARS = {1990, 1994, 1998, 2002, 2006, 2010, 2014, 2018, 2022, 2026};
-        return WORLD_CUP_YEARS[random.nextInt(WORLD_CUP_YEARS.length)];
+        return WORLD_CUP_YEARS[random().nextInt(WORLD_CUP_YEARS.length)];
     }
 
     /**
@@ -128,7 +158,7 @@ public class DataGenerator {
      */
     public static String getRandomHostCountry() {
         String[] HOST_COUNTRIES = {"Brazil", "Argentina", "Germany", "France", "Spain", "Italy", "England", "Netherlands", "Portugal", "Belgium", "Croatia", "Uruguay", "Colombia", "Mexico", "Japan", "South Korea", "Morocco", "Senegal", "Ghana", "Nigeria", "Australia", "Denmark", "Switzerland", "Poland", "Austria", "Czech Republic", "Serbia", "Ecuador", "Peru", "Chile", "Canada", "USA", "Russia", "Qatar", "China", "India", "Thailand", "Vietnam", "Indonesia", "Malaysia", "Saudi Arabia", "UAE", "Egypt", "South Africa", "Kenya", "Algeria", "Tunisia", "Cameroon"};
-        return HOST_COUNTRIES[random.nextInt(HOST_COUNTRIES.length)];
+        return HOST_COUNTRIES[random().nextInt(HOST_COUNTRIES.length)];
     }
 
     /**
@@ -137,11 +167,11 @@ public class DataGenerator {
      */
     public static LocalDate[] generateTournamentDates(int year) {
         // Ngày bắt đầu ngẫu nhiên từ 10 đến 20/6
-        int startDay = 10 + random.nextInt(11); // 10-20
+        int startDay = 10 + random().nextInt(11); // 10-20
         LocalDate startDate = LocalDate.of(year, 6, startDay);
 
         // Giải kéo dài 28 đến 32 ngày
-        LocalDate endDate = startDate.plusDays(28 + random.nextInt(5)); // 28-32 ngày
+        LocalDate endDate = startDate.plusDays(28 + random().nextInt(5)); // 28-32 ngày
 
         // Trả về mảng LocalDate
         return new LocalDate[]{startDate, endDate};
@@ -153,11 +183,11 @@ public class DataGenerator {
     }
 
     public static String getRandomVenue() {
-        return VENUES[random.nextInt(VENUES.length)];
+        return VENUES[random().nextInt(VENUES.length)];
     }
 
     public static String getRandomReferee() {
-        return REFEREE_NAMES[random.nextInt(REFEREE_NAMES.length)];
+        return REFEREE_NAMES[random().nextInt(REFEREE_NAMES.length)];
     }
 
 
@@ -167,7 +197,7 @@ public class DataGenerator {
         }
 
         List<String> availableCountries = new ArrayList<>(Arrays.asList(COUNTRIES));
-        Collections.shuffle(availableCountries);
+        random().shuffle(availableCountries);
 
         List<Team> teams = new ArrayList<>();
 
@@ -218,16 +248,16 @@ public class DataGenerator {
     }
 
     public static String getRandomRegion() {
-        return REGIONS[random.nextInt(REGIONS.length)];
+        return REGIONS[random().nextInt(REGIONS.length)];
     }
 
     public static String getRandomCoach() {
-        return COACH_NAMES[random.nextInt(COACH_NAMES.length)];
+        return COACH_NAMES[random().nextInt(COACH_NAMES.length)];
     }
 
     public static List<String> generateAssistantCoaches() {
         List<String> assistants = new ArrayList<>();
-        int count = random.nextInt(3) + 1; // 1-3 assistants
+        int count = random().nextInt(3) + 1; // 1-3 assistants
 
         for (int i = 0; i < count; i++) {
             assistants.add("Assistant " + getRandomName());
@@ -238,19 +268,19 @@ public class DataGenerator {
 
 
     public static String getRandomName() {
-        String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
-        String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        String firstName = FIRST_NAMES[random().nextInt(FIRST_NAMES.length)];
+        String lastName = LAST_NAMES[random().nextInt(LAST_NAMES.length)];
         return firstName + " " + lastName;
     }
 
     // random trong một team
     public static String getRandomName(Team team) {
-        String name = team.getPlayers().get(random.nextInt(team.getPlayers().size())).getName();
+        String name = team.getPlayers().get(random().nextInt(team.getPlayers().size())).getName();
         return name;
     }
 
     public static String getRandomPosition() {
-        return POSITIONS[random.nextInt(POSITIONS.length)];
+        return POSITIONS[random().nextInt(POSITIONS.length)];
     }
 
     public static List<Player> generateStartingPlayers(Team team) {
@@ -0,0 +1,43 @@
+package com.worldcup.generator;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Nguồn random dùng cho việc sinh dữ liệu và mô phỏng trận đấu.
+ * Có thể seed theo từng giải đấu và split thành các nhánh độc lập cho từng thread/task:
+ * mỗi nhánh không chia sẻ trạng thái nên không tranh chấp, và cùng seed luôn cho cùng kết quả.
+ */
+public interface RandomSource {
+
+    int nextInt(int bound);
+
+    long nextLong();
+
+    double nextDouble();
+
+    boolean nextBoolean();
+
+    /**
+     * Tách một nguồn random độc lập, dùng cho task chạy trên thread khác
+     */
+    RandomSource split();
+
+    /**
+     * Fisher-Yates shuffle bằng nguồn random này (thay cho Collections.shuffle cần java.util.Random)
+     */
+    default <T> void shuffle(List<T> list) {
+        for (int i = list.size() - 1; i > 0; i--) {
+            int j = nextInt(i + 1);
+            list.set(i, list.set(j, list.get(i)));
+        }
+    }
+
+    static RandomSource seeded(long seed) {
+        return new SplittableRandomSource(new SplittableRandom(seed));
+    }
+
+    static RandomSource unseeded() {
+        return new SplittableRandomSource(new SplittableRandom());
+    }
+}
@@ -0,0 +1,40 @@
+package com.worldcup.generator;
+
+import java.util.SplittableRandom;
+
+/**
+ * RandomSource dựa trên SplittableRandom: không dùng CAS như java.util.Random
+ * nhưng không thread-safe, mỗi thread phải dùng một nhánh split riêng
+ */
+public class SplittableRandomSource implements RandomSource {
+    private final SplittableRandom random;
+
+    public SplittableRandomSource(SplittableRandom random) {
+        this.random = random;
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    @Override
+    public long nextLong() {
+        return random.nextLong();
+    }
+
+    @Override
+    public double nextDouble() {
+        return random.nextDouble();
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return random.nextBoolean();
+    }
+
+    @Override
+    public RandomSource split() {
+        return new SplittableRandomSource(random.split());
+    }
+}
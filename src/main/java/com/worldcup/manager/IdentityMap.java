@@ -0,0 +1,171 @@
+package com.worldcup.manager;
+
+import com.worldcup.model.Player;
+import com.worldcup.model.Team;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Identity map (cache cấp một) của ObjectManager trong phạm vi một tournament.
+ * Mỗi (tournament, tên team) và (team id, tên player, số áo) ứng với đúng một object đã có id,
+ * nên các lần tra id theo tên không cần truy vấn database.
+ * Chuyển sang tournament khác (beginTournament hoặc registerTeam) sẽ xóa toàn bộ cache cũ.
+ * Simulator threads của vòng bảng song song cùng tra cứu nên mọi method đều synchronized.
+ */
+public class IdentityMap {
+
+    private int tournamentId;
+    private final Map<String, Team> teams = new HashMap<>();
+    private final Map<String, Integer> teamIds = new HashMap<>();
+    private final Map<PlayerKey, Player> players = new HashMap<>();
+    // Id nhỏ nhất theo tên trong team, giống thứ tự trả về của PlayerRepository.getPlayerId
+    private final Map<Integer, Map<String, Integer>> playerIdsByName = new HashMap<>();
+    // Team đã đăng ký đủ players: tên không có trong cache nghĩa là không có trong database
+    private final Set<Integer> completeTeams = new HashSet<>();
+
+    public synchronized int getTournamentId() {
+        return tournamentId;
+    }
+
+    /**
+     * Bắt đầu phạm vi của tournament, cache của tournament khác bị xóa
+     */
+    public synchronized void beginTournament(int tournamentId) {
+        if (this.tournamentId != tournamentId) {
+            clear();
+            this.tournamentId = tournamentId;
+        }
+    }
+
+    public synchronized void clear() {
+        teams.clear();
+        teamIds.clear();
+        players.clear();
+        playerIdsByName.clear();
+        completeTeams.clear();
+    }
+
+    /**
+     * Team đã lưu trở thành object chuẩn cho tên của nó, team chưa có id bị bỏ qua
+     */
+    public synchronized void registerTeam(Team team) {
+        if (team.getId() <= 0) {
+            return;
+        }
+        beginTournament(team.getTournamentId());
+        teams.putIfAbsent(team.getName(), team);
+        teamIds.putIfAbsent(team.getName(), team.getId());
+    }
+
+    /**
+     * Ghi nhớ id đọc từ database khi không có object team
+     */
+    public synchronized void registerTeamId(String teamName, int tournamentId, int teamId) {
+        beginTournament(tournamentId);
+        teamIds.putIfAbsent(teamName, teamId);
+    }
+
+    public synchronized Optional<Team> findTeam(String teamName, int tournamentId) {
+        if (tournamentId != this.tournamentId) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(teams.get(teamName));
+    }
+
+    public synchronized Optional<Integer> findTeamId(String teamName, int tournamentId) {
+        if (tournamentId != this.tournamentId) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(teamIds.get(teamName));
+    }
+
+    /**
+     * Đăng ký toàn bộ players đã lưu của team, sau đó tên không có trong cache được coi là không tồn tại
+     */
+    public synchronized void registerPlayers(int teamId, Collection<Player> teamPlayers) {
+        for (Player player : teamPlayers) {
+            registerPlayer(teamId, player);
+        }
+        completeTeams.add(teamId);
+    }
+
+    /**
+     * Player đã lưu trở thành object chuẩn cho (team, tên, số áo), player chưa có id bị bỏ qua
+     */
+    public synchronized void registerPlayer(int teamId, Player player) {
+        if (player.getId() <= 0) {
+            return;
+        }
+        players.putIfAbsent(new PlayerKey(teamId, player.getName(), player.getJerseyNumber()), player);
+        registerPlayerId(teamId, player.getName(), player.getId());
+    }
+
+    /**
+     * Ghi nhớ id đọc từ database khi không có object player
+     */
+    public synchronized void registerPlayerId(int teamId, String playerName, int playerId) {
+        playerIdsByName.computeIfAbsent(teamId, id -> new HashMap<>()).merge(playerName, playerId, Math::min);
+    }
+
+    public synchronized Optional<Player> findPlayer(int teamId, String playerName, int jerseyNumber) {
+        return Optional.ofNullable(players.get(new PlayerKey(teamId, playerName, jerseyNumber)));
+    }
+
+    public synchronized Optional<Integer> findPlayerId(int teamId, String playerName) {
+        Map<String, Integer> ids = playerIdsByName.get(teamId);
+        return ids == null ? Optional.empty() : Optional.ofNullable(ids.get(playerName));
+    }
+
+    /**
+     * True nếu mọi player đã lưu của team đều có trong cache
+     */
+    public synchronized boolean isComplete(int teamId) {
+        return completeTeams.contains(teamId);
+    }
+
+    public synchronized int getTeamCount() {
+        return teamIds.size();
+    }
+
+    public synchronized int getPlayerCount() {
+        return players.size();
+    }
+
+    /**
+     * Khóa (team id, tên, số áo) của một player
+     */
+    private static final class PlayerKey {
+        private final int teamId;
+        private final String name;
+        private final int jerseyNumber;
+
+        PlayerKey(int teamId, String name, int jerseyNumber) {
+            this.teamId = teamId;
+            this.name = name;
+            this.jerseyNumber = jerseyNumber;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PlayerKey)) {
+                return false;
+            }
+            PlayerKey other = (PlayerKey) o;
+            return teamId == other.teamId && jerseyNumber == other.jerseyNumber && Objects.equals(name, other.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(teamId, name, jerseyNumber);
+        }
+    }
+}
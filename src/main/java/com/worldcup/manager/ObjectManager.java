@@ -4,15 +4,28 @@ import com.worldcup.database.DatabaseManager;
 import com.worldcup.model.*;
 import com.worldcup.repository.*;
 import com.worldcup.repository.impl.*;
+import com.worldcup.repository.memory.*;
+
+import static com.worldcup.repository.metrics.RepositoryInstrumentation.instrument;
 
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * Object Manager để quản lý tất cả repositories và cung cấp OOP interface
  * Tuân theo Singleton Pattern và Dependency Injection
+ *
+ * System properties (đọc khi tạo instance):
+ * - worldcup.repository.backend=memory: repositories và unit of work lưu trong InMemoryStore thay vì SQLite,
+ *   mặc định jdbc. Khi đó dbManager có thể null nếu không cần ghi store xuống SQLite.
+ * - worldcup.repository.backend.flush=true: với backend memory, ghi store vào SQLite khi DatabaseManager đóng
  */
 public class ObjectManager {
+    public static final String BACKEND_PROPERTY = "worldcup.repository.backend";
+    public static final String FLUSH_PROPERTY = "worldcup.repository.backend.flush";
 
     private static ObjectManager instance;
 
@@ -23,24 +36,73 @@ public class ObjectManager {
     private final GoalRepository goalRepository;
     private final CardRepository cardRepository;
     private final SubstitutionRepository substitutionRepository;
+    private PendingUpdates pendingUpdates;
+    // Counters goals / cards của các lần ghi ngoài unit of work, flush khi endPhase hoặc khi đóng database
+    private final PlayerCounterBuffer playerCounters;
+    // Thread đang mô phỏng vòng bảng song song, chỉ được đọc dữ liệu đã nạp sẵn trong bộ nhớ
+    private static final ThreadLocal<Boolean> simulatorThread = ThreadLocal.withInitial(() -> Boolean.FALSE);
+    // Object / id chuẩn của teams và players đã lưu trong tournament hiện tại
+    private final IdentityMap identityMap = new IdentityMap();
+    // Vua phá lưới của tournament hiện tại, cập nhật sau mỗi goal được lưu
+    private final ScorerLeaderboard scorerLeaderboard = new ScorerLeaderboard();
+    // Dữ liệu của backend memory, null khi dùng SQLite
+    private final InMemoryStore memoryStore;
 
     private ObjectManager(DatabaseManager dbManager) {
         this.dbManager = dbManager;
+        this.playerCounters = new PlayerCounterBuffer(dbManager);
+        this.memoryStore = isMemoryBackendSelected() ? new InMemoryStore() : null;
+        if (dbManager == null && memoryStore == null) {
+            throw new IllegalArgumentException("DatabaseManager chỉ được null với backend memory");
+        }
 
-        // Initialize repositories
-        this.teamRepository = new TeamRepositoryImpl(dbManager);
-        this.playerRepository = new PlayerRepositoryImpl(dbManager);
-        this.matchRepository = new MatchRepositoryImpl(dbManager);
-        this.goalRepository = new GoalRepositoryImpl(dbManager);
-        this.cardRepository = new CardRepositoryImpl(dbManager);
-        this.substitutionRepository = new SubstitutionRepositoryImpl(dbManager);
+        // Initialize repositories, bọc bởi instrumentation để đo số lần gọi / độ trễ qua JMX
+        if (memoryStore == null) {
+            dbManager.addCloseHook(this::flush);
+            this.teamRepository = instrument(TeamRepository.class, new TeamRepositoryImpl(dbManager));
+            this.playerRepository = instrument(PlayerRepository.class, new PlayerRepositoryImpl(dbManager));
+            this.matchRepository = instrument(MatchRepository.class, new MatchRepositoryImpl(dbManager));
+            this.goalRepository = instrument(GoalRepository.class, new GoalRepositoryImpl(dbManager, playerCounters));
+            this.cardRepository = instrument(CardRepository.class, new CardRepositoryImpl(dbManager));
+            this.substitutionRepository = instrument(SubstitutionRepository.class, new SubstitutionRepositoryImpl(dbManager));
+        } else {
+            if (dbManager != null && Boolean.getBoolean(FLUSH_PROPERTY)) {
+                dbManager.addCloseHook(this::writeMemoryStore);
+            }
+            this.teamRepository = instrument(TeamRepository.class, new InMemoryTeamRepository(memoryStore));
+            this.playerRepository = instrument(PlayerRepository.class, new InMemoryPlayerRepository(memoryStore));
+            this.matchRepository = instrument(MatchRepository.class, new InMemoryMatchRepository(memoryStore));
+            this.goalRepository = instrument(GoalRepository.class, new InMemoryGoalRepository(memoryStore));
+            this.cardRepository = instrument(CardRepository.class, new InMemoryCardRepository(memoryStore));
+            this.substitutionRepository = instrument(SubstitutionRepository.class, new InMemorySubstitutionRepository(memoryStore));
+        }
 
         // Set repositories to model classes for persistence operations
         initializeModelRepositories();
+
+        // Bảng vua phá lưới của tournament đang có trong database, backend memory bắt đầu với store trống
+        if (memoryStore == null) {
+            try {
+                scorerLeaderboard.rebuildLatest(dbManager.getReadConnection());
+            } catch (SQLException e) {
+                System.err.println("❌ Lỗi khi dựng lại bảng vua phá lưới: " + e.getMessage());
+            }
+        }
     }
 
-    public static ObjectManager getInstance(DatabaseManager dbManager) {
-        if (instance == null) {
+    /**
+     * System property chọn backend memory cho các instance được tạo từ giờ
+     */
+    public static boolean isMemoryBackendSelected() {
+        return "memory".equalsIgnoreCase(System.getProperty(BACKEND_PROPERTY));
+    }
+
+    /**
+     * Instance gắn với dbManager; tạo lại khi được gọi với DatabaseManager khác
+     * (ví dụ mở database mới sau khi database cũ đã close) để repositories không giữ connection cũ
+     */
+    public static synchronized ObjectManager getInstance(DatabaseManager dbManager) {
+        if (instance == null || instance.dbManager != dbManager) {
             instance = new ObjectManager(dbManager);
         }
         return instance;
@@ -76,12 +138,177 @@ public class ObjectManager {
         return substitutionRepository;
     }
 
+    public boolean isInMemory() {
+        return memoryStore != null;
+    }
+
+    /**
+     * Store của backend memory, null khi dùng SQLite
+     */
+    public InMemoryStore getMemoryStore() {
+        return memoryStore;
+    }
+
+    /**
+     * Ghi dữ liệu của backend memory vào SQLite rồi xóa store và identity map, trả về số row được ghi.
+     * Entity đang giữ vẫn mang id trong bộ nhớ, không phải id mới trong database.
+     */
+    public synchronized int writeMemoryStore() throws SQLException {
+        if (memoryStore == null || memoryStore.isEmpty()) {
+            return 0;
+        }
+        if (dbManager == null) {
+            throw new IllegalStateException("Backend memory không có DatabaseManager để ghi store");
+        }
+        int written = new InMemoryStoreWriter(dbManager).write(memoryStore);
+        memoryStore.clear();
+        identityMap.clear();
+        return written;
+    }
+
+    public ScorerLeaderboard getScorerLeaderboard() {
+        return scorerLeaderboard;
+    }
+
+    public IdentityMap getIdentityMap() {
+        return identityMap;
+    }
+
+    /**
+     * Đánh dấu thread hiện tại là simulator thread của vòng bảng song song.
+     * Simulator thread không được truy vấn database vì writer connection có thể đang ở giữa transaction.
+     */
+    public static void setSimulatorThread(boolean simulator) {
+        if (simulator) {
+            simulatorThread.set(Boolean.TRUE);
+        } else {
+            simulatorThread.remove();
+        }
+    }
+
+    private static void checkDatabaseLookup(String lookup) {
+        if (simulatorThread.get()) {
+            throw new IllegalStateException("Simulator thread không được truy vấn database (" + lookup
+                    + "), phải resolve trước khi mô phỏng song song.");
+        }
+    }
+
+    /**
+     * Gán id cho mọi player của team (đá chính và dự bị). Team chưa có đủ players trong identity map
+     * được nạp một lần từ database, sau đó resolvePlayerId của team chỉ tra bộ nhớ.
+     */
+    public void resolvePlayerIds(Team team) throws SQLException {
+        if (team.getId() > 0 && !identityMap.isComplete(team.getId())) {
+            checkDatabaseLookup("players của team " + team.getName());
+            identityMap.registerPlayers(team.getId(), playerRepository.findByTeam(team.getId()));
+        }
+        for (Player player : team.getStartingPlayers()) {
+            resolvePlayerId(player, team);
+        }
+        for (Player player : team.getSubstitutePlayers()) {
+            resolvePlayerId(player, team);
+        }
+    }
+
+    /**
+     * Gán id cho player chưa có id: tra identity map theo (team, tên, số áo) rồi theo tên trong team.
+     * Chỉ truy vấn database khi team chưa được đăng ký đủ players, kết quả được ghi nhớ.
+     */
+    public void resolvePlayerId(Player player, Team team) throws SQLException {
+        if (player.getId() > 0) {
+            return;
+        }
+
+        Optional<Integer> playerId = identityMap.findPlayer(team.getId(), player.getName(), player.getJerseyNumber())
+                .map(Player::getId);
+        if (playerId.isEmpty()) {
+            playerId = identityMap.findPlayerId(team.getId(), player.getName());
+        }
+        if (playerId.isEmpty() && !identityMap.isComplete(team.getId())) {
+            checkDatabaseLookup("id của player " + player.getName());
+            playerId = playerRepository.getPlayerId(player.getName(), team.getName(), team.getTournamentId());
+            if (playerId.isPresent() && team.getId() > 0) {
+                identityMap.registerPlayerId(team.getId(), player.getName(), playerId.get());
+            }
+        }
+        playerId.ifPresent(player::setId);
+    }
+
+    /**
+     * Id của team theo tên trong tournament, ưu tiên identity map
+     */
+    public Optional<Integer> getTeamId(String teamName, int tournamentId) throws SQLException {
+        Optional<Integer> teamId = identityMap.findTeamId(teamName, tournamentId);
+        if (teamId.isEmpty()) {
+            checkDatabaseLookup("id của team " + teamName);
+            teamId = teamRepository.getTeamId(teamName, tournamentId);
+            teamId.ifPresent(id -> identityMap.registerTeamId(teamName, tournamentId, id));
+        }
+        return teamId;
+    }
+
+    /**
+     * Bắt đầu unit of work để ghi toàn bộ một trận đấu trong một transaction (backend memory: vào store)
+     */
+    public synchronized MatchUnitOfWork beginUnitOfWork() {
+        MatchUnitOfWork unitOfWork = memoryStore != null
+                ? new InMemoryMatchUnitOfWork(memoryStore)
+                : new MatchUnitOfWork(dbManager, pendingUpdates);
+        unitOfWork.setGoalListener(scorerLeaderboard::addGoal);
+        return unitOfWork;
+    }
+
+    /**
+     * Bắt đầu một phase mô phỏng: update Team / Player của các unit of work tạo ra từ giờ
+     * được gom lại, mỗi entity chỉ ghi một lần khi endPhase. Backend memory ghi thẳng vào store nên không gom.
+     */
+    public synchronized void beginPhase() {
+        if (pendingUpdates == null && memoryStore == null) {
+            pendingUpdates = new PendingUpdates(dbManager);
+        }
+    }
+
+    /**
+     * Kết thúc phase và ghi các update đã gom cùng counters đang đệm, trả về số row được ghi
+     */
+    public int endPhase() throws SQLException {
+        PendingUpdates updates;
+        synchronized (this) {
+            updates = pendingUpdates;
+            pendingUpdates = null;
+        }
+        int written = updates == null ? 0 : updates.flush();
+        return written + playerCounters.flush();
+    }
+
+    /**
+     * Ghi mọi thay đổi còn đệm trong bộ nhớ, tự động chạy trước khi DatabaseManager đóng
+     */
+    public int flush() throws SQLException {
+        PendingUpdates updates;
+        synchronized (this) {
+            updates = pendingUpdates;
+        }
+        int written = updates == null ? 0 : updates.flush();
+        return written + playerCounters.flush();
+    }
+
     /**
      * tạo và lưu goal
      */
     public Goal createGoal(Player player, Team team, int minute, Match match) throws Exception {
         Goal goal = new Goal(player, team, minute, match);
         goal.save(); // Uses repository internally
+        scorerLeaderboard.addGoal(goal);
+        return goal;
+    }
+
+    /**
+     * tạo goal, được lưu khi unit of work commit
+     */
+    public Goal createGoal(Player player, Team team, int minute, Match match, MatchUnitOfWork unitOfWork) {
+        Goal goal = new Goal(player, team, minute, match);
+        unitOfWork.registerGoal(goal);
         return goal;
     }
 
@@ -92,10 +319,38 @@ public class ObjectManager {
         Card card = new Card(player, team, match, minute, type);
         cardRepository.save(card);
 
-        // Update player cards through repository
-        String cardTypeStr = type == Card.CardType.YELLOW ? "YELLOW" : "RED";
-        playerRepository.updateCards(player, team.getName(), team.getTournamentId(), cardTypeStr);
+        // Player có id thì counter được đệm lại (backend memory cộng thẳng vào store), ngược lại cập nhật ngay theo tên trong team
+        boolean counted;
+        if (memoryStore != null) {
+            boolean yellow = type == Card.CardType.YELLOW;
+            counted = memoryStore.addPlayerCounters(player.getId(), 0, yellow ? 1 : 0, yellow ? 0 : 1);
+        } else {
+            counted = player.getId() > 0;
+            if (counted) {
+                playerCounters.addCard(player.getId(), type);
+            }
+        }
+        if (counted) {
+            if (type == Card.CardType.YELLOW) {
+                player.receiveYellowCard();
+            } else {
+                player.receiveRedCard();
+            }
+        } else {
+            String cardTypeStr = type == Card.CardType.YELLOW ? "YELLOW" : "RED";
+            playerRepository.updateCards(player, team.getName(), team.getTournamentId(), cardTypeStr);
+        }
+
+        return card;
+    }
 
+    /**
+     * tạo card, được lưu khi unit of work commit
+     */
+    public Card createCard(Player player, Team team, Match match, int minute, Card.CardType type,
+                           MatchUnitOfWork unitOfWork) {
+        Card card = new Card(player, team, match, minute, type);
+        unitOfWork.registerCard(card);
         return card;
     }
 
@@ -109,17 +364,66 @@ public class ObjectManager {
         return substitution;
     }
 
+    /**
+     * tạo thay thế cầu thủ, được lưu khi unit of work commit
+     */
+    public Substitution createSubstitution(Match match, Team team, Player playerIn, Player playerOut, int minute,
+                                           MatchUnitOfWork unitOfWork) throws SQLException {
+        Substitution substitution = new Substitution(playerIn, playerOut, minute, team, match);
+        unitOfWork.registerSubstitution(substitution);
+        match.addSubstitution(substitution);
+        return substitution;
+    }
+
     public void saveTeam(Team team) throws Exception {
         teamRepository.save(team);
+        registerTeamWithLineup(team);
+    }
+
+    /**
+     * lưu nhiều teams (kèm assistant coaches và đội hình) bằng multi-row INSERT
+     */
+    public void saveTeams(List<Team> teams) throws SQLException {
+        teamRepository.saveAll(teams);
+        for (Team team : teams) {
+            registerTeamWithLineup(team);
+        }
+    }
+
+    /**
+     * Team và đội hình vừa được lưu cùng team trở thành object chuẩn trong identity map
+     */
+    private void registerTeamWithLineup(Team team) {
+        identityMap.registerTeam(team);
+        identityMap.registerPlayers(team.getId(), team.getStartingPlayers());
+        identityMap.registerPlayers(team.getId(), team.getSubstitutePlayers());
+    }
+
+    /**
+     * lưu nhiều players theo team ID, bỏ qua players trùng số áo
+     */
+    public void savePlayers(Map<Integer, List<Player>> playersByTeamId) throws SQLException {
+        playerRepository.saveAll(playersByTeamId);
+        // Rows bị bỏ qua không có id nên không vào cache
+        for (Map.Entry<Integer, List<Player>> entry : playersByTeamId.entrySet()) {
+            identityMap.registerPlayers(entry.getKey(), entry.getValue());
+        }
     }
 
     public void savePlayer(Player player, int teamId, boolean isStarting) throws SQLException {
+        if (memoryStore != null) {
+            player.setStarting(isStarting);
+            playerRepository.save(player, teamId);
+            return;
+        }
+
         String sql = """
                     INSERT INTO players (name, jersey_number, position, team_id, is_starting, yellow_cards, red_cards, is_eligible)
                     VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                    RETURNING id
                 """;
 
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setString(1, player.getName());
         pstmt.setInt(2, player.getJerseyNumber());
         pstmt.setString(3, player.getPosition());
@@ -128,11 +432,8 @@ public class ObjectManager {
         pstmt.setInt(6, player.getYellowCards());
         pstmt.setInt(7, player.getRedCards());
         pstmt.setBoolean(8, player.isEligible());
-        pstmt.executeUpdate();
-        pstmt.close();
-
         // Set the player ID from database
-        int playerId = dbManager.getLastInsertId();
+        int playerId = dbManager.executeInsertReturningId(pstmt);
         player.setId(playerId);
     }
 
@@ -143,4 +444,12 @@ public class ObjectManager {
         match.updateMatchResult(teamAScore, teamBScore);
         matchRepository.update(match);
     }
+
+    /**
+     * cập nhật kết quả trận đấu, được lưu khi unit of work commit
+     */
+    public void updateMatchResult(Match match, int teamAScore, int teamBScore, MatchUnitOfWork unitOfWork) {
+        match.updateMatchResult(teamAScore, teamBScore);
+        unitOfWork.registerMatchUpdate(match);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,268 @@
+package com.worldcup.manager;
+
+import com.worldcup.model.Goal;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+/**
+ * Bảng xếp hạng cầu thủ ghi bàn của tournament hiện tại, cập nhật mỗi khi goal được lưu.
+ * Theo player id (cầu thủ trùng tên không bị gộp), xếp theo số bàn giảm dần rồi tên như truy vấn vua phá lưới.
+ * Số bàn của mọi cầu thủ nằm trong HashMap, chỉ K cầu thủ dẫn đầu (capacity) nằm trong TreeSet nên mỗi goal
+ * là O(1) + O(log K): số bàn chỉ tăng, cầu thủ ngoài top chỉ vào được khi vượt người cuối top và đẩy người đó ra.
+ * top(limit) với limit <= K đọc thẳng từ TreeSet, limit lớn hơn thì chọn bằng heap trên HashMap.
+ *
+ * Bảng chỉ đầy đủ (isComplete) khi được bắt đầu cùng tournament mới (startTournament, lúc chưa có goal nào)
+ * hoặc được rebuild từ database; goal của tournament khác làm bảng chuyển sang tournament đó nhưng chưa đầy đủ.
+ * Writer thread của vòng bảng song song cũng ghi goal nên mọi method đều synchronized.
+ */
+public class ScorerLeaderboard {
+
+    /**
+     * Một dòng trên bảng xếp hạng, immutable
+     */
+    public static final class Scorer {
+        private final int playerId;
+        private final String playerName;
+        private final String teamName;
+        private final String position;
+        private final int goals;
+
+        public Scorer(int playerId, String playerName, String teamName, String position, int goals) {
+            this.playerId = playerId;
+            this.playerName = playerName;
+            this.teamName = teamName;
+            this.position = position;
+            this.goals = goals;
+        }
+
+        public int getPlayerId() { return playerId; }
+        public String getPlayerName() { return playerName; }
+        public String getTeamName() { return teamName; }
+        public String getPosition() { return position; }
+        public int getGoals() { return goals; }
+
+        Scorer withGoals(int goals) {
+            return new Scorer(playerId, playerName, teamName, position, goals);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s (%s): %d bàn", playerName, teamName, goals);
+        }
+    }
+
+    /**
+     * Số bàn giảm dần, tên tăng dần, player id để các cầu thủ trùng tên không bị coi là một
+     */
+    public static final Comparator<Scorer> RANKING = Comparator
+            .comparingInt(Scorer::getGoals).reversed()
+            .thenComparing(Scorer::getPlayerName, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparingInt(Scorer::getPlayerId);
+
+    public static final int DEFAULT_CAPACITY = 10;
+
+    private final int capacity;
+    private int tournamentId;
+    private boolean complete;
+    private final Map<Integer, Scorer> scorers = new HashMap<>();
+    // Tối đa capacity cầu thủ dẫn đầu
+    private final TreeSet<Scorer> ranking = new TreeSet<>(RANKING);
+
+    public ScorerLeaderboard() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ScorerLeaderboard(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity phải lớn hơn 0: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    public synchronized int getTournamentId() {
+        return tournamentId;
+    }
+
+    /**
+     * Bảng có chứa mọi goal của tournament hay không
+     */
+    public synchronized boolean isComplete(int tournamentId) {
+        return complete && this.tournamentId == tournamentId;
+    }
+
+    /**
+     * Bắt đầu theo dõi tournament vừa được tạo (chưa có goal nào).
+     * Luôn xóa bảng cũ vì id có thể được cấp lại sau khi xóa dữ liệu cũ.
+     */
+    public synchronized void startTournament(int tournamentId) {
+        reset(tournamentId, true);
+    }
+
+    public synchronized void clear() {
+        reset(0, false);
+    }
+
+    /**
+     * Ghi nhận goal đã được lưu, goal chưa có player id bị bỏ qua
+     */
+    public synchronized void addGoal(Goal goal) {
+        int playerId = goal.getPlayer().getId();
+        if (playerId <= 0) {
+            return;
+        }
+        int goalTournamentId = goal.getTeam().getTournamentId();
+        if (goalTournamentId != tournamentId) {
+            reset(goalTournamentId, false);
+        }
+
+        Scorer current = scorers.get(playerId);
+        Scorer updated = current == null
+                ? new Scorer(playerId, goal.getPlayer().getName(), goal.getTeam().getName(),
+                        goal.getPlayer().getPosition(), 1)
+                : current.withGoals(current.getGoals() + 1);
+        scorers.put(playerId, updated);
+
+        if (current != null && ranking.remove(current)) {
+            ranking.add(updated);
+        } else if (ranking.size() < capacity) {
+            ranking.add(updated);
+        } else if (RANKING.compare(updated, ranking.last()) < 0) {
+            ranking.pollLast();
+            ranking.add(updated);
+        }
+    }
+
+    /**
+     * K cầu thủ dẫn đầu, limit <= 0 nghĩa là tất cả
+     */
+    public synchronized List<Scorer> top(int limit) {
+        if (limit <= 0 || limit > capacity) {
+            return topK(scorers.values(), limit);
+        }
+        int size = Math.min(limit, ranking.size());
+        List<Scorer> result = new ArrayList<>(size);
+        Iterator<Scorer> iterator = ranking.iterator();
+        while (result.size() < size) {
+            result.add(iterator.next());
+        }
+        return result;
+    }
+
+    public synchronized Optional<Scorer> leader() {
+        return ranking.isEmpty() ? Optional.empty() : Optional.of(ranking.first());
+    }
+
+    public synchronized int getGoals(int playerId) {
+        Scorer scorer = scorers.get(playerId);
+        return scorer == null ? 0 : scorer.getGoals();
+    }
+
+    public synchronized int size() {
+        return scorers.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Dựng lại bảng của tournament từ database (ví dụ khi khởi động lại giữa chừng), sau đó bảng là đầy đủ.
+     * Top K được chọn bằng heap giới hạn K phần tử thay vì sort toàn bộ.
+     */
+    public synchronized void rebuild(Connection conn, int tournamentId) throws SQLException {
+        List<Scorer> loaded = load(conn, tournamentId);
+        reset(tournamentId, true);
+        for (Scorer scorer : loaded) {
+            scorers.put(scorer.getPlayerId(), scorer);
+        }
+        ranking.addAll(topK(loaded, capacity));
+    }
+
+    /**
+     * Dựng lại bảng của tournament mới nhất trong database, trả về false nếu chưa có tournament nào
+     */
+    public synchronized boolean rebuildLatest(Connection conn) throws SQLException {
+        PreparedStatement pstmt = conn.prepareStatement("SELECT MAX(id) FROM tournaments");
+        ResultSet rs = pstmt.executeQuery();
+        int latestId = rs.next() ? rs.getInt(1) : 0;
+        rs.close();
+        pstmt.close();
+
+        if (latestId <= 0) {
+            return false;
+        }
+        rebuild(conn, latestId);
+        return true;
+    }
+
+    /**
+     * Số bàn của từng cầu thủ đã ghi bàn trong tournament, đếm theo player id
+     */
+    public static List<Scorer> load(Connection conn, int tournamentId) throws SQLException {
+        String sql = """
+            SELECT p.id, p.name, p.position, t.name AS team_name, COUNT(*) AS goals
+            FROM goals g
+            JOIN players p ON g.player_id = p.id
+            JOIN teams t ON p.team_id = t.id
+            WHERE t.tournament_id = ?
+            GROUP BY p.id
+        """;
+
+        PreparedStatement pstmt = conn.prepareStatement(sql);
+        pstmt.setInt(1, tournamentId);
+        ResultSet rs = pstmt.executeQuery();
+        List<Scorer> scorers = new ArrayList<>();
+        while (rs.next()) {
+            scorers.add(new Scorer(rs.getInt("id"), rs.getString("name"), rs.getString("team_name"),
+                    rs.getString("position"), rs.getInt("goals")));
+        }
+        rs.close();
+        pstmt.close();
+        return scorers;
+    }
+
+    /**
+     * Top K bằng min-heap giới hạn K phần tử: O(n log k) thời gian, O(k) bộ nhớ, không sort toàn bộ danh sách
+     */
+    public static List<Scorer> topK(Iterable<Scorer> scorers, int limit) {
+        if (limit <= 0) {
+            List<Scorer> all = new ArrayList<>();
+            scorers.forEach(all::add);
+            all.sort(RANKING);
+            return all;
+        }
+
+        // Đỉnh heap là cầu thủ xếp thấp nhất trong K cầu thủ đang giữ
+        PriorityQueue<Scorer> heap = new PriorityQueue<>(limit, RANKING.reversed());
+        for (Scorer scorer : scorers) {
+            if (heap.size() < limit) {
+                heap.add(scorer);
+            } else if (RANKING.compare(scorer, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(scorer);
+            }
+        }
+        List<Scorer> result = new ArrayList<>(heap);
+        result.sort(RANKING);
+        return result;
+    }
+
+    private void reset(int tournamentId, boolean complete) {
+        this.tournamentId = tournamentId;
+        this.complete = complete;
+        scorers.clear();
+        ranking.clear();
+    }
+}
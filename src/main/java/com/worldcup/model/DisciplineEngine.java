@@ -0,0 +1,205 @@
+package com.worldcup.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Kỷ luật của tournament: áp dụng từng thẻ phạt ngay khi được tạo và giữ án treo giò của từng cầu thủ.
+ * Trận được đánh số theo từng đội (trận thứ N của đội), án treo giò lưu dưới dạng "treo giò tới hết trận thứ K"
+ * nên tự được chấp hành khi đội đá các trận tiếp theo: mỗi thẻ và mỗi câu hỏi "cầu thủ có được đá trận N không"
+ * đều là O(1), không cần quét lại lịch sử thẻ.
+ *
+ * Luật áp dụng:
+ * - thẻ đỏ trực tiếp: treo giò SUSPENSION_MATCHES trận
+ * - thẻ vàng thứ hai trong cùng trận: bị đuổi, treo giò, thẻ vàng đầu tiên của trận không tính vào tích lũy
+ * - đủ YELLOW_CARD_LIMIT thẻ vàng tích lũy qua các trận: treo giò rồi đếm lại từ đầu
+ * - resetYellowCards() xóa thẻ vàng tích lũy (sau tứ kết)
+ * Các bảng được mô phỏng song song nên mọi method đều synchronized.
+ */
+public class DisciplineEngine {
+    public static final int YELLOW_CARD_LIMIT = 2;
+    public static final int SUSPENSION_MATCHES = 1;
+
+    /**
+     * Trạng thái kỷ luật của một cầu thủ, các số trận là số thứ tự trận của đội
+     */
+    private static final class PlayerRecord {
+        int yellowCards;
+        int yellowEpoch;
+        int lastYellowMatch;
+        int accumulationBanMatch;
+        int sentOffMatch;
+        int suspendedThrough;
+    }
+
+    private static final class TeamRecord {
+        int matchesStarted;
+        final Map<Player, PlayerRecord> players = new HashMap<>();
+        // Cầu thủ từng bị treo giò, án đã chấp hành xong được dọn khi đọc
+        final Set<Player> suspended = new LinkedHashSet<>();
+    }
+
+    private final Map<Team, TeamRecord> teams = new HashMap<>();
+    // Tăng lên khi xóa thẻ vàng tích lũy, thẻ vàng của epoch cũ coi như bằng 0
+    private int epoch;
+
+    /**
+     * Bắt đầu một trận: mỗi đội chuyển sang trận tiếp theo của mình
+     */
+    public synchronized void startMatch(Match match) {
+        teamRecord(match.getTeamA()).matchesStarted++;
+        teamRecord(match.getTeamB()).matchesStarted++;
+    }
+
+    /**
+     * Số trận đội đã bắt đầu, trận đang đá là trận thứ getMatchesStarted(team)
+     */
+    public synchronized int getMatchesStarted(Team team) {
+        TeamRecord record = teams.get(team);
+        return record == null ? 0 : record.matchesStarted;
+    }
+
+    public void applyCard(Card card) {
+        applyCard(card.getPlayer(), card.getTeam(), card.getType());
+    }
+
+    /**
+     * Áp dụng một thẻ trong trận hiện tại của đội
+     */
+    public synchronized void applyCard(Player player, Team team, Card.CardType type) {
+        TeamRecord teamRecord = teamRecord(team);
+        int match = teamRecord.matchesStarted;
+        if (match == 0) {
+            throw new IllegalStateException("Đội " + team.getName() + " chưa bắt đầu trận đấu nào.");
+        }
+
+        PlayerRecord record = teamRecord.players.computeIfAbsent(player, k -> new PlayerRecord());
+        if (record.sentOffMatch == match) {
+            return; // Đã bị đuổi khỏi sân, thẻ sau đó không tạo thêm án
+        }
+
+        switch (type) {
+            case YELLOW:
+                if (record.yellowEpoch != epoch) {
+                    record.yellowCards = 0;
+                    record.yellowEpoch = epoch;
+                }
+                if (record.lastYellowMatch == match) {
+                    record.sentOffMatch = match;
+                    // Nếu thẻ vàng đầu tiên đã gây án tích lũy thì án đó được tính cho lần bị đuổi
+                    if (record.accumulationBanMatch != match) {
+                        record.yellowCards = Math.max(0, record.yellowCards - 1);
+                        suspend(teamRecord, player, record, match);
+                    }
+                } else {
+                    record.lastYellowMatch = match;
+                    record.yellowCards++;
+                    if (record.yellowCards >= YELLOW_CARD_LIMIT) {
+                        record.yellowCards = 0;
+                        record.accumulationBanMatch = match;
+                        suspend(teamRecord, player, record, match);
+                    }
+                }
+                break;
+            case RED:
+                record.sentOffMatch = match;
+                suspend(teamRecord, player, record, match);
+                break;
+            default:
+                throw new IllegalArgumentException("Loại thẻ không hợp lệ: " + type);
+        }
+    }
+
+    /**
+     * Cầu thủ có được đá trận thứ matchNumber của đội không
+     */
+    public synchronized boolean isEligible(Team team, Player player, int matchNumber) {
+        TeamRecord teamRecord = teams.get(team);
+        PlayerRecord record = teamRecord == null ? null : teamRecord.players.get(player);
+        return record == null || record.suspendedThrough < matchNumber;
+    }
+
+    public synchronized boolean isEligibleForNextMatch(Team team, Player player) {
+        return isEligible(team, player, getMatchesStarted(team) + 1);
+    }
+
+    /**
+     * Các cầu thủ bị treo giò ở trận thứ matchNumber của đội, theo thứ tự nhận án
+     */
+    public synchronized List<Player> getSuspendedPlayers(Team team, int matchNumber) {
+        List<Player> result = new ArrayList<>();
+        TeamRecord teamRecord = teams.get(team);
+        if (teamRecord == null) {
+            return result;
+        }
+
+        Iterator<Player> iterator = teamRecord.suspended.iterator();
+        while (iterator.hasNext()) {
+            Player player = iterator.next();
+            int suspendedThrough = teamRecord.players.get(player).suspendedThrough;
+            if (suspendedThrough <= teamRecord.matchesStarted) {
+                iterator.remove();
+            } else if (suspendedThrough >= matchNumber) {
+                result.add(player);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Cầu thủ của đội (đá chính trước, dự bị sau) được đá trận thứ matchNumber
+     */
+    public synchronized List<Player> getEligiblePlayers(Team team, int matchNumber) {
+        List<Player> result = new ArrayList<>();
+        for (Player player : team.getStartingPlayers()) {
+            if (isEligible(team, player, matchNumber)) {
+                result.add(player);
+            }
+        }
+        for (Player player : team.getSubstitutePlayers()) {
+            if (isEligible(team, player, matchNumber)) {
+                result.add(player);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Số trận cầu thủ còn phải ngồi ngoài tính từ trận tiếp theo của đội
+     */
+    public synchronized int getRemainingSuspension(Team team, Player player) {
+        TeamRecord teamRecord = teams.get(team);
+        PlayerRecord record = teamRecord == null ? null : teamRecord.players.get(player);
+        return record == null ? 0 : Math.max(0, record.suspendedThrough - teamRecord.matchesStarted);
+    }
+
+    /**
+     * Số thẻ vàng đang tích lũy của cầu thủ
+     */
+    public synchronized int getYellowCards(Team team, Player player) {
+        TeamRecord teamRecord = teams.get(team);
+        PlayerRecord record = teamRecord == null ? null : teamRecord.players.get(player);
+        return record == null || record.yellowEpoch != epoch ? 0 : record.yellowCards;
+    }
+
+    /**
+     * Xóa thẻ vàng tích lũy của mọi cầu thủ, án treo giò đã có vẫn giữ nguyên
+     */
+    public synchronized void resetYellowCards() {
+        epoch++;
+    }
+
+    private void suspend(TeamRecord teamRecord, Player player, PlayerRecord record, int match) {
+        record.suspendedThrough = Math.max(record.suspendedThrough, match) + SUSPENSION_MATCHES;
+        teamRecord.suspended.add(player);
+    }
+
+    private TeamRecord teamRecord(Team team) {
+        return teams.computeIfAbsent(team, k -> new TeamRecord());
+    }
+}
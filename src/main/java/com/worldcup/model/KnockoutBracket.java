@@ -0,0 +1,238 @@
+package com.worldcup.model;
+
+import java.util.Arrays;
+
+/**
+ * Nhánh đấu loại trực tiếp dạng cây nhị phân lưu trên một mảng int (như binary heap).
+ * Các đội là số nguyên (vị trí trong danh sách đội của người gọi), capacity là lũy thừa của 2 >= số đội:
+ * lá nằm ở [capacity, 2 * capacity), trận i có hai nhánh con 2i và 2i + 1, node 1 là trận chung kết.
+ * Mỗi node giữ đội đi tiếp từ nhánh đó nên ghi nhận người thắng là O(1), copy chỉ là một lần sao chép mảng.
+ *
+ * Số đội bất kỳ từ 2 trở lên: 16 (32 đội vòng bảng), 32 (48 đội vòng bảng), hoặc 48 đội vào thẳng knockout.
+ * Khi số đội không phải lũy thừa của 2, các đội đầu danh sách được miễn vòng đầu (đối thủ là BYE).
+ * Vòng được đánh số từ 0 (vòng đầu) tới getRoundCount() - 1 (chung kết).
+ */
+public final class KnockoutBracket {
+    // Vị trí không có đội (miễn đấu)
+    public static final int BYE = -1;
+    // Trận chưa có kết quả
+    public static final int UNDECIDED = -2;
+
+    private final int teamCount;
+    private final int capacity;
+    private final int[] nodes;
+
+    /**
+     * Tạo nhánh đấu cho các đội 0..teamCount-1 theo thứ tự ghép cặp (0-1, 2-3, ...)
+     */
+    public KnockoutBracket(int teamCount) {
+        if (teamCount < 2) {
+            throw new IllegalArgumentException("Nhánh đấu cần ít nhất 2 đội.");
+        }
+
+        this.teamCount = teamCount;
+        this.capacity = Integer.highestOneBit(teamCount - 1) << 1;
+        this.nodes = new int[2 * capacity];
+
+        int byes = capacity - teamCount;
+        int team = 0;
+        for (int match = 0; match < capacity / 2; match++) {
+            int leaf = capacity + 2 * match;
+            nodes[leaf] = team++;
+            nodes[leaf + 1] = match < byes ? BYE : team++;
+        }
+        resetResults();
+    }
+
+    private KnockoutBracket(KnockoutBracket other) {
+        this.teamCount = other.teamCount;
+        this.capacity = other.capacity;
+        this.nodes = other.nodes.clone();
+    }
+
+    /**
+     * Bản sao độc lập, dùng cho mô phỏng lặp lại từ cùng một trạng thái
+     */
+    public KnockoutBracket copy() {
+        return new KnockoutBracket(this);
+    }
+
+    /**
+     * Chép trạng thái của nhánh đấu cùng kích thước vào nhánh này, không cấp phát
+     */
+    public void copyFrom(KnockoutBracket other) {
+        if (other.capacity != capacity || other.teamCount != teamCount) {
+            throw new IllegalArgumentException("Hai nhánh đấu khác kích thước.");
+        }
+        System.arraycopy(other.nodes, 1, nodes, 1, nodes.length - 1);
+    }
+
+    /**
+     * Xóa mọi kết quả, trận có đối thủ BYE được cho đi tiếp ngay
+     */
+    public void resetResults() {
+        Arrays.fill(nodes, 1, capacity, UNDECIDED);
+        // Chỉ vòng đầu có BYE vì mỗi cặp có ít nhất một đội
+        for (int match = capacity / 2; match < capacity; match++) {
+            if (nodes[2 * match + 1] == BYE) {
+                nodes[match] = nodes[2 * match];
+            }
+        }
+    }
+
+    public int getTeamCount() {
+        return teamCount;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getRoundCount() {
+        return Integer.numberOfTrailingZeros(capacity);
+    }
+
+    /**
+     * Số trận của vòng, kể cả trận có BYE ở vòng đầu
+     */
+    public int getMatchCount(int round) {
+        checkRound(round);
+        return capacity >> (round + 1);
+    }
+
+    /**
+     * Node của trận thứ index trong vòng
+     */
+    public int getMatch(int round, int index) {
+        if (index < 0 || index >= getMatchCount(round)) {
+            throw new IndexOutOfBoundsException("Vòng " + round + " không có trận " + index + ".");
+        }
+        return (capacity >> (round + 1)) + index;
+    }
+
+    /**
+     * Vòng của một node trận
+     */
+    public int getRound(int match) {
+        checkMatch(match);
+        return getRoundCount() - 1 - (31 - Integer.numberOfLeadingZeros(match));
+    }
+
+    /**
+     * Đội ở vị trí lá position (0..capacity-1) theo thứ tự nhánh đấu, BYE nếu vị trí trống
+     */
+    public int getEntrant(int position) {
+        if (position < 0 || position >= capacity) {
+            throw new IndexOutOfBoundsException("Vị trí " + position + " không tồn tại.");
+        }
+        return nodes[capacity + position];
+    }
+
+    public int getTeamA(int match) {
+        checkMatch(match);
+        return nodes[2 * match];
+    }
+
+    public int getTeamB(int match) {
+        checkMatch(match);
+        return nodes[2 * match + 1];
+    }
+
+    /**
+     * Trận đã biết cả hai đội và cần được đá (không phải BYE, chưa có kết quả)
+     */
+    public boolean isPlayable(int match) {
+        checkMatch(match);
+        int teamA = nodes[2 * match];
+        int teamB = nodes[2 * match + 1];
+        return nodes[match] == UNDECIDED && teamA >= 0 && teamB >= 0;
+    }
+
+    public int getWinner(int match) {
+        checkMatch(match);
+        return nodes[match];
+    }
+
+    /**
+     * Đội thua của trận đã có kết quả, BYE nếu trận là miễn đấu
+     */
+    public int getLoser(int match) {
+        int winner = getWinner(match);
+        if (winner == UNDECIDED) {
+            return UNDECIDED;
+        }
+        int teamA = nodes[2 * match];
+        return teamA == winner ? nodes[2 * match + 1] : teamA;
+    }
+
+    /**
+     * Ghi nhận đội thắng, đội thắng được đưa lên node của trận nên vòng sau đọc được ngay
+     */
+    public void recordWinner(int match, int team) {
+        if (!isPlayable(match)) {
+            throw new IllegalStateException("Trận " + match + " chưa đủ hai đội hoặc đã có kết quả.");
+        }
+        if (team != nodes[2 * match] && team != nodes[2 * match + 1]) {
+            throw new IllegalArgumentException("Đội " + team + " không tham gia trận " + match + ".");
+        }
+        nodes[match] = team;
+    }
+
+    public void recordWinner(int match, boolean teamAWins) {
+        recordWinner(match, teamAWins ? nodes[2 * match] : nodes[2 * match + 1]);
+    }
+
+    /**
+     * Các đội bước vào vòng (BYE được bỏ qua), UNDECIDED nếu vòng trước chưa đá xong
+     */
+    public int[] getRoundTeams(int round) {
+        checkRound(round);
+        int first = capacity >> round;
+        int[] teams = new int[first];
+        int count = 0;
+        for (int node = first; node < 2 * first; node++) {
+            if (nodes[node] != BYE) {
+                teams[count++] = nodes[node];
+            }
+        }
+        return Arrays.copyOf(teams, count);
+    }
+
+    public int getChampion() {
+        return nodes[1];
+    }
+
+    public int getRunnerUp() {
+        return getLoser(1);
+    }
+
+    /**
+     * Tên vòng theo match_type của database: FINAL, SEMI_FINAL, QUARTER, ROUND_16, ROUND_32...
+     */
+    public String getRoundName(int round) {
+        checkRound(round);
+        int teams = capacity >> round;
+        switch (teams) {
+            case 2:
+                return "FINAL";
+            case 4:
+                return "SEMI_FINAL";
+            case 8:
+                return "QUARTER";
+            default:
+                return "ROUND_" + teams;
+        }
+    }
+
+    private void checkRound(int round) {
+        if (round < 0 || round >= getRoundCount()) {
+            throw new IndexOutOfBoundsException("Vòng " + round + " không tồn tại.");
+        }
+    }
+
+    private void checkMatch(int match) {
+        if (match < 1 || match >= capacity) {
+            throw new IndexOutOfBoundsException("Trận " + match + " không tồn tại.");
+        }
+    }
+}
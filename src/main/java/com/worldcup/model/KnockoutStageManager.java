@@ -17,6 +17,11 @@ public class KnockoutStageManager {
     private String runnerUp;
     private List<String> bronzeWinners;
 
+    // Nhánh đấu dạng mảng, đội được đánh số theo vị trí trong bracketTeams
+    private KnockoutBracket bracket;
+    private List<Team> bracketTeams = new ArrayList<>();
+    private Map<Team, Integer> bracketIndexes = new HashMap<>();
+
     public KnockoutStageManager() {
         this.bracketInfo = new LinkedHashMap<>();
         this.roundOf16 = new ArrayList<>();
@@ -26,55 +31,94 @@ public class KnockoutStageManager {
         this.bronzeWinners = new ArrayList<>();
     }
 
-    // Helper method để tìm Group theo tên
-    private Group findGroupByName(Map<Group, Team> groupMap, String groupName) {
+    // Vòng 1/16: nhất bảng GROUP_LETTERS[i] gặp nhì bảng GROUP_LETTERS[i ^ 1] (A1-B2, B1-A2, C1-D2, ...)
+    private static final char[] GROUP_LETTERS = {'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H'};
+
+    // Index group theo chữ cái cuối của tên ("Group A" / "A"), dựng một lần cho mỗi lần tạo bracket
+    private static Map<Character, Group> indexGroupsByLetter(Map<Group, Team> groupMap) {
+        Map<Character, Group> groupsByLetter = new HashMap<>();
         for (Group group : groupMap.keySet()) {
-            if (group.getName().contains(groupName)) {
-                return group;
+            String name = group.getName();
+            if (!name.isEmpty()) {
+                groupsByLetter.putIfAbsent(name.charAt(name.length() - 1), group);
             }
         }
-        return null;
+        return groupsByLetter;
     }
 
     // Tạo bracket cho vòng 1/16 dựa vào kết quả bảng đấu
     public void generateRoundOf16Bracket(Map<Group, Team> groupWinners, Map<Group, Team> groupRunnersUp) {
         bracketInfo.clear();
-        
-        Group groupA = findGroupByName(groupWinners, "A");
-        Group groupB = findGroupByName(groupWinners, "B");
-        Group groupC = findGroupByName(groupWinners, "C");
-        Group groupD = findGroupByName(groupWinners, "D");
-        Group groupE = findGroupByName(groupWinners, "E");
-        Group groupF = findGroupByName(groupWinners, "F");
-        Group groupG = findGroupByName(groupWinners, "G");
-        Group groupH = findGroupByName(groupWinners, "H");
-        
-        Team winnerA = groupWinners.get(groupA);
-        Team winnerB = groupWinners.get(groupB);
-        Team winnerC = groupWinners.get(groupC);
-        Team winnerD = groupWinners.get(groupD);
-        Team winnerE = groupWinners.get(groupE);
-        Team winnerF = groupWinners.get(groupF);
-        Team winnerG = groupWinners.get(groupG);
-        Team winnerH = groupWinners.get(groupH);
-        
-        Team runnerB = groupRunnersUp.get(groupB);
-        Team runnerA = groupRunnersUp.get(groupA);
-        Team runnerD = groupRunnersUp.get(groupD);
-        Team runnerC = groupRunnersUp.get(groupC);
-        Team runnerF = groupRunnersUp.get(groupF);
-        Team runnerE = groupRunnersUp.get(groupE);
-        Team runnerH = groupRunnersUp.get(groupH);
-        Team runnerG = groupRunnersUp.get(groupG);
-        
-        bracketInfo.put("Match 1", winnerA + " vs " + runnerB);
-        bracketInfo.put("Match 2", winnerB + " vs " + runnerA);
-        bracketInfo.put("Match 3", winnerC + " vs " + runnerD);
-        bracketInfo.put("Match 4", winnerD + " vs " + runnerC);
-        bracketInfo.put("Match 5", winnerE + " vs " + runnerF);
-        bracketInfo.put("Match 6", winnerF + " vs " + runnerE);
-        bracketInfo.put("Match 7", winnerG + " vs " + runnerH);
-        bracketInfo.put("Match 8", winnerH + " vs " + runnerG);
+        Objects.requireNonNull(groupRunnersUp);
+
+        Map<Character, Group> groupsByLetter = indexGroupsByLetter(groupWinners);
+        for (int i = 0; i < GROUP_LETTERS.length; i++) {
+            Team winner = groupWinners.get(groupsByLetter.get(GROUP_LETTERS[i]));
+            Team runnerUp = groupRunnersUp.get(groupsByLetter.get(GROUP_LETTERS[i ^ 1]));
+            bracketInfo.put("Match " + (i + 1), winner + " vs " + runnerUp);
+        }
+    }
+
+    /**
+     * Tạo nhánh đấu cho các đội theo thứ tự ghép cặp (0-1, 2-3, ...), số đội bất kỳ từ 2 trở lên.
+     * Các vòng sau được ghi nhận bằng recordWinner, mỗi lần O(1).
+     */
+    public KnockoutBracket createBracket(List<Team> entrants) {
+        KnockoutBracket newBracket = new KnockoutBracket(entrants.size());
+        Map<Team, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < entrants.size(); i++) {
+            Team team = Objects.requireNonNull(entrants.get(i), "Đội trong nhánh đấu không được null.");
+            if (indexes.putIfAbsent(team, i) != null) {
+                throw new IllegalArgumentException("Đội " + team.getName() + " xuất hiện hai lần trong nhánh đấu.");
+            }
+        }
+        this.bracket = newBracket;
+        this.bracketTeams = new ArrayList<>(entrants);
+        this.bracketIndexes = indexes;
+        this.roundOf16 = entrants.size() == 16 ? teamNames(entrants) : new ArrayList<>();
+        return newBracket;
+    }
+
+    /**
+     * Ghi nhận đội thắng của một trận trong nhánh đấu hiện tại
+     */
+    public void recordWinner(int match, Team winner) {
+        Integer index = bracketIndexes.get(winner);
+        if (index == null) {
+            throw new IllegalArgumentException("Đội " + winner.getName() + " không có trong nhánh đấu.");
+        }
+        bracket.recordWinner(match, index);
+    }
+
+    /**
+     * Đội ở một vị trí của nhánh đấu, null nếu là BYE hoặc chưa xác định
+     */
+    public Team getBracketTeam(int index) {
+        return index >= 0 ? bracketTeams.get(index) : null;
+    }
+
+    /**
+     * Các đội bước vào một vòng của nhánh đấu hiện tại
+     */
+    public List<Team> getRoundTeams(int round) {
+        int[] indexes = bracket.getRoundTeams(round);
+        List<Team> teams = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            teams.add(getBracketTeam(index));
+        }
+        return teams;
+    }
+
+    public KnockoutBracket getBracket() {
+        return bracket;
+    }
+
+    private static List<String> teamNames(List<Team> teams) {
+        List<String> names = new ArrayList<>(teams.size());
+        for (Team team : teams) {
+            names.add(team.getName());
+        }
+        return names;
     }
 
     // Cập nhật danh sách đội thắng vòng 1/16
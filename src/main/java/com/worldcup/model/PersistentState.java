@@ -0,0 +1,52 @@
+package com.worldcup.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Theo dõi thay đổi của một entity so với lần đồng bộ database gần nhất.
+ * Giữ snapshot giá trị các cột và so sánh với giá trị hiện tại nên bắt được mọi cách thay đổi
+ * (setter, scoreGoal, receiveYellowCard...), repository chỉ cần ghi các cột đã đổi.
+ */
+public class PersistentState {
+
+    private final String[] columns;
+    private Object[] snapshot;
+
+    public PersistentState(String... columns) {
+        this.columns = columns;
+    }
+
+    /**
+     * Các cột (theo thứ tự khai báo) có giá trị khác snapshot. Entity chưa từng được lưu thì trả về tất cả.
+     */
+    public Map<String, Object> dirtyColumns(Object[] values) {
+        if (values.length != columns.length) {
+            throw new IllegalArgumentException("Số giá trị không khớp số cột.");
+        }
+
+        Map<String, Object> dirty = new LinkedHashMap<>();
+        for (int i = 0; i < columns.length; i++) {
+            if (snapshot == null || !Objects.equals(snapshot[i], values[i])) {
+                dirty.put(columns[i], values[i]);
+            }
+        }
+        return dirty.isEmpty() ? Collections.emptyMap() : dirty;
+    }
+
+    public boolean isPersisted() {
+        return snapshot != null;
+    }
+
+    /**
+     * Ghi nhận values là trạng thái hiện có trong database
+     */
+    public void markPersisted(Object[] values) {
+        if (values.length != columns.length) {
+            throw new IllegalArgumentException("Số giá trị không khớp số cột.");
+        }
+        snapshot = values.clone();
+    }
+}
@@ -1,5 +1,7 @@
 package com.worldcup.model;
 
+import java.util.Map;
+
 public class Player {
     // Thuộc tính tương ứng với database schema
     private int id;
@@ -16,6 +18,12 @@ public class Player {
     private boolean isEligible;
     private int eligibleMatches;
 
+    // Các cột của bảng players, dùng để chỉ ghi những cột đã thay đổi
+    private static final String[] PERSISTENT_COLUMNS = {
+            "name", "jersey_number", "position", "is_starting", "yellow_cards", "red_cards", "is_eligible", "goals"
+    };
+    private final PersistentState persistentState = new PersistentState(PERSISTENT_COLUMNS);
+
     public Player(String name, int jerseyNumber, String position) {
         this.name = name;
         this.jerseyNumber = jerseyNumber;
@@ -210,4 +218,26 @@ public class Player {
     public void setEligibleMatches(int eligibleMatches) {
         this.eligibleMatches = eligibleMatches;
     }
+
+    /**
+     * Các cột của bảng players đã thay đổi kể từ lần lưu / load gần nhất
+     */
+    public Map<String, Object> getDirtyColumns() {
+        return persistentState.dirtyColumns(persistentValues());
+    }
+
+    public boolean isDirty() {
+        return !getDirtyColumns().isEmpty();
+    }
+
+    /**
+     * Đánh dấu trạng thái hiện tại đã nằm trong database (sau khi save, update hoặc load)
+     */
+    public void markPersisted() {
+        persistentState.markPersisted(persistentValues());
+    }
+
+    private Object[] persistentValues() {
+        return new Object[]{name, jerseyNumber, position, isStarting, yellowCards, redCards, isEligible, goals};
+    }
 }
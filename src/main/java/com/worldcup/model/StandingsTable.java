@@ -0,0 +1,117 @@
+package com.worldcup.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bảng xếp hạng vòng bảng được duy trì liên tục theo từng kết quả trận đấu.
+ * Mỗi bảng giữ danh sách teams luôn đúng thứ tự TeamStandingComparator:
+ * khi có kết quả chỉ hai đội liên quan được cập nhật thống kê và chèn lại vị trí,
+ * không cần sort lại cả bảng hay truy vấn database.
+ * Danh sách được giữ riêng, không sắp xếp lại group.getTeams() đang dùng để xếp lịch.
+ */
+public class StandingsTable {
+    private final TeamStandingComparator comparator = new TeamStandingComparator();
+    private final Map<Group, List<Team>> standings = new LinkedHashMap<>();
+    private final Map<Team, List<Team>> groupOfTeam = new HashMap<>();
+
+    public StandingsTable(List<Group> groups) {
+        for (Group group : groups) {
+            addGroup(group);
+        }
+    }
+
+    /**
+     * Thêm một bảng, các đội được sắp xếp theo thống kê hiện tại
+     */
+    public void addGroup(Group group) {
+        if (group == null) {
+            throw new IllegalArgumentException("Bảng đấu không được null.");
+        }
+
+        List<Team> ordered = new ArrayList<>(group.getTeams());
+        ordered.sort(comparator);
+        standings.put(group, ordered);
+        for (Team team : ordered) {
+            groupOfTeam.put(team, ordered);
+        }
+    }
+
+    public boolean contains(Team team) {
+        return groupOfTeam.containsKey(team);
+    }
+
+    /**
+     * Áp dụng kết quả của trận vòng bảng: cập nhật thống kê hai đội rồi chèn lại vị trí của chúng
+     */
+    public void applyResult(Match match) {
+        Team teamA = match.getTeamA();
+        Team teamB = match.getTeamB();
+        List<Team> ordered = groupOf(teamA);
+        if (groupOf(teamB) != ordered) {
+            throw new IllegalArgumentException("Hai đội không cùng bảng đấu.");
+        }
+
+        ordered.remove(teamA);
+        ordered.remove(teamB);
+        teamA.updateMatchStatistics(match.getTeamAScore(), match.getTeamBScore());
+        teamB.updateMatchStatistics(match.getTeamBScore(), match.getTeamAScore());
+        insertOrdered(ordered, teamA);
+        insertOrdered(ordered, teamB);
+    }
+
+    /**
+     * Chèn lại vị trí của team sau khi thống kê thay đổi ngoài applyResult (ví dụ thẻ phạt)
+     */
+    public void refresh(Team team) {
+        List<Team> ordered = groupOf(team);
+        ordered.remove(team);
+        insertOrdered(ordered, team);
+    }
+
+    /**
+     * Bảng xếp hạng hiện tại của group, chỉ đọc
+     */
+    public List<Team> getStandings(Group group) {
+        List<Team> ordered = standings.get(group);
+        if (ordered == null) {
+            throw new IllegalArgumentException("Bảng " + group.getName() + " không có trong bảng xếp hạng.");
+        }
+        return Collections.unmodifiableList(ordered);
+    }
+
+    /**
+     * Đội nhất và nhì bảng hiện tại
+     */
+    public List<Team> getTopTwo(Group group) {
+        List<Team> ordered = getStandings(group);
+        return ordered.subList(0, Math.min(2, ordered.size()));
+    }
+
+    public List<Group> getGroups() {
+        return new ArrayList<>(standings.keySet());
+    }
+
+    private List<Team> groupOf(Team team) {
+        List<Team> ordered = groupOfTeam.get(team);
+        if (ordered == null) {
+            throw new IllegalArgumentException("Đội " + team.getName() + " không có trong bảng xếp hạng.");
+        }
+        return ordered;
+    }
+
+    /**
+     * Bảng chỉ có vài đội nên tìm tuyến tính vị trí đầu tiên xếp sau team
+     */
+    private void insertOrdered(List<Team> ordered, Team team) {
+        int index = 0;
+        while (index < ordered.size() && comparator.compare(ordered.get(index), team) <= 0) {
+            index++;
+        }
+        ordered.add(index, team);
+    }
+}
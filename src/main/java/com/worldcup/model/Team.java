@@ -37,11 +37,15 @@ public class Team {
     private List<Player> startingPlayers;
     private List<Player> substitutePlayers;
 
-    private Random random = new Random();
-
     // Repository for persistence operations
     private static TeamRepository teamRepository;
 
+    // Các cột của bảng teams, dùng để chỉ ghi những cột đã thay đổi
+    private static final String[] PERSISTENT_COLUMNS = {
+            "name", "region", "coach", "medical_staff", "is_host", "tournament_id", "group_id"
+    };
+    private final PersistentState persistentState = new PersistentState(PERSISTENT_COLUMNS);
+
     public Team(String name, String region, String coach, List<String> assistantCoaches,
                 String medicalStaff, boolean isHost) {
         if (assistantCoaches.size() > 3) {
@@ -362,6 +366,24 @@ public class Team {
                 playerOut.isEligible();
     }
 
+    /**
+     * Đổi đội hình trước trận: cầu thủ đá chính xuống dự bị, cầu thủ dự bị vào thay đúng vị trí trong danh sách.
+     * Không tính là thay người trong trận.
+     */
+    public boolean swapLineup(Player starter, Player substitute) {
+        int starterIndex = startingPlayers.indexOf(starter);
+        int substituteIndex = substitutePlayers.indexOf(substitute);
+        if (starterIndex < 0 || substituteIndex < 0) {
+            return false;
+        }
+
+        startingPlayers.set(starterIndex, substitute);
+        substitutePlayers.set(substituteIndex, starter);
+        starter.setStarting(false);
+        substitute.setStarting(true);
+        return true;
+    }
+
     /**
      * Xóa cầu thủ khỏi danh sách đá chính (dùng khi bị thẻ đỏ)
      */
@@ -418,7 +440,29 @@ public class Team {
     }
 
     /**
-     * Update this team in database using repository
+     * Các cột của bảng teams đã thay đổi kể từ lần lưu / load gần nhất
+     */
+    public Map<String, Object> getDirtyColumns() {
+        return persistentState.dirtyColumns(persistentValues());
+    }
+
+    public boolean isDirty() {
+        return !getDirtyColumns().isEmpty();
+    }
+
+    /**
+     * Đánh dấu trạng thái hiện tại đã nằm trong database (sau khi save, update hoặc load)
+     */
+    public void markPersisted() {
+        persistentState.markPersisted(persistentValues());
+    }
+
+    private Object[] persistentValues() {
+        return new Object[]{name, region, coach, medicalStaff, isHost, tournamentId, groupId};
+    }
+
+    /**
+     * Update this team in database using repository, chỉ ghi các cột đã thay đổi
      */
     public void update() throws Exception {
         if (teamRepository != null && id > 0) {
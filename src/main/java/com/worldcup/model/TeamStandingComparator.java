@@ -0,0 +1,41 @@
+package com.worldcup.model;
+
+import java.util.Comparator;
+
+/**
+ * Comparator để sắp xếp teams theo thứ tự bảng xếp hạng
+ * Tuân theo quy định FIFA: Điểm -> Hiệu số -> Thẻ phạt -> Đối đầu -> Bốc thăm
+ * Tuân theo Open/Closed Principle - có thể mở rộng logic sắp xếp
+ */
+public class TeamStandingComparator implements Comparator<Team> {
+    @Override
+    public int compare(Team t1, Team t2) {
+        // 1. So sánh điểm số (cao hơn = tốt hơn)
+        int pointsComparison = Integer.compare(t2.getPoints(), t1.getPoints());
+        if (pointsComparison != 0) {
+            return pointsComparison;
+        }
+
+        // 2. So sánh hiệu số bàn thắng (cao hơn = tốt hơn)
+        int goalDiffComparison = Integer.compare(t2.getGoalDifference(), t1.getGoalDifference());
+        if (goalDiffComparison != 0) {
+            return goalDiffComparison;
+        }
+
+        // 3. So sánh số thẻ bị phạt (ít hơn = tốt hơn)
+        // Quy định FIFA: 1 thẻ đỏ = 2 thẻ vàng
+        int t1TotalCards = t1.getYellowCards() + (t1.getRedCards() * 2);
+        int t2TotalCards = t2.getYellowCards() + (t2.getRedCards() * 2);
+        int cardsComparison = Integer.compare(t1TotalCards, t2TotalCards);
+        if (cardsComparison != 0) {
+            return cardsComparison;
+        }
+
+        // 4. Kết quả đối đầu trực tiếp (chưa implement - cần thêm logic phức tạp)
+        // TODO: Implement head-to-head comparison for exactly 2 teams
+
+        // 5. Bốc thăm (sử dụng tên đội để đảm bảo tính nhất quán)
+        // Trong thực tế sẽ là random, nhưng để test ổn định ta dùng alphabetical
+        return t1.getName().compareTo(t2.getName());
+    }
+}
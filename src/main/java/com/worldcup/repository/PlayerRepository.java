@@ -2,7 +2,9 @@ package com.worldcup.repository;
 
 import com.worldcup.model.Player;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -16,6 +18,12 @@ public interface PlayerRepository {
      */
     void save(Player player, int teamId) throws SQLException;
     
+    /**
+     * Lưu nhiều players (theo team ID) bằng multi-row INSERT.
+     * Player trùng số áo trong team bị bỏ qua và giữ id = 0.
+     */
+    void saveAll(Map<Integer, List<Player>> playersByTeamId) throws SQLException;
+    
     /**
      * Cập nhật player trong database
      */
@@ -80,4 +88,10 @@ public interface PlayerRepository {
      * Cập nhật trạng thái is_starting của player
      */
     void updateStartingStatus(int playerId, boolean isStarting) throws SQLException;
+    
+    /**
+     * Ghi cả đội hình của team trong một câu UPDATE: is_starting = true cho startingPlayerIds,
+     * false cho các player còn lại. Chỉ những row thay đổi mới bị ghi, trả về số row đã cập nhật.
+     */
+    int updateLineup(int teamId, Collection<Integer> startingPlayerIds) throws SQLException;
 }
\ No newline at end of file
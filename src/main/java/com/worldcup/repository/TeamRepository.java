@@ -16,6 +16,11 @@ public interface TeamRepository {
      */
     void save(Team team) throws SQLException;
     
+    /**
+     * Lưu nhiều teams cùng assistant coaches và players bằng vài câu INSERT
+     */
+    void saveAll(List<Team> teams) throws SQLException;
+    
     /**
      * Cập nhật team trong database
      */
@@ -27,32 +27,27 @@ public class WorldCupAutomationRepository {
         String sql = """
                 INSERT INTO tournaments (name, year, host_country, start_date, end_date)
                 VALUES (?, ?, ?, ?, ?)
+                RETURNING id
                 """;
 
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setString(1, tournament.getName());
         pstmt.setInt(2, tournament.getYear());
         pstmt.setString(3, tournament.getHost().getName());
         pstmt.setString(4, tournament.getStart() + ""); // start_date dạng YYYY/MM/DD
         pstmt.setString(5, tournament.getEnd() + ""); // end_date dạng YYYY/MM/DD
-        pstmt.executeUpdate();
-        pstmt.close();
-        
-        return dbManager.getLastInsertId();
+        return dbManager.executeInsertReturningId(pstmt);
     }
 
     /**
      * Lưu group vào database
      */
     public int saveGroup(String groupName, int tournamentId) throws SQLException {
-        String sql = "INSERT INTO groups (name, tournament_id) VALUES (?, ?)";
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        String sql = "INSERT INTO groups (name, tournament_id) VALUES (?, ?) RETURNING id";
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setString(1, groupName);
         pstmt.setInt(2, tournamentId);
-        pstmt.executeUpdate();
-        pstmt.close();
-        
-        return dbManager.getLastInsertId();
+        return dbManager.executeInsertReturningId(pstmt);
     }
 
     /**
@@ -60,11 +55,10 @@ public class WorldCupAutomationRepository {
      */
     public void updateTeamGroup(int teamId, int groupId) throws SQLException {
         String sql = "UPDATE teams SET group_id = ? WHERE id = ?";
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setInt(1, groupId);
         pstmt.setInt(2, teamId);
         pstmt.executeUpdate();
-        pstmt.close();
     }
 
     /**
@@ -77,9 +71,10 @@ public class WorldCupAutomationRepository {
                 VALUES ((SELECT id FROM teams WHERE name = ? AND tournament_id = ?), 
                         (SELECT id FROM teams WHERE name = ? AND tournament_id = ?), 
                         ?, ?, ?, ?, ?, ?)
+                RETURNING id
                 """;
 
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(matchSql);
+        PreparedStatement pstmt = dbManager.prepareCached(matchSql);
         pstmt.setString(1, match.getTeamA().getName());
         pstmt.setInt(2, tournamentId);
         pstmt.setString(3, match.getTeamB().getName());
@@ -90,10 +85,7 @@ public class WorldCupAutomationRepository {
         pstmt.setString(8, match.getMatchDate());
         pstmt.setString(9, match.getVenue());
         pstmt.setString(10, match.getReferee());
-        pstmt.executeUpdate();
-        pstmt.close();
-
-        return dbManager.getLastInsertId();
+        return dbManager.executeInsertReturningId(pstmt);
     }
 
     /**
@@ -101,7 +93,7 @@ public class WorldCupAutomationRepository {
      */
     public Integer getTeamIdByName(String teamName, int tournamentId) throws SQLException {
         String sql = "SELECT id FROM teams WHERE name = ? AND tournament_id = ?";
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setString(1, teamName);
         pstmt.setInt(2, tournamentId);
         ResultSet rs = pstmt.executeQuery();
@@ -112,7 +104,6 @@ public class WorldCupAutomationRepository {
         }
 
         rs.close();
-        pstmt.close();
         return teamId;
     }
 
@@ -121,13 +112,12 @@ public class WorldCupAutomationRepository {
      */
     public boolean tournamentStatsExists(int tournamentId) throws SQLException {
         String checkSql = "SELECT COUNT(*) FROM tournament_stats WHERE tournament_id = ?";
-        PreparedStatement checkPstmt = dbManager.getConnection().prepareStatement(checkSql);
+        PreparedStatement checkPstmt = dbManager.prepareCached(checkSql);
         checkPstmt.setInt(1, tournamentId);
         ResultSet rs = checkPstmt.executeQuery();
 
         boolean exists = rs.next() && rs.getInt(1) > 0;
         rs.close();
-        checkPstmt.close();
         
         return exists;
     }
@@ -143,10 +133,9 @@ public class WorldCupAutomationRepository {
                 VALUES (?, 0, 0, 0, 0, 0, NULL, 0)
                 """;
 
-        PreparedStatement insertPstmt = dbManager.getConnection().prepareStatement(insertSql);
+        PreparedStatement insertPstmt = dbManager.prepareCached(insertSql);
         insertPstmt.setInt(1, tournamentId);
         insertPstmt.executeUpdate();
-        insertPstmt.close();
     }
 
     /**
@@ -160,7 +149,7 @@ public class WorldCupAutomationRepository {
                 VALUES (?, ?, ?, ?, ?, ?, ?, ?)
                 """;
 
-        PreparedStatement insertStatsPstmt = dbManager.getConnection().prepareStatement(insertStatsSql);
+        PreparedStatement insertStatsPstmt = dbManager.prepareCached(insertStatsSql);
         insertStatsPstmt.setInt(1, tournamentId);
         insertStatsPstmt.setInt(2, stats.totalGoals);
         insertStatsPstmt.setInt(3, stats.totalMatches);
@@ -174,7 +163,6 @@ public class WorldCupAutomationRepository {
         }
         insertStatsPstmt.setInt(8, stats.topScorerGoals);
         insertStatsPstmt.executeUpdate();
-        insertStatsPstmt.close();
     }
 
     /**
@@ -189,7 +177,7 @@ public class WorldCupAutomationRepository {
                 WHERE tournament_id = ?
                 """;
 
-        PreparedStatement updateStatsPstmt = dbManager.getConnection().prepareStatement(updateStatsSql);
+        PreparedStatement updateStatsPstmt = dbManager.prepareCached(updateStatsSql);
         updateStatsPstmt.setInt(1, stats.totalGoals);
         updateStatsPstmt.setInt(2, stats.totalMatches);
         updateStatsPstmt.setInt(3, stats.totalYellowCards);
@@ -203,7 +191,74 @@ public class WorldCupAutomationRepository {
         updateStatsPstmt.setInt(7, stats.topScorerGoals);
         updateStatsPstmt.setInt(8, tournamentId);
         updateStatsPstmt.executeUpdate();
-        updateStatsPstmt.close();
+    }
+
+    /**
+     * Xóa toàn bộ dữ liệu trước khi tạo tournament mới, theo thứ tự để tránh foreign key constraint
+     */
+    public void clearAllData() throws SQLException {
+        String[] deleteQueries = {
+            "DELETE FROM substitutions",
+            "DELETE FROM cards",
+            "DELETE FROM goals",
+            "DELETE FROM matches",
+            "DELETE FROM tournament_stats",
+            "DELETE FROM players",
+            "DELETE FROM assistant_coaches",
+            "DELETE FROM teams",
+            "DELETE FROM groups",
+            "DELETE FROM tournaments"
+        };
+
+        for (String query : deleteQueries) {
+            PreparedStatement pstmt = dbManager.getConnection().prepareStatement(query);
+            pstmt.executeUpdate();
+            pstmt.close();
+        }
+    }
+
+    /**
+     * Cập nhật goals của các players đã ghi bàn bằng số row trong bảng goals
+     */
+    public int updatePlayerGoalsFromGoals() throws SQLException {
+        String sql = """
+            UPDATE players 
+            SET goals = (
+                SELECT COUNT(*) 
+                FROM goals g 
+                WHERE g.player_id = players.id
+            )
+            WHERE id IN (
+                SELECT DISTINCT player_id FROM goals
+            )
+        """;
+
+        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        int updatedRows = pstmt.executeUpdate();
+        pstmt.close();
+        return updatedRows;
+    }
+
+    /**
+     * Gán match_type theo thứ tự id cho các matches chưa có loại hoặc còn là KNOCKOUT
+     */
+    public int updateAllMatchTypes() throws SQLException {
+        String sql = """
+            UPDATE matches 
+            SET match_type = CASE 
+                WHEN (SELECT COUNT(*) FROM matches m2 WHERE m2.id <= matches.id) <= 48 THEN 'GROUP'
+                WHEN (SELECT COUNT(*) FROM matches m2 WHERE m2.id <= matches.id) <= 56 THEN 'ROUND_16'
+                WHEN (SELECT COUNT(*) FROM matches m2 WHERE m2.id <= matches.id) <= 60 THEN 'QUARTER'
+                WHEN (SELECT COUNT(*) FROM matches m2 WHERE m2.id <= matches.id) <= 62 THEN 'SEMI_FINAL'
+                ELSE 'FINAL'
+            END
+            WHERE match_type IS NULL OR match_type = 'KNOCKOUT'
+        """;
+
+        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        int updatedRows = pstmt.executeUpdate();
+        pstmt.close();
+        return updatedRows;
     }
 
     /**
@@ -211,7 +266,7 @@ public class WorldCupAutomationRepository {
      */
     public String getTournamentName(int tournamentId) throws SQLException {
         String selectSql = "SELECT name FROM tournaments WHERE id = ?";
-        PreparedStatement selectStmt = dbManager.getConnection().prepareStatement(selectSql);
+        PreparedStatement selectStmt = dbManager.prepareCached(selectSql);
         selectStmt.setInt(1, tournamentId);
         ResultSet rs = selectStmt.executeQuery();
 
@@ -221,7 +276,6 @@ public class WorldCupAutomationRepository {
         }
 
         rs.close();
-        selectStmt.close();
         return tournamentName;
     }
 }
\ No newline at end of file
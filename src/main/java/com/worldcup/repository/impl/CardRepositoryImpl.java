@@ -32,18 +32,16 @@ public class CardRepositoryImpl implements CardRepository {
                     ?, 
                     ?, 
                     ?)
+            RETURNING id
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setInt(1, card.getMatch().getId());
         pstmt.setInt(2, card.getPlayer().getId());
         pstmt.setInt(3, card.getTeam().getId());
         pstmt.setString(4, card.getType().getLabel().toUpperCase());
         pstmt.setInt(5, card.getMinutes());
-        pstmt.executeUpdate();
-        pstmt.close();
-        
-        int cardId = dbManager.getLastInsertId();
+        int cardId = dbManager.executeInsertReturningId(pstmt);
         card.setId(cardId);
     }
     
@@ -55,7 +53,7 @@ public class CardRepositoryImpl implements CardRepository {
             WHERE id = ?
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setInt(1, card.getMatch().getId());
         pstmt.setInt(2, card.getPlayer().getId());
         pstmt.setInt(3, card.getTeam().getId());
@@ -63,7 +61,6 @@ public class CardRepositoryImpl implements CardRepository {
         pstmt.setInt(5, card.getMinutes());
         pstmt.setInt(6, card.getId());
         pstmt.executeUpdate();
-        pstmt.close();
     }
     
     @Override
@@ -77,7 +74,7 @@ public class CardRepositoryImpl implements CardRepository {
             WHERE c.id = ?
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setInt(1, id);
         ResultSet rs = pstmt.executeQuery();
         
@@ -88,7 +85,6 @@ public class CardRepositoryImpl implements CardRepository {
         }
         
         rs.close();
-        pstmt.close();
         return result;
     }
     
@@ -106,7 +102,7 @@ public class CardRepositoryImpl implements CardRepository {
             ORDER BY c.minute ASC
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setInt(1, matchId);
         ResultSet rs = pstmt.executeQuery();
         
@@ -115,7 +111,6 @@ public class CardRepositoryImpl implements CardRepository {
         }
         
         rs.close();
-        pstmt.close();
         return cards;
     }
     
@@ -130,7 +125,7 @@ public class CardRepositoryImpl implements CardRepository {
             ORDER BY c.match_id ASC, c.minute ASC
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setInt(1, playerId);
         ResultSet rs = pstmt.executeQuery();
         
@@ -139,7 +134,6 @@ public class CardRepositoryImpl implements CardRepository {
         }
         
         rs.close();
-        pstmt.close();
         return cards;
     }
     
@@ -155,7 +149,7 @@ public class CardRepositoryImpl implements CardRepository {
             ORDER BY c.match_id ASC, c.minute ASC
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setString(1, teamName);
         pstmt.setInt(2, tournamentId);
         ResultSet rs = pstmt.executeQuery();
@@ -165,7 +159,6 @@ public class CardRepositoryImpl implements CardRepository {
         }
         
         rs.close();
-        pstmt.close();
         return cards;
     }
     
@@ -181,7 +174,7 @@ public class CardRepositoryImpl implements CardRepository {
             ORDER BY c.match_id ASC, c.minute ASC
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setString(1, teamName);
         pstmt.setInt(2, tournamentId);
         pstmt.setString(3, cardType);
@@ -192,7 +185,6 @@ public class CardRepositoryImpl implements CardRepository {
         }
         
         rs.close();
-        pstmt.close();
         return cards;
     }
     
@@ -206,7 +198,7 @@ public class CardRepositoryImpl implements CardRepository {
             WHERE t.name = ? AND t.tournament_id = ? AND c.card_type = ? AND m.match_type = 'GROUP'
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setString(1, teamName);
         pstmt.setInt(2, tournamentId);
         pstmt.setString(3, cardType);
@@ -218,7 +210,6 @@ public class CardRepositoryImpl implements CardRepository {
         }
         
         rs.close();
-        pstmt.close();
         return count;
     }
     
@@ -232,7 +223,7 @@ public class CardRepositoryImpl implements CardRepository {
             WHERE p.name = ? AND t.name = ? AND t.tournament_id = ? AND c.card_type = ?
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setString(1, playerName);
         pstmt.setString(2, teamName);
         pstmt.setInt(3, tournamentId);
@@ -245,23 +236,21 @@ public class CardRepositoryImpl implements CardRepository {
         }
         
         rs.close();
-        pstmt.close();
         return count;
     }
     
     @Override
     public void delete(int id) throws SQLException {
         String sql = "DELETE FROM cards WHERE id = ?";
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setInt(1, id);
         pstmt.executeUpdate();
-        pstmt.close();
     }
     
     @Override
     public boolean exists(int id) throws SQLException {
         String sql = "SELECT COUNT(*) FROM cards WHERE id = ?";
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setInt(1, id);
         ResultSet rs = pstmt.executeQuery();
         
@@ -271,7 +260,6 @@ public class CardRepositoryImpl implements CardRepository {
         }
         
         rs.close();
-        pstmt.close();
         return exists;
     }
 }
\ No newline at end of file
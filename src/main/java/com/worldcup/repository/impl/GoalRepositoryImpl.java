@@ -20,10 +20,19 @@ public class GoalRepositoryImpl implements GoalRepository {
     
     private final DatabaseManager dbManager;
     private final PlayerRepository playerRepository;
+    private final PlayerCounterBuffer playerCounters;
     
     public GoalRepositoryImpl(DatabaseManager dbManager) {
+        this(dbManager, null);
+    }
+    
+    /**
+     * playerCounters khác null thì goals của player được đệm lại thay vì UPDATE ngay sau mỗi goal
+     */
+    public GoalRepositoryImpl(DatabaseManager dbManager, PlayerCounterBuffer playerCounters) {
         this.dbManager = dbManager;
         this.playerRepository = new PlayerRepositoryImpl(dbManager);
+        this.playerCounters = playerCounters;
     }
     
     @Override
@@ -35,21 +44,24 @@ public class GoalRepositoryImpl implements GoalRepository {
                     ?, 
                     ?, 
                     'REGULAR')
+            RETURNING id
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setInt(1, goal.getMatch().getId());
         pstmt.setInt(2, goal.getPlayer().getId());
         pstmt.setInt(3, goal.getTeam().getId());
         pstmt.setInt(4, goal.getMinute());
-        pstmt.executeUpdate();
-        pstmt.close();
-        
-        int goalId = dbManager.getLastInsertId();
+        int goalId = dbManager.executeInsertReturningId(pstmt);
         goal.setId(goalId);
         
-        // Cập nhật player goals thông qua repository
-        playerRepository.updateGoals(goal.getPlayer(), goal.getTeam().getName(), goal.getTeam().getTournamentId());
+        // Cập nhật player goals: đệm theo player id nếu có, ngược lại UPDATE ngay theo tên trong team
+        if (playerCounters != null && goal.getPlayer().getId() > 0) {
+            playerCounters.addGoal(goal.getPlayer().getId());
+            goal.getPlayer().scoreGoal();
+        } else {
+            playerRepository.updateGoals(goal.getPlayer(), goal.getTeam().getName(), goal.getTeam().getTournamentId());
+        }
     }
     
     @Override
@@ -60,7 +72,7 @@ public class GoalRepositoryImpl implements GoalRepository {
             WHERE id = ?
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setInt(1, goal.getMatch().getId());
         pstmt.setInt(2, goal.getPlayer().getId());
         pstmt.setInt(3, goal.getTeam().getId());
@@ -68,7 +80,6 @@ public class GoalRepositoryImpl implements GoalRepository {
         pstmt.setString(5, "REGULAR"); // Default goal type
         pstmt.setInt(6, goal.getId());
         pstmt.executeUpdate();
-        pstmt.close();
     }
     
     @Override
@@ -82,7 +93,7 @@ public class GoalRepositoryImpl implements GoalRepository {
             WHERE g.id = ?
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setInt(1, id);
         ResultSet rs = pstmt.executeQuery();
         
@@ -94,7 +105,6 @@ public class GoalRepositoryImpl implements GoalRepository {
         }
         
         rs.close();
-        pstmt.close();
         return result;
     }
     
@@ -112,7 +122,7 @@ public class GoalRepositoryImpl implements GoalRepository {
             ORDER BY g.minute ASC
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setInt(1, matchId);
         ResultSet rs = pstmt.executeQuery();
         
@@ -121,7 +131,6 @@ public class GoalRepositoryImpl implements GoalRepository {
         }
         
         rs.close();
-        pstmt.close();
         return goals;
     }
     
@@ -136,7 +145,7 @@ public class GoalRepositoryImpl implements GoalRepository {
             ORDER BY g.match_id ASC, g.minute ASC
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setInt(1, playerId);
         ResultSet rs = pstmt.executeQuery();
         
@@ -145,7 +154,6 @@ public class GoalRepositoryImpl implements GoalRepository {
         }
         
         rs.close();
-        pstmt.close();
         return goals;
     }
     
@@ -161,7 +169,7 @@ public class GoalRepositoryImpl implements GoalRepository {
             ORDER BY g.match_id ASC, g.minute ASC
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setString(1, teamName);
         pstmt.setInt(2, tournamentId);
         ResultSet rs = pstmt.executeQuery();
@@ -171,7 +179,6 @@ public class GoalRepositoryImpl implements GoalRepository {
         }
         
         rs.close();
-        pstmt.close();
         return goals;
     }
     
@@ -188,7 +195,7 @@ public class GoalRepositoryImpl implements GoalRepository {
             ORDER BY g.match_id ASC, g.minute ASC
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setString(1, playerName);
         pstmt.setString(2, teamName);
         pstmt.setInt(3, tournamentId);
@@ -199,7 +206,6 @@ public class GoalRepositoryImpl implements GoalRepository {
         }
         
         rs.close();
-        pstmt.close();
         return goals;
     }
     
@@ -213,7 +219,7 @@ public class GoalRepositoryImpl implements GoalRepository {
             WHERE p.name = ? AND t.name = ? AND t.tournament_id = ?
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setString(1, playerName);
         pstmt.setString(2, teamName);
         pstmt.setInt(3, tournamentId);
@@ -225,7 +231,6 @@ public class GoalRepositoryImpl implements GoalRepository {
         }
         
         rs.close();
-        pstmt.close();
         return count;
     }
     
@@ -238,7 +243,7 @@ public class GoalRepositoryImpl implements GoalRepository {
             WHERE t.name = ? AND t.tournament_id = ?
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setString(1, teamName);
         pstmt.setInt(2, tournamentId);
         ResultSet rs = pstmt.executeQuery();
@@ -249,23 +254,21 @@ public class GoalRepositoryImpl implements GoalRepository {
         }
         
         rs.close();
-        pstmt.close();
         return count;
     }
     
     @Override
     public void delete(int id) throws SQLException {
         String sql = "DELETE FROM goals WHERE id = ?";
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setInt(1, id);
         pstmt.executeUpdate();
-        pstmt.close();
     }
     
     @Override
     public boolean exists(int id) throws SQLException {
         String sql = "SELECT COUNT(*) FROM goals WHERE id = ?";
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setInt(1, id);
         ResultSet rs = pstmt.executeQuery();
         
@@ -275,7 +278,6 @@ public class GoalRepositoryImpl implements GoalRepository {
         }
         
         rs.close();
-        pstmt.close();
         return exists;
     }
 }
\ No newline at end of file
@@ -31,9 +31,10 @@ public class MatchRepositoryImpl implements MatchRepository {
             VALUES ((SELECT id FROM teams WHERE name = ? AND tournament_id = ?), 
                     (SELECT id FROM teams WHERE name = ? AND tournament_id = ?), 
                     ?, ?, ?, ?, ?, ?, ?)
+            RETURNING id
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setString(1, match.getTeamA().getName());
         pstmt.setInt(2, match.getTeamA().getTournamentId());
         pstmt.setString(3, match.getTeamB().getName());
@@ -52,10 +53,7 @@ public class MatchRepositoryImpl implements MatchRepository {
             pstmt.setNull(11, java.sql.Types.INTEGER);
         }
         
-        pstmt.executeUpdate();
-        pstmt.close();
-        
-        int matchId = dbManager.getLastInsertId();
+        int matchId = dbManager.executeInsertReturningId(pstmt);
         match.setId(matchId);
         
         return matchId;
@@ -70,7 +68,7 @@ public class MatchRepositoryImpl implements MatchRepository {
             WHERE id = ?
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setInt(1, match.getTeamAScore());
         pstmt.setInt(2, match.getTeamBScore());
         pstmt.setString(3, match.getMatchType());
@@ -84,7 +82,6 @@ public class MatchRepositoryImpl implements MatchRepository {
         
         pstmt.setInt(6, match.getId());
         pstmt.executeUpdate();
-        pstmt.close();
     }
     
     @Override
@@ -99,7 +96,7 @@ public class MatchRepositoryImpl implements MatchRepository {
             WHERE m.id = ?
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setInt(1, id);
         ResultSet rs = pstmt.executeQuery();
         
@@ -111,7 +108,6 @@ public class MatchRepositoryImpl implements MatchRepository {
         }
         
         rs.close();
-        pstmt.close();
         return result;
     }
     
@@ -130,7 +126,7 @@ public class MatchRepositoryImpl implements MatchRepository {
             ORDER BY m.match_date ASC
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setInt(1, tournamentId);
         pstmt.setInt(2, tournamentId);
         ResultSet rs = pstmt.executeQuery();
@@ -140,7 +136,6 @@ public class MatchRepositoryImpl implements MatchRepository {
         }
         
         rs.close();
-        pstmt.close();
         return matches;
     }
     
@@ -159,7 +154,7 @@ public class MatchRepositoryImpl implements MatchRepository {
             ORDER BY m.match_date ASC
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setInt(1, tournamentId);
         pstmt.setInt(2, tournamentId);
         pstmt.setString(3, matchType);
@@ -170,7 +165,6 @@ public class MatchRepositoryImpl implements MatchRepository {
         }
         
         rs.close();
-        pstmt.close();
         return matches;
     }
     
@@ -190,7 +184,7 @@ public class MatchRepositoryImpl implements MatchRepository {
             ORDER BY m.match_date ASC
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setString(1, teamName);
         pstmt.setString(2, teamName);
         pstmt.setInt(3, tournamentId);
@@ -202,7 +196,6 @@ public class MatchRepositoryImpl implements MatchRepository {
         }
         
         rs.close();
-        pstmt.close();
         return matches;
     }
     
@@ -223,7 +216,7 @@ public class MatchRepositoryImpl implements MatchRepository {
             ORDER BY m.match_date ASC
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setString(1, teamName);
         pstmt.setString(2, teamName);
         pstmt.setInt(3, tournamentId);
@@ -235,23 +228,21 @@ public class MatchRepositoryImpl implements MatchRepository {
         }
         
         rs.close();
-        pstmt.close();
         return matches;
     }
     
     @Override
     public void delete(int id) throws SQLException {
         String sql = "DELETE FROM matches WHERE id = ?";
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setInt(1, id);
         pstmt.executeUpdate();
-        pstmt.close();
     }
     
     @Override
     public boolean exists(int id) throws SQLException {
         String sql = "SELECT COUNT(*) FROM matches WHERE id = ?";
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setInt(1, id);
         ResultSet rs = pstmt.executeQuery();
         
@@ -261,7 +252,6 @@ public class MatchRepositoryImpl implements MatchRepository {
         }
         
         rs.close();
-        pstmt.close();
         return exists;
     }
 }
\ No newline at end of file
@@ -0,0 +1,523 @@
+package com.worldcup.repository.impl;
+
+import com.worldcup.database.BatchInsert;
+import com.worldcup.database.DatabaseManager;
+import com.worldcup.model.Card;
+import com.worldcup.model.Goal;
+import com.worldcup.model.Match;
+import com.worldcup.model.Player;
+import com.worldcup.model.StandingsTable;
+import com.worldcup.model.Substitution;
+import com.worldcup.model.Team;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Unit of work cho một trận đấu.
+ * Gom match row, goals, cards, substitutions, counters của players và các cột đã thay đổi của teams
+ * rồi ghi tất cả trong một transaction: goals / cards / substitutions bằng multi-row INSERT,
+ * counters của players bằng JDBC batch, thay vì autocommit từng câu lệnh.
+ * Trạng thái in-memory (player.scoreGoal(), receiveYellowCard()...) được cập nhật ngay khi register.
+ *
+ * Nếu commit lỗi thì transaction được rollback, counters của players và thống kê của teams được trả về
+ * giá trị trước khi unit of work thay đổi (kèm vị trí trong StandingsTable nếu có),
+ * id vừa cấp cho match / goals / cards / substitutions được xóa và các thay đổi đang gom bị bỏ.
+ * Unit of work khi đó bị đánh dấu failed, mọi lần register / commit sau đó ném IllegalStateException:
+ * không được dùng lại, caller phải tạo unit of work mới cho lần ghi tiếp theo.
+ */
+public class MatchUnitOfWork {
+
+    /**
+     * Nhận từng goal sau khi transaction của unit of work đã commit
+     */
+    @FunctionalInterface
+    public interface GoalListener {
+        void goalSaved(Goal goal);
+    }
+
+    private final DatabaseManager dbManager;
+    // Khác null khi đang trong một phase: update team / player được gom lại và ghi khi phase kết thúc
+    private final PendingUpdates pendingUpdates;
+
+    private Match match;
+    private String venue;
+    private String referee;
+    private boolean matchIsNew;
+    private boolean matchDirty;
+
+    private final List<Goal> goals = new ArrayList<>();
+    private final List<Card> cards = new ArrayList<>();
+    private final List<Substitution> substitutions = new ArrayList<>();
+    private final PlayerCounterBuffer playerCounters;
+    private final Set<Team> teamsToUpdate = new LinkedHashSet<>();
+    private GoalListener goalListener;
+    // Counters của player / thống kê của team trước lần register đầu tiên, dùng để hoàn tác khi rollback
+    private final Map<Player, PlayerSnapshot> playerSnapshots = new IdentityHashMap<>();
+    private final Map<Team, TeamSnapshot> teamSnapshots = new IdentityHashMap<>();
+    private StandingsTable standingsTable;
+    private boolean failed;
+
+    public MatchUnitOfWork(DatabaseManager dbManager) {
+        this(dbManager, null);
+    }
+
+    public MatchUnitOfWork(DatabaseManager dbManager, PendingUpdates pendingUpdates) {
+        this.dbManager = dbManager;
+        this.pendingUpdates = pendingUpdates;
+        this.playerCounters = new PlayerCounterBuffer(dbManager);
+    }
+
+    public void setGoalListener(GoalListener goalListener) {
+        this.goalListener = goalListener;
+    }
+
+    /**
+     * Bảng xếp hạng chứa teams của trận, được sắp lại khi rollback trả thống kê về giá trị cũ
+     */
+    public void setStandingsTable(StandingsTable standingsTable) {
+        this.standingsTable = standingsTable;
+    }
+
+    /**
+     * Đăng ký match mới, được insert khi commit với kết quả cuối cùng
+     */
+    public void registerNewMatch(Match match, String venue, String referee) {
+        checkNotFailed();
+        snapshot(match.getTeamA());
+        snapshot(match.getTeamB());
+        this.match = match;
+        this.venue = venue;
+        this.referee = referee;
+        this.matchIsNew = true;
+    }
+
+    /**
+     * Đánh dấu match cần cập nhật kết quả. Match mới thì kết quả đã nằm trong câu INSERT.
+     */
+    public void registerMatchUpdate(Match match) {
+        checkNotFailed();
+        if (this.match == null) {
+            this.match = match;
+        } else if (this.match != match) {
+            throw new IllegalStateException("MatchUnitOfWork chỉ quản lý một trận đấu.");
+        }
+        this.matchDirty = true;
+    }
+
+    public void registerGoal(Goal goal) {
+        checkNotFailed();
+        snapshot(goal.getPlayer());
+        snapshot(goal.getTeam());
+        goals.add(goal);
+        addCounters(goal.getPlayer(), 1, 0, 0);
+        goal.getPlayer().scoreGoal();
+    }
+
+    public void registerCard(Card card) {
+        checkNotFailed();
+        snapshot(card.getPlayer());
+        snapshot(card.getTeam());
+        cards.add(card);
+        if (card.getType() == Card.CardType.YELLOW) {
+            addCounters(card.getPlayer(), 0, 1, 0);
+            card.getPlayer().receiveYellowCard();
+        } else {
+            addCounters(card.getPlayer(), 0, 0, 1);
+            card.getPlayer().receiveRedCard();
+        }
+    }
+
+    /**
+     * Validate ngay để caller xử lý lỗi giống như khi lưu trực tiếp
+     */
+    public void registerSubstitution(Substitution substitution) throws SQLException {
+        checkNotFailed();
+        SubstitutionRepositoryImpl.validatePlayersExist(substitution);
+        snapshot(substitution.getTeam());
+        substitutions.add(substitution);
+    }
+
+    /**
+     * Team được ghi (chỉ các cột đã thay đổi) khi commit, hoặc khi phase kết thúc nếu có PendingUpdates.
+     * Gọi trước khi thay đổi thống kê để rollback trả team về đúng giá trị cũ.
+     */
+    public void registerTeamUpdate(Team team) {
+        checkNotFailed();
+        snapshot(team);
+        teamsToUpdate.add(team);
+    }
+
+    public boolean isEmpty() {
+        return match == null && goals.isEmpty() && cards.isEmpty()
+                && substitutions.isEmpty() && playerCounters.isEmpty() && teamsToUpdate.isEmpty();
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    /**
+     * Ghi tất cả thay đổi trong một transaction. Có PendingUpdates thì update team và counters
+     * chỉ được chuyển sang phase sau khi transaction commit thành công.
+     */
+    public void commit() throws SQLException {
+        checkNotFailed();
+        List<Team> updatedTeams = List.of();
+        if (hasStatements()) {
+            try {
+                updatedTeams = write();
+            } catch (SQLException | RuntimeException e) {
+                discard();
+                throw e;
+            }
+        }
+
+        if (pendingUpdates != null) {
+            pendingUpdates.addTeams(teamsToUpdate);
+            pendingUpdates.addPlayerCounters(playerCounters);
+        }
+        PendingUpdates.markPersisted(updatedTeams);
+        if (goalListener != null) {
+            for (Goal goal : goals) {
+                goalListener.goalSaved(goal);
+            }
+        }
+        clear();
+    }
+
+    /**
+     * Chạy các câu lệnh trong một transaction JDBC, lỗi thì rollback rồi ném lại.
+     * Trả về teams đã UPDATE để markPersisted sau khi commit.
+     */
+    protected List<Team> write() throws SQLException {
+        List<Team> updatedTeams = List.of();
+        Connection conn = dbManager.getConnection();
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            if (match != null && matchIsNew) {
+                insertMatch();
+            } else if (match != null && matchDirty) {
+                updateMatch();
+            }
+            insertGoals();
+            insertCards();
+            insertSubstitutions();
+            if (pendingUpdates == null) {
+                playerCounters.write();
+                updatedTeams = PendingUpdates.writeDirty(dbManager, teamsToUpdate);
+            }
+            conn.commit();
+            return updatedTeams;
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    // Thay đổi đang gom, cho các unit of work ghi vào backend khác
+
+    protected Match getMatch() {
+        return match;
+    }
+
+    protected boolean isMatchNew() {
+        return matchIsNew;
+    }
+
+    protected boolean isMatchDirty() {
+        return matchDirty;
+    }
+
+    protected String getVenue() {
+        return venue;
+    }
+
+    protected String getReferee() {
+        return referee;
+    }
+
+    protected List<Goal> getGoals() {
+        return goals;
+    }
+
+    protected List<Card> getCards() {
+        return cards;
+    }
+
+    protected List<Substitution> getSubstitutions() {
+        return substitutions;
+    }
+
+    protected Set<Team> getTeamsToUpdate() {
+        return teamsToUpdate;
+    }
+
+    /**
+     * Có câu lệnh nào cần chạy trong transaction của unit of work không
+     */
+    private boolean hasStatements() {
+        if (match != null || !goals.isEmpty() || !cards.isEmpty() || !substitutions.isEmpty()) {
+            return true;
+        }
+        return pendingUpdates == null
+                && (!playerCounters.isEmpty() || !teamsToUpdate.isEmpty());
+    }
+
+    /**
+     * Hoàn tác trạng thái in-memory sau rollback và đánh dấu unit of work failed
+     */
+    private void discard() {
+        for (Map.Entry<Player, PlayerSnapshot> entry : playerSnapshots.entrySet()) {
+            entry.getValue().restore(entry.getKey());
+        }
+        for (Map.Entry<Team, TeamSnapshot> entry : teamSnapshots.entrySet()) {
+            Team team = entry.getKey();
+            entry.getValue().restore(team);
+            if (standingsTable != null && standingsTable.contains(team)) {
+                standingsTable.refresh(team);
+            }
+        }
+        if (match != null && matchIsNew) {
+            match.setId(0);
+        }
+        for (Goal goal : goals) {
+            goal.setId(0);
+        }
+        for (Card card : cards) {
+            card.setId(0);
+        }
+        for (Substitution substitution : substitutions) {
+            substitution.setId(0);
+        }
+        clear();
+        failed = true;
+    }
+
+    private void checkNotFailed() {
+        if (failed) {
+            throw new IllegalStateException("MatchUnitOfWork đã rollback, không được dùng lại.");
+        }
+    }
+
+    private void snapshot(Player player) {
+        playerSnapshots.computeIfAbsent(player, PlayerSnapshot::new);
+    }
+
+    private void snapshot(Team team) {
+        teamSnapshots.computeIfAbsent(team, TeamSnapshot::new);
+    }
+
+    private void clear() {
+        match = null;
+        venue = null;
+        referee = null;
+        matchIsNew = false;
+        matchDirty = false;
+        goals.clear();
+        cards.clear();
+        substitutions.clear();
+        playerCounters.clear();
+        teamsToUpdate.clear();
+        playerSnapshots.clear();
+        teamSnapshots.clear();
+    }
+
+    private void insertMatch() throws SQLException {
+        String sql = """
+            INSERT INTO matches (team_a_id, team_b_id, team_a_score, team_b_score, match_type,
+                               match_date, venue, referee, winner_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            RETURNING id
+        """;
+
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
+        pstmt.setInt(1, match.getTeamA().getId());
+        pstmt.setInt(2, match.getTeamB().getId());
+        pstmt.setInt(3, match.getTeamAScore());
+        pstmt.setInt(4, match.getTeamBScore());
+        pstmt.setString(5, match.getMatchType());
+        pstmt.setString(6, match.getMatchDate());
+        pstmt.setString(7, venue);
+        pstmt.setString(8, referee);
+        setWinnerId(pstmt, 9);
+        int matchId = dbManager.executeInsertReturningId(pstmt);
+
+        match.setId(matchId);
+    }
+
+    private void updateMatch() throws SQLException {
+        String sql = """
+            UPDATE matches
+            SET team_a_score = ?, team_b_score = ?, match_type = ?,
+                match_date = ?, winner_id = ?
+            WHERE id = ?
+        """;
+
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
+        pstmt.setInt(1, match.getTeamAScore());
+        pstmt.setInt(2, match.getTeamBScore());
+        pstmt.setString(3, match.getMatchType());
+        pstmt.setString(4, match.getMatchDate());
+        setWinnerId(pstmt, 5);
+        pstmt.setInt(6, match.getId());
+        pstmt.executeUpdate();
+    }
+
+    private void setWinnerId(PreparedStatement pstmt, int index) throws SQLException {
+        if (match.getWinnerId() != null) {
+            pstmt.setInt(index, match.getWinnerId());
+        } else {
+            pstmt.setNull(index, java.sql.Types.INTEGER);
+        }
+    }
+
+    private void insertGoals() throws SQLException {
+        if (goals.isEmpty()) {
+            return;
+        }
+
+        String insertHead = "INSERT INTO goals (match_id, player_id, team_id, minute, goal_type)";
+        int[] ids = BatchInsert.insertReturningIds(dbManager.getConnection(), insertHead, 5, goals,
+                (pstmt, offset, goal) -> {
+                    pstmt.setInt(offset, goal.getMatch().getId());
+                    pstmt.setInt(offset + 1, goal.getPlayer().getId());
+                    pstmt.setInt(offset + 2, goal.getTeam().getId());
+                    pstmt.setInt(offset + 3, goal.getMinute());
+                    pstmt.setString(offset + 4, "REGULAR");
+                });
+
+        for (int i = 0; i < goals.size(); i++) {
+            goals.get(i).setId(ids[i]);
+        }
+    }
+
+    private void insertCards() throws SQLException {
+        if (cards.isEmpty()) {
+            return;
+        }
+
+        String insertHead = "INSERT INTO cards (match_id, player_id, team_id, card_type, minute)";
+        int[] ids = BatchInsert.insertReturningIds(dbManager.getConnection(), insertHead, 5, cards,
+                (pstmt, offset, card) -> {
+                    pstmt.setInt(offset, card.getMatch().getId());
+                    pstmt.setInt(offset + 1, card.getPlayer().getId());
+                    pstmt.setInt(offset + 2, card.getTeam().getId());
+                    pstmt.setString(offset + 3, card.getType().getLabel().toUpperCase());
+                    pstmt.setInt(offset + 4, card.getMinutes());
+                });
+
+        for (int i = 0; i < cards.size(); i++) {
+            cards.get(i).setId(ids[i]);
+        }
+    }
+
+    private void insertSubstitutions() throws SQLException {
+        if (substitutions.isEmpty()) {
+            return;
+        }
+
+        String insertHead = "INSERT INTO substitutions (match_id, team_id, player_in_id, player_out_id, minute)";
+        int[] ids = BatchInsert.insertReturningIds(dbManager.getConnection(), insertHead, 5, substitutions,
+                (pstmt, offset, substitution) -> {
+                    pstmt.setInt(offset, substitution.getMatch().getId());
+                    pstmt.setInt(offset + 1, substitution.getTeam().getId());
+                    pstmt.setInt(offset + 2, substitution.getInPlayer().getId());
+                    pstmt.setInt(offset + 3, substitution.getOutPlayer().getId());
+                    pstmt.setInt(offset + 4, substitution.getMinute());
+                });
+
+        for (int i = 0; i < substitutions.size(); i++) {
+            substitutions.get(i).setId(ids[i]);
+        }
+    }
+
+    /**
+     * Counters được ghi theo player id khi commit (hoặc khi phase kết thúc).
+     * Player chưa có id không tồn tại trong team ở database nên không có row nào để cộng.
+     */
+    private void addCounters(Player player, int goals, int yellowCards, int redCards) {
+        if (player.getId() > 0) {
+            playerCounters.add(player.getId(), goals, yellowCards, redCards);
+        }
+    }
+
+    /**
+     * Goals / cards / án của player trước khi unit of work thay đổi
+     */
+    private static final class PlayerSnapshot {
+        private final int goals;
+        private final int yellowCards;
+        private final int redCards;
+        private final boolean eligible;
+        private final int eligibleMatches;
+
+        PlayerSnapshot(Player player) {
+            this.goals = player.getGoals();
+            this.yellowCards = player.getYellowCards();
+            this.redCards = player.getRedCards();
+            this.eligible = player.isEligible();
+            this.eligibleMatches = player.getEligibleMatches();
+        }
+
+        void restore(Player player) {
+            player.setGoals(goals);
+            player.setYellowCards(yellowCards);
+            player.setRedCards(redCards);
+            player.setEligible(eligible);
+            player.setEligibleMatches(eligibleMatches);
+        }
+    }
+
+    /**
+     * Thống kê của team trước khi unit of work thay đổi
+     */
+    private static final class TeamSnapshot {
+        private final int points;
+        private final int goalDifference;
+        private final int goalsFor;
+        private final int goalsAgainst;
+        private final int wins;
+        private final int draws;
+        private final int losses;
+        private final int yellowCards;
+        private final int redCards;
+        private final int substitutionCount;
+
+        TeamSnapshot(Team team) {
+            this.points = team.getPoints();
+            this.goalDifference = team.getGoalDifference();
+            this.goalsFor = team.getGoalsFor();
+            this.goalsAgainst = team.getGoalsAgainst();
+            this.wins = team.getWins();
+            this.draws = team.getDraws();
+            this.losses = team.getLosses();
+            this.yellowCards = team.getYellowCards();
+            this.redCards = team.getRedCards();
+            this.substitutionCount = team.getSubstitutionCount();
+        }
+
+        void restore(Team team) {
+            team.setPoints(points);
+            team.setGoalDifference(goalDifference);
+            team.setGoalsFor(goalsFor);
+            team.setGoalsAgainst(goalsAgainst);
+            team.setWins(wins);
+            team.setDraws(draws);
+            team.setLosses(losses);
+            team.setYellowCards(yellowCards);
+            team.setRedCards(redCards);
+            team.setSubstitutionCount(substitutionCount);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.worldcup.repository.impl;
+
+import com.worldcup.database.ColumnUpdate;
+import com.worldcup.database.DatabaseManager;
+import com.worldcup.model.Team;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Gom các lần cập nhật Team trong một phase mô phỏng (ví dụ cả vòng bảng).
+ * Mỗi entity chỉ được ghi một lần khi flush, chỉ với các cột đã thay đổi, trong một transaction.
+ * Counters goals / cards của các trận trong phase cũng được cộng dồn và ghi cùng transaction đó.
+ * Các unit of work có thể đăng ký từ writer thread trong khi phase đang chạy nên mọi method đều synchronized.
+ */
+public class PendingUpdates {
+
+    private final DatabaseManager dbManager;
+    private final Set<Team> teams = new LinkedHashSet<>();
+    private final PlayerCounterBuffer playerCounters;
+
+    public PendingUpdates(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
+        this.playerCounters = new PlayerCounterBuffer(dbManager);
+    }
+
+    public synchronized void addTeams(Collection<Team> teams) {
+        this.teams.addAll(teams);
+    }
+
+    /**
+     * Nhận counters của một trận, buffer của trận trở thành rỗng
+     */
+    public void addPlayerCounters(PlayerCounterBuffer counters) {
+        playerCounters.transferFrom(counters);
+    }
+
+    public synchronized int size() {
+        return teams.size() + playerCounters.size();
+    }
+
+    /**
+     * Ghi các entity đã thay đổi và counters trong một transaction, trả về số row được UPDATE
+     */
+    public synchronized int flush() throws SQLException {
+        if (!hasDirtyEntities() && playerCounters.isEmpty()) {
+            teams.clear();
+            return 0;
+        }
+
+        Connection conn = dbManager.getConnection();
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        List<Team> written;
+        int counterRows = playerCounters.size();
+        try {
+            playerCounters.write();
+            written = writeDirty(dbManager, teams);
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+
+        markPersisted(written);
+        playerCounters.clear();
+        teams.clear();
+        return written.size() + counterRows;
+    }
+
+    private boolean hasDirtyEntities() {
+        for (Team team : teams) {
+            if (team.getId() > 0 && team.isDirty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * UPDATE các cột đã thay đổi của từng team, trong transaction của caller.
+     * Trả về các team đã ghi để caller gọi markPersisted sau khi commit thành công.
+     */
+    static List<Team> writeDirty(DatabaseManager dbManager, Collection<Team> teams) throws SQLException {
+        List<Team> written = new ArrayList<>();
+        for (Team team : teams) {
+            Map<String, Object> dirty = team.getDirtyColumns();
+            if (team.getId() > 0 && !dirty.isEmpty()) {
+                ColumnUpdate.execute(dbManager, "teams", team.getId(), dirty);
+                written.add(team);
+            }
+        }
+        return written;
+    }
+
+    static void markPersisted(List<Team> written) {
+        for (Team team : written) {
+            team.markPersisted();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.worldcup.repository.impl;
+
+import com.worldcup.database.DatabaseManager;
+import com.worldcup.model.Card;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Write-behind cho goals / yellow_cards / red_cards của players.
+ * Các lần tăng được cộng dồn theo player id trong bộ nhớ và ghi bằng một batch UPDATE ... WHERE id = ?
+ * khi flush (cuối trận, cuối phase hoặc khi đóng database) thay vì một câu UPDATE cho mỗi goal / card.
+ * Có thể được gọi từ writer thread của vòng bảng song song nên mọi method đều synchronized.
+ */
+public class PlayerCounterBuffer {
+
+    private final DatabaseManager dbManager;
+    private final Map<Integer, Counters> counters = new LinkedHashMap<>();
+
+    public PlayerCounterBuffer(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
+    }
+
+    /**
+     * Cộng dồn số goals / cards cho player, player phải có id
+     */
+    public synchronized void add(int playerId, int goals, int yellowCards, int redCards) {
+        if (playerId <= 0) {
+            throw new IllegalArgumentException("Player chưa có ID, không thể cộng dồn counters.");
+        }
+        Counters entry = counters.computeIfAbsent(playerId, id -> new Counters());
+        entry.goals += goals;
+        entry.yellowCards += yellowCards;
+        entry.redCards += redCards;
+    }
+
+    public void addGoal(int playerId) {
+        add(playerId, 1, 0, 0);
+    }
+
+    public void addCard(int playerId, Card.CardType type) {
+        if (type == Card.CardType.YELLOW) {
+            add(playerId, 0, 1, 0);
+        } else {
+            add(playerId, 0, 0, 1);
+        }
+    }
+
+    /**
+     * Chuyển toàn bộ counters của other sang buffer này, other trở thành rỗng
+     */
+    public void transferFrom(PlayerCounterBuffer other) {
+        if (other == this) {
+            return;
+        }
+        Map<Integer, Counters> drained;
+        synchronized (other) {
+            drained = new LinkedHashMap<>(other.counters);
+            other.counters.clear();
+        }
+        for (Map.Entry<Integer, Counters> entry : drained.entrySet()) {
+            Counters value = entry.getValue();
+            add(entry.getKey(), value.goals, value.yellowCards, value.redCards);
+        }
+    }
+
+    public synchronized int getPendingGoals(int playerId) {
+        Counters entry = counters.get(playerId);
+        return entry == null ? 0 : entry.goals;
+    }
+
+    public synchronized int getPendingYellowCards(int playerId) {
+        Counters entry = counters.get(playerId);
+        return entry == null ? 0 : entry.yellowCards;
+    }
+
+    public synchronized int getPendingRedCards(int playerId) {
+        Counters entry = counters.get(playerId);
+        return entry == null ? 0 : entry.redCards;
+    }
+
+    /**
+     * Số player đang có counters chờ ghi
+     */
+    public synchronized int size() {
+        return counters.size();
+    }
+
+    public synchronized boolean isEmpty() {
+        return counters.isEmpty();
+    }
+
+    public synchronized void clear() {
+        counters.clear();
+    }
+
+    /**
+     * Ghi counters trong một transaction rồi xóa khỏi buffer, trả về số player được UPDATE.
+     * Nếu lỗi thì rollback và giữ nguyên buffer để lần flush sau ghi lại.
+     */
+    public synchronized int flush() throws SQLException {
+        if (counters.isEmpty()) {
+            return 0;
+        }
+
+        Connection conn = dbManager.getConnection();
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            write();
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+
+        int written = counters.size();
+        counters.clear();
+        return written;
+    }
+
+    /**
+     * Batch UPDATE trong transaction của caller, không xóa buffer (caller clear sau khi commit)
+     */
+    synchronized void write() throws SQLException {
+        if (counters.isEmpty()) {
+            return;
+        }
+
+        String sql = """
+            UPDATE players
+            SET goals = goals + ?, yellow_cards = yellow_cards + ?, red_cards = red_cards + ?
+            WHERE id = ?
+        """;
+
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
+        for (Map.Entry<Integer, Counters> entry : counters.entrySet()) {
+            Counters value = entry.getValue();
+            pstmt.setInt(1, value.goals);
+            pstmt.setInt(2, value.yellowCards);
+            pstmt.setInt(3, value.redCards);
+            pstmt.setInt(4, entry.getKey());
+            pstmt.addBatch();
+        }
+        pstmt.executeBatch();
+    }
+
+    /**
+     * Số goals/cards cộng thêm cho một cầu thủ
+     */
+    private static class Counters {
+        int goals;
+        int yellowCards;
+        int redCards;
+    }
+}
@@ -1,5 +1,7 @@
 package com.worldcup.repository.impl;
 
+import com.worldcup.database.BatchInsert;
+import com.worldcup.database.ColumnUpdate;
 import com.worldcup.database.DatabaseManager;
 import com.worldcup.model.Player;
 import com.worldcup.repository.PlayerRepository;
@@ -8,7 +10,11 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -27,27 +33,26 @@ public class PlayerRepositoryImpl implements PlayerRepository {
     public void save(Player player, int teamId) throws SQLException {
         // Check if player with same jersey number already exists for this team
         String checkSql = "SELECT COUNT(*) FROM players WHERE team_id = ? AND jersey_number = ?";
-        PreparedStatement checkStmt = dbManager.getConnection().prepareStatement(checkSql);
+        PreparedStatement checkStmt = dbManager.prepareCached(checkSql);
         checkStmt.setInt(1, teamId);
         checkStmt.setInt(2, player.getJerseyNumber());
         ResultSet rs = checkStmt.executeQuery();
         
         if (rs.next() && rs.getInt(1) > 0) {
             rs.close();
-            checkStmt.close();
             throw new SQLException("Player with jersey number " + player.getJerseyNumber() + 
                                  " already exists for team ID " + teamId);
         }
         rs.close();
-        checkStmt.close();
         
         String sql = """
             INSERT INTO players (name, jersey_number, position, team_id, is_starting, 
                                yellow_cards, red_cards, is_eligible, goals)
             VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            RETURNING id
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setString(1, player.getName());
         pstmt.setInt(2, player.getJerseyNumber());
         pstmt.setString(3, player.getPosition());
@@ -57,34 +62,56 @@ public class PlayerRepositoryImpl implements PlayerRepository {
         pstmt.setInt(7, player.getRedCards());
         pstmt.setBoolean(8, player.isEligible());
         pstmt.setInt(9, player.getGoals());
-        pstmt.executeUpdate();
-        pstmt.close();
-        
-        int playerId = dbManager.getLastInsertId();
+        int playerId = dbManager.executeInsertReturningId(pstmt);
         player.setId(playerId);
+        player.markPersisted();
     }
     
     @Override
-    public void update(Player player) throws SQLException {
-        String sql = """
-            UPDATE players 
-            SET name = ?, jersey_number = ?, position = ?, is_starting = ?, 
-                yellow_cards = ?, red_cards = ?, is_eligible = ?, goals = ?
-            WHERE id = ?
-        """;
+    public void saveAll(Map<Integer, List<Player>> playersByTeamId) throws SQLException {
+        List<Map.Entry<Integer, Player>> rows = new ArrayList<>();
+        Map<Integer, Map<Integer, Player>> byTeamAndJersey = new HashMap<>();
+        for (Map.Entry<Integer, List<Player>> entry : playersByTeamId.entrySet()) {
+            Map<Integer, Player> byJersey = byTeamAndJersey.computeIfAbsent(entry.getKey(), k -> new HashMap<>());
+            for (Player player : entry.getValue()) {
+                rows.add(Map.entry(entry.getKey(), player));
+                byJersey.putIfAbsent(player.getJerseyNumber(), player);
+            }
+        }
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
-        pstmt.setString(1, player.getName());
-        pstmt.setInt(2, player.getJerseyNumber());
-        pstmt.setString(3, player.getPosition());
-        pstmt.setBoolean(4, player.isStarting());
-        pstmt.setInt(5, player.getYellowCards());
-        pstmt.setInt(6, player.getRedCards());
-        pstmt.setBoolean(7, player.isEligible());
-        pstmt.setInt(8, player.getGoals());
-        pstmt.setInt(9, player.getId());
-        pstmt.executeUpdate();
-        pstmt.close();
+        // Thứ tự RETURNING không cố định và rows trùng số áo không trả về, nên map lại theo (team_id, jersey_number).
+        // Chỉ bỏ qua vi phạm UNIQUE(team_id, jersey_number), các lỗi khác (ví dụ NOT NULL) vẫn được ném ra.
+        String insertHead = """
+            INSERT INTO players (name, jersey_number, position, team_id, is_starting,
+                                yellow_cards, red_cards, is_eligible, goals)
+        """;
+        BatchInsert.insertReturning(dbManager.getConnection(), insertHead, 9, rows,
+                (pstmt, offset, row) -> {
+                    Player player = row.getValue();
+                    pstmt.setString(offset, player.getName());
+                    pstmt.setInt(offset + 1, player.getJerseyNumber());
+                    pstmt.setString(offset + 2, player.getPosition());
+                    pstmt.setInt(offset + 3, row.getKey());
+                    pstmt.setBoolean(offset + 4, player.isStarting());
+                    pstmt.setInt(offset + 5, player.getYellowCards());
+                    pstmt.setInt(offset + 6, player.getRedCards());
+                    pstmt.setBoolean(offset + 7, player.isEligible());
+                    pstmt.setInt(offset + 8, player.getGoals());
+                },
+                "ON CONFLICT(team_id, jersey_number) DO NOTHING",
+                "id, team_id, jersey_number",
+                rs -> {
+                    Player player = byTeamAndJersey.get(rs.getInt("team_id")).get(rs.getInt("jersey_number"));
+                    player.setId(rs.getInt("id"));
+                    player.markPersisted();
+                });
+    }
+    
+    @Override
+    public void update(Player player) throws SQLException {
+        // Chỉ ghi các cột đã thay đổi, player không đổi thì không tốn câu lệnh nào
+        ColumnUpdate.execute(dbManager, "players", player.getId(), player.getDirtyColumns());
+        player.markPersisted();
     }
     
     @Override
@@ -95,7 +122,7 @@ public class PlayerRepositoryImpl implements PlayerRepository {
             FROM players WHERE id = ?
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setInt(1, id);
         ResultSet rs = pstmt.executeQuery();
         
@@ -106,7 +133,6 @@ public class PlayerRepositoryImpl implements PlayerRepository {
         }
         
         rs.close();
-        pstmt.close();
         return result;
     }
     
@@ -120,7 +146,7 @@ public class PlayerRepositoryImpl implements PlayerRepository {
             WHERE p.name = ? AND t.name = ? AND t.tournament_id = ?
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setString(1, playerName);
         pstmt.setString(2, teamName);
         pstmt.setInt(3, tournamentId);
@@ -133,7 +159,6 @@ public class PlayerRepositoryImpl implements PlayerRepository {
         }
         
         rs.close();
-        pstmt.close();
         return result;
     }
     
@@ -148,7 +173,7 @@ public class PlayerRepositoryImpl implements PlayerRepository {
             ORDER BY is_starting DESC, jersey_number ASC
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setInt(1, teamId);
         ResultSet rs = pstmt.executeQuery();
         
@@ -158,7 +183,6 @@ public class PlayerRepositoryImpl implements PlayerRepository {
         }
         
         rs.close();
-        pstmt.close();
         return players;
     }
     
@@ -175,7 +199,7 @@ public class PlayerRepositoryImpl implements PlayerRepository {
             ORDER BY p.is_starting DESC, p.jersey_number ASC
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setString(1, teamName);
         pstmt.setInt(2, tournamentId);
         ResultSet rs = pstmt.executeQuery();
@@ -186,7 +210,6 @@ public class PlayerRepositoryImpl implements PlayerRepository {
         }
         
         rs.close();
-        pstmt.close();
         return players;
     }
     
@@ -201,7 +224,7 @@ public class PlayerRepositoryImpl implements PlayerRepository {
             ORDER BY jersey_number ASC
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setInt(1, teamId);
         ResultSet rs = pstmt.executeQuery();
         
@@ -211,7 +234,6 @@ public class PlayerRepositoryImpl implements PlayerRepository {
         }
         
         rs.close();
-        pstmt.close();
         return players;
     }
     
@@ -226,7 +248,7 @@ public class PlayerRepositoryImpl implements PlayerRepository {
             ORDER BY jersey_number ASC
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setInt(1, teamId);
         ResultSet rs = pstmt.executeQuery();
         
@@ -236,7 +258,6 @@ public class PlayerRepositoryImpl implements PlayerRepository {
         }
         
         rs.close();
-        pstmt.close();
         return players;
     }
     
@@ -248,12 +269,11 @@ public class PlayerRepositoryImpl implements PlayerRepository {
             WHERE name = ? AND team_id = (SELECT id FROM teams WHERE name = ? AND tournament_id = ?)
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setString(1, player.getName());
         pstmt.setString(2, teamName);
         pstmt.setInt(3, tournamentId);
         pstmt.executeUpdate();
-        pstmt.close();
         
         // Cập nhật object
         player.scoreGoal();
@@ -276,12 +296,11 @@ public class PlayerRepositoryImpl implements PlayerRepository {
             """;
         }
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setString(1, player.getName());
         pstmt.setString(2, teamName);
         pstmt.setInt(3, tournamentId);
         pstmt.executeUpdate();
-        pstmt.close();
         
         // Cập nhật object
         if ("YELLOW".equals(cardType)) {
@@ -294,16 +313,15 @@ public class PlayerRepositoryImpl implements PlayerRepository {
     @Override
     public void delete(int id) throws SQLException {
         String sql = "DELETE FROM players WHERE id = ?";
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setInt(1, id);
         pstmt.executeUpdate();
-        pstmt.close();
     }
     
     @Override
     public boolean exists(int id) throws SQLException {
         String sql = "SELECT COUNT(*) FROM players WHERE id = ?";
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setInt(1, id);
         ResultSet rs = pstmt.executeQuery();
         
@@ -313,7 +331,6 @@ public class PlayerRepositoryImpl implements PlayerRepository {
         }
         
         rs.close();
-        pstmt.close();
         return exists;
     }
     
@@ -326,7 +343,7 @@ public class PlayerRepositoryImpl implements PlayerRepository {
             WHERE p.name = ? AND t.name = ? AND t.tournament_id = ?
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setString(1, playerName);
         pstmt.setString(2, teamName);
         pstmt.setInt(3, tournamentId);
@@ -338,7 +355,6 @@ public class PlayerRepositoryImpl implements PlayerRepository {
         }
         
         rs.close();
-        pstmt.close();
         return result;
     }
     
@@ -346,11 +362,33 @@ public class PlayerRepositoryImpl implements PlayerRepository {
     public void updateStartingStatus(int playerId, boolean isStarting) throws SQLException {
         String sql = "UPDATE players SET is_starting = ? WHERE id = ?";
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setBoolean(1, isStarting);
         pstmt.setInt(2, playerId);
         pstmt.executeUpdate();
-        pstmt.close();
+    }
+    
+    @Override
+    public int updateLineup(int teamId, Collection<Integer> startingPlayerIds) throws SQLException {
+        // SQL chỉ phụ thuộc số cầu thủ đá chính nên được statement cache dùng lại giữa các trận
+        String placeholders = String.join(", ", Collections.nCopies(startingPlayerIds.size(), "?"));
+        String isStarting = startingPlayerIds.isEmpty() ? "0" : "(id IN (" + placeholders + "))";
+        String sql = """
+            UPDATE players
+            SET is_starting = %s
+            WHERE team_id = ? AND is_starting IS NOT %s
+            """.formatted(isStarting, isStarting);
+
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
+        int index = 1;
+        for (int playerId : startingPlayerIds) {
+            pstmt.setInt(index++, playerId);
+        }
+        pstmt.setInt(index++, teamId);
+        for (int playerId : startingPlayerIds) {
+            pstmt.setInt(index++, playerId);
+        }
+        return pstmt.executeUpdate();
     }
     
     /**
@@ -369,6 +407,7 @@ public class PlayerRepositoryImpl implements PlayerRepository {
         player.setEligible(rs.getBoolean("is_eligible"));
         player.setGoals(rs.getInt("goals"));
         player.setStarting(rs.getBoolean("is_starting"));
+        player.markPersisted();
         
         return player;
     }
@@ -37,25 +37,23 @@ public class SubstitutionRepositoryImpl implements SubstitutionRepository {
                             ?,
                             ?, 
                             ?)
+                    RETURNING id
                 """;
 
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setInt(1, substitution.getMatch().getId());
         pstmt.setInt(2, substitution.getTeam().getId());
         pstmt.setInt(3, substitution.getInPlayer().getId());
         pstmt.setInt(4, substitution.getOutPlayer().getId());
         pstmt.setInt(5, substitution.getMinute());
-        pstmt.executeUpdate();
-        pstmt.close();
-
-        int substitutionId = dbManager.getLastInsertId();
+        int substitutionId = dbManager.executeInsertReturningId(pstmt);
         substitution.setId(substitutionId);
     }
 
     /**
      * Validate that both players exist in the team before creating substitution
      */
-    private void validatePlayersExist(Substitution substitution) throws SQLException {
+    public static void validatePlayersExist(Substitution substitution) throws SQLException {
         Player playerIn = substitution.getInPlayer();
         Player playerOut = substitution.getOutPlayer();
 
@@ -78,7 +76,7 @@ public class SubstitutionRepositoryImpl implements SubstitutionRepository {
                     WHERE id = ?
                 """;
 
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setInt(1, substitution.getMatch().getId());
         pstmt.setInt(2, substitution.getTeam().getId());
         pstmt.setInt(3, substitution.getInPlayer().getId());
@@ -86,7 +84,6 @@ public class SubstitutionRepositoryImpl implements SubstitutionRepository {
         pstmt.setInt(5, substitution.getMinute());
         pstmt.setInt(6, substitution.getId());
         pstmt.executeUpdate();
-        pstmt.close();
     }
 
     @Override
@@ -101,7 +98,7 @@ public class SubstitutionRepositoryImpl implements SubstitutionRepository {
                     WHERE s.id = ?
                 """;
 
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setInt(1, id);
         ResultSet rs = pstmt.executeQuery();
 
@@ -112,7 +109,6 @@ public class SubstitutionRepositoryImpl implements SubstitutionRepository {
         }
 
         rs.close();
-        pstmt.close();
         return result;
     }
 
@@ -131,7 +127,7 @@ public class SubstitutionRepositoryImpl implements SubstitutionRepository {
                     ORDER BY s.minute ASC
                 """;
 
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setInt(1, matchId);
         ResultSet rs = pstmt.executeQuery();
 
@@ -140,7 +136,6 @@ public class SubstitutionRepositoryImpl implements SubstitutionRepository {
         }
 
         rs.close();
-        pstmt.close();
         return substitutions;
     }
 
@@ -156,7 +151,7 @@ public class SubstitutionRepositoryImpl implements SubstitutionRepository {
                     ORDER BY s.match_id ASC, s.minute ASC
                 """;
 
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setString(1, teamName);
         pstmt.setInt(2, tournamentId);
         ResultSet rs = pstmt.executeQuery();
@@ -166,7 +161,6 @@ public class SubstitutionRepositoryImpl implements SubstitutionRepository {
         }
 
         rs.close();
-        pstmt.close();
         return substitutions;
     }
 
@@ -179,7 +173,7 @@ public class SubstitutionRepositoryImpl implements SubstitutionRepository {
                     WHERE t.name = ? AND t.tournament_id = ?
                 """;
 
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setString(1, teamName);
         pstmt.setInt(2, tournamentId);
         ResultSet rs = pstmt.executeQuery();
@@ -190,23 +184,21 @@ public class SubstitutionRepositoryImpl implements SubstitutionRepository {
         }
 
         rs.close();
-        pstmt.close();
         return count;
     }
 
     @Override
     public void delete(int id) throws SQLException {
         String sql = "DELETE FROM substitutions WHERE id = ?";
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setInt(1, id);
         pstmt.executeUpdate();
-        pstmt.close();
     }
 
     @Override
     public boolean exists(int id) throws SQLException {
         String sql = "SELECT COUNT(*) FROM substitutions WHERE id = ?";
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setInt(1, id);
         ResultSet rs = pstmt.executeQuery();
 
@@ -216,7 +208,6 @@ public class SubstitutionRepositoryImpl implements SubstitutionRepository {
         }
 
         rs.close();
-        pstmt.close();
         return exists;
     }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.worldcup.repository.impl;
 
+import com.worldcup.database.BatchInsert;
+import com.worldcup.database.ColumnUpdate;
 import com.worldcup.database.DatabaseManager;
 import com.worldcup.model.Player;
 import com.worldcup.model.Team;
@@ -10,7 +12,9 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -33,9 +37,10 @@ public class TeamRepositoryImpl implements TeamRepository {
         String teamSql = """
             INSERT INTO teams (name, region, coach, medical_staff, is_host, tournament_id, group_id)
             VALUES (?, ?, ?, ?, ?, ?, ?)
+            RETURNING id
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(teamSql);
+        PreparedStatement pstmt = dbManager.prepareCached(teamSql);
         pstmt.setString(1, team.getName());
         pstmt.setString(2, team.getRegion());
         pstmt.setString(3, team.getCoach());
@@ -43,11 +48,9 @@ public class TeamRepositoryImpl implements TeamRepository {
         pstmt.setBoolean(5, team.isHost());
         pstmt.setInt(6, team.getTournamentId());
         pstmt.setInt(7, team.getGroupId());
-        pstmt.executeUpdate();
-        pstmt.close();
-        
-        int teamId = dbManager.getLastInsertId();
+        int teamId = dbManager.executeInsertReturningId(pstmt);
         team.setId(teamId);
+        team.markPersisted();
         
         // Lưu assistant coaches
         saveAssistantCoaches(team);
@@ -57,25 +60,62 @@ public class TeamRepositoryImpl implements TeamRepository {
     }
     
     @Override
-    public void update(Team team) throws SQLException {
-        String sql = """
-            UPDATE teams 
-            SET name = ?, region = ?, coach = ?, medical_staff = ?, is_host = ?, 
-                tournament_id = ?, group_id = ?
-            WHERE id = ?
-        """;
+    public void saveAll(List<Team> teams) throws SQLException {
+        if (teams.isEmpty()) {
+            return;
+        }
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
-        pstmt.setString(1, team.getName());
-        pstmt.setString(2, team.getRegion());
-        pstmt.setString(3, team.getCoach());
-        pstmt.setString(4, team.getMedicalStaff());
-        pstmt.setBoolean(5, team.isHost());
-        pstmt.setInt(6, team.getTournamentId());
-        pstmt.setInt(7, team.getGroupId());
-        pstmt.setInt(8, team.getId());
-        pstmt.executeUpdate();
-        pstmt.close();
+        String insertHead = "INSERT INTO teams (name, region, coach, medical_staff, is_host, tournament_id, group_id)";
+        int[] ids = BatchInsert.insertReturningIds(dbManager.getConnection(), insertHead, 7, teams,
+                (pstmt, offset, team) -> {
+                    pstmt.setString(offset, team.getName());
+                    pstmt.setString(offset + 1, team.getRegion());
+                    pstmt.setString(offset + 2, team.getCoach());
+                    pstmt.setString(offset + 3, team.getMedicalStaff());
+                    pstmt.setBoolean(offset + 4, team.isHost());
+                    pstmt.setInt(offset + 5, team.getTournamentId());
+                    pstmt.setInt(offset + 6, team.getGroupId());
+                });
+        for (int i = 0; i < teams.size(); i++) {
+            teams.get(i).setId(ids[i]);
+            teams.get(i).markPersisted();
+        }
+        
+        // Lưu assistant coaches của tất cả teams
+        List<Map.Entry<Integer, String>> assistants = new ArrayList<>();
+        for (Team team : teams) {
+            for (String assistant : team.getAssistantCoaches()) {
+                assistants.add(Map.entry(team.getId(), assistant));
+            }
+        }
+        BatchInsert.insertAll(dbManager.getConnection(), "INSERT INTO assistant_coaches (name, team_id)", 2, assistants,
+                (pstmt, offset, assistant) -> {
+                    pstmt.setString(offset, assistant.getValue());
+                    pstmt.setInt(offset + 1, assistant.getKey());
+                });
+        
+        // Lưu starting và substitute players của tất cả teams
+        Map<Integer, List<Player>> playersByTeamId = new LinkedHashMap<>();
+        for (Team team : teams) {
+            List<Player> players = new ArrayList<>();
+            for (Player player : team.getStartingPlayers()) {
+                player.setStarting(true);
+                players.add(player);
+            }
+            for (Player player : team.getSubstitutePlayers()) {
+                player.setStarting(false);
+                players.add(player);
+            }
+            playersByTeamId.put(team.getId(), players);
+        }
+        playerRepository.saveAll(playersByTeamId);
+    }
+    
+    @Override
+    public void update(Team team) throws SQLException {
+        // Chỉ ghi các cột đã thay đổi, team không đổi thì không tốn câu lệnh nào
+        ColumnUpdate.execute(dbManager, "teams", team.getId(), team.getDirtyColumns());
+        team.markPersisted();
     }
     
     @Override
@@ -85,7 +125,7 @@ public class TeamRepositoryImpl implements TeamRepository {
             FROM teams WHERE id = ?
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setInt(1, id);
         ResultSet rs = pstmt.executeQuery();
         
@@ -96,7 +136,6 @@ public class TeamRepositoryImpl implements TeamRepository {
         }
         
         rs.close();
-        pstmt.close();
         return result;
     }
     
@@ -107,7 +146,7 @@ public class TeamRepositoryImpl implements TeamRepository {
             FROM teams WHERE name = ? AND tournament_id = ?
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setString(1, name);
         pstmt.setInt(2, tournamentId);
         ResultSet rs = pstmt.executeQuery();
@@ -119,7 +158,6 @@ public class TeamRepositoryImpl implements TeamRepository {
         }
         
         rs.close();
-        pstmt.close();
         return result;
     }
     
@@ -132,7 +170,7 @@ public class TeamRepositoryImpl implements TeamRepository {
             FROM teams WHERE tournament_id = ?
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setInt(1, tournamentId);
         ResultSet rs = pstmt.executeQuery();
         
@@ -142,7 +180,6 @@ public class TeamRepositoryImpl implements TeamRepository {
         }
         
         rs.close();
-        pstmt.close();
         return teams;
     }
     
@@ -158,7 +195,7 @@ public class TeamRepositoryImpl implements TeamRepository {
             WHERE g.name = ? AND t.tournament_id = ?
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setString(1, groupName);
         pstmt.setInt(2, tournamentId);
         ResultSet rs = pstmt.executeQuery();
@@ -169,7 +206,6 @@ public class TeamRepositoryImpl implements TeamRepository {
         }
         
         rs.close();
-        pstmt.close();
         return teams;
     }
     
@@ -200,16 +236,15 @@ public class TeamRepositoryImpl implements TeamRepository {
     @Override
     public void delete(int id) throws SQLException {
         String sql = "DELETE FROM teams WHERE id = ?";
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setInt(1, id);
         pstmt.executeUpdate();
-        pstmt.close();
     }
     
     @Override
     public boolean exists(int id) throws SQLException {
         String sql = "SELECT COUNT(*) FROM teams WHERE id = ?";
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setInt(1, id);
         ResultSet rs = pstmt.executeQuery();
         
@@ -219,14 +254,13 @@ public class TeamRepositoryImpl implements TeamRepository {
         }
         
         rs.close();
-        pstmt.close();
         return exists;
     }
     
     @Override
     public Optional<Integer> getTeamId(String teamName, int tournamentId) throws SQLException {
         String sql = "SELECT id FROM teams WHERE name = ? AND tournament_id = ?";
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setString(1, teamName);
         pstmt.setInt(2, tournamentId);
         ResultSet rs = pstmt.executeQuery();
@@ -237,7 +271,6 @@ public class TeamRepositoryImpl implements TeamRepository {
         }
         
         rs.close();
-        pstmt.close();
         return result;
     }
     
@@ -260,6 +293,7 @@ public class TeamRepositoryImpl implements TeamRepository {
         team.setId(rs.getInt("id"));
         team.setGroupId(rs.getInt("group_id"));
         team.setTournamentId(rs.getInt("tournament_id"));
+        team.markPersisted();
         
         return team;
     }
@@ -271,7 +305,7 @@ public class TeamRepositoryImpl implements TeamRepository {
         List<String> assistants = new ArrayList<>();
         
         String sql = "SELECT name FROM assistant_coaches WHERE team_id = ?";
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.prepareCached(sql);
         pstmt.setInt(1, teamId);
         ResultSet rs = pstmt.executeQuery();
         
@@ -280,7 +314,6 @@ public class TeamRepositoryImpl implements TeamRepository {
         }
         
         rs.close();
-        pstmt.close();
         return assistants;
     }
     
@@ -290,11 +323,10 @@ public class TeamRepositoryImpl implements TeamRepository {
     private void saveAssistantCoaches(Team team) throws SQLException {
         for (String assistant : team.getAssistantCoaches()) {
             String sql = "INSERT INTO assistant_coaches (name, team_id) VALUES (?, ?)";
-            PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+            PreparedStatement pstmt = dbManager.prepareCached(sql);
             pstmt.setString(1, assistant);
             pstmt.setInt(2, team.getId());
             pstmt.executeUpdate();
-            pstmt.close();
         }
     }
     
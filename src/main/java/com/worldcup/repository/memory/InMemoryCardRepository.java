@@ -0,0 +1,117 @@
+package com.worldcup.repository.memory;
+
+import com.worldcup.model.Card;
+import com.worldcup.repository.CardRepository;
+import com.worldcup.repository.memory.InMemoryStore.EventRow;
+import com.worldcup.repository.memory.InMemoryStore.MatchRow;
+import com.worldcup.repository.memory.InMemoryStore.PlayerRow;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import static com.worldcup.repository.memory.InMemoryGoalRepository.MATCH_MINUTE_ORDER;
+import static com.worldcup.repository.memory.InMemoryGoalRepository.MINUTE_ORDER;
+
+/**
+ * CardRepository lưu trong InMemoryStore, finder trả về chính các Card đã save
+ */
+public class InMemoryCardRepository implements CardRepository {
+
+    private final InMemoryStore store;
+
+    public InMemoryCardRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public void save(Card card) throws SQLException {
+        card.setId(store.insertCard(createRow(card), card));
+    }
+
+    @Override
+    public void update(Card card) throws SQLException {
+        EventRow row = createRow(card);
+        row.id = card.getId();
+        store.updateCard(row);
+    }
+
+    @Override
+    public Optional<Card> findById(int id) throws SQLException {
+        return Optional.ofNullable((Card) store.cardEntity(id));
+    }
+
+    @Override
+    public List<Card> findByMatch(int matchId) throws SQLException {
+        return createCards(store.cardsOfMatch(matchId), MINUTE_ORDER);
+    }
+
+    @Override
+    public List<Card> findByPlayer(int playerId) throws SQLException {
+        return createCards(store.cardsOfPlayer(playerId), MATCH_MINUTE_ORDER);
+    }
+
+    @Override
+    public List<Card> findByTeamAndTournament(String teamName, int tournamentId) throws SQLException {
+        return createCards(cardsOfTeam(teamName, tournamentId, row -> true), MATCH_MINUTE_ORDER);
+    }
+
+    @Override
+    public List<Card> findByTeamAndTournamentAndType(String teamName, int tournamentId, String cardType) throws SQLException {
+        return createCards(cardsOfTeam(teamName, tournamentId, row -> row.type.equals(cardType)), MATCH_MINUTE_ORDER);
+    }
+
+    @Override
+    public int countCardsByTeamAndType(String teamName, int tournamentId, String cardType) throws SQLException {
+        // Chỉ tính thẻ ở vòng bảng như CardRepositoryImpl
+        return cardsOfTeam(teamName, tournamentId, row -> {
+            MatchRow match = store.match(row.matchId);
+            return row.type.equals(cardType) && match != null && "GROUP".equals(match.matchType);
+        }).size();
+    }
+
+    @Override
+    public int countCardsByPlayerAndType(String playerName, String teamName, int tournamentId, String cardType) throws SQLException {
+        return cardsOfTeam(teamName, tournamentId, row -> {
+            PlayerRow player = store.player(row.playerId);
+            return row.type.equals(cardType) && player != null && player.name.equals(playerName);
+        }).size();
+    }
+
+    @Override
+    public void delete(int id) throws SQLException {
+        store.deleteCard(id);
+    }
+
+    @Override
+    public boolean exists(int id) throws SQLException {
+        return store.card(id) != null;
+    }
+
+    private List<EventRow> cardsOfTeam(String teamName, int tournamentId, Predicate<EventRow> filter) {
+        Integer teamId = store.findTeamId(teamName, tournamentId);
+        return teamId == null ? new ArrayList<>() : store.cardsOfTeam(teamId, filter);
+    }
+
+    static EventRow createRow(Card card) {
+        EventRow row = new EventRow();
+        row.matchId = card.getMatch().getId();
+        row.playerId = card.getPlayer().getId();
+        row.teamId = card.getTeam().getId();
+        row.minute = card.getMinutes();
+        row.type = card.getType().getLabel().toUpperCase();
+        return row;
+    }
+
+    private List<Card> createCards(List<EventRow> rows, Comparator<EventRow> order) {
+        rows.sort(order);
+        List<Card> cards = new ArrayList<>(rows.size());
+        for (EventRow row : rows) {
+            cards.add((Card) store.cardEntity(row.id));
+        }
+        return cards;
+    }
+}
@@ -0,0 +1,141 @@
+package com.worldcup.repository.memory;
+
+import com.worldcup.model.Goal;
+import com.worldcup.repository.GoalRepository;
+import com.worldcup.repository.PlayerRepository;
+import com.worldcup.repository.memory.InMemoryStore.EventRow;
+import com.worldcup.repository.memory.InMemoryStore.PlayerRow;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * GoalRepository lưu trong InMemoryStore, finder trả về chính các Goal đã save.
+ * Goals của player được cộng thẳng vào row của player theo id thay vì đệm như GoalRepositoryImpl.
+ */
+public class InMemoryGoalRepository implements GoalRepository {
+
+    static final Comparator<EventRow> MATCH_MINUTE_ORDER =
+            Comparator.comparingInt((EventRow row) -> row.matchId).thenComparingInt(row -> row.minute);
+    static final Comparator<EventRow> MINUTE_ORDER = Comparator.comparingInt(row -> row.minute);
+
+    private final InMemoryStore store;
+    private final PlayerRepository playerRepository;
+
+    public InMemoryGoalRepository(InMemoryStore store) {
+        this.store = store;
+        this.playerRepository = new InMemoryPlayerRepository(store);
+    }
+
+    @Override
+    public void save(Goal goal) throws SQLException {
+        EventRow row = createRow(goal);
+        goal.setId(store.insertGoal(row, goal));
+
+        // Player chưa có id thì cập nhật theo tên trong team như GoalRepositoryImpl
+        if (store.addPlayerCounters(goal.getPlayer().getId(), 1, 0, 0)) {
+            goal.getPlayer().scoreGoal();
+        } else {
+            playerRepository.updateGoals(goal.getPlayer(), goal.getTeam().getName(), goal.getTeam().getTournamentId());
+        }
+    }
+
+    @Override
+    public void update(Goal goal) throws SQLException {
+        EventRow row = createRow(goal);
+        row.id = goal.getId();
+        store.updateGoal(row);
+    }
+
+    @Override
+    public Optional<Goal> findById(int id) throws SQLException {
+        return Optional.ofNullable((Goal) store.goalEntity(id));
+    }
+
+    @Override
+    public List<Goal> findByMatch(int matchId) throws SQLException {
+        return createGoals(store.goalsOfMatch(matchId), MINUTE_ORDER);
+    }
+
+    @Override
+    public List<Goal> findByPlayer(int playerId) throws SQLException {
+        return createGoals(store.goalsOfPlayer(playerId), MATCH_MINUTE_ORDER);
+    }
+
+    @Override
+    public List<Goal> findByTeamAndTournament(String teamName, int tournamentId) throws SQLException {
+        Integer teamId = store.findTeamId(teamName, tournamentId);
+        if (teamId == null) {
+            return new ArrayList<>();
+        }
+        return createGoals(store.goalsOfTeam(teamId), MATCH_MINUTE_ORDER);
+    }
+
+    @Override
+    public List<Goal> findByPlayerAndTournament(String playerName, String teamName, int tournamentId) throws SQLException {
+        Integer teamId = store.findTeamId(teamName, tournamentId);
+        if (teamId == null) {
+            return new ArrayList<>();
+        }
+        List<EventRow> rows = new ArrayList<>();
+        for (EventRow row : store.goalsOfTeam(teamId)) {
+            PlayerRow player = store.player(row.playerId);
+            if (player != null && player.name.equals(playerName)) {
+                rows.add(row);
+            }
+        }
+        return createGoals(rows, MATCH_MINUTE_ORDER);
+    }
+
+    @Override
+    public int countGoalsByPlayer(String playerName, String teamName, int tournamentId) throws SQLException {
+        // JOIN theo team của player (p.team_id) như GoalRepositoryImpl
+        Integer teamId = store.findTeamId(teamName, tournamentId);
+        if (teamId == null) {
+            return 0;
+        }
+        int count = 0;
+        for (PlayerRow player : store.playersOfTeam(teamId, row -> row.name.equals(playerName))) {
+            count += store.goalsOfPlayer(player.id).size();
+        }
+        return count;
+    }
+
+    @Override
+    public int countGoalsByTeam(String teamName, int tournamentId) throws SQLException {
+        Integer teamId = store.findTeamId(teamName, tournamentId);
+        return teamId == null ? 0 : store.goalsOfTeam(teamId).size();
+    }
+
+    @Override
+    public void delete(int id) throws SQLException {
+        store.deleteGoal(id);
+    }
+
+    @Override
+    public boolean exists(int id) throws SQLException {
+        return store.goal(id) != null;
+    }
+
+    static EventRow createRow(Goal goal) {
+        EventRow row = new EventRow();
+        row.matchId = goal.getMatch().getId();
+        row.playerId = goal.getPlayer().getId();
+        row.teamId = goal.getTeam().getId();
+        row.minute = goal.getMinute();
+        row.type = "REGULAR";
+        return row;
+    }
+
+    private List<Goal> createGoals(List<EventRow> rows, Comparator<EventRow> order) {
+        rows.sort(order);
+        List<Goal> goals = new ArrayList<>(rows.size());
+        for (EventRow row : rows) {
+            goals.add((Goal) store.goalEntity(row.id));
+        }
+        return goals;
+    }
+}
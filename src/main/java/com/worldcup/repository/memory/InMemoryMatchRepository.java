@@ -0,0 +1,138 @@
+package com.worldcup.repository.memory;
+
+import com.worldcup.model.Match;
+import com.worldcup.model.Team;
+import com.worldcup.repository.MatchRepository;
+import com.worldcup.repository.memory.InMemoryStore.MatchRow;
+import com.worldcup.repository.memory.InMemoryStore.TeamRow;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * MatchRepository lưu trong InMemoryStore. Finder trả về chính các Match đã save
+ * (Match không dựng lại được từ row vì cần đội hình đầy đủ), sắp theo match_date như MatchRepositoryImpl
+ */
+public class InMemoryMatchRepository implements MatchRepository {
+
+    private static final Comparator<MatchRow> DATE_ORDER =
+            Comparator.comparing((MatchRow row) -> row.matchDate, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final InMemoryStore store;
+
+    public InMemoryMatchRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public int save(Match match, String venue, String referee) throws SQLException {
+        MatchRow row = createRow(match, teamId(match.getTeamA()), teamId(match.getTeamB()), venue, referee);
+        int matchId = store.insertMatch(row, match);
+        match.setId(matchId);
+        return matchId;
+    }
+
+    @Override
+    public void update(Match match) throws SQLException {
+        store.updateMatch(match.getId(), match.getTeamAScore(), match.getTeamBScore(), match.getMatchType(),
+                match.getMatchDate(), match.getWinnerId());
+    }
+
+    @Override
+    public Optional<Match> findById(int id) throws SQLException {
+        return Optional.ofNullable((Match) store.matchEntity(id));
+    }
+
+    @Override
+    public List<Match> findByTournament(int tournamentId) throws SQLException {
+        return createMatches(store.matchesOfTournament(tournamentId, sameTournament(tournamentId)));
+    }
+
+    @Override
+    public List<Match> findByTournamentAndType(int tournamentId, String matchType) throws SQLException {
+        return createMatches(store.matchesOfTournament(tournamentId,
+                sameTournament(tournamentId).and(row -> matchType.equals(row.matchType))));
+    }
+
+    @Override
+    public List<Match> findByTeam(String teamName, int tournamentId) throws SQLException {
+        Integer teamId = store.findTeamId(teamName, tournamentId);
+        if (teamId == null) {
+            return new ArrayList<>();
+        }
+        return createMatches(store.matchesOfTeam(teamId, sameTournament(tournamentId)));
+    }
+
+    @Override
+    public List<Match> findGroupStageMatchesByTeam(String teamName, int tournamentId) throws SQLException {
+        Integer teamId = store.findTeamId(teamName, tournamentId);
+        if (teamId == null) {
+            return new ArrayList<>();
+        }
+        return createMatches(store.matchesOfTeam(teamId,
+                sameTournament(tournamentId).and(row -> "GROUP".equals(row.matchType))));
+    }
+
+    @Override
+    public void delete(int id) throws SQLException {
+        store.deleteMatch(id);
+    }
+
+    @Override
+    public boolean exists(int id) throws SQLException {
+        return store.match(id) != null;
+    }
+
+    /**
+     * Id của team theo tên và tournament như subquery trong INSERT của MatchRepositoryImpl
+     */
+    private int teamId(Team team) throws SQLException {
+        Integer teamId = store.findTeamId(team.getName(), team.getTournamentId());
+        if (teamId == null) {
+            throw new SQLException("Không tìm thấy team " + team.getName() + " trong tournament " + team.getTournamentId());
+        }
+        return teamId;
+    }
+
+    static MatchRow createRow(Match match, int teamAId, int teamBId, String venue, String referee) {
+        MatchRow row = new MatchRow();
+        row.teamAId = teamAId;
+        row.teamBId = teamBId;
+        row.teamAScore = match.getTeamAScore();
+        row.teamBScore = match.getTeamBScore();
+        row.matchType = match.getMatchType();
+        row.matchDate = match.getMatchDate();
+        row.venue = venue;
+        row.referee = referee;
+        row.winnerId = match.getWinnerId();
+        return row;
+    }
+
+    /**
+     * Cả hai đội đều thuộc tournament (JOIN teams ta / tb ... tournament_id = ?)
+     */
+    private Predicate<MatchRow> sameTournament(int tournamentId) {
+        return row -> isInTournament(row.teamAId, tournamentId) && isInTournament(row.teamBId, tournamentId);
+    }
+
+    private boolean isInTournament(int teamId, int tournamentId) {
+        TeamRow team = store.team(teamId);
+        return team != null && team.tournamentId == tournamentId;
+    }
+
+    private List<Match> createMatches(List<MatchRow> rows) {
+        rows.sort(DATE_ORDER);
+        List<Match> matches = new ArrayList<>(rows.size());
+        for (MatchRow row : rows) {
+            Match match = (Match) store.matchEntity(row.id);
+            if (match != null) {
+                matches.add(match);
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,91 @@
+package com.worldcup.repository.memory;
+
+import com.worldcup.model.Card;
+import com.worldcup.model.Goal;
+import com.worldcup.model.Match;
+import com.worldcup.model.Substitution;
+import com.worldcup.model.Team;
+import com.worldcup.repository.impl.MatchUnitOfWork;
+import com.worldcup.repository.memory.InMemoryStore.EventRow;
+import com.worldcup.repository.memory.InMemoryStore.MatchRow;
+import com.worldcup.repository.memory.InMemoryStore.SubstitutionRow;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * MatchUnitOfWork của backend memory: khi commit, match, goals, cards, substitutions, counters và các cột
+ * đã thay đổi của teams được ghi vào InMemoryStore trong một khối synchronized trên store.
+ * Rows được dựng trước khi ghi nên lỗi của dữ liệu đầu vào không để lại ghi dở; store không có rollback.
+ */
+public class InMemoryMatchUnitOfWork extends MatchUnitOfWork {
+
+    private final InMemoryStore store;
+
+    public InMemoryMatchUnitOfWork(InMemoryStore store) {
+        super(null);
+        this.store = store;
+    }
+
+    @Override
+    protected List<Team> write() {
+        Match match = getMatch();
+        MatchRow matchRow = match != null && isMatchNew()
+                ? InMemoryMatchRepository.createRow(match, match.getTeamA().getId(), match.getTeamB().getId(),
+                        getVenue(), getReferee())
+                : null;
+        List<EventRow> goalRows = new ArrayList<>();
+        for (Goal goal : getGoals()) {
+            goalRows.add(InMemoryGoalRepository.createRow(goal));
+        }
+        List<EventRow> cardRows = new ArrayList<>();
+        for (Card card : getCards()) {
+            cardRows.add(InMemoryCardRepository.createRow(card));
+        }
+        List<SubstitutionRow> substitutionRows = new ArrayList<>();
+        for (Substitution substitution : getSubstitutions()) {
+            substitutionRows.add(InMemorySubstitutionRepository.createRow(substitution));
+        }
+
+        List<Team> updatedTeams = new ArrayList<>();
+        synchronized (store) {
+            if (matchRow != null) {
+                match.setId(store.insertMatch(matchRow, match));
+            } else if (match != null && isMatchDirty()) {
+                store.updateMatch(match.getId(), match.getTeamAScore(), match.getTeamBScore(), match.getMatchType(),
+                        match.getMatchDate(), match.getWinnerId());
+            }
+
+            // match_id của events là id vừa cấp cho match mới
+            for (int i = 0; i < goalRows.size(); i++) {
+                Goal goal = getGoals().get(i);
+                EventRow row = goalRows.get(i);
+                row.matchId = goal.getMatch().getId();
+                goal.setId(store.insertGoal(row, goal));
+                store.addPlayerCounters(row.playerId, 1, 0, 0);
+            }
+            for (int i = 0; i < cardRows.size(); i++) {
+                Card card = getCards().get(i);
+                EventRow row = cardRows.get(i);
+                row.matchId = card.getMatch().getId();
+                card.setId(store.insertCard(row, card));
+                boolean yellow = card.getType() == Card.CardType.YELLOW;
+                store.addPlayerCounters(row.playerId, 0, yellow ? 1 : 0, yellow ? 0 : 1);
+            }
+            for (int i = 0; i < substitutionRows.size(); i++) {
+                Substitution substitution = getSubstitutions().get(i);
+                SubstitutionRow row = substitutionRows.get(i);
+                row.matchId = substitution.getMatch().getId();
+                substitution.setId(store.insertSubstitution(row, substitution));
+            }
+
+            for (Team team : getTeamsToUpdate()) {
+                if (team.getId() > 0 && !team.getDirtyColumns().isEmpty()) {
+                    store.updateTeamColumns(team.getId(), team.getDirtyColumns());
+                    updatedTeams.add(team);
+                }
+            }
+        }
+        return updatedTeams;
+    }
+}
@@ -0,0 +1,201 @@
+package com.worldcup.repository.memory;
+
+import com.worldcup.model.Player;
+import com.worldcup.repository.PlayerRepository;
+import com.worldcup.repository.memory.InMemoryStore.PlayerRow;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * PlayerRepository lưu trong InMemoryStore, cùng ngữ nghĩa với PlayerRepositoryImpl
+ * (trùng số áo trong team: save báo lỗi, saveAll bỏ qua như ON CONFLICT DO NOTHING)
+ */
+public class InMemoryPlayerRepository implements PlayerRepository {
+
+    private static final Comparator<PlayerRow> LINEUP_ORDER = Comparator
+            .comparing((PlayerRow row) -> !row.isStarting)
+            .thenComparingInt(row -> row.jerseyNumber);
+
+    private final InMemoryStore store;
+
+    public InMemoryPlayerRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public void save(Player player, int teamId) throws SQLException {
+        synchronized (store) {
+            if (store.hasJersey(teamId, player.getJerseyNumber())) {
+                throw new SQLException("Player with jersey number " + player.getJerseyNumber() +
+                        " already exists for team ID " + teamId);
+            }
+            insert(player, teamId);
+        }
+    }
+
+    @Override
+    public void saveAll(Map<Integer, List<Player>> playersByTeamId) throws SQLException {
+        synchronized (store) {
+            for (Map.Entry<Integer, List<Player>> entry : playersByTeamId.entrySet()) {
+                for (Player player : entry.getValue()) {
+                    if (!store.hasJersey(entry.getKey(), player.getJerseyNumber())) {
+                        insert(player, entry.getKey());
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void update(Player player) throws SQLException {
+        store.updatePlayerColumns(player.getId(), player.getDirtyColumns());
+        player.markPersisted();
+    }
+
+    @Override
+    public Optional<Player> findById(int id) throws SQLException {
+        return Optional.ofNullable(store.player(id)).map(this::createPlayerFromRow);
+    }
+
+    @Override
+    public Optional<Player> findByNameAndTeam(String playerName, String teamName, int tournamentId) throws SQLException {
+        return playersByName(playerName, teamName, tournamentId).stream().findFirst().map(this::createPlayerFromRow);
+    }
+
+    @Override
+    public List<Player> findByTeam(int teamId) throws SQLException {
+        List<PlayerRow> rows = store.playersOfTeam(teamId, row -> true);
+        rows.sort(LINEUP_ORDER);
+        return createPlayers(rows);
+    }
+
+    @Override
+    public List<Player> findByTeamNameAndTournament(String teamName, int tournamentId) throws SQLException {
+        Integer teamId = store.findTeamId(teamName, tournamentId);
+        return teamId == null ? new ArrayList<>() : findByTeam(teamId);
+    }
+
+    @Override
+    public List<Player> findStartingPlayersByTeam(int teamId) throws SQLException {
+        List<PlayerRow> rows = store.playersOfTeam(teamId, row -> row.isStarting);
+        rows.sort(LINEUP_ORDER);
+        return createPlayers(rows);
+    }
+
+    @Override
+    public List<Player> findSubstitutePlayersByTeam(int teamId) throws SQLException {
+        List<PlayerRow> rows = store.playersOfTeam(teamId, row -> !row.isStarting);
+        rows.sort(LINEUP_ORDER);
+        return createPlayers(rows);
+    }
+
+    @Override
+    public void updateGoals(Player player, String teamName, int tournamentId) throws SQLException {
+        // Cộng cho mọi player cùng tên trong team như UPDATE ... WHERE name = ? của PlayerRepositoryImpl
+        for (PlayerRow row : playersByName(player.getName(), teamName, tournamentId)) {
+            store.addPlayerCounters(row.id, 1, 0, 0);
+        }
+        player.scoreGoal();
+    }
+
+    @Override
+    public void updateCards(Player player, String teamName, int tournamentId, String cardType) throws SQLException {
+        boolean yellow = "YELLOW".equals(cardType);
+        for (PlayerRow row : playersByName(player.getName(), teamName, tournamentId)) {
+            store.addPlayerCounters(row.id, 0, yellow ? 1 : 0, yellow ? 0 : 1);
+        }
+        if (yellow) {
+            player.receiveYellowCard();
+        } else {
+            player.receiveRedCard();
+        }
+    }
+
+    @Override
+    public void delete(int id) throws SQLException {
+        store.deletePlayer(id);
+    }
+
+    @Override
+    public boolean exists(int id) throws SQLException {
+        return store.player(id) != null;
+    }
+
+    @Override
+    public Optional<Integer> getPlayerId(String playerName, String teamName, int tournamentId) throws SQLException {
+        return playersByName(playerName, teamName, tournamentId).stream().findFirst().map(row -> row.id);
+    }
+
+    @Override
+    public void updateStartingStatus(int playerId, boolean isStarting) throws SQLException {
+        store.setStarting(playerId, isStarting);
+    }
+
+    @Override
+    public int updateLineup(int teamId, Collection<Integer> startingPlayerIds) throws SQLException {
+        Set<Integer> starting = new HashSet<>(startingPlayerIds);
+        int changed = 0;
+        synchronized (store) {
+            for (PlayerRow row : store.playersOfTeam(teamId, row -> row.isStarting != starting.contains(row.id))) {
+                store.setStarting(row.id, !row.isStarting);
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    private void insert(Player player, int teamId) {
+        PlayerRow row = new PlayerRow();
+        row.teamId = teamId;
+        row.name = player.getName();
+        row.jerseyNumber = player.getJerseyNumber();
+        row.position = player.getPosition();
+        row.isStarting = player.isStarting();
+        row.yellowCards = player.getYellowCards();
+        row.redCards = player.getRedCards();
+        row.isEligible = player.isEligible();
+        row.goals = player.getGoals();
+
+        player.setId(store.insertPlayer(row));
+        player.markPersisted();
+    }
+
+    /**
+     * Players theo tên trong team của tournament, theo thứ tự id
+     */
+    private List<PlayerRow> playersByName(String playerName, String teamName, int tournamentId) {
+        Integer teamId = store.findTeamId(teamName, tournamentId);
+        if (teamId == null) {
+            return new ArrayList<>();
+        }
+        return store.playersOfTeam(teamId, row -> row.name.equals(playerName));
+    }
+
+    private List<Player> createPlayers(List<PlayerRow> rows) {
+        List<Player> players = new ArrayList<>(rows.size());
+        for (PlayerRow row : rows) {
+            players.add(createPlayerFromRow(row));
+        }
+        return players;
+    }
+
+    private Player createPlayerFromRow(PlayerRow row) {
+        Player player = new Player(row.name, row.jerseyNumber, row.position);
+        player.setId(row.id);
+        player.setYellowCards(row.yellowCards);
+        player.setRedCard(row.redCards > 0);
+        player.setEligible(row.isEligible);
+        player.setGoals(row.goals);
+        player.setStarting(row.isStarting);
+        player.markPersisted();
+        return player;
+    }
+}
@@ -0,0 +1,917 @@
+package com.worldcup.repository.memory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+/**
+ * Bảng dữ liệu trong bộ nhớ cho các InMemory*Repository, thay cho SQLite.
+ * Mỗi bảng là một map id -> row (cùng cột với bảng trong database), kèm index phụ theo tournament,
+ * team, player và match để các truy vấn không phải quét toàn bảng. Id được cấp tăng dần từ 1 như AUTOINCREMENT.
+ * Mọi method đều synchronized. Row trả về là object dùng chung, repositories chỉ đọc và sửa qua các method của store.
+ */
+public class InMemoryStore {
+
+    /**
+     * Row của bảng tournaments
+     */
+    public static class TournamentRow {
+        int id;
+        String name;
+        int year;
+        String hostCountry;
+        String startDate;
+        String endDate;
+    }
+
+    /**
+     * Row của bảng groups
+     */
+    public static class GroupRow {
+        int id;
+        String name;
+        int tournamentId;
+    }
+
+    /**
+     * Row của bảng tournament_stats, tham chiếu optional là null khi chưa có
+     */
+    public static class TournamentStatsRow {
+        int id;
+        int tournamentId;
+        int totalGoals;
+        int totalMatches;
+        int totalYellowCards;
+        int totalRedCards;
+        int totalSubstitutions;
+        Integer topScorerId;
+        int topScorerGoals;
+        Integer championId;
+        Integer runnerUpId;
+        Integer thirdPlaceId01;
+        Integer thirdPlaceId02;
+    }
+
+    /**
+     * Tổng hợp của một tournament như truy vấn thống kê của TournamentService,
+     * topScorerId = 0 khi chưa có ai ghi bàn
+     */
+    public static class TournamentTotals {
+        public int totalMatches;
+        public int totalGoals;
+        public int totalYellowCards;
+        public int totalRedCards;
+        public int totalSubstitutions;
+        public int topScorerId;
+        public String topScorerName;
+        public int topScorerGoals;
+    }
+
+    /**
+     * Row của bảng teams, kèm assistant coaches
+     */
+    public static class TeamRow {
+        int id;
+        String name;
+        String region;
+        String coach;
+        String medicalStaff;
+        boolean isHost;
+        int tournamentId;
+        int groupId;
+        final List<String> assistantCoaches = new ArrayList<>();
+    }
+
+    /**
+     * Row của bảng players
+     */
+    public static class PlayerRow {
+        int id;
+        int teamId;
+        String name;
+        int jerseyNumber;
+        String position;
+        boolean isStarting;
+        int yellowCards;
+        int redCards;
+        int goals;
+        boolean isEligible;
+    }
+
+    /**
+     * Row của bảng matches
+     */
+    public static class MatchRow {
+        int id;
+        int teamAId;
+        int teamBId;
+        int teamAScore;
+        int teamBScore;
+        String matchType;
+        String matchDate;
+        String venue;
+        String referee;
+        Integer winnerId;
+    }
+
+    /**
+     * Row của bảng goals / cards: type là goal_type hoặc card_type
+     */
+    public static class EventRow {
+        int id;
+        int matchId;
+        int playerId;
+        int teamId;
+        int minute;
+        String type;
+    }
+
+    /**
+     * Row của bảng substitutions
+     */
+    public static class SubstitutionRow {
+        int id;
+        int matchId;
+        int teamId;
+        int playerInId;
+        int playerOutId;
+        int minute;
+    }
+
+    /**
+     * Index phụ: khóa -> id các row theo thứ tự tăng dần
+     */
+    private static class Index {
+        private final Map<Integer, Set<Integer>> ids = new HashMap<>();
+
+        void add(int key, int id) {
+            ids.computeIfAbsent(key, k -> new TreeSet<>()).add(id);
+        }
+
+        void remove(int key, int id) {
+            Set<Integer> set = ids.get(key);
+            if (set != null) {
+                set.remove(id);
+                if (set.isEmpty()) {
+                    ids.remove(key);
+                }
+            }
+        }
+
+        Set<Integer> get(int key) {
+            return ids.getOrDefault(key, Collections.emptySet());
+        }
+
+        void clear() {
+            ids.clear();
+        }
+    }
+
+    private final Map<Integer, TournamentRow> tournaments = new LinkedHashMap<>();
+    private final Map<Integer, GroupRow> groups = new LinkedHashMap<>();
+    // tournament id -> row thống kê, mỗi tournament một row
+    private final Map<Integer, TournamentStatsRow> tournamentStats = new LinkedHashMap<>();
+    private final Map<Integer, TeamRow> teams = new LinkedHashMap<>();
+    private final Map<Integer, PlayerRow> players = new LinkedHashMap<>();
+    private final Map<Integer, MatchRow> matches = new LinkedHashMap<>();
+    private final Map<Integer, EventRow> goals = new LinkedHashMap<>();
+    private final Map<Integer, EventRow> cards = new LinkedHashMap<>();
+    private final Map<Integer, SubstitutionRow> substitutions = new LinkedHashMap<>();
+
+    // Entity đã lưu, trả về nguyên object cho các finder của match / goal / card / substitution
+    private final Map<Integer, Object> matchEntities = new HashMap<>();
+    private final Map<Integer, Object> goalEntities = new HashMap<>();
+    private final Map<Integer, Object> cardEntities = new HashMap<>();
+    private final Map<Integer, Object> substitutionEntities = new HashMap<>();
+
+    // tournament id -> (tên team -> team id), tournament id -> (tên group -> group id)
+    private final Map<Integer, Map<String, Integer>> teamIdsByName = new HashMap<>();
+    private final Map<Integer, Map<String, Integer>> groupIdsByName = new HashMap<>();
+
+    private final Index teamsByTournament = new Index();
+    private final Index playersByTeam = new Index();
+    private final Index matchesByTournament = new Index();
+    private final Index matchesByTeam = new Index();
+    private final Index goalsByMatch = new Index();
+    private final Index goalsByPlayer = new Index();
+    private final Index goalsByTeam = new Index();
+    private final Index cardsByMatch = new Index();
+    private final Index cardsByPlayer = new Index();
+    private final Index cardsByTeam = new Index();
+    private final Index substitutionsByMatch = new Index();
+    private final Index substitutionsByTeam = new Index();
+
+    private int nextTournamentId = 1;
+    private int nextGroupId = 1;
+    private int nextTournamentStatsId = 1;
+    private int nextTeamId = 1;
+    private int nextPlayerId = 1;
+    private int nextMatchId = 1;
+    private int nextGoalId = 1;
+    private int nextCardId = 1;
+    private int nextSubstitutionId = 1;
+
+    // ==================== Tournaments ====================
+
+    public synchronized int insertTournament(String name, int year, String hostCountry, String startDate,
+                                             String endDate) {
+        TournamentRow row = new TournamentRow();
+        row.id = nextTournamentId++;
+        row.name = name;
+        row.year = year;
+        row.hostCountry = hostCountry;
+        row.startDate = startDate;
+        row.endDate = endDate;
+        tournaments.put(row.id, row);
+        return row.id;
+    }
+
+    public synchronized String getTournamentName(int tournamentId) {
+        TournamentRow row = tournaments.get(tournamentId);
+        return row == null ? null : row.name;
+    }
+
+    // ==================== Groups ====================
+
+    /**
+     * Thêm row vào bảng groups, tên group dùng được cho findByGroupAndTournament
+     */
+    public synchronized int insertGroup(String name, int tournamentId) {
+        GroupRow row = new GroupRow();
+        row.id = nextGroupId++;
+        row.name = name;
+        row.tournamentId = tournamentId;
+        groups.put(row.id, row);
+        putGroup(tournamentId, row.id, name);
+        return row.id;
+    }
+
+    /**
+     * Đăng ký tên group cho findByGroupAndTournament mà không thêm row vào bảng groups
+     */
+    public synchronized void putGroup(int tournamentId, int groupId, String name) {
+        groupIdsByName.computeIfAbsent(tournamentId, k -> new HashMap<>()).put(name, groupId);
+    }
+
+    synchronized Integer findGroupId(int tournamentId, String name) {
+        return groupIdsByName.getOrDefault(tournamentId, Map.of()).get(name);
+    }
+
+    // ==================== Teams ====================
+
+    synchronized int insertTeam(TeamRow row) {
+        row.id = nextTeamId++;
+        teams.put(row.id, row);
+        teamsByTournament.add(row.tournamentId, row.id);
+        teamIdsByName.computeIfAbsent(row.tournamentId, k -> new HashMap<>()).putIfAbsent(row.name, row.id);
+        return row.id;
+    }
+
+    /**
+     * Ghi các cột đã thay đổi (tên cột như trong bảng teams) như ColumnUpdate của TeamRepositoryImpl
+     */
+    synchronized void updateTeamColumns(int id, Map<String, Object> columns) {
+        TeamRow row = teams.get(id);
+        if (row == null || columns.isEmpty()) {
+            return;
+        }
+        removeTeamIndexes(row);
+        for (Map.Entry<String, Object> column : columns.entrySet()) {
+            Object value = column.getValue();
+            switch (column.getKey()) {
+                case "name":
+                    row.name = (String) value;
+                    break;
+                case "region":
+                    row.region = (String) value;
+                    break;
+                case "coach":
+                    row.coach = (String) value;
+                    break;
+                case "medical_staff":
+                    row.medicalStaff = (String) value;
+                    break;
+                case "is_host":
+                    row.isHost = (Boolean) value;
+                    break;
+                case "tournament_id":
+                    row.tournamentId = (Integer) value;
+                    break;
+                case "group_id":
+                    row.groupId = (Integer) value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Bảng teams không có cột " + column.getKey());
+            }
+        }
+        teamsByTournament.add(row.tournamentId, row.id);
+        teamIdsByName.computeIfAbsent(row.tournamentId, k -> new HashMap<>()).putIfAbsent(row.name, row.id);
+    }
+
+    public synchronized void updateTeamGroup(int teamId, int groupId) {
+        TeamRow row = teams.get(teamId);
+        if (row != null) {
+            row.groupId = groupId;
+        }
+    }
+
+    synchronized void deleteTeam(int id) {
+        TeamRow old = teams.remove(id);
+        if (old != null) {
+            removeTeamIndexes(old);
+        }
+    }
+
+    private void removeTeamIndexes(TeamRow row) {
+        teamsByTournament.remove(row.tournamentId, row.id);
+        Map<String, Integer> byName = teamIdsByName.get(row.tournamentId);
+        if (byName != null && Integer.valueOf(row.id).equals(byName.get(row.name))) {
+            byName.remove(row.name);
+        }
+    }
+
+    synchronized TeamRow team(int id) {
+        return teams.get(id);
+    }
+
+    synchronized Integer findTeamId(String name, int tournamentId) {
+        return teamIdsByName.getOrDefault(tournamentId, Map.of()).get(name);
+    }
+
+    synchronized List<TeamRow> teamsOfTournament(int tournamentId) {
+        return rows(teams, teamsByTournament.get(tournamentId), row -> true);
+    }
+
+    // ==================== Players ====================
+
+    synchronized int insertPlayer(PlayerRow row) {
+        row.id = nextPlayerId++;
+        players.put(row.id, row);
+        playersByTeam.add(row.teamId, row.id);
+        return row.id;
+    }
+
+    /**
+     * Ghi các cột đã thay đổi (tên cột như trong bảng players) như ColumnUpdate của PlayerRepositoryImpl
+     */
+    synchronized void updatePlayerColumns(int id, Map<String, Object> columns) {
+        PlayerRow row = players.get(id);
+        if (row == null) {
+            return;
+        }
+        for (Map.Entry<String, Object> column : columns.entrySet()) {
+            Object value = column.getValue();
+            switch (column.getKey()) {
+                case "name":
+                    row.name = (String) value;
+                    break;
+                case "jersey_number":
+                    row.jerseyNumber = (Integer) value;
+                    break;
+                case "position":
+                    row.position = (String) value;
+                    break;
+                case "is_starting":
+                    row.isStarting = (Boolean) value;
+                    break;
+                case "yellow_cards":
+                    row.yellowCards = (Integer) value;
+                    break;
+                case "red_cards":
+                    row.redCards = (Integer) value;
+                    break;
+                case "is_eligible":
+                    row.isEligible = (Boolean) value;
+                    break;
+                case "goals":
+                    row.goals = (Integer) value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Bảng players không có cột " + column.getKey());
+            }
+        }
+    }
+
+    synchronized void setStarting(int id, boolean isStarting) {
+        PlayerRow row = players.get(id);
+        if (row != null) {
+            row.isStarting = isStarting;
+        }
+    }
+
+    synchronized void deletePlayer(int id) {
+        PlayerRow old = players.remove(id);
+        if (old != null) {
+            playersByTeam.remove(old.teamId, id);
+        }
+    }
+
+    synchronized PlayerRow player(int id) {
+        return players.get(id);
+    }
+
+    synchronized List<PlayerRow> playersOfTeam(int teamId, Predicate<PlayerRow> filter) {
+        return rows(players, playersByTeam.get(teamId), filter);
+    }
+
+    synchronized boolean hasJersey(int teamId, int jerseyNumber) {
+        return !playersOfTeam(teamId, row -> row.jerseyNumber == jerseyNumber).isEmpty();
+    }
+
+    /**
+     * Cộng goals / cards cho player theo id, trả về false nếu player không tồn tại
+     */
+    public synchronized boolean addPlayerCounters(int playerId, int goals, int yellowCards, int redCards) {
+        PlayerRow row = players.get(playerId);
+        if (row == null) {
+            return false;
+        }
+        row.goals += goals;
+        row.yellowCards += yellowCards;
+        row.redCards += redCards;
+        return true;
+    }
+
+    /**
+     * goals của mỗi player đã ghi bàn = số row trong bảng goals, trả về số player được cập nhật
+     */
+    public synchronized int recountPlayerGoals() {
+        int updated = 0;
+        for (PlayerRow row : players.values()) {
+            int goalCount = goalsByPlayer.get(row.id).size();
+            if (goalCount > 0) {
+                row.goals = goalCount;
+                updated++;
+            }
+        }
+        return updated;
+    }
+
+    // ==================== Matches ====================
+
+    synchronized int insertMatch(MatchRow row, Object match) {
+        row.id = nextMatchId++;
+        matches.put(row.id, row);
+        matchEntities.put(row.id, match);
+        TeamRow teamA = teams.get(row.teamAId);
+        if (teamA != null) {
+            matchesByTournament.add(teamA.tournamentId, row.id);
+        }
+        matchesByTeam.add(row.teamAId, row.id);
+        matchesByTeam.add(row.teamBId, row.id);
+        return row.id;
+    }
+
+    /**
+     * Chỉ cập nhật tỉ số, loại trận, ngày và đội thắng như UPDATE của MatchRepositoryImpl
+     */
+    synchronized void updateMatch(int id, int teamAScore, int teamBScore, String matchType, String matchDate,
+                                  Integer winnerId) {
+        MatchRow row = matches.get(id);
+        if (row == null) {
+            return;
+        }
+        row.teamAScore = teamAScore;
+        row.teamBScore = teamBScore;
+        row.matchType = matchType;
+        row.matchDate = matchDate;
+        row.winnerId = winnerId;
+    }
+
+    synchronized void deleteMatch(int id) {
+        MatchRow old = matches.remove(id);
+        matchEntities.remove(id);
+        if (old != null) {
+            TeamRow teamA = teams.get(old.teamAId);
+            if (teamA != null) {
+                matchesByTournament.remove(teamA.tournamentId, id);
+            }
+            matchesByTeam.remove(old.teamAId, id);
+            matchesByTeam.remove(old.teamBId, id);
+        }
+    }
+
+    /**
+     * Gán loại trận theo thứ tự id cho các trận chưa có loại hoặc còn là KNOCKOUT,
+     * giống câu UPDATE matches SET match_type = CASE ... của WorldCupAutomationRepository
+     */
+    public synchronized int updateMissingMatchTypes() {
+        int position = 0;
+        int updated = 0;
+        for (MatchRow row : matches.values()) {
+            position++;
+            if (row.matchType != null && !row.matchType.equals("KNOCKOUT")) {
+                continue;
+            }
+            if (position <= 48) {
+                row.matchType = "GROUP";
+            } else if (position <= 56) {
+                row.matchType = "ROUND_16";
+            } else if (position <= 60) {
+                row.matchType = "QUARTER";
+            } else if (position <= 62) {
+                row.matchType = "SEMI_FINAL";
+            } else {
+                row.matchType = "FINAL";
+            }
+            updated++;
+        }
+        return updated;
+    }
+
+    synchronized MatchRow match(int id) {
+        return matches.get(id);
+    }
+
+    synchronized Object matchEntity(int id) {
+        return matchEntities.get(id);
+    }
+
+    synchronized List<MatchRow> matchesOfTournament(int tournamentId, Predicate<MatchRow> filter) {
+        return rows(matches, matchesByTournament.get(tournamentId), filter);
+    }
+
+    synchronized List<MatchRow> matchesOfTeam(int teamId, Predicate<MatchRow> filter) {
+        return rows(matches, matchesByTeam.get(teamId), filter);
+    }
+
+    // ==================== Goals ====================
+
+    synchronized int insertGoal(EventRow row, Object goal) {
+        row.id = nextGoalId++;
+        goals.put(row.id, row);
+        goalEntities.put(row.id, goal);
+        addEventIndexes(row, goalsByMatch, goalsByPlayer, goalsByTeam);
+        return row.id;
+    }
+
+    synchronized void updateGoal(EventRow row) {
+        EventRow old = goals.get(row.id);
+        if (old == null) {
+            return;
+        }
+        removeEventIndexes(old, goalsByMatch, goalsByPlayer, goalsByTeam);
+        goals.put(row.id, row);
+        addEventIndexes(row, goalsByMatch, goalsByPlayer, goalsByTeam);
+    }
+
+    synchronized void deleteGoal(int id) {
+        EventRow old = goals.remove(id);
+        goalEntities.remove(id);
+        if (old != null) {
+            removeEventIndexes(old, goalsByMatch, goalsByPlayer, goalsByTeam);
+        }
+    }
+
+    synchronized EventRow goal(int id) {
+        return goals.get(id);
+    }
+
+    synchronized Object goalEntity(int id) {
+        return goalEntities.get(id);
+    }
+
+    synchronized List<EventRow> goalsOfMatch(int matchId) {
+        return rows(goals, goalsByMatch.get(matchId), row -> true);
+    }
+
+    synchronized List<EventRow> goalsOfPlayer(int playerId) {
+        return rows(goals, goalsByPlayer.get(playerId), row -> true);
+    }
+
+    synchronized List<EventRow> goalsOfTeam(int teamId) {
+        return rows(goals, goalsByTeam.get(teamId), row -> true);
+    }
+
+    // ==================== Cards ====================
+
+    synchronized int insertCard(EventRow row, Object card) {
+        row.id = nextCardId++;
+        cards.put(row.id, row);
+        cardEntities.put(row.id, card);
+        addEventIndexes(row, cardsByMatch, cardsByPlayer, cardsByTeam);
+        return row.id;
+    }
+
+    synchronized void updateCard(EventRow row) {
+        EventRow old = cards.get(row.id);
+        if (old == null) {
+            return;
+        }
+        removeEventIndexes(old, cardsByMatch, cardsByPlayer, cardsByTeam);
+        cards.put(row.id, row);
+        addEventIndexes(row, cardsByMatch, cardsByPlayer, cardsByTeam);
+    }
+
+    synchronized void deleteCard(int id) {
+        EventRow old = cards.remove(id);
+        cardEntities.remove(id);
+        if (old != null) {
+            removeEventIndexes(old, cardsByMatch, cardsByPlayer, cardsByTeam);
+        }
+    }
+
+    synchronized EventRow card(int id) {
+        return cards.get(id);
+    }
+
+    synchronized Object cardEntity(int id) {
+        return cardEntities.get(id);
+    }
+
+    synchronized List<EventRow> cardsOfMatch(int matchId) {
+        return rows(cards, cardsByMatch.get(matchId), row -> true);
+    }
+
+    synchronized List<EventRow> cardsOfPlayer(int playerId) {
+        return rows(cards, cardsByPlayer.get(playerId), row -> true);
+    }
+
+    synchronized List<EventRow> cardsOfTeam(int teamId, Predicate<EventRow> filter) {
+        return rows(cards, cardsByTeam.get(teamId), filter);
+    }
+
+    private static void addEventIndexes(EventRow row, Index byMatch, Index byPlayer, Index byTeam) {
+        byMatch.add(row.matchId, row.id);
+        byPlayer.add(row.playerId, row.id);
+        byTeam.add(row.teamId, row.id);
+    }
+
+    private static void removeEventIndexes(EventRow row, Index byMatch, Index byPlayer, Index byTeam) {
+        byMatch.remove(row.matchId, row.id);
+        byPlayer.remove(row.playerId, row.id);
+        byTeam.remove(row.teamId, row.id);
+    }
+
+    // ==================== Substitutions ====================
+
+    synchronized int insertSubstitution(SubstitutionRow row, Object substitution) {
+        row.id = nextSubstitutionId++;
+        substitutions.put(row.id, row);
+        substitutionEntities.put(row.id, substitution);
+        substitutionsByMatch.add(row.matchId, row.id);
+        substitutionsByTeam.add(row.teamId, row.id);
+        return row.id;
+    }
+
+    synchronized void updateSubstitution(SubstitutionRow row) {
+        SubstitutionRow old = substitutions.get(row.id);
+        if (old == null) {
+            return;
+        }
+        substitutionsByMatch.remove(old.matchId, old.id);
+        substitutionsByTeam.remove(old.teamId, old.id);
+        substitutions.put(row.id, row);
+        substitutionsByMatch.add(row.matchId, row.id);
+        substitutionsByTeam.add(row.teamId, row.id);
+    }
+
+    synchronized void deleteSubstitution(int id) {
+        SubstitutionRow old = substitutions.remove(id);
+        substitutionEntities.remove(id);
+        if (old != null) {
+            substitutionsByMatch.remove(old.matchId, id);
+            substitutionsByTeam.remove(old.teamId, id);
+        }
+    }
+
+    synchronized SubstitutionRow substitution(int id) {
+        return substitutions.get(id);
+    }
+
+    synchronized Object substitutionEntity(int id) {
+        return substitutionEntities.get(id);
+    }
+
+    synchronized List<SubstitutionRow> substitutionsOfMatch(int matchId) {
+        return rows(substitutions, substitutionsByMatch.get(matchId), row -> true);
+    }
+
+    synchronized List<SubstitutionRow> substitutionsOfTeam(int teamId) {
+        return rows(substitutions, substitutionsByTeam.get(teamId), row -> true);
+    }
+
+    // ==================== Tournament stats ====================
+
+    public synchronized boolean hasTournamentStats(int tournamentId) {
+        return tournamentStats.containsKey(tournamentId);
+    }
+
+    /**
+     * Ghi các cột thống kê của tournament, tạo row nếu chưa có. topScorerId <= 0 được ghi là NULL.
+     */
+    public synchronized void saveTournamentStats(int tournamentId, int totalGoals, int totalMatches,
+                                                 int totalYellowCards, int totalRedCards, int totalSubstitutions,
+                                                 int topScorerId, int topScorerGoals) {
+        TournamentStatsRow row = tournamentStatsRow(tournamentId);
+        row.totalGoals = totalGoals;
+        row.totalMatches = totalMatches;
+        row.totalYellowCards = totalYellowCards;
+        row.totalRedCards = totalRedCards;
+        row.totalSubstitutions = totalSubstitutions;
+        row.topScorerId = topScorerId > 0 ? topScorerId : null;
+        row.topScorerGoals = topScorerGoals;
+    }
+
+    /**
+     * Ghi champion, runner-up và 2 đội đồng hạng 3, tạo row nếu chưa có
+     */
+    public synchronized void updateTournamentWinners(int tournamentId, Integer championId, Integer runnerUpId,
+                                                     Integer thirdPlaceId01, Integer thirdPlaceId02) {
+        TournamentStatsRow row = tournamentStatsRow(tournamentId);
+        row.championId = championId;
+        row.runnerUpId = runnerUpId;
+        row.thirdPlaceId01 = thirdPlaceId01;
+        row.thirdPlaceId02 = thirdPlaceId02;
+    }
+
+    synchronized TournamentStatsRow tournamentStats(int tournamentId) {
+        return tournamentStats.get(tournamentId);
+    }
+
+    private TournamentStatsRow tournamentStatsRow(int tournamentId) {
+        return tournamentStats.computeIfAbsent(tournamentId, id -> {
+            TournamentStatsRow row = new TournamentStatsRow();
+            row.id = nextTournamentStatsId++;
+            row.tournamentId = id;
+            return row;
+        });
+    }
+
+    /**
+     * Tổng số trận (cả hai đội thuộc tournament), goals, cards, substitutions theo team của tournament
+     * và vua phá lưới (nhiều bàn nhất, cùng số bàn thì theo tên rồi id)
+     */
+    public synchronized TournamentTotals tournamentTotals(int tournamentId) {
+        TournamentTotals totals = new TournamentTotals();
+        Map<Integer, Integer> goalsByScorer = new HashMap<>();
+        for (int teamId : teamsByTournament.get(tournamentId)) {
+            totals.totalGoals += goalsByTeam.get(teamId).size();
+            totals.totalSubstitutions += substitutionsByTeam.get(teamId).size();
+            for (int cardId : cardsByTeam.get(teamId)) {
+                String type = cards.get(cardId).type;
+                if ("YELLOW".equals(type)) {
+                    totals.totalYellowCards++;
+                } else if ("RED".equals(type)) {
+                    totals.totalRedCards++;
+                }
+            }
+            for (int playerId : playersByTeam.get(teamId)) {
+                int goalCount = goalsByPlayer.get(playerId).size();
+                if (goalCount > 0) {
+                    goalsByScorer.put(playerId, goalCount);
+                }
+            }
+        }
+        for (int matchId : matchesByTournament.get(tournamentId)) {
+            TeamRow teamB = teams.get(matches.get(matchId).teamBId);
+            if (teamB != null && teamB.tournamentId == tournamentId) {
+                totals.totalMatches++;
+            }
+        }
+
+        PlayerRow topScorer = null;
+        for (Map.Entry<Integer, Integer> entry : goalsByScorer.entrySet()) {
+            PlayerRow player = players.get(entry.getKey());
+            int goalCount = entry.getValue();
+            if (topScorer == null || goalCount > totals.topScorerGoals
+                    || (goalCount == totals.topScorerGoals && ranksBefore(player, topScorer))) {
+                topScorer = player;
+                totals.topScorerGoals = goalCount;
+            }
+        }
+        if (topScorer != null) {
+            totals.topScorerId = topScorer.id;
+            totals.topScorerName = topScorer.name;
+        }
+        return totals;
+    }
+
+    private static boolean ranksBefore(PlayerRow player, PlayerRow other) {
+        int byName = player.name.compareTo(other.name);
+        return byName < 0 || (byName == 0 && player.id < other.id);
+    }
+
+    // ==================== Toàn bộ store ====================
+
+    public synchronized int getTeamCount() {
+        return teams.size();
+    }
+
+    public synchronized int getPlayerCount() {
+        return players.size();
+    }
+
+    public synchronized int getMatchCount() {
+        return matches.size();
+    }
+
+    public synchronized int getGoalCount() {
+        return goals.size();
+    }
+
+    public synchronized int getCardCount() {
+        return cards.size();
+    }
+
+    public synchronized int getSubstitutionCount() {
+        return substitutions.size();
+    }
+
+    public synchronized boolean isEmpty() {
+        return tournaments.isEmpty() && groups.isEmpty() && tournamentStats.isEmpty() && teams.isEmpty() && players.isEmpty() && matches.isEmpty()
+                && goals.isEmpty() && cards.isEmpty() && substitutions.isEmpty();
+    }
+
+    /**
+     * Bản sao các bảng theo thứ tự id để InMemoryStoreWriter ghi ra database
+     */
+    synchronized List<TournamentRow> allTournaments() {
+        return new ArrayList<>(tournaments.values());
+    }
+
+    synchronized List<GroupRow> allGroups() {
+        return new ArrayList<>(groups.values());
+    }
+
+    synchronized List<TournamentStatsRow> allTournamentStats() {
+        return new ArrayList<>(tournamentStats.values());
+    }
+
+    synchronized List<TeamRow> allTeams() {
+        return new ArrayList<>(teams.values());
+    }
+
+    synchronized List<PlayerRow> allPlayers() {
+        return new ArrayList<>(players.values());
+    }
+
+    synchronized List<MatchRow> allMatches() {
+        return new ArrayList<>(matches.values());
+    }
+
+    synchronized List<EventRow> allGoals() {
+        return new ArrayList<>(goals.values());
+    }
+
+    synchronized List<EventRow> allCards() {
+        return new ArrayList<>(cards.values());
+    }
+
+    synchronized List<SubstitutionRow> allSubstitutions() {
+        return new ArrayList<>(substitutions.values());
+    }
+
+    /**
+     * Xóa toàn bộ dữ liệu, id được cấp lại từ 1
+     */
+    public synchronized void clear() {
+        tournaments.clear();
+        groups.clear();
+        tournamentStats.clear();
+        teams.clear();
+        players.clear();
+        matches.clear();
+        goals.clear();
+        cards.clear();
+        substitutions.clear();
+        matchEntities.clear();
+        goalEntities.clear();
+        cardEntities.clear();
+        substitutionEntities.clear();
+        teamIdsByName.clear();
+        groupIdsByName.clear();
+        for (Index index : List.of(teamsByTournament, playersByTeam, matchesByTournament, matchesByTeam,
+                goalsByMatch, goalsByPlayer, goalsByTeam, cardsByMatch, cardsByPlayer, cardsByTeam,
+                substitutionsByMatch, substitutionsByTeam)) {
+            index.clear();
+        }
+        nextTournamentId = 1;
+        nextGroupId = 1;
+        nextTournamentStatsId = 1;
+        nextTeamId = 1;
+        nextPlayerId = 1;
+        nextMatchId = 1;
+        nextGoalId = 1;
+        nextCardId = 1;
+        nextSubstitutionId = 1;
+    }
+
+    private static <R> List<R> rows(Map<Integer, R> table, Collection<Integer> ids, Predicate<R> filter) {
+        List<R> result = new ArrayList<>(ids.size());
+        for (int id : ids) {
+            R row = table.get(id);
+            if (row != null && filter.test(row)) {
+                result.add(row);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,309 @@
+package com.worldcup.repository.memory;
+
+import com.worldcup.database.BatchInsert;
+import com.worldcup.database.DatabaseManager;
+import com.worldcup.repository.memory.InMemoryStore.EventRow;
+import com.worldcup.repository.memory.InMemoryStore.GroupRow;
+import com.worldcup.repository.memory.InMemoryStore.MatchRow;
+import com.worldcup.repository.memory.InMemoryStore.PlayerRow;
+import com.worldcup.repository.memory.InMemoryStore.SubstitutionRow;
+import com.worldcup.repository.memory.InMemoryStore.TeamRow;
+import com.worldcup.repository.memory.InMemoryStore.TournamentRow;
+import com.worldcup.repository.memory.InMemoryStore.TournamentStatsRow;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Ghi toàn bộ InMemoryStore vào SQLite trong một transaction bằng multi-row INSERT (BatchInsert).
+ * Id trong bộ nhớ được cấp mới bởi database và các cột khóa ngoại được map lại theo id mới.
+ * tournament_id và group_id trỏ tới tournament / group không có trong store được giữ nguyên,
+ * tham chiếu optional của tournament_stats không có trong store được ghi NULL.
+ */
+public class InMemoryStoreWriter {
+
+    private final DatabaseManager dbManager;
+
+    public InMemoryStoreWriter(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
+    }
+
+    /**
+     * Ghi store vào database, trả về số row được insert. Lỗi thì rollback và store giữ nguyên.
+     */
+    public int write(InMemoryStore store) throws SQLException {
+        List<TournamentRow> tournaments = store.allTournaments();
+        List<GroupRow> groups = store.allGroups();
+        List<TournamentStatsRow> tournamentStats = store.allTournamentStats();
+        List<TeamRow> teams = store.allTeams();
+        List<PlayerRow> players = store.allPlayers();
+        List<MatchRow> matches = store.allMatches();
+        List<EventRow> goals = store.allGoals();
+        List<EventRow> cards = store.allCards();
+        List<SubstitutionRow> substitutions = store.allSubstitutions();
+
+        Connection conn = dbManager.getConnection();
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            Map<Integer, Integer> tournamentIds = insertTournaments(conn, tournaments);
+            Map<Integer, Integer> groupIds = insertGroups(conn, groups, tournamentIds);
+            Map<Integer, Integer> teamIds = insertTeams(conn, teams, tournamentIds, groupIds);
+            int assistants = insertAssistantCoaches(conn, teams, teamIds);
+            Map<Integer, Integer> playerIds = insertPlayers(conn, players, teamIds);
+            Map<Integer, Integer> matchIds = insertMatches(conn, matches, teamIds);
+            insertEvents(conn, "INSERT INTO goals (match_id, player_id, team_id, minute, goal_type)",
+                    goals, matchIds, playerIds, teamIds);
+            insertEvents(conn, "INSERT INTO cards (match_id, player_id, team_id, minute, card_type)",
+                    cards, matchIds, playerIds, teamIds);
+            insertSubstitutions(conn, substitutions, matchIds, playerIds, teamIds);
+            insertTournamentStats(conn, tournamentStats, tournamentIds, playerIds, teamIds);
+            conn.commit();
+            return tournaments.size() + groups.size() + tournamentStats.size() + teams.size() + assistants + players.size() + matches.size()
+                    + goals.size() + cards.size() + substitutions.size();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    private Map<Integer, Integer> insertTournaments(Connection conn, List<TournamentRow> tournaments)
+            throws SQLException {
+        String insertHead = "INSERT INTO tournaments (name, year, host_country, start_date, end_date)";
+        int[] ids = BatchInsert.insertReturningIds(conn, insertHead, 5, tournaments,
+                (pstmt, offset, tournament) -> {
+                    pstmt.setString(offset, tournament.name);
+                    pstmt.setInt(offset + 1, tournament.year);
+                    pstmt.setString(offset + 2, tournament.hostCountry);
+                    pstmt.setString(offset + 3, tournament.startDate);
+                    pstmt.setString(offset + 4, tournament.endDate);
+                });
+        return idMap(tournaments.size(), i -> tournaments.get(i).id, ids);
+    }
+
+    private Map<Integer, Integer> insertGroups(Connection conn, List<GroupRow> groups,
+                                               Map<Integer, Integer> tournamentIds) throws SQLException {
+        int[] ids = BatchInsert.insertReturningIds(conn, "INSERT INTO groups (name, tournament_id)", 2, groups,
+                (pstmt, offset, group) -> {
+                    pstmt.setString(offset, group.name);
+                    pstmt.setInt(offset + 1, mapped(tournamentIds, group.tournamentId));
+                });
+        return idMap(groups.size(), i -> groups.get(i).id, ids);
+    }
+
+    private Map<Integer, Integer> insertTeams(Connection conn, List<TeamRow> teams, Map<Integer, Integer> tournamentIds,
+                                              Map<Integer, Integer> groupIds) throws SQLException {
+        String insertHead = "INSERT INTO teams (name, region, coach, medical_staff, is_host, tournament_id, group_id)";
+        int[] ids = BatchInsert.insertReturningIds(conn, insertHead, 7, teams,
+                (pstmt, offset, team) -> {
+                    pstmt.setString(offset, team.name);
+                    pstmt.setString(offset + 1, team.region);
+                    pstmt.setString(offset + 2, team.coach);
+                    pstmt.setString(offset + 3, team.medicalStaff);
+                    pstmt.setBoolean(offset + 4, team.isHost);
+                    pstmt.setInt(offset + 5, mapped(tournamentIds, team.tournamentId));
+                    pstmt.setInt(offset + 6, mapped(groupIds, team.groupId));
+                });
+        return idMap(teams.size(), i -> teams.get(i).id, ids);
+    }
+
+    private int insertAssistantCoaches(Connection conn, List<TeamRow> teams, Map<Integer, Integer> teamIds)
+            throws SQLException {
+        List<Map.Entry<Integer, String>> assistants = new ArrayList<>();
+        for (TeamRow team : teams) {
+            for (String assistant : team.assistantCoaches) {
+                assistants.add(Map.entry(teamIds.get(team.id), assistant));
+            }
+        }
+        BatchInsert.insertAll(conn, "INSERT INTO assistant_coaches (name, team_id)", 2, assistants,
+                (pstmt, offset, assistant) -> {
+                    pstmt.setString(offset, assistant.getValue());
+                    pstmt.setInt(offset + 1, assistant.getKey());
+                });
+        return assistants.size();
+    }
+
+    private Map<Integer, Integer> insertPlayers(Connection conn, List<PlayerRow> players,
+                                                Map<Integer, Integer> teamIds) throws SQLException {
+        String insertHead = """
+            INSERT INTO players (name, jersey_number, position, team_id, is_starting,
+                                 yellow_cards, red_cards, is_eligible, goals)
+        """;
+        int[] playerTeamIds = new int[players.size()];
+        for (int i = 0; i < players.size(); i++) {
+            playerTeamIds[i] = reference(teamIds, players.get(i).teamId, "players.team_id");
+        }
+        int[] ids = BatchInsert.insertReturningIds(conn, insertHead, 9, indexes(players.size()),
+                (pstmt, offset, index) -> {
+                    PlayerRow player = players.get(index);
+                    pstmt.setString(offset, player.name);
+                    pstmt.setInt(offset + 1, player.jerseyNumber);
+                    pstmt.setString(offset + 2, player.position);
+                    pstmt.setInt(offset + 3, playerTeamIds[index]);
+                    pstmt.setBoolean(offset + 4, player.isStarting);
+                    pstmt.setInt(offset + 5, player.yellowCards);
+                    pstmt.setInt(offset + 6, player.redCards);
+                    pstmt.setBoolean(offset + 7, player.isEligible);
+                    pstmt.setInt(offset + 8, player.goals);
+                });
+        return idMap(players.size(), i -> players.get(i).id, ids);
+    }
+
+    private Map<Integer, Integer> insertMatches(Connection conn, List<MatchRow> matches,
+                                                Map<Integer, Integer> teamIds) throws SQLException {
+        String insertHead = """
+            INSERT INTO matches (team_a_id, team_b_id, team_a_score, team_b_score, match_type,
+                                 match_date, venue, referee, winner_id)
+        """;
+        List<int[]> references = new ArrayList<>(matches.size());
+        for (MatchRow match : matches) {
+            references.add(new int[]{
+                    reference(teamIds, match.teamAId, "matches.team_a_id"),
+                    reference(teamIds, match.teamBId, "matches.team_b_id"),
+                    match.winnerId == null ? 0 : reference(teamIds, match.winnerId, "matches.winner_id")
+            });
+        }
+        int[] ids = BatchInsert.insertReturningIds(conn, insertHead, 9, indexes(matches.size()),
+                (pstmt, offset, index) -> {
+                    MatchRow match = matches.get(index);
+                    int[] teams = references.get(index);
+                    pstmt.setInt(offset, teams[0]);
+                    pstmt.setInt(offset + 1, teams[1]);
+                    pstmt.setInt(offset + 2, match.teamAScore);
+                    pstmt.setInt(offset + 3, match.teamBScore);
+                    pstmt.setString(offset + 4, match.matchType);
+                    pstmt.setString(offset + 5, match.matchDate);
+                    pstmt.setString(offset + 6, match.venue);
+                    pstmt.setString(offset + 7, match.referee);
+                    if (match.winnerId != null) {
+                        pstmt.setInt(offset + 8, teams[2]);
+                    } else {
+                        pstmt.setNull(offset + 8, Types.INTEGER);
+                    }
+                });
+        return idMap(matches.size(), i -> matches.get(i).id, ids);
+    }
+
+    /**
+     * Goals và cards có cùng dạng cột, cột cuối của insertHead nhận type
+     */
+    private void insertEvents(Connection conn, String insertHead, List<EventRow> events, Map<Integer, Integer> matchIds,
+                              Map<Integer, Integer> playerIds, Map<Integer, Integer> teamIds) throws SQLException {
+        List<int[]> rows = new ArrayList<>(events.size());
+        for (EventRow event : events) {
+            rows.add(new int[]{
+                    reference(matchIds, event.matchId, "match_id"),
+                    reference(playerIds, event.playerId, "player_id"),
+                    reference(teamIds, event.teamId, "team_id")
+            });
+        }
+        BatchInsert.insertAll(conn, insertHead, 5, indexes(events.size()),
+                (pstmt, offset, index) -> {
+                    int[] ids = rows.get(index);
+                    pstmt.setInt(offset, ids[0]);
+                    pstmt.setInt(offset + 1, ids[1]);
+                    pstmt.setInt(offset + 2, ids[2]);
+                    pstmt.setInt(offset + 3, events.get(index).minute);
+                    pstmt.setString(offset + 4, events.get(index).type);
+                });
+    }
+
+    private void insertSubstitutions(Connection conn, List<SubstitutionRow> substitutions,
+                                     Map<Integer, Integer> matchIds, Map<Integer, Integer> playerIds,
+                                     Map<Integer, Integer> teamIds) throws SQLException {
+        List<int[]> rows = new ArrayList<>(substitutions.size());
+        for (SubstitutionRow substitution : substitutions) {
+            rows.add(new int[]{
+                    reference(matchIds, substitution.matchId, "substitutions.match_id"),
+                    reference(teamIds, substitution.teamId, "substitutions.team_id"),
+                    reference(playerIds, substitution.playerInId, "substitutions.player_in_id"),
+                    reference(playerIds, substitution.playerOutId, "substitutions.player_out_id"),
+                    substitution.minute
+            });
+        }
+        BatchInsert.insertAll(conn, "INSERT INTO substitutions (match_id, team_id, player_in_id, player_out_id, minute)",
+                5, rows,
+                (pstmt, offset, row) -> {
+                    for (int i = 0; i < row.length; i++) {
+                        pstmt.setInt(offset + i, row[i]);
+                    }
+                });
+    }
+
+    private void insertTournamentStats(Connection conn, List<TournamentStatsRow> tournamentStats,
+                                       Map<Integer, Integer> tournamentIds, Map<Integer, Integer> playerIds,
+                                       Map<Integer, Integer> teamIds) throws SQLException {
+        String insertHead = """
+            INSERT INTO tournament_stats (tournament_id, total_goals, total_matches, total_yellow_cards,
+                                          total_red_cards, total_substitutions, top_scorer_id, top_scorer_goals,
+                                          champion_id, runner_up_id, third_place_id_01, third_place_id_02)
+        """;
+        BatchInsert.insertAll(conn, insertHead, 12, tournamentStats,
+                (pstmt, offset, stats) -> {
+                    pstmt.setInt(offset, mapped(tournamentIds, stats.tournamentId));
+                    pstmt.setInt(offset + 1, stats.totalGoals);
+                    pstmt.setInt(offset + 2, stats.totalMatches);
+                    pstmt.setInt(offset + 3, stats.totalYellowCards);
+                    pstmt.setInt(offset + 4, stats.totalRedCards);
+                    pstmt.setInt(offset + 5, stats.totalSubstitutions);
+                    pstmt.setObject(offset + 6, optionalReference(playerIds, stats.topScorerId), Types.INTEGER);
+                    pstmt.setInt(offset + 7, stats.topScorerGoals);
+                    pstmt.setObject(offset + 8, optionalReference(teamIds, stats.championId), Types.INTEGER);
+                    pstmt.setObject(offset + 9, optionalReference(teamIds, stats.runnerUpId), Types.INTEGER);
+                    pstmt.setObject(offset + 10, optionalReference(teamIds, stats.thirdPlaceId01), Types.INTEGER);
+                    pstmt.setObject(offset + 11, optionalReference(teamIds, stats.thirdPlaceId02), Types.INTEGER);
+                });
+    }
+
+    /**
+     * Id mới nếu row được tham chiếu có trong store, ngược lại giữ nguyên id cũ
+     */
+    private static int mapped(Map<Integer, Integer> ids, int oldId) {
+        return ids.getOrDefault(oldId, oldId);
+    }
+
+    /**
+     * Id mới của tham chiếu optional, null nếu không có hoặc row không có trong store
+     */
+    private static Integer optionalReference(Map<Integer, Integer> ids, Integer oldId) {
+        return oldId == null ? null : ids.get(oldId);
+    }
+
+    /**
+     * Id mới của row được tham chiếu; id <= 0 (chưa resolve được) giữ nguyên như khi ghi thẳng vào database
+     */
+    private static int reference(Map<Integer, Integer> ids, int oldId, String column) throws SQLException {
+        Integer newId = ids.get(oldId);
+        if (newId == null && oldId <= 0) {
+            return oldId;
+        }
+        if (newId == null) {
+            throw new SQLException(column + " tham chiếu tới id " + oldId + " không có trong store");
+        }
+        return newId;
+    }
+
+    private static Map<Integer, Integer> idMap(int size, IntUnaryOperator oldId, int[] newIds) {
+        Map<Integer, Integer> ids = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            ids.put(oldId.applyAsInt(i), newIds[i]);
+        }
+        return ids;
+    }
+
+    private static List<Integer> indexes(int size) {
+        List<Integer> indexes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            indexes.add(i);
+        }
+        return indexes;
+    }
+}
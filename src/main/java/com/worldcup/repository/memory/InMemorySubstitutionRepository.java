@@ -0,0 +1,95 @@
+package com.worldcup.repository.memory;
+
+import com.worldcup.model.Substitution;
+import com.worldcup.repository.SubstitutionRepository;
+import com.worldcup.repository.impl.SubstitutionRepositoryImpl;
+import com.worldcup.repository.memory.InMemoryStore.SubstitutionRow;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * SubstitutionRepository lưu trong InMemoryStore, finder trả về chính các Substitution đã save
+ */
+public class InMemorySubstitutionRepository implements SubstitutionRepository {
+
+    private static final Comparator<SubstitutionRow> MINUTE_ORDER = Comparator.comparingInt(row -> row.minute);
+    private static final Comparator<SubstitutionRow> MATCH_MINUTE_ORDER =
+            Comparator.comparingInt((SubstitutionRow row) -> row.matchId).thenComparingInt(row -> row.minute);
+
+    private final InMemoryStore store;
+
+    public InMemorySubstitutionRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public void save(Substitution substitution) throws SQLException {
+        SubstitutionRepositoryImpl.validatePlayersExist(substitution);
+        substitution.setId(store.insertSubstitution(createRow(substitution), substitution));
+    }
+
+    @Override
+    public void update(Substitution substitution) throws SQLException {
+        SubstitutionRow row = createRow(substitution);
+        row.id = substitution.getId();
+        store.updateSubstitution(row);
+    }
+
+    @Override
+    public Optional<Substitution> findById(int id) throws SQLException {
+        return Optional.ofNullable((Substitution) store.substitutionEntity(id));
+    }
+
+    @Override
+    public List<Substitution> findByMatch(int matchId) throws SQLException {
+        return createSubstitutions(store.substitutionsOfMatch(matchId), MINUTE_ORDER);
+    }
+
+    @Override
+    public List<Substitution> findByTeamAndTournament(String teamName, int tournamentId) throws SQLException {
+        Integer teamId = store.findTeamId(teamName, tournamentId);
+        if (teamId == null) {
+            return new ArrayList<>();
+        }
+        return createSubstitutions(store.substitutionsOfTeam(teamId), MATCH_MINUTE_ORDER);
+    }
+
+    @Override
+    public int countSubstitutionsByTeam(String teamName, int tournamentId) throws SQLException {
+        Integer teamId = store.findTeamId(teamName, tournamentId);
+        return teamId == null ? 0 : store.substitutionsOfTeam(teamId).size();
+    }
+
+    @Override
+    public void delete(int id) throws SQLException {
+        store.deleteSubstitution(id);
+    }
+
+    @Override
+    public boolean exists(int id) throws SQLException {
+        return store.substitution(id) != null;
+    }
+
+    static SubstitutionRow createRow(Substitution substitution) {
+        SubstitutionRow row = new SubstitutionRow();
+        row.matchId = substitution.getMatch().getId();
+        row.teamId = substitution.getTeam().getId();
+        row.playerInId = substitution.getInPlayer().getId();
+        row.playerOutId = substitution.getOutPlayer().getId();
+        row.minute = substitution.getMinute();
+        return row;
+    }
+
+    private List<Substitution> createSubstitutions(List<SubstitutionRow> rows, Comparator<SubstitutionRow> order) {
+        rows.sort(order);
+        List<Substitution> substitutions = new ArrayList<>(rows.size());
+        for (SubstitutionRow row : rows) {
+            substitutions.add((Substitution) store.substitutionEntity(row.id));
+        }
+        return substitutions;
+    }
+}
@@ -0,0 +1,175 @@
+package com.worldcup.repository.memory;
+
+import com.worldcup.model.Player;
+import com.worldcup.model.Team;
+import com.worldcup.repository.PlayerRepository;
+import com.worldcup.repository.TeamRepository;
+import com.worldcup.repository.memory.InMemoryStore.TeamRow;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * TeamRepository lưu trong InMemoryStore, cùng ngữ nghĩa với TeamRepositoryImpl:
+ * save lưu kèm assistant coaches và đội hình, finder trả về Team mới dựng từ row
+ */
+public class InMemoryTeamRepository implements TeamRepository {
+
+    private final InMemoryStore store;
+    private final PlayerRepository playerRepository;
+
+    public InMemoryTeamRepository(InMemoryStore store) {
+        this.store = store;
+        this.playerRepository = new InMemoryPlayerRepository(store);
+    }
+
+    @Override
+    public void save(Team team) throws SQLException {
+        insert(team);
+        savePlayers(team);
+    }
+
+    @Override
+    public void saveAll(List<Team> teams) throws SQLException {
+        for (Team team : teams) {
+            insert(team);
+        }
+
+        // Đội hình lưu sau tất cả teams như saveAll của TeamRepositoryImpl
+        Map<Integer, List<Player>> playersByTeamId = new LinkedHashMap<>();
+        for (Team team : teams) {
+            List<Player> players = new ArrayList<>();
+            for (Player player : team.getStartingPlayers()) {
+                player.setStarting(true);
+                players.add(player);
+            }
+            for (Player player : team.getSubstitutePlayers()) {
+                player.setStarting(false);
+                players.add(player);
+            }
+            playersByTeamId.put(team.getId(), players);
+        }
+        playerRepository.saveAll(playersByTeamId);
+    }
+
+    @Override
+    public void update(Team team) throws SQLException {
+        store.updateTeamColumns(team.getId(), team.getDirtyColumns());
+        team.markPersisted();
+    }
+
+    @Override
+    public Optional<Team> findById(int id) throws SQLException {
+        return Optional.ofNullable(store.team(id)).map(this::createTeamFromRow);
+    }
+
+    @Override
+    public Optional<Team> findByNameAndTournament(String name, int tournamentId) throws SQLException {
+        Integer teamId = store.findTeamId(name, tournamentId);
+        return teamId == null ? Optional.empty() : findById(teamId);
+    }
+
+    @Override
+    public List<Team> findByTournament(int tournamentId) throws SQLException {
+        List<Team> teams = new ArrayList<>();
+        for (TeamRow row : store.teamsOfTournament(tournamentId)) {
+            teams.add(createTeamFromRow(row));
+        }
+        return teams;
+    }
+
+    @Override
+    public List<Team> findByGroupAndTournament(String groupName, int tournamentId) throws SQLException {
+        List<Team> teams = new ArrayList<>();
+        Integer groupId = store.findGroupId(tournamentId, groupName);
+        if (groupId == null) {
+            return teams;
+        }
+        for (TeamRow row : store.teamsOfTournament(tournamentId)) {
+            if (row.groupId == groupId) {
+                teams.add(createTeamFromRow(row));
+            }
+        }
+        return teams;
+    }
+
+    @Override
+    public List<Team> findByTournamentWithPlayers(int tournamentId) throws SQLException {
+        List<Team> teams = findByTournament(tournamentId);
+        for (Team team : teams) {
+            loadPlayersForTeam(team);
+        }
+        return teams;
+    }
+
+    @Override
+    public List<Team> findByGroupAndTournamentWithPlayers(String groupName, int tournamentId) throws SQLException {
+        List<Team> teams = findByGroupAndTournament(groupName, tournamentId);
+        for (Team team : teams) {
+            loadPlayersForTeam(team);
+        }
+        return teams;
+    }
+
+    @Override
+    public void delete(int id) throws SQLException {
+        store.deleteTeam(id);
+    }
+
+    @Override
+    public boolean exists(int id) throws SQLException {
+        return store.team(id) != null;
+    }
+
+    @Override
+    public Optional<Integer> getTeamId(String teamName, int tournamentId) throws SQLException {
+        return Optional.ofNullable(store.findTeamId(teamName, tournamentId));
+    }
+
+    /**
+     * Thêm row của team cùng assistant coaches, gán id cho team
+     */
+    private void insert(Team team) {
+        TeamRow row = new TeamRow();
+        row.name = team.getName();
+        row.region = team.getRegion();
+        row.coach = team.getCoach();
+        row.medicalStaff = team.getMedicalStaff();
+        row.isHost = team.isHost();
+        row.tournamentId = team.getTournamentId();
+        row.groupId = team.getGroupId();
+        row.assistantCoaches.addAll(team.getAssistantCoaches());
+
+        team.setId(store.insertTeam(row));
+        team.markPersisted();
+    }
+
+    private void savePlayers(Team team) throws SQLException {
+        for (Player player : team.getStartingPlayers()) {
+            player.setStarting(true);
+            playerRepository.save(player, team.getId());
+        }
+        for (Player player : team.getSubstitutePlayers()) {
+            player.setStarting(false);
+            playerRepository.save(player, team.getId());
+        }
+    }
+
+    private Team createTeamFromRow(TeamRow row) {
+        Team team = new Team(row.name, row.region, row.coach, row.assistantCoaches, row.medicalStaff, row.isHost);
+        team.setId(row.id);
+        team.setGroupId(row.groupId);
+        team.setTournamentId(row.tournamentId);
+        team.markPersisted();
+        return team;
+    }
+
+    private void loadPlayersForTeam(Team team) throws SQLException {
+        team.setStartingPlayers(playerRepository.findStartingPlayersByTeam(team.getId()));
+        team.setSubstitutePlayers(playerRepository.findSubstitutePlayersByTeam(team.getId()));
+    }
+}
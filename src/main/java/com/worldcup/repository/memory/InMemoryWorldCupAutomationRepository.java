@@ -0,0 +1,97 @@
+package com.worldcup.repository.memory;
+
+import com.worldcup.model.Match;
+import com.worldcup.model.Tournament;
+import com.worldcup.repository.WorldCupAutomationRepository;
+import com.worldcup.service.TournamentService;
+
+import java.sql.SQLException;
+
+/**
+ * WorldCupAutomationRepository lưu trong InMemoryStore, cho backend memory không cần SQLite
+ */
+public class InMemoryWorldCupAutomationRepository extends WorldCupAutomationRepository {
+
+    private final InMemoryStore store;
+
+    public InMemoryWorldCupAutomationRepository(InMemoryStore store) {
+        super(null);
+        this.store = store;
+    }
+
+    @Override
+    public int saveTournament(Tournament tournament) throws SQLException {
+        return store.insertTournament(tournament.getName(), tournament.getYear(), tournament.getHost().getName(),
+                tournament.getStart() + "", tournament.getEnd() + "");
+    }
+
+    @Override
+    public int saveGroup(String groupName, int tournamentId) throws SQLException {
+        return store.insertGroup(groupName, tournamentId);
+    }
+
+    @Override
+    public void updateTeamGroup(int teamId, int groupId) throws SQLException {
+        store.updateTeamGroup(teamId, groupId);
+    }
+
+    @Override
+    public int saveMatch(Match match, int tournamentId) throws SQLException {
+        Integer teamAId = store.findTeamId(match.getTeamA().getName(), tournamentId);
+        Integer teamBId = store.findTeamId(match.getTeamB().getName(), tournamentId);
+        if (teamAId == null || teamBId == null) {
+            throw new SQLException("Không tìm thấy team của match trong tournament " + tournamentId);
+        }
+        InMemoryStore.MatchRow row = InMemoryMatchRepository.createRow(match, teamAId, teamBId,
+                match.getVenue(), match.getReferee());
+        // Như câu INSERT của lớp cha: winner_id không được ghi
+        row.winnerId = null;
+        return store.insertMatch(row, match);
+    }
+
+    @Override
+    public Integer getTeamIdByName(String teamName, int tournamentId) throws SQLException {
+        return store.findTeamId(teamName, tournamentId);
+    }
+
+    @Override
+    public boolean tournamentStatsExists(int tournamentId) throws SQLException {
+        return store.hasTournamentStats(tournamentId);
+    }
+
+    @Override
+    public void createTournamentStatsRecord(int tournamentId) throws SQLException {
+        store.saveTournamentStats(tournamentId, 0, 0, 0, 0, 0, 0, 0);
+    }
+
+    @Override
+    public void saveTournamentStats(int tournamentId, TournamentService.TournamentStats stats) throws SQLException {
+        updateTournamentStats(tournamentId, stats);
+    }
+
+    @Override
+    public void updateTournamentStats(int tournamentId, TournamentService.TournamentStats stats) throws SQLException {
+        store.saveTournamentStats(tournamentId, stats.totalGoals, stats.totalMatches, stats.totalYellowCards,
+                stats.totalRedCards, stats.totalSubstitutions, stats.topScorerId, stats.topScorerGoals);
+    }
+
+    @Override
+    public String getTournamentName(int tournamentId) throws SQLException {
+        return store.getTournamentName(tournamentId);
+    }
+
+    @Override
+    public void clearAllData() throws SQLException {
+        store.clear();
+    }
+
+    @Override
+    public int updatePlayerGoalsFromGoals() throws SQLException {
+        return store.recountPlayerGoals();
+    }
+
+    @Override
+    public int updateAllMatchTypes() throws SQLException {
+        return store.updateMissingMatchTypes();
+    }
+}
@@ -0,0 +1,76 @@
+package com.worldcup.repository.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Snapshot thống kê của một method repository, được JMX hiển thị dưới dạng CompositeData.
+ * Độ trễ tính bằng micro giây.
+ */
+public class MethodStatistics {
+    private final String method;
+    private final long calls;
+    private final long errors;
+    private final long rows;
+    private final double meanMicros;
+    private final double p50Micros;
+    private final double p95Micros;
+    private final double p99Micros;
+    private final double maxMicros;
+
+    @ConstructorProperties({"method", "calls", "errors", "rows", "meanMicros", "p50Micros", "p95Micros",
+            "p99Micros", "maxMicros"})
+    public MethodStatistics(String method, long calls, long errors, long rows, double meanMicros,
+                            double p50Micros, double p95Micros, double p99Micros, double maxMicros) {
+        this.method = method;
+        this.calls = calls;
+        this.errors = errors;
+        this.rows = rows;
+        this.meanMicros = meanMicros;
+        this.p50Micros = p50Micros;
+        this.p95Micros = p95Micros;
+        this.p99Micros = p99Micros;
+        this.maxMicros = maxMicros;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public long getCalls() {
+        return calls;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public double getMeanMicros() {
+        return meanMicros;
+    }
+
+    public double getP50Micros() {
+        return p50Micros;
+    }
+
+    public double getP95Micros() {
+        return p95Micros;
+    }
+
+    public double getP99Micros() {
+        return p99Micros;
+    }
+
+    public double getMaxMicros() {
+        return maxMicros;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s calls=%d rows=%d errors=%d mean=%.1fus p50=%.1fus p95=%.1fus p99=%.1fus max=%.1fus",
+                method, calls, rows, errors, meanMicros, p50Micros, p95Micros, p99Micros, maxMicros);
+    }
+}
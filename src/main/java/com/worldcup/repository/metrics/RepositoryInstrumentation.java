@@ -0,0 +1,178 @@
+package com.worldcup.repository.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bọc repository interface bằng dynamic proxy để đo từng lời gọi mà không sửa repository impl.
+ * Thống kê được gom theo tên interface (dùng chung khi ObjectManager được tạo lại),
+ * đăng ký lên platform MBeanServer và được log định kỳ qua SLF4J.
+ *
+ * System properties:
+ * - worldcup.repository.metrics=false: tắt instrumentation, repository được trả về nguyên bản
+ * - worldcup.repository.metrics.interval=N: chu kỳ log tóm tắt (giây), 0 để tắt, mặc định 60
+ */
+public final class RepositoryInstrumentation {
+    public static final String ENABLED_PROPERTY = "worldcup.repository.metrics";
+    public static final String INTERVAL_PROPERTY = "worldcup.repository.metrics.interval";
+    private static final long DEFAULT_INTERVAL_SECONDS = 60;
+
+    private static final Logger logger = LoggerFactory.getLogger(RepositoryInstrumentation.class);
+    private static final Map<String, RepositoryMetrics> registry = new ConcurrentHashMap<>();
+    private static ScheduledExecutorService reporter;
+
+    private RepositoryInstrumentation() {
+    }
+
+    public static boolean isEnabled() {
+        return !"false".equalsIgnoreCase(System.getProperty(ENABLED_PROPERTY));
+    }
+
+    /**
+     * Repository được đo thời gian, số lần gọi và số row; trả về target nếu instrumentation bị tắt
+     */
+    public static <T> T instrument(Class<T> type, T target) {
+        if (!isEnabled()) {
+            return target;
+        }
+        RepositoryMetrics metrics = metricsFor(type.getSimpleName());
+        startReporter();
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                new MetricsHandler(target, metrics)));
+    }
+
+    /**
+     * Metrics của repository, tạo và đăng ký MXBean ở lần gọi đầu tiên
+     */
+    public static RepositoryMetrics metricsFor(String repository) {
+        return registry.computeIfAbsent(repository, name -> {
+            RepositoryMetrics metrics = new RepositoryMetrics(name);
+            register(metrics);
+            return metrics;
+        });
+    }
+
+    public static Collection<RepositoryMetrics> getAll() {
+        return new ArrayList<>(registry.values());
+    }
+
+    /**
+     * Tóm tắt các repository đã có lời gọi, mỗi method một dòng
+     */
+    public static String summary() {
+        StringBuilder summary = new StringBuilder("Repository metrics");
+        List<String> names = new ArrayList<>(registry.keySet());
+        names.sort(null);
+        for (String name : names) {
+            RepositoryMetrics metrics = registry.get(name);
+            if (metrics.getTotalCalls() > 0) {
+                summary.append('\n').append(metrics);
+            }
+        }
+        return summary.toString();
+    }
+
+    private static void register(RepositoryMetrics metrics) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName("com.worldcup:type=Repository,name=" + metrics.getRepository());
+            if (!server.isRegistered(name)) {
+                server.registerMBean(metrics, name);
+            }
+        } catch (JMException e) {
+            logger.warn("Không đăng ký được MXBean cho {}: {}", metrics.getRepository(), e.getMessage());
+        }
+    }
+
+    private static synchronized void startReporter() {
+        if (reporter != null) {
+            return;
+        }
+        long interval = Long.getLong(INTERVAL_PROPERTY, DEFAULT_INTERVAL_SECONDS);
+        if (interval <= 0) {
+            return;
+        }
+
+        reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "repository-metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.scheduleAtFixedRate(() -> {
+            if (logger.isInfoEnabled()) {
+                logger.info(summary());
+            }
+        }, interval, interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Số row mà lời gọi chạm tới: kích thước kết quả với truy vấn danh sách / Optional,
+     * kích thước tham số với ghi hàng loạt, còn lại là 1
+     */
+    static long rowsTouched(Object[] args, Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        if (args != null && args.length == 1) {
+            if (args[0] instanceof Collection) {
+                return ((Collection<?>) args[0]).size();
+            }
+            if (args[0] instanceof Map) {
+                long rows = 0;
+                for (Object value : ((Map<?, ?>) args[0]).values()) {
+                    rows += value instanceof Collection ? ((Collection<?>) value).size() : 1;
+                }
+                return rows;
+            }
+        }
+        return 1;
+    }
+
+    private static class MetricsHandler implements InvocationHandler {
+        private final Object target;
+        private final RepositoryMetrics metrics;
+
+        MetricsHandler(Object target, RepositoryMetrics metrics) {
+            this.target = target;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return method.invoke(target, args);
+            }
+
+            long start = System.nanoTime();
+            try {
+                Object result = method.invoke(target, args);
+                metrics.record(method.getName(), System.nanoTime() - start, rowsTouched(args, result), false);
+                return result;
+            } catch (InvocationTargetException e) {
+                metrics.record(method.getName(), System.nanoTime() - start, 0, true);
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.worldcup.repository.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bộ đếm của một repository: số lần gọi, số lỗi, số row và histogram độ trễ theo từng method
+ */
+public class RepositoryMetrics implements RepositoryMetricsMXBean {
+
+    private static final double NANOS_PER_MICRO = 1_000.0;
+
+    private final String repository;
+    private final Map<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+
+    /**
+     * Bộ đếm của một method, mọi trường đều lock-free
+     */
+    static class MethodMetrics {
+        final LongAdder calls = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder rows = new LongAdder();
+        final LatencyHistogram latency = new LatencyHistogram();
+    }
+
+    public RepositoryMetrics(String repository) {
+        this.repository = repository;
+    }
+
+    public void record(String method, long nanos, long rows, boolean error) {
+        MethodMetrics metrics = methods.computeIfAbsent(method, name -> new MethodMetrics());
+        metrics.calls.increment();
+        metrics.rows.add(rows);
+        if (error) {
+            metrics.errors.increment();
+        }
+        metrics.latency.record(nanos);
+    }
+
+    @Override
+    public String getRepository() {
+        return repository;
+    }
+
+    @Override
+    public long getTotalCalls() {
+        long total = 0;
+        for (MethodMetrics metrics : methods.values()) {
+            total += metrics.calls.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public long getTotalErrors() {
+        long total = 0;
+        for (MethodMetrics metrics : methods.values()) {
+            total += metrics.errors.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public long getTotalRows() {
+        long total = 0;
+        for (MethodMetrics metrics : methods.values()) {
+            total += metrics.rows.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public List<MethodStatistics> getMethods() {
+        List<MethodStatistics> statistics = new ArrayList<>();
+        for (Map.Entry<String, MethodMetrics> entry : new TreeMap<>(methods).entrySet()) {
+            MethodMetrics metrics = entry.getValue();
+            LatencyHistogram latency = metrics.latency;
+            statistics.add(new MethodStatistics(entry.getKey(),
+                    metrics.calls.sum(), metrics.errors.sum(), metrics.rows.sum(),
+                    latency.getMean() / NANOS_PER_MICRO,
+                    latency.getPercentile(50) / NANOS_PER_MICRO,
+                    latency.getPercentile(95) / NANOS_PER_MICRO,
+                    latency.getPercentile(99) / NANOS_PER_MICRO,
+                    latency.getMax() / NANOS_PER_MICRO));
+        }
+        return statistics;
+    }
+
+    @Override
+    public void reset() {
+        methods.clear();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder summary = new StringBuilder(repository)
+                .append(": calls=").append(getTotalCalls())
+                .append(", rows=").append(getTotalRows())
+                .append(", errors=").append(getTotalErrors());
+        for (MethodStatistics statistics : getMethods()) {
+            summary.append("\n  ").append(statistics);
+        }
+        return summary.toString();
+    }
+}
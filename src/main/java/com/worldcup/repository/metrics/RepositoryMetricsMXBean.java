@@ -0,0 +1,24 @@
+package com.worldcup.repository.metrics;
+
+import java.util.List;
+
+/**
+ * JMX view của một repository, đăng ký dưới tên com.worldcup:type=Repository,name=&lt;interface&gt;
+ */
+public interface RepositoryMetricsMXBean {
+
+    String getRepository();
+
+    long getTotalCalls();
+
+    long getTotalErrors();
+
+    long getTotalRows();
+
+    /**
+     * Thống kê từng method đã được gọi, sắp xếp theo tên
+     */
+    List<MethodStatistics> getMethods();
+
+    void reset();
+}
@@ -1,9 +1,11 @@
 package com.worldcup.service;
 
+import com.worldcup.generator.DataGenerator;
 import com.worldcup.manager.ObjectManager;
 import com.worldcup.model.*;
 import com.worldcup.repository.MatchRepository;
 import com.worldcup.repository.TeamRepository;
+import com.worldcup.repository.impl.MatchUnitOfWork;
 
 import java.text.SimpleDateFormat;
 import java.util.List;
@@ -18,6 +20,8 @@ public class MatchService {
     private final ObjectManager objectManager;
     private final MatchRepository matchRepository;
     private final TeamRepository teamRepository;
+    private StandingsTable standingsTable;
+    private DisciplineEngine disciplineEngine;
 
     public MatchService(ObjectManager objectManager) {
         this.objectManager = objectManager;
@@ -25,18 +29,45 @@ public class MatchService {
         this.teamRepository = objectManager.getTeamRepository();
     }
 
+    /**
+     * Kết quả các trận vòng bảng sau đó được áp dụng trực tiếp vào bảng xếp hạng
+     */
+    public void setStandingsTable(StandingsTable standingsTable) {
+        this.standingsTable = standingsTable;
+    }
+
+    /**
+     * Mỗi trận được tạo và mỗi thẻ phạt sau đó được áp dụng vào án treo giò của tournament
+     */
+    public void setDisciplineEngine(DisciplineEngine disciplineEngine) {
+        this.disciplineEngine = disciplineEngine;
+    }
+
     /**
      * Tạo và lưu match
      */
     public Match createMatch(Team teamA, Team teamB, String venue, String referee, boolean isKnockout) throws Exception {
+        MatchUnitOfWork unitOfWork = objectManager.beginUnitOfWork();
+        Match match = createMatch(teamA, teamB, venue, referee, isKnockout, unitOfWork);
+        unitOfWork.commit();
+        return match;
+    }
+
+    /**
+     * Tạo match, được insert khi unit of work commit
+     */
+    public Match createMatch(Team teamA, Team teamB, String venue, String referee, boolean isKnockout,
+                             MatchUnitOfWork unitOfWork) {
         Match match = new Match(teamA, teamB, venue, referee, isKnockout);
 
         SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy/MM/dd");
         String matchDate = dateFormat.format(new java.util.Date());
         match.setMatchDate(matchDate);
 
-        int matchId = matchRepository.save(match, venue, referee);
-        match.setId(matchId);
+        unitOfWork.registerNewMatch(match, venue, referee);
+        if (disciplineEngine != null) {
+            disciplineEngine.startMatch(match);
+        }
 
         return match;
     }
@@ -45,54 +76,85 @@ public class MatchService {
      * Cập nhật kết quả trận đấu và lưu vào database
      */
     public void updateResult(Match match, int teamAScore, int teamBScore) throws Exception {
+        MatchUnitOfWork unitOfWork = objectManager.beginUnitOfWork();
+        updateResult(match, teamAScore, teamBScore, unitOfWork);
+        unitOfWork.commit();
+    }
+
+    /**
+     * Cập nhật kết quả trận đấu, được lưu khi unit of work commit
+     */
+    public void updateResult(Match match, int teamAScore, int teamBScore, MatchUnitOfWork unitOfWork) {
+        // Đăng ký teams trước khi thay đổi để rollback trả về thống kê cũ
+        unitOfWork.registerTeamUpdate(match.getTeamA());
+        unitOfWork.registerTeamUpdate(match.getTeamB());
+
         // Cập nhật kết quả trong Match object
         match.updateMatchResult(teamAScore, teamBScore);
 
-        // Cập nhật thống kê teams
-        match.getTeamA().updateMatchStatistics(teamAScore, teamBScore);
-        match.getTeamB().updateMatchStatistics(teamBScore, teamAScore);
+        // Cập nhật thống kê teams, giữ bảng xếp hạng đúng thứ tự nếu là trận vòng bảng
+        if (isTrackedInStandings(match)) {
+            unitOfWork.setStandingsTable(standingsTable);
+            standingsTable.applyResult(match);
+        } else {
+            match.getTeamA().updateMatchStatistics(teamAScore, teamBScore);
+            match.getTeamB().updateMatchStatistics(teamBScore, teamAScore);
+        }
 
-        // Lưu changes vào database
-        objectManager.updateMatchResult(match, teamAScore, teamBScore);
-        match.getTeamA().update();
-        match.getTeamB().update();
+        // Đăng ký changes để ghi cùng transaction
+        objectManager.updateMatchResult(match, teamAScore, teamBScore, unitOfWork);
     }
 
     /**
      * Tạo match events (goals, cards, substitutions) sử dụng OOP approach
      */
     public void generateEvents(Match match, int teamAScore, int teamBScore) throws Exception {
+        MatchUnitOfWork unitOfWork = objectManager.beginUnitOfWork();
+        generateEvents(match, teamAScore, teamBScore, unitOfWork);
+        unitOfWork.commit();
+    }
+
+    /**
+     * Tạo match events, được lưu khi unit of work commit
+     */
+    public void generateEvents(Match match, int teamAScore, int teamBScore, MatchUnitOfWork unitOfWork) throws Exception {
         // Tạo goals cho team A
-        generateGoalsForTeam(match, match.getTeamA(), teamAScore);
+        generateGoalsForTeam(match, match.getTeamA(), teamAScore, unitOfWork);
 
         // Tạo goals cho team B
-        generateGoalsForTeam(match, match.getTeamB(), teamBScore);
+        generateGoalsForTeam(match, match.getTeamB(), teamBScore, unitOfWork);
 
         // Tạo cards và substitutions
-        generateCardsAndSubstitutions(match);
+        generateCardsAndSubstitutions(match, unitOfWork);
+
+        // Thẻ phạt ảnh hưởng thứ hạng nên chèn lại vị trí hai đội
+        if (isTrackedInStandings(match)) {
+            unitOfWork.setStandingsTable(standingsTable);
+            standingsTable.refresh(match.getTeamA());
+            standingsTable.refresh(match.getTeamB());
+        }
+    }
+
+    private boolean isTrackedInStandings(Match match) {
+        return standingsTable != null && !match.isKnockout()
+                && standingsTable.contains(match.getTeamA()) && standingsTable.contains(match.getTeamB());
     }
 
     /**
      * Tạo goals cho team sử dụng ObjectManager
      */
-    private void generateGoalsForTeam(Match match, Team team, int goalCount) throws Exception {
+    private void generateGoalsForTeam(Match match, Team team, int goalCount, MatchUnitOfWork unitOfWork) throws Exception {
         for (int i = 0; i < goalCount; i++) {
             List<Player> startingPlayers = team.getStartingPlayers();
             if (!startingPlayers.isEmpty()) {
-                Player scorer = startingPlayers.get((int) (Math.random() * startingPlayers.size()));
+                Player scorer = startingPlayers.get((int) (DataGenerator.random().nextDouble() * startingPlayers.size()));
                 
                 // Đảm bảo scorer có ID trước khi tạo goal
-                if (scorer.getId() == 0) {
-                    Optional<Integer> scorerId = objectManager.getPlayerRepository().getPlayerId(
-                        scorer.getName(), team.getName(), team.getTournamentId());
-                    if (scorerId.isPresent()) {
-                        scorer.setId(scorerId.get());
-                    }
-                }
+                objectManager.resolvePlayerId(scorer, team);
                 
-                int minute = (int) (Math.random() * 90) + 1;
+                int minute = (int) (DataGenerator.random().nextDouble() * 90) + 1;
 
-                Goal goal = objectManager.createGoal(scorer, team, minute, match);
+                Goal goal = objectManager.createGoal(scorer, team, minute, match, unitOfWork);
                 match.addGoal(goal);
             }
         }
@@ -101,20 +163,20 @@ public class MatchService {
     /**
      * Tạo cards và substitutions
      */
-    private void generateCardsAndSubstitutions(Match match) throws Exception {
+    private void generateCardsAndSubstitutions(Match match, MatchUnitOfWork unitOfWork) throws Exception {
         // Generate cards for both teams
-        generateCardsForTeam(match, match.getTeamA());
-        generateCardsForTeam(match, match.getTeamB());
+        generateCardsForTeam(match, match.getTeamA(), unitOfWork);
+        generateCardsForTeam(match, match.getTeamB(), unitOfWork);
 
         // Generate substitutions for both teams
-        generateSubstitutionsForTeam(match, match.getTeamA());
-        generateSubstitutionsForTeam(match, match.getTeamB());
+        generateSubstitutionsForTeam(match, match.getTeamA(), unitOfWork);
+        generateSubstitutionsForTeam(match, match.getTeamB(), unitOfWork);
     }
 
     /**
      * Tạo cards cho team
      */
-    private void generateCardsForTeam(Match match, Team team) throws Exception {
+    private void generateCardsForTeam(Match match, Team team, MatchUnitOfWork unitOfWork) throws Exception {
         // Lấy starting players từ Match object để đảm bảo đồng bộ
         List<Player> startingPlayers;
         if (team.equals(match.getTeamA())) {
@@ -129,51 +191,45 @@ public class MatchService {
         }
 
         // Yellow cards (more common)
-        if (Math.random() < 0.3) { // 30% chance
-            Player player = startingPlayers.get((int) (Math.random() * startingPlayers.size()));
+        if (DataGenerator.random().nextDouble() < 0.3) { // 30% chance
+            Player player = startingPlayers.get((int) (DataGenerator.random().nextDouble() * startingPlayers.size()));
             
             // Đảm bảo player có ID trước khi tạo card
-            if (player.getId() == 0) {
-                Optional<Integer> playerId = objectManager.getPlayerRepository().getPlayerId(
-                    player.getName(), team.getName(), team.getTournamentId());
-                if (playerId.isPresent()) {
-                    player.setId(playerId.get());
-                }
-            }
+            objectManager.resolvePlayerId(player, team);
             
-            int minute = (int) (Math.random() * 90) + 1;
+            int minute = (int) (DataGenerator.random().nextDouble() * 90) + 1;
 
-            Card yellowCard = objectManager.createCard(player, team, match, minute, Card.CardType.YELLOW);
+            Card yellowCard = objectManager.createCard(player, team, match, minute, Card.CardType.YELLOW, unitOfWork);
             match.addCard(player, team, "YELLOW");
+            if (disciplineEngine != null) {
+                disciplineEngine.applyCard(yellowCard);
+            }
         }
 
         // Red cards (less common)
-        if (Math.random() < 0.05) { // 5% chance
-            Player player = startingPlayers.get((int) (Math.random() * startingPlayers.size()));
+        if (DataGenerator.random().nextDouble() < 0.05) { // 5% chance
+            Player player = startingPlayers.get((int) (DataGenerator.random().nextDouble() * startingPlayers.size()));
             
             // Đảm bảo player có ID trước khi tạo card
-            if (player.getId() == 0) {
-                Optional<Integer> playerId = objectManager.getPlayerRepository().getPlayerId(
-                    player.getName(), team.getName(), team.getTournamentId());
-                if (playerId.isPresent()) {
-                    player.setId(playerId.get());
-                }
-            }
+            objectManager.resolvePlayerId(player, team);
             
-            int minute = (int) (Math.random() * 90) + 1;
+            int minute = (int) (DataGenerator.random().nextDouble() * 90) + 1;
 
-            Card redCard = objectManager.createCard(player, team, match, minute, Card.CardType.RED);
+            Card redCard = objectManager.createCard(player, team, match, minute, Card.CardType.RED, unitOfWork);
             match.addCard(player, team, "RED");
+            if (disciplineEngine != null) {
+                disciplineEngine.applyCard(redCard);
+            }
         }
     }
 
     /**
      * Tạo substitutions cho team
      */
-    private boolean generateSubstitutionsForTeam(Match match, Team team) throws Exception {
-        if (Math.random() < 0.7) { // 70% chance of substitutions
+    private boolean generateSubstitutionsForTeam(Match match, Team team, MatchUnitOfWork unitOfWork) throws Exception {
+        if (DataGenerator.random().nextDouble() < 0.7) { // 70% chance of substitutions
             int maxSubstitutions = Math.min(3, team.getSubstitutePlayers().size()); // Tối đa 3 hoặc số substitute players
-            int substitutionCount = (int) (Math.random() * maxSubstitutions) + 1; // 1 đến maxSubstitutions
+            int substitutionCount = (int) (DataGenerator.random().nextDouble() * maxSubstitutions) + 1; // 1 đến maxSubstitutions
 
             for (int i = 0; i < substitutionCount; i++) {
                 // Lấy danh sách players cập nhật sau mỗi substitution
@@ -190,31 +246,16 @@ public class MatchService {
                     break; // Đã đạt giới hạn
                 }
 
-                Player playerIn = currentSubstitutePlayers.get((int) (Math.random() * currentSubstitutePlayers.size()));
-                Player playerOut = currentStartingPlayers.get((int) (Math.random() * currentStartingPlayers.size()));
-                int minute = (int) (Math.random() * 45) + 45; // Second half
+                Player playerIn = currentSubstitutePlayers.get((int) (DataGenerator.random().nextDouble() * currentSubstitutePlayers.size()));
+                Player playerOut = currentStartingPlayers.get((int) (DataGenerator.random().nextDouble() * currentStartingPlayers.size()));
+                int minute = (int) (DataGenerator.random().nextDouble() * 45) + 45; // Second half
 
                 try {
                     // Đảm bảo players có ID trước khi tạo substitution
-                    if (playerIn.getId() == 0) {
-                        // Lấy ID từ database
-                        Optional<Integer> playerInId = objectManager.getPlayerRepository().getPlayerId(
-                            playerIn.getName(), team.getName(), team.getTournamentId());
-                        if (playerInId.isPresent()) {
-                            playerIn.setId(playerInId.get());
-                        }
-                    }
-                    
-                    if (playerOut.getId() == 0) {
-                        // Lấy ID từ database
-                        Optional<Integer> playerOutId = objectManager.getPlayerRepository().getPlayerId(
-                            playerOut.getName(), team.getName(), team.getTournamentId());
-                        if (playerOutId.isPresent()) {
-                            playerOut.setId(playerOutId.get());
-                        }
-                    }
-
-                    objectManager.createSubstitution(match, team, playerIn, playerOut, minute);
+                    objectManager.resolvePlayerId(playerIn, team);
+                    objectManager.resolvePlayerId(playerOut, team);
+
+                    objectManager.createSubstitution(match, team, playerIn, playerOut, minute, unitOfWork);
                     team.setSubstitutionCount(team.getSubstitutionCount() + 1);
                     return true;
                 } catch (Exception e) {
@@ -2,6 +2,7 @@ package com.worldcup.service;
 
 import com.worldcup.model.Player;
 import com.worldcup.database.DatabaseManager;
+import com.worldcup.manager.ScorerLeaderboard;
 import java.sql.*;
 import java.util.*;
 
@@ -12,83 +13,44 @@ import java.util.*;
 public class PlayerService {
     private DatabaseManager dbManager;
     
+    // Bảng xếp hạng ghi bàn cập nhật theo từng goal, null thì luôn đếm lại từ database
+    private final ScorerLeaderboard scorerLeaderboard;
+    
     public PlayerService(DatabaseManager dbManager) {
+        this(dbManager, null);
+    }
+
+    public PlayerService(DatabaseManager dbManager, ScorerLeaderboard scorerLeaderboard) {
         this.dbManager = dbManager;
+        this.scorerLeaderboard = scorerLeaderboard;
     }
     
     /**
-     * Lấy top scorers và sắp xếp bằng Java thay vì SQL ORDER BY
+     * Lấy top scorers theo player id, sắp xếp bằng Java thay vì SQL ORDER BY.
+     * Tournament đang được ScorerLeaderboard theo dõi đầy đủ thì đọc K dòng đầu của bảng,
+     * ngược lại đếm goals từ database rồi chọn top K bằng heap giới hạn K phần tử.
      */
     public List<PlayerGoalStats> getTopScorersCalculatedInJava(int tournamentId, int limit) throws SQLException {
-        // Lấy tất cả players và goals
-        Map<String, PlayerGoalStats> playerStatsMap = new HashMap<>();
-        
-        String sql = """
-            SELECT p.id, p.name, p.position, t.name as team_name,
-                   g.id as goal_id
-            FROM players p
-            JOIN teams t ON p.team_id = t.id
-            LEFT JOIN goals g ON p.id = g.player_id
-            WHERE t.tournament_id = ?
-        """;
-        
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
-        pstmt.setInt(1, tournamentId);
-        ResultSet rs = pstmt.executeQuery();
-        
-        while (rs.next()) {
-            int playerId = rs.getInt("id");
-            String playerName = rs.getString("name");
-            String teamName = rs.getString("team_name");
-            String position = rs.getString("position");
-            boolean hasGoal = rs.getObject("goal_id") != null;
-            
-            // Tạo hoặc cập nhật player stats
-            PlayerGoalStats stats = playerStatsMap.computeIfAbsent(playerName, 
-                k -> new PlayerGoalStats(playerId, playerName, teamName, position, 0));
-            
-            if (hasGoal) {
-                stats.incrementGoals();
-            }
+        List<ScorerLeaderboard.Scorer> top;
+        if (scorerLeaderboard == null) {
+            top = ScorerLeaderboard.topK(ScorerLeaderboard.load(dbManager.getReadConnection(), tournamentId), limit);
+        } else if (scorerLeaderboard.isComplete(tournamentId)) {
+            top = scorerLeaderboard.top(limit);
+        } else if (scorerLeaderboard.getTournamentId() == tournamentId || scorerLeaderboard.size() == 0) {
+            // Bảng đang theo tournament này nhưng thiếu goals (hoặc còn trống): dựng lại một lần rồi cập nhật tiếp theo goal
+            scorerLeaderboard.rebuild(dbManager.getReadConnection(), tournamentId);
+            top = scorerLeaderboard.top(limit);
+        } else {
+            // Không đổi bảng của tournament đang đá sang tournament cũ
+            top = ScorerLeaderboard.topK(ScorerLeaderboard.load(dbManager.getReadConnection(), tournamentId), limit);
         }
-        
-        rs.close();
-        pstmt.close();
-        
-        // Chuyển đổi map thành list và sắp xếp bằng Java
-        List<PlayerGoalStats> playerStatsList = new ArrayList<>(playerStatsMap.values());
-        
-        // Lọc chỉ những cầu thủ có bàn thắng
-        playerStatsList = playerStatsList.stream()
-            .filter(stats -> stats.getGoals() > 0)
-            .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
-        
-        // Sắp xếp bằng Java thay vì SQL ORDER BY
-        playerStatsList.sort(new PlayerGoalComparator());
-        
-        // Giới hạn số lượng kết quả
-        if (limit > 0 && playerStatsList.size() > limit) {
-            playerStatsList = playerStatsList.subList(0, limit);
-        }
-        
-        return playerStatsList;
-    }
 
-    /**
-     * Comparator để sắp xếp players theo số bàn thắng
-     */
-    private static class PlayerGoalComparator implements Comparator<PlayerGoalStats> {
-        @Override
-        public int compare(PlayerGoalStats p1, PlayerGoalStats p2) {
-            // Sắp xếp theo số bàn thắng giảm dần
-            int goalComparison = Integer.compare(p2.getGoals(), p1.getGoals());
-            if (goalComparison != 0) {
-                return goalComparison;
-            }
-            
-            // Nếu bằng nhau thì sắp xếp theo tên
-            return p1.getPlayerName().compareTo(p2.getPlayerName());
+        List<PlayerGoalStats> playerStatsList = new ArrayList<>(top.size());
+        for (ScorerLeaderboard.Scorer scorer : top) {
+            playerStatsList.add(new PlayerGoalStats(scorer.getPlayerId(), scorer.getPlayerName(),
+                scorer.getTeamName(), scorer.getPosition(), scorer.getGoals()));
         }
+        return playerStatsList;
     }
     
     /**
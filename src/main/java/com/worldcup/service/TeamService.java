@@ -2,7 +2,9 @@ package com.worldcup.service;
 
 import com.worldcup.model.Group;
 import com.worldcup.model.Player;
+import com.worldcup.model.StandingsTable;
 import com.worldcup.model.Team;
+import com.worldcup.model.TeamStandingComparator;
 import com.worldcup.database.DatabaseManager;
 import java.sql.*;
 import java.util.*;
@@ -31,16 +33,19 @@ public class TeamService {
             WHERE t.tournament_id = ?
         """;
 
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.getReadConnection().prepareStatement(sql);
         pstmt.setInt(1, tournamentId);
         ResultSet rs = pstmt.executeQuery();
 
+        // Load thống kê của tất cả teams một lần thay vì 4 truy vấn mỗi team
+        Map<Integer, TeamStatistics> statistics = loadTeamStatistics(tournamentId);
+
         while (rs.next()) {
             // Tạo team object với dữ liệu cơ bản
             Team team = createTeamFromResultSet(rs);
 
-            // Tính toán lại các thống kê 
-            calculateTeamStatistics(team, tournamentId);
+            // Gán các thống kê đã tính
+            applyStatistics(team, statistics);
 
             teams.add(team);
         }
@@ -52,177 +57,114 @@ public class TeamService {
     }
 
     /**
-     * Tính toán thống kê cho một team  thay vì SQL
+     * Load thống kê vòng bảng của tất cả teams trong tournament bằng 3 truy vấn
+     * (matches, cards, substitutions) và tính W/D/L/GF/GA trong một lượt duyệt
      */
-    private void calculateTeamStatistics(Team team, int tournamentId) throws SQLException {
-        // Tính toán từ matches
-        calculateMatchStatistics(team, tournamentId);
-
-        // Tính toán từ goals
-        calculateGoalStatistics(team, tournamentId);
-
-        // Tính toán từ cards
-        calculateCardStatistics(team, tournamentId);
-
-        // Tính toán từ substitutions
-        calculateSubstitutionStatistics(team, tournamentId);
-    }
+    private Map<Integer, TeamStatistics> loadTeamStatistics(int tournamentId) throws SQLException {
+        Map<Integer, TeamStatistics> statistics = new HashMap<>();
+        Connection conn = dbManager.getReadConnection();
 
-    /**
-     * Tính toán thống kê trận đấu  (CHỈ VÒNG BẢNG cho việc sắp xếp)
-     */
-    private void calculateMatchStatistics(Team team, int tournamentId) throws SQLException {
-        String sql = """
-            SELECT m.team_a_id, m.team_b_id, m.team_a_score, m.team_b_score,
-                   ta.name as team_a_name, tb.name as team_b_name
+        // Kết quả trận đấu (CHỈ VÒNG BẢNG cho việc sắp xếp)
+        String matchSql = """
+            SELECT m.team_a_id, m.team_b_id, m.team_a_score, m.team_b_score
             FROM matches m
             JOIN teams ta ON m.team_a_id = ta.id
             JOIN teams tb ON m.team_b_id = tb.id
-            WHERE (ta.name = ? OR tb.name = ?) 
-            AND ta.tournament_id = ? AND tb.tournament_id = ?
+            WHERE ta.tournament_id = ? AND tb.tournament_id = ?
             AND m.match_type = 'GROUP'
         """;
 
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
-        pstmt.setString(1, team.getName());
-        pstmt.setString(2, team.getName());
-        pstmt.setInt(3, tournamentId);
-        pstmt.setInt(4, tournamentId);
+        PreparedStatement pstmt = conn.prepareStatement(matchSql);
+        pstmt.setInt(1, tournamentId);
+        pstmt.setInt(2, tournamentId);
         ResultSet rs = pstmt.executeQuery();
 
-        int wins = 0, draws = 0, losses = 0;
-        int goalsFor = 0, goalsAgainst = 0;
-
         while (rs.next()) {
-            boolean isTeamA = team.getName().equals(rs.getString("team_a_name"));
-            int teamScore = isTeamA ? rs.getInt("team_a_score") : rs.getInt("team_b_score");
-            int opponentScore = isTeamA ? rs.getInt("team_b_score") : rs.getInt("team_a_score");
-
-            goalsFor += teamScore;
-            goalsAgainst += opponentScore;
-
-            if (teamScore > opponentScore) {
-                wins++;
-            } else if (teamScore == opponentScore) {
-                draws++;
-            } else {
-                losses++;
-            }
+            int teamAScore = rs.getInt("team_a_score");
+            int teamBScore = rs.getInt("team_b_score");
+            statistics.computeIfAbsent(rs.getInt("team_a_id"), id -> new TeamStatistics())
+                .addResult(teamAScore, teamBScore);
+            statistics.computeIfAbsent(rs.getInt("team_b_id"), id -> new TeamStatistics())
+                .addResult(teamBScore, teamAScore);
         }
 
-        // Cập nhật thống kê vào team object
-        updateTeamMatchStats(team, wins, draws, losses, goalsFor, goalsAgainst);
-
         rs.close();
         pstmt.close();
-    }
 
-    /**
-     * Cập nhật thống kê trận đấu vào team object
-     */
-    private void updateTeamMatchStats(Team team, int wins, int draws, int losses,
-                                    int goalsFor, int goalsAgainst) {
-        // Cập nhật tất cả thống kê trận đấu
-        team.setWins(wins);
-        team.setDraws(draws);
-        team.setLosses(losses);
-        team.setGoalsFor(goalsFor);
-        team.setGoalsAgainst(goalsAgainst);
-
-        // Tính điểm: thắng = 3 điểm, hòa = 1 điểm, thua = 0 điểm
-        int points = wins * 3 + draws * 1;
-        team.setPoints(points);
-
-        // Tính hiệu số bàn thắng
-        int goalDifference = goalsFor - goalsAgainst;
-        team.setGoalDifference(goalDifference);
-    }
-
-    /**
-     * Tính toán thống kê bàn thắng
-     */
-    private void calculateGoalStatistics(Team team, int tournamentId) throws SQLException {
-        String sql = """
-            SELECT COUNT(*) as goal_count
-            FROM goals g
-            JOIN teams t ON g.team_id = t.id
-            WHERE t.name = ? AND t.tournament_id = ?
-        """;
-
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
-        pstmt.setString(1, team.getName());
-        pstmt.setInt(2, tournamentId);
-        ResultSet rs = pstmt.executeQuery();
-
-        // Lưu ý: Ở đây chúng ta vẫn phải dùng COUNT() để lấy dữ liệu thô
-        // Nhưng logic tính toán sẽ được thực hiện ở Java
-        // Trong tương lai có thể load tất cả goals và tính toán hoàn toàn 
-
-        rs.close();
-        pstmt.close();
-    }
-
-    /**
-     * Tính toán thống kê thẻ  (CHỈ VÒNG BẢNG cho việc sắp xếp)
-     */
-    private void calculateCardStatistics(Team team, int tournamentId) throws SQLException {
-        String sql = """
-            SELECT card_type, COUNT(*) as card_count
+        // Thẻ phạt (CHỈ VÒNG BẢNG cho việc sắp xếp)
+        String cardSql = """
+            SELECT c.team_id, c.card_type, COUNT(*) as card_count
             FROM cards c
             JOIN teams t ON c.team_id = t.id
             JOIN matches m ON c.match_id = m.id
-            WHERE t.name = ? AND t.tournament_id = ? AND m.match_type = 'GROUP'
-            GROUP BY card_type
+            WHERE t.tournament_id = ? AND m.match_type = 'GROUP'
+            GROUP BY c.team_id, c.card_type
         """;
 
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
-        pstmt.setString(1, team.getName());
-        pstmt.setInt(2, tournamentId);
-        ResultSet rs = pstmt.executeQuery();
-
-        int yellowCards = 0, redCards = 0;
+        pstmt = conn.prepareStatement(cardSql);
+        pstmt.setInt(1, tournamentId);
+        rs = pstmt.executeQuery();
 
         while (rs.next()) {
+            TeamStatistics teamStatistics = statistics.computeIfAbsent(rs.getInt("team_id"), id -> new TeamStatistics());
             String cardType = rs.getString("card_type");
             int count = rs.getInt("card_count");
 
             if ("YELLOW".equals(cardType)) {
-                yellowCards = count;
+                teamStatistics.yellowCards = count;
             } else if ("RED".equals(cardType)) {
-                redCards = count;
+                teamStatistics.redCards = count;
             }
         }
 
-        team.setYellowCards(yellowCards);
-        team.setRedCards(redCards);
-
         rs.close();
         pstmt.close();
-    }
 
-    /**
-     * Tính toán thống kê thay người
-     */
-    private void calculateSubstitutionStatistics(Team team, int tournamentId) throws SQLException {
-        String sql = """
-            SELECT COUNT(*) as substitution_count
+        // Số lần thay người
+        String substitutionSql = """
+            SELECT s.team_id, COUNT(*) as substitution_count
             FROM substitutions s
             JOIN teams t ON s.team_id = t.id
-            WHERE t.name = ? AND t.tournament_id = ?
+            WHERE t.tournament_id = ?
+            GROUP BY s.team_id
         """;
 
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
-        pstmt.setString(1, team.getName());
-        pstmt.setInt(2, tournamentId);
-        ResultSet rs = pstmt.executeQuery();
+        pstmt = conn.prepareStatement(substitutionSql);
+        pstmt.setInt(1, tournamentId);
+        rs = pstmt.executeQuery();
 
-        if (rs.next()) {
-            int substitutionCount = rs.getInt("substitution_count");
-            team.setSubstitutionCount(substitutionCount);
+        while (rs.next()) {
+            statistics.computeIfAbsent(rs.getInt("team_id"), id -> new TeamStatistics())
+                .substitutionCount = rs.getInt("substitution_count");
         }
 
         rs.close();
         pstmt.close();
+
+        return statistics;
+    }
+
+    /**
+     * Gán thống kê đã tính vào team object, team chưa đá trận nào có thống kê bằng 0
+     */
+    private void applyStatistics(Team team, Map<Integer, TeamStatistics> statistics) {
+        TeamStatistics teamStatistics = statistics.getOrDefault(team.getId(), new TeamStatistics());
+
+        team.setWins(teamStatistics.wins);
+        team.setDraws(teamStatistics.draws);
+        team.setLosses(teamStatistics.losses);
+        team.setGoalsFor(teamStatistics.goalsFor);
+        team.setGoalsAgainst(teamStatistics.goalsAgainst);
+
+        // Tính điểm: thắng = 3 điểm, hòa = 1 điểm, thua = 0 điểm
+        team.setPoints(teamStatistics.wins * 3 + teamStatistics.draws);
+
+        // Tính hiệu số bàn thắng
+        team.setGoalDifference(teamStatistics.goalsFor - teamStatistics.goalsAgainst);
+
+        team.setYellowCards(teamStatistics.yellowCards);
+        team.setRedCards(teamStatistics.redCards);
+        team.setSubstitutionCount(teamStatistics.substitutionCount);
     }
 
     /**
@@ -246,44 +188,38 @@ public class TeamService {
         team.setId(rs.getInt("id"));
         team.setGroupId(rs.getInt("group_id"));
         team.setTournamentId(rs.getInt("tournament_id"));
+        team.markPersisted();
 
         return team;
     }
 
     /**
-     * Tạo Team object với đầy đủ players từ ResultSet
+     * Load players cho nhiều teams bằng một truy vấn team_id IN (...)
      */
-    private Team createTeamWithPlayersFromResultSet(ResultSet rs) throws SQLException {
-        // Tạo team cơ bản
-        Team team = createTeamFromResultSet(rs);
-
-        // Load players từ database
-        loadPlayersForTeam(team);
-
-        return team;
-    }
-
-    /**
-     * Load players cho một team từ database
-     */
-    private void loadPlayersForTeam(Team team) throws SQLException {
-        // Debug logging
-
+    private void loadPlayersForTeams(List<Team> teams) throws SQLException {
+        if (teams.isEmpty()) {
+            return;
+        }
 
+        String placeholders = String.join(", ", Collections.nCopies(teams.size(), "?"));
         String sql = """
-            SELECT id, name, jersey_number, position, is_starting, yellow_cards, red_cards, is_eligible
+            SELECT id, team_id, name, jersey_number, position, is_starting, yellow_cards, red_cards, is_eligible
             FROM players
-            WHERE team_id = ?
-            ORDER BY is_starting DESC, jersey_number ASC
-        """;
-
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
-        pstmt.setInt(1, team.getId());
+            WHERE team_id IN (%s)
+            ORDER BY team_id, is_starting DESC, jersey_number ASC
+        """.formatted(placeholders);
+
+        PreparedStatement pstmt = dbManager.getReadConnection().prepareStatement(sql);
+        Map<Integer, List<Player>> startingPlayers = new HashMap<>();
+        Map<Integer, List<Player>> substitutePlayers = new HashMap<>();
+        for (int i = 0; i < teams.size(); i++) {
+            int teamId = teams.get(i).getId();
+            pstmt.setInt(i + 1, teamId);
+            startingPlayers.put(teamId, new ArrayList<>());
+            substitutePlayers.put(teamId, new ArrayList<>());
+        }
         ResultSet rs = pstmt.executeQuery();
 
-        List<Player> startingPlayers = new ArrayList<>();
-        List<Player> substitutePlayers = new ArrayList<>();
-
         while (rs.next()) {
             Player player = new Player(
                 rs.getString("name"),
@@ -295,22 +231,22 @@ public class TeamService {
             player.setRedCards(rs.getInt("red_cards"));
             player.setEligible(rs.getBoolean("is_eligible"));
 
+            int teamId = rs.getInt("team_id");
             if (rs.getBoolean("is_starting")) {
-                startingPlayers.add(player);
+                startingPlayers.get(teamId).add(player);
             } else {
-                substitutePlayers.add(player);
+                substitutePlayers.get(teamId).add(player);
             }
         }
 
         rs.close();
         pstmt.close();
 
-        // Debug logging
-
-
-        // Set players cho team
-        team.setStartingPlayers(startingPlayers);
-        team.setSubstitutePlayers(substitutePlayers);
+        // Set players cho từng team
+        for (Team team : teams) {
+            team.setStartingPlayers(startingPlayers.get(team.getId()));
+            team.setSubstitutePlayers(substitutePlayers.get(team.getId()));
+        }
     }
 
     /**
@@ -322,33 +258,51 @@ public class TeamService {
     }
 
     /**
-     * Lấy teams theo group và sắp xếp
+     * Bảng xếp hạng của tất cả các bảng đấu, key là tên bảng theo thứ tự A-H.
+     * Teams và thống kê được load một lần cho cả tournament rồi xếp hạng qua StandingsTable.
      */
-    public List<Team> getTeamsByGroupSorted(int tournamentId, String groupName) throws SQLException {
-        List<Team> teams = new ArrayList<>();
+    public Map<String, List<Team>> getGroupStandings(int tournamentId) throws SQLException {
+        Map<String, Group> groups = new LinkedHashMap<>();
 
         String sql = """
             SELECT t.id, t.name, t.region, t.coach, t.medical_staff, t.is_host,
-                   t.group_id, t.tournament_id
+                   t.group_id, t.tournament_id, g.name AS group_name
             FROM teams t
             JOIN groups g ON t.group_id = g.id
-            WHERE t.tournament_id = ? AND g.name = ?
+            WHERE t.tournament_id = ?
+            ORDER BY g.name
         """;
 
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.getReadConnection().prepareStatement(sql);
         pstmt.setInt(1, tournamentId);
-        pstmt.setString(2, groupName);
         ResultSet rs = pstmt.executeQuery();
 
+        Map<Integer, TeamStatistics> statistics = loadTeamStatistics(tournamentId);
+
         while (rs.next()) {
             Team team = createTeamFromResultSet(rs);
-            calculateTeamStatistics(team, tournamentId);
-            teams.add(team);
+            applyStatistics(team, statistics);
+            groups.computeIfAbsent(rs.getString("group_name"), Group::new).addTeam(team);
         }
 
         rs.close();
         pstmt.close();
 
+        StandingsTable standingsTable = new StandingsTable(new ArrayList<>(groups.values()));
+        Map<String, List<Team>> groupStandings = new LinkedHashMap<>();
+        for (Group group : standingsTable.getGroups()) {
+            groupStandings.put(group.getName(), new ArrayList<>(standingsTable.getStandings(group)));
+        }
+        return groupStandings;
+    }
+
+    /**
+     * Lấy teams theo group và sắp xếp
+     */
+    public List<Team> getTeamsByGroupSorted(int tournamentId, String groupName) throws SQLException {
+        List<Team> teams = loadTeamsByGroup(tournamentId, loadTeamStatistics(tournamentId))
+            .getOrDefault(groupName, new ArrayList<>());
+
         // Sắp xếp  thay vì SQL ORDER BY
         return sortTeamsByStanding(teams);
     }
@@ -358,69 +312,87 @@ public class TeamService {
      * Sử dụng cho knockout stage
      */
     public List<Team> getTeamsByGroupSortedWithPlayers(int tournamentId, Group group) throws SQLException {
-        List<Team> teams = new ArrayList<>();
+        return getTeamsByGroupsSortedWithPlayers(tournamentId, List.of(group)).get(group);
+    }
+
+    /**
+     * Teams đã sắp xếp (kèm players) của nhiều groups: thống kê được load một lần cho tournament
+     * và players của tất cả teams bằng một truy vấn, thay vì lặp lại cho từng group
+     */
+    public Map<Group, List<Team>> getTeamsByGroupsSortedWithPlayers(int tournamentId, List<Group> groups)
+            throws SQLException {
+        Map<String, List<Team>> teamsByGroupName = loadTeamsByGroup(tournamentId, loadTeamStatistics(tournamentId));
+
+        Map<Group, List<Team>> teamsByGroup = new LinkedHashMap<>();
+        List<Team> allTeams = new ArrayList<>();
+        for (Group group : groups) {
+            List<Team> teams = teamsByGroupName.getOrDefault(group.getName(), new ArrayList<>());
+            teamsByGroup.put(group, teams);
+            allTeams.addAll(teams);
+        }
+
+        loadPlayersForTeams(allTeams);
+        for (List<Team> teams : teamsByGroup.values()) {
+            sortTeamsByStanding(teams);
+        }
+        return teamsByGroup;
+    }
+
+    /**
+     * Teams của tournament (chưa sắp xếp) theo tên group, đã gán thống kê
+     */
+    private Map<String, List<Team>> loadTeamsByGroup(int tournamentId, Map<Integer, TeamStatistics> statistics)
+            throws SQLException {
+        Map<String, List<Team>> teamsByGroup = new HashMap<>();
 
         String sql = """
             SELECT t.id, t.name, t.region, t.coach, t.medical_staff, t.is_host,
-                   t.group_id, t.tournament_id
+                   t.group_id, t.tournament_id, g.name AS group_name
             FROM teams t
             JOIN groups g ON t.group_id = g.id
-            WHERE t.tournament_id = ? AND g.name = ?
+            WHERE t.tournament_id = ?
         """;
 
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.getReadConnection().prepareStatement(sql);
         pstmt.setInt(1, tournamentId);
-        pstmt.setString(2, group.getName());
         ResultSet rs = pstmt.executeQuery();
 
         while (rs.next()) {
-            Team team = createTeamWithPlayersFromResultSet(rs);
-            calculateTeamStatistics(team, tournamentId);
-            teams.add(team);
+            Team team = createTeamFromResultSet(rs);
+            applyStatistics(team, statistics);
+            teamsByGroup.computeIfAbsent(rs.getString("group_name"), name -> new ArrayList<>()).add(team);
         }
 
         rs.close();
         pstmt.close();
 
-        // Sắp xếp
-        return sortTeamsByStanding(teams);
+        return teamsByGroup;
     }
 
     /**
-     * Inner class Comparator để sắp xếp teams theo thứ tự bảng xếp hạng
-     * Tuân theo quy định FIFA: Điểm -> Hiệu số -> Thẻ phạt -> Đối đầu -> Bốc thăm
-     * Tuân theo Open/Closed Principle - có thể mở rộng logic sắp xếp
+     * Inner class để cộng dồn thống kê vòng bảng của một team
      */
-    private static class TeamStandingComparator implements Comparator<Team> {
-        @Override
-        public int compare(Team t1, Team t2) {
-            // 1. So sánh điểm số (cao hơn = tốt hơn)
-            int pointsComparison = Integer.compare(t2.getPoints(), t1.getPoints());
-            if (pointsComparison != 0) {
-                return pointsComparison;
-            }
-
-            // 2. So sánh hiệu số bàn thắng (cao hơn = tốt hơn)
-            int goalDiffComparison = Integer.compare(t2.getGoalDifference(), t1.getGoalDifference());
-            if (goalDiffComparison != 0) {
-                return goalDiffComparison;
-            }
+    private static class TeamStatistics {
+        int wins;
+        int draws;
+        int losses;
+        int goalsFor;
+        int goalsAgainst;
+        int yellowCards;
+        int redCards;
+        int substitutionCount;
+
+        void addResult(int teamScore, int opponentScore) {
+            goalsFor += teamScore;
+            goalsAgainst += opponentScore;
 
-            // 3. So sánh số thẻ bị phạt (ít hơn = tốt hơn)
-            // Quy định FIFA: 1 thẻ đỏ = 2 thẻ vàng
-            int t1TotalCards = t1.getYellowCards() + (t1.getRedCards() * 2);
-            int t2TotalCards = t2.getYellowCards() + (t2.getRedCards() * 2);
-            int cardsComparison = Integer.compare(t1TotalCards, t2TotalCards);
-            if (cardsComparison != 0) {
-                return cardsComparison;
+            if (teamScore > opponentScore) {
+                wins++;
+            } else if (teamScore == opponentScore) {
+                draws++;
+            } else {
+                losses++;
             }
-
-            // 4. Kết quả đối đầu trực tiếp (chưa implement - cần thêm logic phức tạp)
-            // TODO: Implement head-to-head comparison for exactly 2 teams
-
-            // 5. Bốc thăm (sử dụng tên đội để đảm bảo tính nhất quán)
-            // Trong thực tế sẽ là random, nhưng để test ổn định ta dùng alphabetical
-            return t1.getName().compareTo(t2.getName());
         }
     }
 }
\ No newline at end of file
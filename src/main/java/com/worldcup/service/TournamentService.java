@@ -1,9 +1,10 @@
 package com.worldcup.service;
 
+import com.worldcup.manager.ScorerLeaderboard;
 import com.worldcup.model.Group;
 import com.worldcup.model.Team;
 import com.worldcup.database.DatabaseManager;
-import com.worldcup.service.PlayerService.PlayerGoalStats;
+import com.worldcup.repository.memory.InMemoryStore;
 import java.sql.*;
 import java.util.*;
 
@@ -14,47 +15,115 @@ import java.util.*;
 public class TournamentService {
     private DatabaseManager dbManager;
     private TeamService teamService;
-    private PlayerService playerService;
+    // Khác null thì vua phá lưới được đọc từ bảng xếp hạng trong bộ nhớ khi bảng có đủ goals của tournament
+    private final ScorerLeaderboard scorerLeaderboard;
+    // Khác null với backend memory: thống kê và winners của tournament được đọc / ghi trong store
+    private final InMemoryStore memoryStore;
     
     public TournamentService(DatabaseManager dbManager) {
+        this(dbManager, null);
+    }
+
+    public TournamentService(DatabaseManager dbManager, ScorerLeaderboard scorerLeaderboard) {
+        this(dbManager, scorerLeaderboard, null);
+    }
+
+    public TournamentService(DatabaseManager dbManager, ScorerLeaderboard scorerLeaderboard, InMemoryStore memoryStore) {
         this.dbManager = dbManager;
         this.teamService = new TeamService(dbManager);
-        this.playerService = new PlayerService(dbManager);
+        this.scorerLeaderboard = scorerLeaderboard;
+        this.memoryStore = memoryStore;
     }
     
     /**
-     * Tính toán tất cả thống kê tournament bằng Java thay vì SQL
+     * Tính toán tất cả thống kê tournament trong một truy vấn duy nhất.
+     * Các counters và vua phá lưới được aggregate trong SQLite thay vì kéo từng row về Java.
+     * Nếu ScorerLeaderboard đã có đủ goals của tournament thì bỏ phần GROUP BY vua phá lưới khỏi truy vấn.
      */
     public TournamentStats calculateTournamentStats(int tournamentId) throws SQLException {
-        TournamentStats stats = new TournamentStats();
-        
-        // 1. Tính tổng số trận đấu bằng Java
-        stats.totalMatches = calculateTotalMatches(tournamentId);
-        
-        // 2. Tính tổng số bàn thắng bằng Java
-        stats.totalGoals = calculateTotalGoals(tournamentId);
+        if (memoryStore != null) {
+            return calculateTournamentStatsInMemory(tournamentId);
+        }
+        boolean fromLeaderboard = scorerLeaderboard != null && scorerLeaderboard.isComplete(tournamentId);
+        String topScorerSql = fromLeaderboard
+            ? "SELECT NULL AS player_id, NULL AS player_name, NULL AS goals WHERE 0"
+            : """
+                SELECT p.id AS player_id, p.name AS player_name, COUNT(*) AS goals
+                FROM goals g
+                JOIN players p ON g.player_id = p.id
+                WHERE p.team_id IN tournament_teams
+                GROUP BY p.id
+                ORDER BY goals DESC, p.name ASC
+                LIMIT 1
+            """;
+
+        String sql = """
+            WITH tournament_teams AS (
+                SELECT id FROM teams WHERE tournament_id = ?
+            ),
+            match_totals AS (
+                SELECT COUNT(*) AS total_matches
+                FROM matches
+                WHERE team_a_id IN tournament_teams AND team_b_id IN tournament_teams
+            ),
+            goal_totals AS (
+                SELECT COUNT(*) AS total_goals
+                FROM goals
+                WHERE team_id IN tournament_teams
+            ),
+            card_totals AS (
+                SELECT COALESCE(SUM(card_type = 'YELLOW'), 0) AS total_yellow_cards,
+                       COALESCE(SUM(card_type = 'RED'), 0) AS total_red_cards
+                FROM cards
+                WHERE team_id IN tournament_teams
+            ),
+            substitution_totals AS (
+                SELECT COUNT(*) AS total_substitutions
+                FROM substitutions
+                WHERE team_id IN tournament_teams
+            ),
+            top_scorer AS (
+                %s
+            )
+            SELECT mt.total_matches, gt.total_goals, ct.total_yellow_cards, ct.total_red_cards,
+                   st.total_substitutions, ts.player_id, ts.player_name, ts.goals AS top_scorer_goals
+            FROM match_totals mt
+            CROSS JOIN goal_totals gt
+            CROSS JOIN card_totals ct
+            CROSS JOIN substitution_totals st
+            LEFT JOIN top_scorer ts ON 1 = 1
+        """.formatted(topScorerSql);
+        
+        PreparedStatement pstmt = dbManager.getReadConnection().prepareStatement(sql);
+        pstmt.setInt(1, tournamentId);
+        ResultSet rs = pstmt.executeQuery();
         
-        // 3. Tính tổng số thẻ bằng Java
-        CardStats cardStats = calculateTotalCards(tournamentId);
-        stats.totalYellowCards = cardStats.yellowCards;
-        stats.totalRedCards = cardStats.redCards;
+        TournamentStats stats = new TournamentStats();
+        if (rs.next()) {
+            stats.totalMatches = rs.getInt("total_matches");
+            stats.totalGoals = rs.getInt("total_goals");
+            stats.totalYellowCards = rs.getInt("total_yellow_cards");
+            stats.totalRedCards = rs.getInt("total_red_cards");
+            stats.totalSubstitutions = rs.getInt("total_substitutions");
+            stats.topScorerId = rs.getInt("player_id");
+            stats.topScorerName = rs.getString("player_name");
+            stats.topScorerGoals = rs.getInt("top_scorer_goals");
+        }
         
-        // 4. tỉnh tổng thay thế người
-        stats.totalSubstitutions = calculateTotalSubstitutions(tournamentId);
+        rs.close();
+        pstmt.close();
+
+        if (fromLeaderboard) {
+            scorerLeaderboard.leader().ifPresent(leader -> {
+                stats.topScorerId = leader.getPlayerId();
+                stats.topScorerName = leader.getPlayerName();
+                stats.topScorerGoals = leader.getGoals();
+            });
+        }
         
-        // 5. Tìm vua phá lưới bằng Java
-        List<PlayerGoalStats> topScorers = playerService.getTopScorersCalculatedInJava(tournamentId, 1);
-        if (!topScorers.isEmpty()) {
-            PlayerGoalStats topScorer = topScorers.get(0);
-            stats.topScorerId = topScorer.getPlayerId();
-            stats.topScorerName = topScorer.getPlayerName();
-            stats.topScorerGoals = topScorer.getGoals();
-            
-            
-        } else {
+        if (stats.topScorerName == null) {
             // Không có cầu thủ nào ghi bàn
             stats.topScorerId = 0;
-            stats.topScorerName = null;
             stats.topScorerGoals = 0;
             System.out.printf("ℹ️ Tournament %d: Chưa có cầu thủ nào ghi bàn\n", tournamentId);
         }
@@ -63,26 +132,43 @@ public class TournamentService {
     }
     
     /**
-     * Tính tổng số trận đấu bằng cách đếm trong Java
+     * Cùng các counters và vua phá lưới như truy vấn SQL, tính trên InMemoryStore
+     */
+    private TournamentStats calculateTournamentStatsInMemory(int tournamentId) {
+        InMemoryStore.TournamentTotals totals = memoryStore.tournamentTotals(tournamentId);
+        TournamentStats stats = new TournamentStats();
+        stats.totalMatches = totals.totalMatches;
+        stats.totalGoals = totals.totalGoals;
+        stats.totalYellowCards = totals.totalYellowCards;
+        stats.totalRedCards = totals.totalRedCards;
+        stats.totalSubstitutions = totals.totalSubstitutions;
+        stats.topScorerId = totals.topScorerId;
+        stats.topScorerName = totals.topScorerName;
+        stats.topScorerGoals = totals.topScorerGoals;
+        if (stats.topScorerName == null) {
+            System.out.printf("ℹ️ Tournament %d: Chưa có cầu thủ nào ghi bàn\n", tournamentId);
+        }
+        return stats;
+    }
+
+    /**
+     * Tính tổng số trận đấu của tournament
      */
     private int calculateTotalMatches(int tournamentId) throws SQLException {
         String sql = """
-            SELECT m.id
+            SELECT COUNT(*)
             FROM matches m
             JOIN teams ta ON m.team_a_id = ta.id
             JOIN teams tb ON m.team_b_id = tb.id
             WHERE ta.tournament_id = ? AND tb.tournament_id = ?
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.getReadConnection().prepareStatement(sql);
         pstmt.setInt(1, tournamentId);
         pstmt.setInt(2, tournamentId);
         ResultSet rs = pstmt.executeQuery();
         
-        int count = 0;
-        while (rs.next()) {
-            count++; // Đếm bằng Java thay vì COUNT() trong SQL
-        }
+        int count = rs.next() ? rs.getInt(1) : 0;
         
         rs.close();
         pstmt.close();
@@ -91,84 +177,21 @@ public class TournamentService {
     }
     
     /**
-     * Tính tổng số bàn thắng bằng cách cộng dồn trong Java
-     */
-    private int calculateTotalGoals(int tournamentId) throws SQLException {
-        String sql = """
-            SELECT g.id
-            FROM goals g
-            JOIN teams t ON g.team_id = t.id
-            WHERE t.tournament_id = ?
-        """;
-        
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
-        pstmt.setInt(1, tournamentId);
-        ResultSet rs = pstmt.executeQuery();
-        
-        int totalGoals = 0;
-        while (rs.next()) {
-            totalGoals++; // Cộng dồn bằng Java thay vì SUM() trong SQL
-        }
-        
-        rs.close();
-        pstmt.close();
-        
-        return totalGoals;
-    }
-    
-    /**
-     * Tính tổng số thẻ bằng cách phân loại và đếm trong Java
-     */
-    private CardStats calculateTotalCards(int tournamentId) throws SQLException {
-        String sql = """
-            SELECT c.card_type
-            FROM cards c
-            JOIN teams t ON c.team_id = t.id
-            WHERE t.tournament_id = ?
-        """;
-        
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
-        pstmt.setInt(1, tournamentId);
-        ResultSet rs = pstmt.executeQuery();
-        
-        int yellowCards = 0;
-        int redCards = 0;
-        
-        // Phân loại và đếm bằng Java thay vì GROUP BY và COUNT() trong SQL
-        while (rs.next()) {
-            String cardType = rs.getString("card_type");
-            if ("YELLOW".equals(cardType)) {
-                yellowCards++;
-            } else if ("RED".equals(cardType)) {
-                redCards++;
-            }
-        }
-        
-        rs.close();
-        pstmt.close();
-        
-        return new CardStats(yellowCards, redCards);
-    }
-    
-    /**
-     * Tính tổng số thay người bằng cách đếm trong Java
+     * Tính tổng số thay người của tournament
      */
     private int calculateTotalSubstitutions(int tournamentId) throws SQLException {
         String sql = """
-            SELECT s.id
+            SELECT COUNT(*)
             FROM substitutions s
             JOIN teams t ON s.team_id = t.id
             WHERE t.tournament_id = ?
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.getReadConnection().prepareStatement(sql);
         pstmt.setInt(1, tournamentId);
         ResultSet rs = pstmt.executeQuery();
         
-        int count = 0;
-        while (rs.next()) {
-            count++; // Đếm bằng Java thay vì COUNT() trong SQL
-        }
+        int count = rs.next() ? rs.getInt(1) : 0;
         
         rs.close();
         pstmt.close();
@@ -180,18 +203,8 @@ public class TournamentService {
      * Lấy bảng xếp hạng của tất cả các bảng đấu, sắp xếp bằng Java
      */
     public Map<String, List<Team>> getAllGroupStandingsCalculatedInJava(int tournamentId) throws SQLException {
-        Map<String, List<Team>> groupStandings = new HashMap<>();
-        
-        // Lấy tất cả tên bảng
-        List<String> groupNames = getAllGroupNames(tournamentId);
-        
-        // Tính toán bảng xếp hạng cho từng bảng
-        for (String groupName : groupNames) {
-            List<Team> teams = teamService.getTeamsByGroupSorted(tournamentId, groupName);
-            groupStandings.put(groupName, teams);
-        }
-        
-        return groupStandings;
+        // Load teams và thống kê một lần cho tất cả các bảng thay vì từng bảng
+        return teamService.getGroupStandings(tournamentId);
     }
     
     /**
@@ -199,38 +212,8 @@ public class TournamentService {
      * Sử dụng cho knockout stage
      */
     public Map<Group, List<Team>> getAllGroupStandings(int tournamentId, List<Group> groups) throws SQLException {
-        Map<Group, List<Team>> groupStandings = new HashMap<>();
-
-        for (Group group : groups) {
-            List<Team> teams = teamService.getTeamsByGroupSortedWithPlayers(tournamentId, group);
-            groupStandings.put(group, teams);
-        }
-        
-        return groupStandings;
-    }
-    
-    /**
-     * Lấy tất cả tên bảng đấu
-     */
-    private List<String> getAllGroupNames(int tournamentId) throws SQLException {
-        List<String> groupNames = new ArrayList<>();
-        
-        String sql = "SELECT name FROM groups WHERE tournament_id = ?";
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
-        pstmt.setInt(1, tournamentId);
-        ResultSet rs = pstmt.executeQuery();
-        
-        while (rs.next()) {
-            groupNames.add(rs.getString("name"));
-        }
-        
-        rs.close();
-        pstmt.close();
-        
-        // Sắp xếp tên bảng bằng Java
-        Collections.sort(groupNames);
-        
-        return groupNames;
+        // Thống kê và players được load một lần cho tất cả các bảng
+        return teamService.getTeamsByGroupsSortedWithPlayers(tournamentId, groups);
     }
     
     /**
@@ -266,24 +249,14 @@ public class TournamentService {
         return (double) stats.totalGoals / stats.totalMatches;
     }
     
-    /**
-     * Inner class để lưu thống kê thẻ
-     */
-    private static class CardStats {
-        int yellowCards;
-        int redCards;
-        
-        CardStats(int yellowCards, int redCards) {
-            this.yellowCards = yellowCards;
-            this.redCards = redCards;
-        }
-    }
-    
     /**
      * Cập nhật champion, runner-up và 2 đội đồng hạng 3 cho tournament
      */
     public void updateTournamentWinners(int tournamentId, Integer championId, Integer runnerUpId, Integer thirdPlaceId01, Integer thirdPlaceId02) throws SQLException {
-
+        if (memoryStore != null) {
+            memoryStore.updateTournamentWinners(tournamentId, championId, runnerUpId, thirdPlaceId01, thirdPlaceId02);
+            return;
+        }
     
         // Kiểm tra xem tournament_stats record có tồn tại không
         ensureTournamentStatsExists(tournamentId);
@@ -430,7 +403,7 @@ public class TournamentService {
             WHERE ts.tournament_id = ?
         """;
         
-        PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement pstmt = dbManager.getReadConnection().prepareStatement(sql);
         pstmt.setInt(1, tournamentId);
         ResultSet rs = pstmt.executeQuery();
         
@@ -472,6 +445,11 @@ public class TournamentService {
      * Cập nhật hoặc insert tournament stats vào database
      */
     private void updateOrInsertTournamentStats(int tournamentId, TournamentStats stats) throws SQLException {
+        if (memoryStore != null) {
+            memoryStore.saveTournamentStats(tournamentId, stats.totalGoals, stats.totalMatches, stats.totalYellowCards,
+                    stats.totalRedCards, stats.totalSubstitutions, stats.topScorerId, stats.topScorerGoals);
+            return;
+        }
         // Kiểm tra xem đã có record chưa
         String checkSql = "SELECT COUNT(*) FROM tournament_stats WHERE tournament_id = ?";
         PreparedStatement checkStmt = dbManager.getConnection().prepareStatement(checkSql);
@@ -549,7 +527,7 @@ public class TournamentService {
         try {
             // Lấy tất cả tournaments
             String selectTournamentsSql = "SELECT id, name FROM tournaments ORDER BY id";
-            PreparedStatement stmt = dbManager.getConnection().prepareStatement(selectTournamentsSql);
+            PreparedStatement stmt = dbManager.getReadConnection().prepareStatement(selectTournamentsSql);
             ResultSet rs = stmt.executeQuery();
 
             int count = 0;
@@ -603,7 +581,7 @@ public class TournamentService {
                 ORDER BY t.year DESC, t.id DESC
             """;
 
-            PreparedStatement stmt = dbManager.getConnection().prepareStatement(sql);
+            PreparedStatement stmt = dbManager.getReadConnection().prepareStatement(sql);
             ResultSet rs = stmt.executeQuery();
 
             while (rs.next()) {
@@ -647,7 +625,7 @@ public class TournamentService {
             LIMIT 1
         """;
 
-        PreparedStatement stmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement stmt = dbManager.getReadConnection().prepareStatement(sql);
         stmt.setInt(1, tournamentId);
         ResultSet rs = stmt.executeQuery();
 
@@ -682,7 +660,7 @@ public class TournamentService {
             WHERE tournament_id = ?
         """;
 
-        PreparedStatement stmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement stmt = dbManager.getReadConnection().prepareStatement(sql);
         stmt.setInt(1, tournamentId);
         ResultSet rs = stmt.executeQuery();
 
@@ -708,7 +686,7 @@ public class TournamentService {
             WHERE t.tournament_id = ? AND c.card_type = 'YELLOW'
         """;
 
-        PreparedStatement stmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement stmt = dbManager.getReadConnection().prepareStatement(sql);
         stmt.setInt(1, tournamentId);
         ResultSet rs = stmt.executeQuery();
 
@@ -734,7 +712,7 @@ public class TournamentService {
             WHERE t.tournament_id = ? AND c.card_type = 'RED'
         """;
 
-        PreparedStatement stmt = dbManager.getConnection().prepareStatement(sql);
+        PreparedStatement stmt = dbManager.getReadConnection().prepareStatement(sql);
         stmt.setInt(1, tournamentId);
         ResultSet rs = stmt.executeQuery();
 
@@ -0,0 +1,233 @@
+package com.worldcup.simulation;
+
+import com.worldcup.model.KnockoutBracket;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Xác suất chính xác mỗi đội thắng từng vòng của nhánh đấu knockout, tính bằng quy hoạch động thay vì Monte Carlo.
+ * Với p[i][j] là xác suất đội i thắng đội j và P(i, r) là xác suất i thắng hết r vòng đầu:
+ * P(i, r + 1) = P(i, r) * tổng P(j, r) * p[i][j] trên các đội j ở nửa nhánh đối diện của trận vòng r.
+ * Mỗi vòng tốn O(n * kích thước nhánh) nên cả nhánh là O(n²), không phụ thuộc số lần mô phỏng.
+ *
+ * Trận đã có kết quả trong KnockoutBracket (kể cả trận có BYE) được tính là chắc chắn,
+ * nên có thể giải lại giữa giải đấu sau mỗi vòng.
+ */
+public class KnockoutProbabilitySolver {
+
+    // Sai số cho phép khi kiểm tra p[i][j] + p[j][i] = 1
+    private static final double EPSILON = 1e-9;
+
+    private final double[][] winProbability;
+
+    /**
+     * @param winProbability winProbability[i][j] là xác suất đội i thắng đội j (kể cả loạt penalty)
+     */
+    public KnockoutProbabilitySolver(double[][] winProbability) {
+        int size = winProbability.length;
+        for (int i = 0; i < size; i++) {
+            if (winProbability[i].length != size) {
+                throw new IllegalArgumentException("Ma trận xác suất phải là ma trận vuông.");
+            }
+            for (int j = 0; j < size; j++) {
+                double p = winProbability[i][j];
+                if (!(p >= 0.0 && p <= 1.0)) {
+                    throw new IllegalArgumentException("Xác suất [" + i + "][" + j + "] phải nằm trong [0, 1].");
+                }
+                if (i != j && Math.abs(p + winProbability[j][i] - 1.0) > EPSILON) {
+                    throw new IllegalArgumentException("Xác suất [" + i + "][" + j + "] và [" + j + "][" + i
+                            + "] phải có tổng bằng 1.");
+                }
+            }
+        }
+        this.winProbability = winProbability;
+    }
+
+    /**
+     * Ma trận mọi trận 50/50, giống knockout của MonteCarloEngine / WorldCupAutomation
+     * (phân phối tỉ số đối xứng, hòa thì bốc thăm penalty)
+     */
+    public static double[][] evenMatrix(int teamCount) {
+        double[][] matrix = new double[teamCount][teamCount];
+        for (double[] row : matrix) {
+            Arrays.fill(row, 0.5);
+        }
+        return matrix;
+    }
+
+    /**
+     * Giải toàn bộ nhánh đấu trong một lần duyệt
+     */
+    public Result solve(KnockoutBracket bracket) {
+        int teamCount = bracket.getTeamCount();
+        if (teamCount > winProbability.length) {
+            throw new IllegalArgumentException("Ma trận xác suất chỉ có " + winProbability.length
+                    + " đội, nhánh đấu có " + teamCount + " đội.");
+        }
+
+        int capacity = bracket.getCapacity();
+        int rounds = bracket.getRoundCount();
+
+        // Đội ở từng vị trí lá, xác suất theo vị trí để hai nửa nhánh là hai đoạn liên tiếp
+        int[] teamAt = new int[capacity];
+        double[] current = new double[capacity];
+        for (int position = 0; position < capacity; position++) {
+            teamAt[position] = bracket.getEntrant(position);
+            current[position] = teamAt[position] == KnockoutBracket.BYE ? 0.0 : 1.0;
+        }
+
+        // reach[r][team]: xác suất thắng r vòng đầu, reach[rounds] là xác suất vô địch
+        double[][] reach = new double[rounds + 1][teamCount];
+        record(reach[0], teamAt, current);
+
+        double[] next = new double[capacity];
+        for (int round = 0; round < rounds; round++) {
+            int half = 1 << round;
+            for (int start = 0; start < capacity; start += 2 * half) {
+                int match = (capacity + start) >> (round + 1);
+                int winner = bracket.getWinner(match);
+                if (winner != KnockoutBracket.UNDECIDED) {
+                    // Kết quả đã biết (hoặc đối thủ là BYE): đội thắng đi tiếp chắc chắn
+                    for (int position = start; position < start + 2 * half; position++) {
+                        next[position] = teamAt[position] == winner ? 1.0 : 0.0;
+                    }
+                } else {
+                    advance(current, next, teamAt, start, start + half, half);
+                    advance(current, next, teamAt, start + half, start, half);
+                }
+            }
+
+            double[] swap = current;
+            current = next;
+            next = swap;
+            record(reach[round + 1], teamAt, current);
+        }
+        return new Result(reach);
+    }
+
+    /**
+     * Xác suất đi tiếp của các đội trong nửa nhánh [from, from + half) khi gặp nửa nhánh [opponents, opponents + half)
+     */
+    private void advance(double[] current, double[] next, int[] teamAt, int from, int opponents, int half) {
+        for (int position = from; position < from + half; position++) {
+            double reached = current[position];
+            if (reached == 0.0) {
+                next[position] = 0.0;
+                continue;
+            }
+
+            double[] row = winProbability[teamAt[position]];
+            double win = 0.0;
+            for (int opponent = opponents; opponent < opponents + half; opponent++) {
+                double opponentReached = current[opponent];
+                if (opponentReached != 0.0) {
+                    win += opponentReached * row[teamAt[opponent]];
+                }
+            }
+            next[position] = reached * win;
+        }
+    }
+
+    private static void record(double[] target, int[] teamAt, double[] probabilities) {
+        for (int position = 0; position < teamAt.length; position++) {
+            if (teamAt[position] != KnockoutBracket.BYE) {
+                target[teamAt[position]] = probabilities[position];
+            }
+        }
+    }
+
+    /**
+     * Xác suất của từng đội theo vòng, đội được đánh số như trong KnockoutBracket
+     */
+    public static final class Result {
+        private final double[][] reach;
+
+        Result(double[][] reach) {
+            this.reach = reach;
+        }
+
+        public int getRoundCount() {
+            return reach.length - 1;
+        }
+
+        public int getTeamCount() {
+            return reach[0].length;
+        }
+
+        /**
+         * Xác suất đội thắng trận của vòng round (tức là vào vòng round + 1)
+         */
+        public double getWinProbability(int team, int round) {
+            if (round < 0 || round >= getRoundCount()) {
+                throw new IndexOutOfBoundsException("Vòng " + round + " không tồn tại.");
+            }
+            return reach[round + 1][team];
+        }
+
+        /**
+         * Xác suất đội có mặt ở vòng round, round = getRoundCount() là vô địch
+         */
+        public double getReachProbability(int team, int round) {
+            return reach[round][team];
+        }
+
+        public double getChampionProbability(int team) {
+            return reach[getRoundCount()][team];
+        }
+    }
+
+    /**
+     * Cách dùng: KnockoutProbabilitySolver [số đội] [số lần mô phỏng để so sánh] [seed]
+     * Sức mạnh các đội được random theo Elo, in xác suất vô địch chính xác cạnh kết quả lấy mẫu
+     */
+    public static void main(String[] args) {
+        int teamCount = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        long iterations = args.length > 1 ? Long.parseLong(args[1]) : 100_000L;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] ratings = new double[teamCount];
+        for (int i = 0; i < teamCount; i++) {
+            ratings[i] = 1500 + random.nextDouble() * 400;
+        }
+        double[][] matrix = new double[teamCount][teamCount];
+        for (int i = 0; i < teamCount; i++) {
+            for (int j = 0; j < teamCount; j++) {
+                matrix[i][j] = i == j ? 0.5 : 1.0 / (1.0 + Math.pow(10, (ratings[j] - ratings[i]) / 400));
+            }
+        }
+
+        KnockoutBracket bracket = new KnockoutBracket(teamCount);
+        long start = System.nanoTime();
+        Result result = new KnockoutProbabilitySolver(matrix).solve(bracket);
+        double solveMillis = (System.nanoTime() - start) / 1e6;
+
+        // Lấy mẫu trên bản sao của nhánh đấu, chép lại trạng thái ban đầu trước mỗi lần
+        long[] champions = new long[teamCount];
+        KnockoutBracket work = bracket.copy();
+        start = System.nanoTime();
+        for (long n = 0; n < iterations; n++) {
+            work.copyFrom(bracket);
+            for (int round = 0; round < work.getRoundCount(); round++) {
+                for (int i = 0; i < work.getMatchCount(round); i++) {
+                    int match = work.getMatch(round, i);
+                    if (work.isPlayable(match)) {
+                        int teamA = work.getTeamA(match);
+                        int teamB = work.getTeamB(match);
+                        work.recordWinner(match, random.nextDouble() < matrix[teamA][teamB]);
+                    }
+                }
+            }
+            champions[work.getChampion()]++;
+        }
+        double sampleMillis = (System.nanoTime() - start) / 1e6;
+
+        System.out.printf("%-6s %8s %12s %12s%n", "Đội", "Elo", "Chính xác", "Lấy mẫu");
+        for (int team = 0; team < teamCount; team++) {
+            System.out.printf("%-6d %8.0f %11.2f%% %11.2f%%%n", team, ratings[team],
+                    result.getChampionProbability(team) * 100, (double) champions[team] / iterations * 100);
+        }
+        System.out.printf("Quy hoạch động: %.3f ms, %d lần lấy mẫu: %.1f ms%n", solveMillis, iterations, sampleMillis);
+    }
+}
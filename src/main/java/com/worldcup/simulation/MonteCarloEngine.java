@@ -0,0 +1,311 @@
+package com.worldcup.simulation;
+
+import com.worldcup.generator.DataGenerator;
+import com.worldcup.model.Group;
+import com.worldcup.model.Team;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Mô phỏng Monte Carlo hàng triệu kỳ World Cup hoàn toàn trong bộ nhớ, không ghi database.
+ * Teams và Groups chỉ được đọc một lần để đánh số, mỗi giải chỉ làm việc trên mảng int:
+ * vòng bảng xếp hạng giống TeamStandingComparator (điểm, hiệu số, thẻ phạt, tên),
+ * vòng 16 ghép cặp giống KnockoutStageManager (A1-B2, B1-A2, ...), hòa ở knockout thì bốc thăm penalty.
+ * Phân phối tỉ số và thẻ phạt giống DataGenerator / MatchService.
+ *
+ * Số giải được chia thành các chunk cố định, mỗi chunk có SplittableRandom riêng tách từ seed
+ * nên kết quả chỉ phụ thuộc seed, không phụ thuộc số thread.
+ */
+public class MonteCarloEngine {
+
+    public static final int GROUP_COUNT = 8;
+    static final int CHUNK_SIZE = 8192;
+
+    // Phân phối tổng số bàn thắng giống DataGenerator.generateRandomGoals
+    private static final double[] GOAL_THRESHOLDS = {0.15, 0.35, 0.60, 0.80, 0.95};
+    private static final double YELLOW_CARD_CHANCE = 0.3;
+    private static final double RED_CARD_CHANCE = 0.05;
+
+    private final List<String> teamNames;
+    private final int[][] groupTeams;
+    private final int[] nameRank;
+
+    public MonteCarloEngine(List<Group> groups) {
+        if (groups == null || groups.size() != GROUP_COUNT) {
+            throw new IllegalArgumentException("Cần đúng " + GROUP_COUNT + " bảng đấu để mô phỏng.");
+        }
+
+        List<String> names = new ArrayList<>();
+        Map<Team, Integer> indexes = new HashMap<>();
+        groupTeams = new int[groups.size()][];
+        for (int g = 0; g < groups.size(); g++) {
+            List<Team> teams = groups.get(g).getTeams();
+            if (teams.size() < 2) {
+                throw new IllegalArgumentException("Bảng " + groups.get(g).getName() + " cần ít nhất 2 đội.");
+            }
+
+            groupTeams[g] = new int[teams.size()];
+            for (int i = 0; i < teams.size(); i++) {
+                Team team = teams.get(i);
+                if (indexes.containsKey(team)) {
+                    throw new IllegalArgumentException("Đội " + team.getName() + " nằm trong nhiều bảng.");
+                }
+                indexes.put(team, names.size());
+                groupTeams[g][i] = names.size();
+                names.add(team.getName());
+            }
+        }
+        teamNames = Collections.unmodifiableList(names);
+
+        // Thứ tự tên dùng cho tiêu chí bốc thăm cuối cùng của TeamStandingComparator
+        List<String> sortedNames = new ArrayList<>(names);
+        Collections.sort(sortedNames);
+        nameRank = new int[names.size()];
+        for (int i = 0; i < names.size(); i++) {
+            nameRank[i] = sortedNames.indexOf(names.get(i));
+        }
+    }
+
+    public List<String> getTeamNames() {
+        return teamNames;
+    }
+
+    /**
+     * Mô phỏng song song với số thread bằng số core
+     */
+    public MonteCarloResult run(long iterations, long seed) throws InterruptedException {
+        return run(iterations, seed, Runtime.getRuntime().availableProcessors());
+    }
+
+    public MonteCarloResult run(long iterations, long seed, int threads) throws InterruptedException {
+        if (iterations < 0) {
+            throw new IllegalArgumentException("Số lần mô phỏng không được âm.");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("Số thread phải lớn hơn 0.");
+        }
+
+        long[][] counts = new long[MonteCarloResult.Stage.values().length][teamNames.size()];
+        SplittableRandom root = new SplittableRandom(seed);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[][]>> chunks = new ArrayList<>();
+            for (long start = 0; start < iterations; start += CHUNK_SIZE) {
+                SplittableRandom random = root.split();
+                long size = Math.min(CHUNK_SIZE, iterations - start);
+                chunks.add(pool.submit(() -> simulateChunk(random, size)));
+            }
+
+            for (Future<long[][]> chunk : chunks) {
+                long[][] chunkCounts = chunk.get();
+                for (int stage = 0; stage < counts.length; stage++) {
+                    for (int team = 0; team < teamNames.size(); team++) {
+                        counts[stage][team] += chunkCounts[stage][team];
+                    }
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Lỗi khi mô phỏng: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        return new MonteCarloResult(teamNames, counts, iterations);
+    }
+
+    private long[][] simulateChunk(SplittableRandom random, long size) {
+        Workspace workspace = new Workspace(teamNames.size());
+        long[][] counts = new long[MonteCarloResult.Stage.values().length][teamNames.size()];
+        for (long i = 0; i < size; i++) {
+            simulateTournament(random, workspace, counts);
+        }
+        return counts;
+    }
+
+    /**
+     * Một giải: vòng bảng rồi 4 vòng knockout, cộng dồn số lần mỗi đội đạt tới từng vòng
+     */
+    private void simulateTournament(SplittableRandom random, Workspace workspace, long[][] counts) {
+        int[] firstPlace = workspace.firstPlace;
+        int[] secondPlace = workspace.secondPlace;
+        for (int g = 0; g < groupTeams.length; g++) {
+            simulateGroup(random, workspace, g);
+        }
+
+        // Vòng 16: nhất bảng g gặp nhì bảng cặp đôi (A-B, C-D, ...)
+        int[] bracket = workspace.bracket;
+        for (int g = 0; g < groupTeams.length; g++) {
+            bracket[2 * g] = firstPlace[g];
+            bracket[2 * g + 1] = secondPlace[g ^ 1];
+        }
+
+        int size = bracket.length;
+        for (int stage = 0; stage < counts.length; stage++) {
+            for (int i = 0; i < size; i++) {
+                counts[stage][bracket[i]]++;
+            }
+            if (size == 1) {
+                break;
+            }
+
+            for (int i = 0; i < size / 2; i++) {
+                bracket[i] = playKnockout(random, bracket[2 * i], bracket[2 * i + 1]);
+            }
+            size /= 2;
+        }
+    }
+
+    private void simulateGroup(SplittableRandom random, Workspace workspace, int group) {
+        int[] teams = groupTeams[group];
+        int[] points = workspace.points;
+        int[] goalDifference = workspace.goalDifference;
+        int[] cards = workspace.cards;
+
+        for (int team : teams) {
+            points[team] = 0;
+            goalDifference[team] = 0;
+            cards[team] = 0;
+        }
+
+        for (int i = 0; i < teams.length; i++) {
+            for (int j = i + 1; j < teams.length; j++) {
+                int teamA = teams[i];
+                int teamB = teams[j];
+                int total = randomTotalGoals(random);
+                int teamAGoals = total == 0 ? 0 : random.nextInt(total + 1);
+                int teamBGoals = total - teamAGoals;
+
+                goalDifference[teamA] += teamAGoals - teamBGoals;
+                goalDifference[teamB] += teamBGoals - teamAGoals;
+                if (teamAGoals > teamBGoals) {
+                    points[teamA] += 3;
+                } else if (teamBGoals > teamAGoals) {
+                    points[teamB] += 3;
+                } else {
+                    points[teamA]++;
+                    points[teamB]++;
+                }
+
+                // Thẻ đỏ tính bằng 2 thẻ vàng như TeamStandingComparator
+                cards[teamA] += randomCards(random);
+                cards[teamB] += randomCards(random);
+            }
+        }
+
+        // Chỉ cần nhất và nhì bảng
+        int first = -1;
+        int second = -1;
+        for (int team : teams) {
+            if (first < 0 || ranksAbove(workspace, team, first)) {
+                second = first;
+                first = team;
+            } else if (second < 0 || ranksAbove(workspace, team, second)) {
+                second = team;
+            }
+        }
+        workspace.firstPlace[group] = first;
+        workspace.secondPlace[group] = second;
+    }
+
+    private boolean ranksAbove(Workspace workspace, int team, int other) {
+        if (workspace.points[team] != workspace.points[other]) {
+            return workspace.points[team] > workspace.points[other];
+        }
+        if (workspace.goalDifference[team] != workspace.goalDifference[other]) {
+            return workspace.goalDifference[team] > workspace.goalDifference[other];
+        }
+        if (workspace.cards[team] != workspace.cards[other]) {
+            return workspace.cards[team] < workspace.cards[other];
+        }
+        return nameRank[team] < nameRank[other];
+    }
+
+    /**
+     * Trận knockout, hòa thì mỗi đội có 50% thắng loạt penalty
+     */
+    private int playKnockout(SplittableRandom random, int teamA, int teamB) {
+        int total = randomTotalGoals(random);
+        int teamAGoals = total == 0 ? 0 : random.nextInt(total + 1);
+        int teamBGoals = total - teamAGoals;
+
+        if (teamAGoals != teamBGoals) {
+            return teamAGoals > teamBGoals ? teamA : teamB;
+        }
+        return random.nextBoolean() ? teamA : teamB;
+    }
+
+    private static int randomTotalGoals(SplittableRandom random) {
+        double rand = random.nextDouble();
+        for (int goals = 0; goals < GOAL_THRESHOLDS.length; goals++) {
+            if (rand < GOAL_THRESHOLDS[goals]) {
+                return goals;
+            }
+        }
+        return 5 + random.nextInt(3);
+    }
+
+    private static int randomCards(SplittableRandom random) {
+        int cards = 0;
+        if (random.nextDouble() < YELLOW_CARD_CHANCE) {
+            cards++;
+        }
+        if (random.nextDouble() < RED_CARD_CHANCE) {
+            cards += 2;
+        }
+        return cards;
+    }
+
+    /**
+     * Mảng làm việc của một thread, dùng lại cho mọi giải để không cấp phát trong vòng lặp
+     */
+    private static class Workspace {
+        final int[] points;
+        final int[] goalDifference;
+        final int[] cards;
+        final int[] firstPlace = new int[GROUP_COUNT];
+        final int[] secondPlace = new int[GROUP_COUNT];
+        final int[] bracket = new int[GROUP_COUNT * 2];
+
+        Workspace(int teamCount) {
+            points = new int[teamCount];
+            goalDifference = new int[teamCount];
+            cards = new int[teamCount];
+        }
+    }
+
+    /**
+     * Cách dùng: MonteCarloEngine [số giải] [seed] [số thread]
+     */
+    public static void main(String[] args) throws Exception {
+        long iterations = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000L;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        // Bốc thăm 32 đội vào 8 bảng giống WorldCupAutomation, không cần database
+        DataGenerator.setSeed(seed);
+        List<Team> teams = DataGenerator.generateTeams(GROUP_COUNT * 4);
+        DataGenerator.random().shuffle(teams);
+        List<Group> groups = DataGenerator.getGroups();
+        for (int i = 0; i < teams.size(); i++) {
+            groups.get(i / 4).addTeam(teams.get(i));
+        }
+
+        MonteCarloEngine engine = new MonteCarloEngine(groups);
+        long start = System.nanoTime();
+        MonteCarloResult result = engine.run(iterations, seed, threads);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println(result);
+        System.out.printf("%d giải trong %.2f s với %d thread (%.0f giải/phút)%n",
+                iterations, seconds, threads, iterations / seconds * 60);
+    }
+}
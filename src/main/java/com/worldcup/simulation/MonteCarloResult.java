@@ -0,0 +1,110 @@
+package com.worldcup.simulation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Kết quả của MonteCarloEngine: số lần mỗi đội đạt tới từng vòng trên tổng số giải đã mô phỏng
+ */
+public class MonteCarloResult {
+
+    /**
+     * Các mốc được thống kê, theo thứ tự vòng đấu
+     */
+    public enum Stage {
+        ROUND_OF_16("Vòng 16"),
+        QUARTER("Tứ kết"),
+        SEMI_FINAL("Bán kết"),
+        FINAL("Chung kết"),
+        CHAMPION("Vô địch");
+
+        private final String label;
+
+        Stage(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private final List<String> teamNames;
+    private final long[][] counts;
+    private final long iterations;
+
+    MonteCarloResult(List<String> teamNames, long[][] counts, long iterations) {
+        this.teamNames = Collections.unmodifiableList(new ArrayList<>(teamNames));
+        this.counts = counts;
+        this.iterations = iterations;
+    }
+
+    public List<String> getTeamNames() {
+        return teamNames;
+    }
+
+    public long getIterations() {
+        return iterations;
+    }
+
+    public long getCount(String teamName, Stage stage) {
+        return counts[stage.ordinal()][indexOf(teamName)];
+    }
+
+    /**
+     * Xác suất đội đạt tới vòng stage (tính cả trường hợp đi tiếp các vòng sau)
+     */
+    public double getProbability(String teamName, Stage stage) {
+        return iterations == 0 ? 0.0 : (double) getCount(teamName, stage) / iterations;
+    }
+
+    /**
+     * Tên các đội sắp xếp theo xác suất vô địch giảm dần
+     */
+    public List<String> getTeamsByChampionProbability() {
+        Integer[] order = new Integer[teamNames.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        long[] champions = counts[Stage.CHAMPION.ordinal()];
+        Arrays.sort(order, (a, b) -> {
+            int comparison = Long.compare(champions[b], champions[a]);
+            return comparison != 0 ? comparison : teamNames.get(a).compareTo(teamNames.get(b));
+        });
+
+        List<String> sorted = new ArrayList<>(order.length);
+        for (int index : order) {
+            sorted.add(teamNames.get(index));
+        }
+        return sorted;
+    }
+
+    private int indexOf(String teamName) {
+        int index = teamNames.indexOf(teamName);
+        if (index < 0) {
+            throw new IllegalArgumentException("Đội " + teamName + " không có trong kết quả mô phỏng.");
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder table = new StringBuilder();
+        table.append(String.format("%-20s", "Đội"));
+        for (Stage stage : Stage.values()) {
+            table.append(String.format(" %10s", stage.getLabel()));
+        }
+        table.append('\n');
+
+        for (String teamName : getTeamsByChampionProbability()) {
+            table.append(String.format("%-20s", teamName));
+            for (Stage stage : Stage.values()) {
+                table.append(String.format(" %9.2f%%", getProbability(teamName, stage) * 100));
+            }
+            table.append('\n');
+        }
+        return table.toString();
+    }
+}
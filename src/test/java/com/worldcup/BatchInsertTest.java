@@ -0,0 +1,133 @@
+package com.worldcup;
+
+import com.worldcup.database.BatchInsert;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchInsertTest {
+
+    private static final String INSERT_HEAD = "INSERT INTO items (name, code)";
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                CREATE TABLE items (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    name TEXT NOT NULL,
+                    code INTEGER NOT NULL UNIQUE
+                )
+            """);
+            // Bảng đã có dữ liệu và id bị thủng để id mới không trùng với vị trí của row
+            statement.execute("INSERT INTO items (name, code) VALUES ('old-1', 1001), ('old-2', 1002), ('old-3', 1003)");
+            statement.execute("DELETE FROM items WHERE code = 1002");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    private List<String> names(int count) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            names.add("item-" + i);
+        }
+        return names;
+    }
+
+    private String nameOf(int id) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement("SELECT name FROM items WHERE id = ?")) {
+            pstmt.setInt(1, id);
+            ResultSet rs = pstmt.executeQuery();
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+
+    private static int code(String name) {
+        return Integer.parseInt(name.substring(name.indexOf('-') + 1));
+    }
+
+    @Test
+    void InsertReturningIds_NhieuRows_IdTraVeDungRowTheoThuTu() throws SQLException {
+        List<String> rows = names(50);
+
+        int[] ids = BatchInsert.insertReturningIds(connection, INSERT_HEAD, 2, rows,
+                (pstmt, offset, name) -> {
+                    pstmt.setString(offset, name);
+                    pstmt.setInt(offset + 1, code(name));
+                });
+
+        assertEquals(rows.size(), ids.length);
+        for (int i = 0; i < rows.size(); i++) {
+            assertEquals(rows.get(i), nameOf(ids[i]));
+        }
+    }
+
+    @Test
+    void InsertReturningIds_LoiKhiInsert_ThrowSQLException() {
+        List<String> rows = List.of("item-1", "item-1001");
+
+        assertThrows(SQLException.class, () -> BatchInsert.insertReturningIds(connection, INSERT_HEAD, 2, rows,
+                (pstmt, offset, name) -> {
+                    pstmt.setString(offset, name);
+                    pstmt.setInt(offset + 1, code(name));
+                }));
+    }
+
+    @Test
+    void InsertReturning_OnConflictBoQuaMotSoRows_MapIdTheoCotTuNhien() throws SQLException {
+        // code 1001, 1003 đã có trong bảng và code 7 bị lặp lại trong cùng batch
+        List<String> rows = List.of("item-1", "dup-1001", "item-7", "dup-1003", "again-7", "item-9");
+        Map<Integer, Integer> idByCode = new HashMap<>();
+
+        BatchInsert.insertReturning(connection, INSERT_HEAD, 2, rows,
+                (pstmt, offset, name) -> {
+                    pstmt.setString(offset, name);
+                    pstmt.setInt(offset + 1, code(name));
+                },
+                "ON CONFLICT(code) DO NOTHING",
+                "id, code",
+                rs -> idByCode.put(rs.getInt("code"), rs.getInt("id")));
+
+        assertEquals(3, idByCode.size());
+        assertEquals("item-1", nameOf(idByCode.get(1)));
+        assertEquals("item-7", nameOf(idByCode.get(7)));
+        assertEquals("item-9", nameOf(idByCode.get(9)));
+        assertFalse(idByCode.containsKey(1001));
+        assertEquals("old-1", nameOf(1));
+    }
+
+    @Test
+    void InsertReturning_OnConflict_LoiKhacVanThrowSQLException() {
+        List<String> rows = new ArrayList<>(List.of("item-1", "item-2"));
+        rows.add(null);
+
+        assertThrows(SQLException.class, () -> BatchInsert.insertReturning(connection, INSERT_HEAD, 2, rows,
+                (pstmt, offset, name) -> {
+                    pstmt.setString(offset, name);
+                    pstmt.setInt(offset + 1, name == null ? 99 : code(name));
+                },
+                "ON CONFLICT(code) DO NOTHING",
+                "id, code",
+                rs -> { }));
+    }
+}
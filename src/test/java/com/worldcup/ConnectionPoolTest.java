@@ -0,0 +1,134 @@
+package com.worldcup;
+
+import com.worldcup.database.ConnectionPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConnectionPoolTest {
+
+    @TempDir
+    Path directory;
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        pool = new ConnectionPool("jdbc:sqlite:" + directory.resolve("pool.db"), 2);
+        try (Statement statement = pool.getWriter().createStatement()) {
+            statement.execute("CREATE TABLE items (id INTEGER PRIMARY KEY, name TEXT)");
+            statement.execute("INSERT INTO items (name) VALUES ('first')");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    private String pragma(Connection connection, String name) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("PRAGMA " + name)) {
+            assertTrue(rs.next(), name);
+            return rs.getString(1);
+        }
+    }
+
+    private long countItems(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM items")) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    @Test
+    void Constructor_Writer_WalVaPragmaDaTune() throws SQLException {
+        Connection writer = pool.getWriter();
+
+        assertEquals("wal", pragma(writer, "journal_mode"));
+        assertEquals("1", pragma(writer, "synchronous"));
+        assertEquals("-20000", pragma(writer, "cache_size"));
+        assertEquals("2", pragma(writer, "temp_store"));
+        assertEquals("5000", pragma(writer, "busy_timeout"));
+    }
+
+    @Test
+    void GetReader_ReadOnlyVaCungPragma() throws SQLException {
+        Connection reader = pool.getReader();
+
+        assertNotSame(pool.getWriter(), reader);
+        assertEquals("wal", pragma(reader, "journal_mode"));
+        assertEquals("-20000", pragma(reader, "cache_size"));
+        try (Statement statement = reader.createStatement()) {
+            assertThrows(SQLException.class, () -> statement.execute("INSERT INTO items (name) VALUES ('reader')"));
+        }
+    }
+
+    @Test
+    void GetReader_CungThread_TraVeCungConnection() throws SQLException {
+        assertSame(pool.getReader(), pool.getReader());
+    }
+
+    @Test
+    void GetReader_HaiThread_RoundRobinSangReaderKhac() throws Exception {
+        ExecutorService first = Executors.newSingleThreadExecutor();
+        ExecutorService second = Executors.newSingleThreadExecutor();
+        try {
+            Connection firstReader = first.submit(pool::getReader).get();
+            Connection secondReader = second.submit(pool::getReader).get();
+
+            assertNotSame(firstReader, secondReader);
+            assertSame(firstReader, first.submit(pool::getReader).get());
+        } finally {
+            first.shutdown();
+            second.shutdown();
+        }
+    }
+
+    @Test
+    void GetReader_WriterDangGhi_ReaderKhongBiBlockVaThayDuLieuDaCommit() throws SQLException {
+        Connection writer = pool.getWriter();
+        Connection reader = pool.getReader();
+        writer.setAutoCommit(false);
+        try {
+            try (Statement statement = writer.createStatement()) {
+                statement.execute("INSERT INTO items (name) VALUES ('uncommitted')");
+            }
+
+            assertEquals(1, countItems(reader));
+
+            writer.commit();
+            assertEquals(2, countItems(reader));
+        } finally {
+            writer.setAutoCommit(true);
+        }
+    }
+
+    @Test
+    void Constructor_KhongCoReader_ThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ConnectionPool("jdbc:sqlite:" + directory.resolve("none.db"), 0));
+    }
+
+    @Test
+    void Close_DongWriterVaReaders() throws SQLException {
+        Connection writer = pool.getWriter();
+        Connection reader = pool.getReader();
+
+        pool.close();
+
+        assertTrue(writer.isClosed());
+        assertTrue(reader.isClosed());
+    }
+}
@@ -0,0 +1,159 @@
+package com.worldcup;
+
+import com.worldcup.model.Card;
+import com.worldcup.model.DisciplineEngine;
+import com.worldcup.model.Match;
+import com.worldcup.model.Player;
+import com.worldcup.model.Team;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DisciplineEngineTest {
+
+    private DisciplineEngine engine;
+    private Team brazil;
+    private Team spain;
+    private Player player;
+
+    @BeforeEach
+    void setUp() {
+        engine = new DisciplineEngine();
+        brazil = team("Brazil");
+        spain = team("Spain");
+        player = brazil.getStartingPlayers().get(0);
+    }
+
+    private Team team(String name) {
+        List<Player> starting = new ArrayList<>();
+        List<Player> substitutes = new ArrayList<>();
+        for (int i = 1; i <= 11; i++) {
+            starting.add(new Player(name + " Player " + i, i, "MF"));
+        }
+        for (int i = 12; i <= 16; i++) {
+            substitutes.add(new Player(name + " Player " + i, i, "MF"));
+        }
+        return new Team(name, "Europe", "Coach", List.of("Assistant1"), "Medical Staff",
+                starting, substitutes, false);
+    }
+
+    private void playMatch() {
+        engine.startMatch(new Match(brazil, spain, "Venue", "Referee", false));
+    }
+
+    @Test
+    void TheDo_TreoGioTranKeTiep() {
+        playMatch();
+        engine.applyCard(player, brazil, Card.CardType.RED);
+
+        assertFalse(engine.isEligible(brazil, player, 2));
+        assertFalse(engine.isEligibleForNextMatch(brazil, player));
+        assertEquals(1, engine.getRemainingSuspension(brazil, player));
+
+        playMatch();
+        assertTrue(engine.isEligibleForNextMatch(brazil, player));
+        assertEquals(0, engine.getRemainingSuspension(brazil, player));
+    }
+
+    @Test
+    void HaiTheVangHaiTranKhacNhau_TreoGioVaDemLai() {
+        playMatch();
+        engine.applyCard(player, brazil, Card.CardType.YELLOW);
+        assertEquals(1, engine.getYellowCards(brazil, player));
+        assertTrue(engine.isEligibleForNextMatch(brazil, player));
+
+        playMatch();
+        engine.applyCard(player, brazil, Card.CardType.YELLOW);
+
+        assertFalse(engine.isEligible(brazil, player, 3));
+        assertEquals(0, engine.getYellowCards(brazil, player));
+    }
+
+    @Test
+    void HaiTheVangCungTran_BiDuoi_TheDauKhongTinhTichLuy() {
+        playMatch();
+        engine.applyCard(player, brazil, Card.CardType.YELLOW);
+        engine.applyCard(player, brazil, Card.CardType.YELLOW);
+
+        assertFalse(engine.isEligible(brazil, player, 2));
+        assertEquals(0, engine.getYellowCards(brazil, player));
+        assertTrue(engine.isEligible(brazil, player, 3));
+    }
+
+    @Test
+    void TheVangTichLuyRoiTheVangThuHai_ChiMotAn() {
+        playMatch();
+        engine.applyCard(player, brazil, Card.CardType.YELLOW);
+        playMatch();
+        engine.applyCard(player, brazil, Card.CardType.YELLOW);
+        engine.applyCard(player, brazil, Card.CardType.YELLOW);
+        engine.applyCard(player, brazil, Card.CardType.RED);
+
+        assertEquals(1, engine.getRemainingSuspension(brazil, player));
+    }
+
+    @Test
+    void ResetYellowCards_XoaTichLuy_GiuAnDangCo() {
+        Player other = brazil.getStartingPlayers().get(1);
+        playMatch();
+        engine.applyCard(player, brazil, Card.CardType.YELLOW);
+        engine.applyCard(other, brazil, Card.CardType.RED);
+
+        engine.resetYellowCards();
+        playMatch();
+        engine.applyCard(player, brazil, Card.CardType.YELLOW);
+
+        assertEquals(1, engine.getYellowCards(brazil, player));
+        assertTrue(engine.isEligible(brazil, player, 3));
+        assertFalse(engine.isEligible(brazil, other, 2));
+    }
+
+    @Test
+    void GetSuspendedPlayers_ChiTraVeAnChuaChapHanh() {
+        Player other = brazil.getStartingPlayers().get(1);
+        playMatch();
+        engine.applyCard(player, brazil, Card.CardType.RED);
+        engine.applyCard(other, brazil, Card.CardType.RED);
+
+        assertEquals(List.of(player, other), engine.getSuspendedPlayers(brazil, 2));
+        assertTrue(engine.getSuspendedPlayers(spain, 2).isEmpty());
+
+        playMatch();
+        playMatch();
+        assertTrue(engine.getSuspendedPlayers(brazil, 3).isEmpty());
+    }
+
+    @Test
+    void GetEligiblePlayers_LoaiCauThuBiTreoGio() {
+        playMatch();
+        engine.applyCard(player, brazil, Card.CardType.RED);
+
+        List<Player> eligible = engine.getEligiblePlayers(brazil, 2);
+        assertEquals(15, eligible.size());
+        assertFalse(eligible.contains(player));
+        assertEquals(16, engine.getEligiblePlayers(spain, 2).size());
+    }
+
+    @Test
+    void ApplyCard_DoiChuaDaTran_NemIllegalStateException() {
+        assertThrows(IllegalStateException.class, () -> engine.applyCard(player, brazil, Card.CardType.YELLOW));
+    }
+
+    @Test
+    void SwapLineup_DoiViTriDaChinhVaDuBi() {
+        Player substitute = brazil.getSubstitutePlayers().get(0);
+
+        assertTrue(brazil.swapLineup(player, substitute));
+
+        assertEquals(substitute, brazil.getStartingPlayers().get(0));
+        assertTrue(brazil.getSubstitutePlayers().contains(player));
+        assertTrue(substitute.isStarting());
+        assertFalse(player.isStarting());
+        assertEquals(0, brazil.getSubstitutionCount());
+        assertFalse(brazil.swapLineup(player, substitute));
+    }
+}
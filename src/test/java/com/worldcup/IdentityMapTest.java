@@ -0,0 +1,100 @@
+package com.worldcup;
+
+import com.worldcup.manager.IdentityMap;
+import com.worldcup.model.Player;
+import com.worldcup.model.Team;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdentityMapTest {
+
+    private IdentityMap identityMap;
+
+    @BeforeEach
+    void setUp() {
+        identityMap = new IdentityMap();
+    }
+
+    private Team savedTeam(String name, int id, int tournamentId) {
+        Team team = new Team(name, "Europe", "Coach", List.of("Assistant1"), "Medical Staff", false);
+        team.setId(id);
+        team.setTournamentId(tournamentId);
+        return team;
+    }
+
+    private Player savedPlayer(String name, int jerseyNumber, int id) {
+        Player player = new Player(name, jerseyNumber, "ST");
+        player.setId(id);
+        return player;
+    }
+
+    @Test
+    void RegisterTeam_DaLuu_TraVeObjectVaIdChuan() {
+        Team team = savedTeam("Brazil", 10, 1);
+        identityMap.registerTeam(team);
+
+        assertSame(team, identityMap.findTeam("Brazil", 1).orElseThrow());
+        assertEquals(10, identityMap.findTeamId("Brazil", 1).orElseThrow());
+        assertTrue(identityMap.findTeamId("Brazil", 2).isEmpty());
+    }
+
+    @Test
+    void RegisterTeam_ChuaCoId_BoQua() {
+        identityMap.registerTeam(savedTeam("Brazil", 0, 1));
+        assertEquals(0, identityMap.getTeamCount());
+    }
+
+    @Test
+    void RegisterTeam_TournamentKhac_XoaCacheCu() {
+        identityMap.registerTeam(savedTeam("Brazil", 10, 1));
+        identityMap.registerPlayers(10, List.of(savedPlayer("Neymar", 10, 100)));
+
+        identityMap.registerTeam(savedTeam("Brazil", 42, 2));
+
+        assertEquals(2, identityMap.getTournamentId());
+        assertEquals(42, identityMap.findTeamId("Brazil", 2).orElseThrow());
+        assertTrue(identityMap.findPlayerId(10, "Neymar").isEmpty());
+        assertFalse(identityMap.isComplete(10));
+    }
+
+    @Test
+    void RegisterPlayer_CungKhoa_GiuObjectDauTien() {
+        Player first = savedPlayer("Neymar", 10, 100);
+        identityMap.registerPlayer(5, first);
+        identityMap.registerPlayer(5, savedPlayer("Neymar", 10, 200));
+
+        assertSame(first, identityMap.findPlayer(5, "Neymar", 10).orElseThrow());
+        assertEquals(1, identityMap.getPlayerCount());
+    }
+
+    @Test
+    void FindPlayerId_TrungTenTrongTeam_TraVeIdNhoNhat() {
+        identityMap.registerPlayers(5, List.of(
+                savedPlayer("Stefan Thompson", 9, 97),
+                savedPlayer("Stefan Thompson", 2, 90)));
+
+        assertEquals(90, identityMap.findPlayerId(5, "Stefan Thompson").orElseThrow());
+        assertEquals(97, identityMap.findPlayer(5, "Stefan Thompson", 9).orElseThrow().getId());
+    }
+
+    @Test
+    void RegisterPlayers_BoQuaPlayerChuaCoIdVaDanhDauDayDu() {
+        identityMap.registerPlayers(5, List.of(savedPlayer("Neymar", 10, 0)));
+
+        assertTrue(identityMap.isComplete(5));
+        assertTrue(identityMap.findPlayerId(5, "Neymar").isEmpty());
+        assertFalse(identityMap.isComplete(6));
+    }
+
+    @Test
+    void RegisterTeamId_KhongCoObject_ChiCacheId() {
+        identityMap.registerTeamId("Spain", 3, 77);
+
+        assertEquals(77, identityMap.findTeamId("Spain", 3).orElseThrow());
+        assertTrue(identityMap.findTeam("Spain", 3).isEmpty());
+    }
+}
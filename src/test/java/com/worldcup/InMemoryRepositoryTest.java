@@ -0,0 +1,200 @@
+package com.worldcup;
+
+import com.worldcup.model.Card;
+import com.worldcup.model.Goal;
+import com.worldcup.model.Match;
+import com.worldcup.model.Player;
+import com.worldcup.model.Substitution;
+import com.worldcup.model.Team;
+import com.worldcup.repository.memory.InMemoryCardRepository;
+import com.worldcup.repository.memory.InMemoryGoalRepository;
+import com.worldcup.repository.memory.InMemoryMatchRepository;
+import com.worldcup.repository.memory.InMemoryPlayerRepository;
+import com.worldcup.repository.memory.InMemoryStore;
+import com.worldcup.repository.memory.InMemorySubstitutionRepository;
+import com.worldcup.repository.memory.InMemoryTeamRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryRepositoryTest {
+
+    private InMemoryStore store;
+    private InMemoryTeamRepository teamRepository;
+    private InMemoryPlayerRepository playerRepository;
+    private InMemoryMatchRepository matchRepository;
+    private InMemoryGoalRepository goalRepository;
+    private InMemoryCardRepository cardRepository;
+    private InMemorySubstitutionRepository substitutionRepository;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryStore();
+        teamRepository = new InMemoryTeamRepository(store);
+        playerRepository = new InMemoryPlayerRepository(store);
+        matchRepository = new InMemoryMatchRepository(store);
+        goalRepository = new InMemoryGoalRepository(store);
+        cardRepository = new InMemoryCardRepository(store);
+        substitutionRepository = new InMemorySubstitutionRepository(store);
+    }
+
+    private Team team(String name, int tournamentId, int groupId) {
+        List<Player> starting = new ArrayList<>();
+        List<Player> substitutes = new ArrayList<>();
+        for (int i = 1; i <= 11; i++) {
+            starting.add(new Player(name + " Player " + i, i, "MF"));
+        }
+        for (int i = 12; i <= 16; i++) {
+            substitutes.add(new Player(name + " Player " + i, i, "MF"));
+        }
+        Team team = new Team(name, "Europe", "Coach", List.of("Assistant1"), "Medical Staff",
+                starting, substitutes, false);
+        team.setTournamentId(tournamentId);
+        team.setGroupId(groupId);
+        return team;
+    }
+
+    @Test
+    void SaveAll_TeamsVaDoiHinh_CapIdVaTimDuoc() throws SQLException {
+        Team brazil = team("Brazil", 1, 1);
+        Team spain = team("Spain", 1, 2);
+        teamRepository.saveAll(List.of(brazil, spain));
+
+        assertEquals(1, brazil.getId());
+        assertEquals(2, spain.getId());
+        assertEquals(32, store.getPlayerCount());
+        assertEquals(spain.getId(), teamRepository.getTeamId("Spain", 1).orElseThrow());
+        assertTrue(teamRepository.getTeamId("Spain", 2).isEmpty());
+        assertEquals(List.of("Assistant1"), teamRepository.findById(brazil.getId()).orElseThrow().getAssistantCoaches());
+
+        Team loaded = teamRepository.findByTournamentWithPlayers(1).get(0);
+        assertEquals(11, loaded.getStartingPlayers().size());
+        assertEquals(5, loaded.getSubstitutePlayers().size());
+        assertNotSame(brazil, loaded);
+    }
+
+    @Test
+    void FindByGroupAndTournament_TheoTenGroup() throws SQLException {
+        teamRepository.saveAll(List.of(team("Brazil", 1, 1), team("Spain", 1, 2), team("Japan", 1, 2)));
+        store.putGroup(1, 2, "Group B");
+
+        List<Team> teams = teamRepository.findByGroupAndTournament("Group B", 1);
+        assertEquals(List.of("Spain", "Japan"), List.of(teams.get(0).getName(), teams.get(1).getName()));
+        assertTrue(teamRepository.findByGroupAndTournament("Group C", 1).isEmpty());
+    }
+
+    @Test
+    void Save_TrungSoAo_NemSQLException_SaveAllBoQua() throws SQLException {
+        Team brazil = team("Brazil", 1, 1);
+        teamRepository.save(brazil);
+
+        assertThrows(SQLException.class, () -> playerRepository.save(new Player("Other", 10, "ST"), brazil.getId()));
+
+        Player duplicate = new Player("Duplicate", 10, "ST");
+        playerRepository.saveAll(Map.of(brazil.getId(), List.of(duplicate, new Player("New", 23, "GK"))));
+        assertEquals(0, duplicate.getId());
+        assertEquals(17, playerRepository.findByTeam(brazil.getId()).size());
+    }
+
+    @Test
+    void Update_ChiGhiCotThayDoi() throws SQLException {
+        Team brazil = team("Brazil", 1, 1);
+        teamRepository.save(brazil);
+        Player player = brazil.getStartingPlayers().get(0);
+
+        player.setYellowCards(2);
+        playerRepository.update(player);
+
+        Player loaded = playerRepository.findById(player.getId()).orElseThrow();
+        assertEquals(2, loaded.getYellowCards());
+        assertFalse(loaded.isDirty());
+    }
+
+    @Test
+    void UpdateLineup_ChiDoiPlayersKhacTrangThai() throws SQLException {
+        Team brazil = team("Brazil", 1, 1);
+        teamRepository.save(brazil);
+        int out = brazil.getStartingPlayers().get(0).getId();
+        int in = brazil.getSubstitutePlayers().get(0).getId();
+
+        List<Integer> lineup = new ArrayList<>();
+        for (Player player : brazil.getStartingPlayers()) {
+            lineup.add(player.getId() == out ? in : player.getId());
+        }
+
+        assertEquals(2, playerRepository.updateLineup(brazil.getId(), lineup));
+        assertEquals(0, playerRepository.updateLineup(brazil.getId(), lineup));
+        assertFalse(playerRepository.findById(out).orElseThrow().isStarting());
+    }
+
+    @Test
+    void MatchVaSuKien_IndexTheoMatchTeamPlayer() throws Exception {
+        Team brazil = team("Brazil", 1, 1);
+        Team spain = team("Spain", 1, 1);
+        teamRepository.saveAll(List.of(brazil, spain));
+
+        Match match = new Match(brazil, spain, "Venue", "Referee", false);
+        match.setMatchDate("2026/06/11");
+        matchRepository.save(match, "Venue", "Referee");
+        assertSame(match, matchRepository.findById(match.getId()).orElseThrow());
+        assertEquals(List.of(match), matchRepository.findGroupStageMatchesByTeam("Spain", 1));
+        assertTrue(matchRepository.findByTournamentAndType(1, "KNOCKOUT").isEmpty());
+
+        Player scorer = brazil.getStartingPlayers().get(9);
+        Goal late = new Goal(scorer, brazil, 80, match);
+        Goal early = new Goal(scorer, brazil, 12, match);
+        goalRepository.save(late);
+        goalRepository.save(early);
+        assertEquals(List.of(early, late), goalRepository.findByMatch(match.getId()));
+        assertEquals(2, goalRepository.countGoalsByPlayer(scorer.getName(), "Brazil", 1));
+        assertEquals(0, goalRepository.countGoalsByTeam("Spain", 1));
+        assertEquals(2, playerRepository.findById(scorer.getId()).orElseThrow().getGoals());
+
+        Player booked = spain.getStartingPlayers().get(3);
+        cardRepository.save(new Card(booked, spain, match, 30, Card.CardType.YELLOW));
+        assertEquals(1, cardRepository.countCardsByTeamAndType("Spain", 1, "YELLOW"));
+        assertEquals(1, cardRepository.countCardsByPlayerAndType(booked.getName(), "Spain", 1, "YELLOW"));
+        assertEquals(0, cardRepository.countCardsByTeamAndType("Spain", 1, "RED"));
+
+        Substitution substitution = new Substitution(spain.getSubstitutePlayers().get(0),
+                spain.getStartingPlayers().get(0), 60, spain, match);
+        substitutionRepository.save(substitution);
+        assertEquals(1, substitutionRepository.countSubstitutionsByTeam("Spain", 1));
+        assertEquals(List.of(substitution), substitutionRepository.findByMatch(match.getId()));
+    }
+
+    @Test
+    void Delete_XoaRowVaIndex() throws Exception {
+        Team brazil = team("Brazil", 1, 1);
+        Team spain = team("Spain", 1, 1);
+        teamRepository.saveAll(List.of(brazil, spain));
+        Match match = new Match(brazil, spain, "Venue", "Referee", false);
+        matchRepository.save(match, "Venue", "Referee");
+
+        matchRepository.delete(match.getId());
+        teamRepository.delete(spain.getId());
+
+        assertFalse(matchRepository.exists(match.getId()));
+        assertTrue(matchRepository.findByTeam("Brazil", 1).isEmpty());
+        assertTrue(teamRepository.getTeamId("Spain", 1).isEmpty());
+        assertEquals(1, teamRepository.findByTournament(1).size());
+    }
+
+    @Test
+    void Clear_XoaDuLieuVaCapLaiIdTuMot() throws SQLException {
+        teamRepository.save(team("Brazil", 1, 1));
+        store.clear();
+
+        assertTrue(store.isEmpty());
+        Team spain = team("Spain", 1, 1);
+        teamRepository.save(spain);
+        assertEquals(1, spain.getId());
+        assertEquals(1, spain.getStartingPlayers().get(0).getId());
+    }
+}
@@ -0,0 +1,170 @@
+package com.worldcup;
+
+import com.worldcup.database.DatabaseManager;
+import com.worldcup.model.Card;
+import com.worldcup.model.Goal;
+import com.worldcup.model.Match;
+import com.worldcup.model.Player;
+import com.worldcup.model.Substitution;
+import com.worldcup.model.Team;
+import com.worldcup.repository.memory.InMemoryMatchUnitOfWork;
+import com.worldcup.repository.memory.InMemoryStore;
+import com.worldcup.repository.memory.InMemoryStoreWriter;
+import com.worldcup.repository.memory.InMemoryTeamRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryStoreWriterTest {
+
+    @TempDir
+    Path directory;
+
+    private DatabaseManager dbManager;
+    private InMemoryStore store;
+    private Team brazil;
+    private Team spain;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dbManager = new DatabaseManager("jdbc:sqlite:" + directory.resolve("worldcup.db"), 1);
+        // Database đích đã có dữ liệu nên id mới khác id trong store
+        execute("""
+            INSERT INTO tournaments (name, year, host_country) VALUES ('Existing', 2022, 'Qatar');
+            INSERT INTO teams (name, region, coach, medical_staff, tournament_id) VALUES ('Qatar', 'Asia', 'Coach', 'Medical', 1);
+        """);
+
+        store = new InMemoryStore();
+        int tournamentId = store.insertTournament("World Cup", 2026, "Mexico", "2026-06-11", "2026-07-19");
+        int groupId = store.insertGroup("A", tournamentId);
+        brazil = team("Brazil", tournamentId, groupId);
+        spain = team("Spain", tournamentId, groupId);
+        new InMemoryTeamRepository(store).saveAll(List.of(brazil, spain));
+    }
+
+    @AfterEach
+    void tearDown() {
+        dbManager.close();
+    }
+
+    private Team team(String name, int tournamentId, int groupId) {
+        List<Player> starting = new ArrayList<>();
+        List<Player> substitutes = new ArrayList<>();
+        for (int i = 1; i <= 16; i++) {
+            Player player = new Player(name + " Player " + i, i, "MF");
+            (i <= 11 ? starting : substitutes).add(player);
+        }
+        Team team = new Team(name, "Europe", "Coach", List.of("Assistant1"), "Medical Staff",
+                starting, substitutes, false);
+        team.setTournamentId(tournamentId);
+        team.setGroupId(groupId);
+        return team;
+    }
+
+    private void execute(String script) throws SQLException {
+        try (Statement statement = dbManager.getConnection().createStatement()) {
+            for (String sql : script.split(";")) {
+                if (!sql.isBlank()) {
+                    statement.execute(sql);
+                }
+            }
+        }
+    }
+
+    private long queryLong(String sql) throws SQLException {
+        try (Statement statement = dbManager.getConnection().createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            assertTrue(rs.next(), sql);
+            return rs.getLong(1);
+        }
+    }
+
+    private Match commitMatch() throws SQLException {
+        Match match = new Match(brazil, spain, "Venue", "Referee", false);
+        match.updateMatchResult(1, 0);
+        InMemoryMatchUnitOfWork unitOfWork = new InMemoryMatchUnitOfWork(store);
+        unitOfWork.registerNewMatch(match, "Venue", "Referee");
+        unitOfWork.registerGoal(new Goal(brazil.getStartingPlayers().get(9), brazil, 30, match));
+        unitOfWork.registerCard(new Card(spain.getStartingPlayers().get(4), spain, match, 50, Card.CardType.RED));
+        unitOfWork.registerSubstitution(new Substitution(spain.getSubstitutePlayers().get(0),
+                spain.getStartingPlayers().get(1), 60, spain, match));
+        unitOfWork.commit();
+        return match;
+    }
+
+    @Test
+    void UnitOfWork_Commit_GhiMatchSuKienVaCountersVaoStore() throws SQLException {
+        Match match = commitMatch();
+
+        assertTrue(match.getId() > 0);
+        assertEquals(1, store.getMatchCount());
+        assertEquals(1, store.getGoalCount());
+        assertEquals(1, store.getCardCount());
+        assertEquals(1, store.getSubstitutionCount());
+        assertEquals(1, store.tournamentTotals(brazil.getTournamentId()).totalRedCards);
+        assertEquals(brazil.getStartingPlayers().get(9).getId(),
+                store.tournamentTotals(brazil.getTournamentId()).topScorerId);
+    }
+
+    @Test
+    void Write_GhiMoiBangVaMapKhoaNgoaiSangIdMoi() throws SQLException {
+        commitMatch();
+        int tournamentId = brazil.getTournamentId();
+        store.saveTournamentStats(tournamentId, 1, 1, 0, 1, 1, brazil.getStartingPlayers().get(9).getId(), 1);
+        store.updateTournamentWinners(tournamentId, brazil.getId(), spain.getId(), null, 999);
+
+        int written = new InMemoryStoreWriter(dbManager).write(store);
+
+        // tournament, group, stats, 2 teams, 2 assistants, 32 players, match, goal, card, substitution
+        assertEquals(43, written);
+        assertEquals(2, queryLong("SELECT COUNT(*) FROM tournaments"));
+        assertEquals(2, queryLong("""
+            SELECT COUNT(*) FROM teams t
+            JOIN tournaments tr ON tr.id = t.tournament_id JOIN groups g ON g.id = t.group_id
+            WHERE tr.name = 'World Cup' AND g.name = 'A' AND g.tournament_id = tr.id
+        """));
+        assertEquals(1, queryLong("""
+            SELECT COUNT(*) FROM goals g
+            JOIN players p ON p.id = g.player_id JOIN teams t ON t.id = g.team_id
+            JOIN matches m ON m.id = g.match_id
+            WHERE p.name = 'Brazil Player 10' AND t.name = 'Brazil' AND m.team_a_id = t.id AND m.winner_id = t.id
+        """));
+        assertEquals(1, queryLong("""
+            SELECT COUNT(*) FROM substitutions s
+            JOIN players pin ON pin.id = s.player_in_id JOIN players pout ON pout.id = s.player_out_id
+            WHERE pin.name = 'Spain Player 12' AND pout.name = 'Spain Player 2'
+        """));
+        assertEquals(1, queryLong("SELECT red_cards FROM players WHERE name = 'Spain Player 5'"));
+        assertEquals(1, queryLong("""
+            SELECT COUNT(*) FROM tournament_stats s
+            JOIN tournaments tr ON tr.id = s.tournament_id JOIN players p ON p.id = s.top_scorer_id
+            JOIN teams c ON c.id = s.champion_id JOIN teams r ON r.id = s.runner_up_id
+            WHERE tr.name = 'World Cup' AND p.name = 'Brazil Player 10' AND c.name = 'Brazil' AND r.name = 'Spain'
+              AND s.third_place_id_01 IS NULL AND s.third_place_id_02 IS NULL
+        """));
+    }
+
+    @Test
+    void Write_LoiGiuaTransaction_RollbackVaGiuStore() throws SQLException {
+        commitMatch();
+        execute("DROP TABLE substitutions");
+
+        assertThrows(SQLException.class, () -> new InMemoryStoreWriter(dbManager).write(store));
+
+        assertEquals(1, queryLong("SELECT COUNT(*) FROM tournaments"));
+        assertEquals(1, queryLong("SELECT COUNT(*) FROM teams"));
+        assertEquals(0, queryLong("SELECT COUNT(*) FROM players"));
+        assertEquals(1, store.getMatchCount());
+        assertFalse(store.isEmpty());
+    }
+}
@@ -0,0 +1,71 @@
+package com.worldcup;
+
+import com.worldcup.automation.WorldCupAutomation;
+import com.worldcup.database.DatabaseManager;
+import com.worldcup.manager.ObjectManager;
+import com.worldcup.repository.memory.InMemoryStore;
+import com.worldcup.repository.memory.InMemoryStoreWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryWorldCupAutomationTest {
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty(ObjectManager.BACKEND_PROPERTY);
+    }
+
+    private long queryLong(DatabaseManager dbManager, String sql) throws SQLException {
+        try (Statement statement = dbManager.getConnection().createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            assertTrue(rs.next(), sql);
+            return rs.getLong(1);
+        }
+    }
+
+    @Test
+    void RunCompleteWorldCup_BackendMemory_KhongCanSQLite() throws SQLException {
+        System.setProperty(ObjectManager.BACKEND_PROPERTY, "memory");
+        WorldCupAutomation automation = new WorldCupAutomation();
+        automation.setSeed(42);
+
+        automation.runCompleteWorldCup();
+
+        InMemoryStore store = ObjectManager.getInstance(null).getMemoryStore();
+        assertNotNull(store);
+        assertEquals(32, store.getTeamCount());
+        assertEquals(63, store.getMatchCount());
+        assertTrue(store.getGoalCount() > 0);
+
+        // Ghi ra SQLite để kiểm tra kết quả bằng cùng truy vấn như backend jdbc
+        DatabaseManager dbManager = new DatabaseManager("jdbc:sqlite:" + directory.resolve("worldcup.db"), 1);
+        try {
+            new InMemoryStoreWriter(dbManager).write(store);
+            assertEquals(8, queryLong(dbManager, "SELECT COUNT(*) FROM groups"));
+            assertEquals(48, queryLong(dbManager, "SELECT COUNT(*) FROM matches WHERE match_type = 'GROUP'"));
+            assertEquals(1, queryLong(dbManager, "SELECT COUNT(*) FROM matches WHERE match_type = 'FINAL'"));
+            assertEquals(1, queryLong(dbManager, """
+                SELECT COUNT(*) FROM tournament_stats s
+                JOIN teams c ON c.id = s.champion_id JOIN teams r ON r.id = s.runner_up_id
+                JOIN players p ON p.id = s.top_scorer_id
+                WHERE s.total_matches = 63 AND s.total_goals = (SELECT COUNT(*) FROM goals)
+                  AND s.third_place_id_01 IS NOT NULL AND s.third_place_id_02 IS NOT NULL
+            """));
+            assertEquals(queryLong(dbManager, "SELECT COUNT(*) FROM goals"),
+                    queryLong(dbManager, "SELECT SUM(goals) FROM players"));
+        } finally {
+            dbManager.close();
+        }
+    }
+}
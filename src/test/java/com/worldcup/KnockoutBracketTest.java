@@ -0,0 +1,154 @@
+package com.worldcup;
+
+import com.worldcup.model.KnockoutBracket;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KnockoutBracketTest {
+
+    /**
+     * Đá hết nhánh đấu, đội có số nhỏ hơn luôn thắng
+     */
+    private void playAllLowerIndexWins(KnockoutBracket bracket) {
+        for (int round = 0; round < bracket.getRoundCount(); round++) {
+            for (int i = 0; i < bracket.getMatchCount(round); i++) {
+                int match = bracket.getMatch(round, i);
+                if (bracket.isPlayable(match)) {
+                    bracket.recordWinner(match, Math.min(bracket.getTeamA(match), bracket.getTeamB(match)));
+                }
+            }
+        }
+    }
+
+    @Test
+    void Bracket16Doi_BonVong_TenVongTheoMatchType() {
+        KnockoutBracket bracket = new KnockoutBracket(16);
+
+        assertEquals(16, bracket.getCapacity());
+        assertEquals(4, bracket.getRoundCount());
+        assertEquals("ROUND_16", bracket.getRoundName(0));
+        assertEquals("QUARTER", bracket.getRoundName(1));
+        assertEquals("SEMI_FINAL", bracket.getRoundName(2));
+        assertEquals("FINAL", bracket.getRoundName(3));
+        assertEquals(8, bracket.getMatchCount(0));
+        assertEquals(1, bracket.getMatchCount(3));
+
+        int firstMatch = bracket.getMatch(0, 0);
+        assertEquals(0, bracket.getTeamA(firstMatch));
+        assertEquals(1, bracket.getTeamB(firstMatch));
+        assertEquals(0, bracket.getRound(firstMatch));
+        assertEquals(3, bracket.getRound(1));
+    }
+
+    @Test
+    void RecordWinner_DoiThangLenVongSau() {
+        KnockoutBracket bracket = new KnockoutBracket(16);
+        int match = bracket.getMatch(0, 1);
+        int nextMatch = bracket.getMatch(1, 0);
+
+        bracket.recordWinner(match, false);
+
+        assertEquals(3, bracket.getWinner(match));
+        assertEquals(2, bracket.getLoser(match));
+        assertEquals(3, bracket.getTeamB(nextMatch));
+        assertEquals(KnockoutBracket.UNDECIDED, bracket.getTeamA(nextMatch));
+        assertFalse(bracket.isPlayable(nextMatch));
+    }
+
+    @Test
+    void RecordWinner_DoiKhongThamGia_ThrowIllegalArgumentException() {
+        KnockoutBracket bracket = new KnockoutBracket(16);
+
+        assertThrows(IllegalArgumentException.class, () -> bracket.recordWinner(bracket.getMatch(0, 0), 5));
+    }
+
+    @Test
+    void RecordWinner_TranDaCoKetQuaHoacChuaDuDoi_ThrowIllegalStateException() {
+        KnockoutBracket bracket = new KnockoutBracket(16);
+        int match = bracket.getMatch(0, 0);
+        bracket.recordWinner(match, 0);
+
+        assertThrows(IllegalStateException.class, () -> bracket.recordWinner(match, 1));
+        assertThrows(IllegalStateException.class, () -> bracket.recordWinner(bracket.getMatch(1, 0), 0));
+    }
+
+    @Test
+    void DaHetNhanhDau_VoDichVaAQuan() {
+        KnockoutBracket bracket = new KnockoutBracket(32);
+        playAllLowerIndexWins(bracket);
+
+        assertEquals(5, bracket.getRoundCount());
+        assertEquals("ROUND_32", bracket.getRoundName(0));
+        assertEquals(0, bracket.getChampion());
+        assertEquals(16, bracket.getRunnerUp());
+        assertArrayEquals(new int[]{0, 8, 16, 24}, bracket.getRoundTeams(3));
+    }
+
+    @Test
+    void Bracket48Doi_MienDauVongDau() {
+        KnockoutBracket bracket = new KnockoutBracket(48);
+
+        assertEquals(64, bracket.getCapacity());
+        assertEquals(6, bracket.getRoundCount());
+        assertEquals(48, bracket.getRoundTeams(0).length);
+
+        // 16 cặp đầu có BYE: đội đi tiếp ngay, không phải đá
+        int byeMatch = bracket.getMatch(0, 0);
+        assertEquals(KnockoutBracket.BYE, bracket.getTeamB(byeMatch));
+        assertFalse(bracket.isPlayable(byeMatch));
+        assertEquals(0, bracket.getWinner(byeMatch));
+        assertTrue(bracket.isPlayable(bracket.getMatch(0, 16)));
+
+        playAllLowerIndexWins(bracket);
+        assertEquals(32, bracket.getRoundTeams(1).length);
+        assertEquals(0, bracket.getChampion());
+    }
+
+    @Test
+    void Copy_DocLapVoiBanGoc() {
+        KnockoutBracket bracket = new KnockoutBracket(16);
+        bracket.recordWinner(bracket.getMatch(0, 0), 0);
+
+        KnockoutBracket copy = bracket.copy();
+        copy.recordWinner(copy.getMatch(0, 1), 2);
+
+        assertEquals(0, copy.getWinner(copy.getMatch(0, 0)));
+        assertEquals(KnockoutBracket.UNDECIDED, bracket.getWinner(bracket.getMatch(0, 1)));
+    }
+
+    @Test
+    void CopyFromVaResetResults_DungLaiChoMoPhongLap() {
+        KnockoutBracket start = new KnockoutBracket(12);
+        KnockoutBracket work = new KnockoutBracket(12);
+        playAllLowerIndexWins(work);
+
+        work.copyFrom(start);
+        assertEquals(KnockoutBracket.UNDECIDED, work.getChampion());
+        // 4 cặp đầu có BYE vẫn được cho đi tiếp sau khi chép lại
+        assertEquals(0, work.getWinner(work.getMatch(0, 0)));
+
+        playAllLowerIndexWins(work);
+        work.resetResults();
+        assertEquals(KnockoutBracket.UNDECIDED, work.getChampion());
+        assertEquals(8, work.getRoundTeams(1).length);
+
+        assertThrows(IllegalArgumentException.class, () -> work.copyFrom(new KnockoutBracket(16)));
+    }
+
+    @Test
+    void Constructor_DuoiHaiDoi_ThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new KnockoutBracket(1));
+        assertEquals(1, new KnockoutBracket(2).getRoundCount());
+        assertEquals("FINAL", new KnockoutBracket(2).getRoundName(0));
+    }
+
+    @Test
+    void GetMatch_NgoaiPhamVi_ThrowIndexOutOfBoundsException() {
+        KnockoutBracket bracket = new KnockoutBracket(16);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> bracket.getMatch(0, 8));
+        assertThrows(IndexOutOfBoundsException.class, () -> bracket.getMatchCount(4));
+        assertThrows(IndexOutOfBoundsException.class, () -> bracket.getTeamA(16));
+    }
+}
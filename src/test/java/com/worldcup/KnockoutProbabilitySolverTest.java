@@ -0,0 +1,149 @@
+package com.worldcup;
+
+import com.worldcup.model.KnockoutBracket;
+import com.worldcup.simulation.KnockoutProbabilitySolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KnockoutProbabilitySolverTest {
+
+    private static final double DELTA = 1e-12;
+
+    /**
+     * Ma trận theo sức mạnh: p[i][j] = s[i] / (s[i] + s[j])
+     */
+    private double[][] strengthMatrix(double... strengths) {
+        double[][] matrix = new double[strengths.length][strengths.length];
+        for (int i = 0; i < strengths.length; i++) {
+            for (int j = 0; j < strengths.length; j++) {
+                matrix[i][j] = strengths[i] / (strengths[i] + strengths[j]);
+            }
+        }
+        return matrix;
+    }
+
+    @Test
+    void MaTranDeuNhau_XacSuatThangVongLaMuCuaMotNua() {
+        KnockoutBracket bracket = new KnockoutBracket(16);
+        KnockoutProbabilitySolver.Result result =
+                new KnockoutProbabilitySolver(KnockoutProbabilitySolver.evenMatrix(16)).solve(bracket);
+
+        assertEquals(4, result.getRoundCount());
+        for (int team = 0; team < 16; team++) {
+            for (int round = 0; round < 4; round++) {
+                assertEquals(1.0 / (1 << (round + 1)), result.getWinProbability(team, round), DELTA);
+            }
+            assertEquals(1.0 / 16, result.getChampionProbability(team), DELTA);
+        }
+    }
+
+    @Test
+    void Bracket4Doi_KhopTinhTay() {
+        double[][] p = strengthMatrix(1, 2, 3, 4);
+        KnockoutProbabilitySolver.Result result = new KnockoutProbabilitySolver(p).solve(new KnockoutBracket(4));
+
+        // Bán kết 0-1 và 2-3, chung kết gặp đội thắng của cặp còn lại
+        double reach0 = p[0][1];
+        double champion0 = reach0 * (p[2][3] * p[0][2] + p[3][2] * p[0][3]);
+        assertEquals(reach0, result.getWinProbability(0, 0), DELTA);
+        assertEquals(champion0, result.getChampionProbability(0), DELTA);
+
+        double champion3 = p[3][2] * (p[0][1] * p[3][0] + p[1][0] * p[3][1]);
+        assertEquals(champion3, result.getChampionProbability(3), DELTA);
+    }
+
+    @Test
+    void TongXacSuatMoiVong_BangSoDoiDiTiep() {
+        SplittableRandom random = new SplittableRandom(42);
+        double[] strengths = new double[32];
+        for (int i = 0; i < strengths.length; i++) {
+            strengths[i] = 0.5 + random.nextDouble();
+        }
+        KnockoutProbabilitySolver.Result result =
+                new KnockoutProbabilitySolver(strengthMatrix(strengths)).solve(new KnockoutBracket(32));
+
+        for (int round = 0; round < result.getRoundCount(); round++) {
+            double sum = 0.0;
+            for (int team = 0; team < 32; team++) {
+                sum += result.getWinProbability(team, round);
+            }
+            assertEquals(32 >> (round + 1), sum, 1e-9);
+        }
+    }
+
+    @Test
+    void TranDaCoKetQua_TinhLaChacChan() {
+        KnockoutBracket bracket = new KnockoutBracket(8);
+        bracket.recordWinner(bracket.getMatch(0, 0), 1);
+        KnockoutProbabilitySolver solver = new KnockoutProbabilitySolver(KnockoutProbabilitySolver.evenMatrix(8));
+
+        KnockoutProbabilitySolver.Result result = solver.solve(bracket);
+
+        assertEquals(0.0, result.getWinProbability(0, 0), DELTA);
+        assertEquals(1.0, result.getWinProbability(1, 0), DELTA);
+        assertEquals(0.5, result.getWinProbability(1, 1), DELTA);
+        assertEquals(0.25, result.getWinProbability(2, 1), DELTA);
+        assertEquals(0.0, result.getChampionProbability(0), DELTA);
+        assertEquals(1.0 / 4, result.getChampionProbability(1), DELTA);
+    }
+
+    @Test
+    void Bracket12Doi_DoiMienDauChacChanQuaVongDau() {
+        KnockoutBracket bracket = new KnockoutBracket(12);
+        KnockoutProbabilitySolver.Result result =
+                new KnockoutProbabilitySolver(KnockoutProbabilitySolver.evenMatrix(12)).solve(bracket);
+
+        // 4 cặp đầu có BYE: đội 0..3 vào thẳng vòng sau
+        assertEquals(1.0, result.getWinProbability(0, 0), DELTA);
+        assertEquals(0.5, result.getWinProbability(4, 0), DELTA);
+        assertEquals(12, result.getTeamCount());
+
+        double sum = 0.0;
+        for (int team = 0; team < 12; team++) {
+            sum += result.getChampionProbability(team);
+        }
+        assertEquals(1.0, sum, DELTA);
+    }
+
+    @Test
+    void SoVoiLayMau_SaiSoNho() {
+        double[][] p = strengthMatrix(1, 1.5, 2, 0.8, 1.2, 3, 0.6, 1.7);
+        KnockoutBracket bracket = new KnockoutBracket(8);
+        KnockoutProbabilitySolver.Result result = new KnockoutProbabilitySolver(p).solve(bracket);
+
+        SplittableRandom random = new SplittableRandom(7);
+        int iterations = 200_000;
+        int[] champions = new int[8];
+        KnockoutBracket work = bracket.copy();
+        for (int n = 0; n < iterations; n++) {
+            work.copyFrom(bracket);
+            for (int round = 0; round < work.getRoundCount(); round++) {
+                for (int i = 0; i < work.getMatchCount(round); i++) {
+                    int match = work.getMatch(round, i);
+                    work.recordWinner(match, random.nextDouble() < p[work.getTeamA(match)][work.getTeamB(match)]);
+                }
+            }
+            champions[work.getChampion()]++;
+        }
+
+        for (int team = 0; team < 8; team++) {
+            assertEquals(result.getChampionProbability(team), (double) champions[team] / iterations, 0.01);
+        }
+    }
+
+    @Test
+    void MaTranKhongHopLe_ThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new KnockoutProbabilitySolver(new double[][]{{0.5, 0.7}, {0.4, 0.5}}));
+        assertThrows(IllegalArgumentException.class,
+                () -> new KnockoutProbabilitySolver(new double[][]{{0.5, 1.2}, {-0.2, 0.5}}));
+        assertThrows(IllegalArgumentException.class,
+                () -> new KnockoutProbabilitySolver(new double[][]{{0.5, 0.5}, {0.5}}));
+        assertThrows(IllegalArgumentException.class,
+                () -> new KnockoutProbabilitySolver(KnockoutProbabilitySolver.evenMatrix(8))
+                        .solve(new KnockoutBracket(16)));
+    }
+}
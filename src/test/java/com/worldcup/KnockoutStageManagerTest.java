@@ -1,6 +1,7 @@
 package com.worldcup;
 
 import com.worldcup.model.Group;
+import com.worldcup.model.KnockoutBracket;
 import com.worldcup.model.KnockoutStageManager;
 import com.worldcup.model.Team;
 import org.junit.jupiter.api.BeforeEach;
@@ -927,4 +928,58 @@ public class KnockoutStageManagerTest {
         assertEquals("Champion", manager.getChampion());
         assertEquals("Runner", manager.getRunnerUp());
     }
+
+    // ========== BRACKET TESTS - Nhánh đấu dạng mảng ==========
+
+    private List<Team> roundOf16Entrants() {
+        return Arrays.asList(teamA1, teamB2, teamB1, teamA2, teamC1, teamD2, teamD1, teamC2,
+                teamE1, teamF2, teamF1, teamE2, teamG1, teamH2, teamH1, teamG2);
+    }
+
+    @Test
+    public void CreateBracket_16Doi_GhepCapVaCapNhatRoundOf16() {
+        KnockoutBracket bracket = manager.createBracket(roundOf16Entrants());
+
+        assertSame(bracket, manager.getBracket());
+        assertEquals(4, bracket.getRoundCount());
+        assertEquals(16, manager.getRoundOf16().size());
+        assertEquals("Brazil", manager.getRoundOf16().get(0));
+
+        int firstMatch = bracket.getMatch(0, 0);
+        assertEquals(teamA1, manager.getBracketTeam(bracket.getTeamA(firstMatch)));
+        assertEquals(teamB2, manager.getBracketTeam(bracket.getTeamB(firstMatch)));
+    }
+
+    @Test
+    public void RecordWinner_TheoTeam_DoiThangVaoVongSau() {
+        KnockoutBracket bracket = manager.createBracket(roundOf16Entrants());
+
+        manager.recordWinner(bracket.getMatch(0, 0), teamB2);
+        manager.recordWinner(bracket.getMatch(0, 1), teamB1);
+
+        assertEquals(List.of(teamB2, teamB1), manager.getRoundTeams(1).subList(0, 2));
+        assertTrue(bracket.isPlayable(bracket.getMatch(1, 0)));
+        assertThrows(IllegalArgumentException.class, () -> manager.recordWinner(bracket.getMatch(0, 2),
+                new Team("Unknown", "Region", "Coach", List.of("Assistant"), "Medical", false)));
+    }
+
+    @Test
+    public void CreateBracket_32Doi_KhongGhiRoundOf16() {
+        List<Team> entrants = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            entrants.add(new Team("Team " + i, "Region", "Coach", List.of("Assistant"), "Medical", false));
+        }
+
+        KnockoutBracket bracket = manager.createBracket(entrants);
+
+        assertEquals("ROUND_32", bracket.getRoundName(0));
+        assertTrue(manager.getRoundOf16().isEmpty());
+    }
+
+    @Test
+    public void CreateBracket_DoiTrungHoacNull_ThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> manager.createBracket(Arrays.asList(teamA1, teamA1)));
+        assertThrows(NullPointerException.class, () -> manager.createBracket(Arrays.asList(teamA1, null)));
+        assertThrows(IllegalArgumentException.class, () -> manager.createBracket(List.of(teamA1)));
+    }
 }
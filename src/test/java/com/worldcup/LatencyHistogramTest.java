@@ -0,0 +1,98 @@
+package com.worldcup;
+
+import com.worldcup.repository.metrics.LatencyHistogram;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+
+    private LatencyHistogram histogram;
+
+    @BeforeEach
+    void setUp() {
+        histogram = new LatencyHistogram();
+    }
+
+    @Test
+    void GetPercentile_ChuaCoGiaTri_Tra0() {
+        assertEquals(0, histogram.getPercentile(99));
+        assertEquals(0.0, histogram.getMean());
+        assertEquals(0, histogram.getCount());
+    }
+
+    @Test
+    void Record_GiaTriNho_PercentileChinhXac() {
+        for (int i = 1; i <= 7; i++) {
+            histogram.record(i);
+        }
+        assertEquals(4, histogram.getPercentile(50));
+        assertEquals(7, histogram.getPercentile(100));
+        assertEquals(4.0, histogram.getMean());
+    }
+
+    @Test
+    void Record_PhanPhoiDeu_PercentileSaiSoToiDa12Phan100() {
+        for (int i = 1; i <= 100_000; i++) {
+            histogram.record(i * 1_000L);
+        }
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(50_000_000, histogram.getPercentile(50), 50_000_000 * 0.125);
+        assertEquals(95_000_000, histogram.getPercentile(95), 95_000_000 * 0.125);
+        assertEquals(99_000_000, histogram.getPercentile(99), 99_000_000 * 0.125);
+        assertTrue(histogram.getPercentile(50) >= 50_000_000);
+    }
+
+    @Test
+    void GetPercentile_KhongVuotQuaMax() {
+        histogram.record(1_000_001);
+        assertEquals(1_000_001, histogram.getPercentile(100));
+        assertEquals(1_000_001, histogram.getMax());
+    }
+
+    @Test
+    void Record_GiaTriAm_TinhLa0() {
+        histogram.record(-5);
+        assertEquals(0, histogram.getPercentile(50));
+        assertEquals(0, histogram.getMax());
+    }
+
+    @Test
+    void Record_GiaTriRatLon_KhongLoi() {
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, histogram.getPercentile(100));
+    }
+
+    @Test
+    void GetPercentile_NgoaiKhoang_NemException() {
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(101));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(-1));
+    }
+
+    @Test
+    void Reset_XoaToanBoThongKe() {
+        histogram.record(500);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getPercentile(50));
+    }
+
+    @Test
+    void Record_NhieuThread_KhongMatGiaTri() throws Exception {
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    histogram.record(i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(40_000, histogram.getCount());
+        assertEquals(9_999, histogram.getMax());
+    }
+}
@@ -0,0 +1,188 @@
+package com.worldcup;
+
+import com.worldcup.database.DatabaseManager;
+import com.worldcup.model.Card;
+import com.worldcup.model.Goal;
+import com.worldcup.model.Group;
+import com.worldcup.model.Match;
+import com.worldcup.model.Player;
+import com.worldcup.model.StandingsTable;
+import com.worldcup.model.Team;
+import com.worldcup.repository.impl.MatchUnitOfWork;
+import com.worldcup.repository.impl.PendingUpdates;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MatchUnitOfWorkTest {
+
+    @TempDir
+    Path directory;
+
+    private DatabaseManager dbManager;
+    private Team brazil;
+    private Team spain;
+    private Player scorer;
+    private Player booked;
+    private int goalsBefore;
+
+    @BeforeEach
+    void setUp() {
+        dbManager = new DatabaseManager("jdbc:sqlite:" + directory.resolve("worldcup.db"), 1);
+        brazil = team("Brazil", 1);
+        spain = team("Spain", 2);
+        scorer = brazil.getStartingPlayers().get(0);
+        booked = spain.getStartingPlayers().get(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dbManager.close();
+    }
+
+    private Team team(String name, int id) {
+        List<Player> starting = new ArrayList<>();
+        List<Player> substitutes = new ArrayList<>();
+        for (int i = 1; i <= 16; i++) {
+            Player player = new Player(name + " Player " + i, i, "MF");
+            player.setId(id * 100 + i);
+            (i <= 11 ? starting : substitutes).add(player);
+        }
+        Team team = new Team(name, "Europe", "Coach", List.of("Assistant1"), "Medical Staff",
+                starting, substitutes, false);
+        team.setId(id);
+        return team;
+    }
+
+    /**
+     * Constructor của Goal đã tự tăng bàn thắng, nên mốc so sánh là giá trị ngay trước register
+     */
+    private MatchUnitOfWork registerMatch(MatchUnitOfWork unitOfWork, Match match) {
+        Goal goal = new Goal(scorer, brazil, 10, match);
+        Card card = new Card(booked, spain, match, 20, Card.CardType.YELLOW);
+        goalsBefore = scorer.getGoals();
+        unitOfWork.registerNewMatch(match, "Venue", "Referee");
+        unitOfWork.registerGoal(goal);
+        unitOfWork.registerCard(card);
+        return unitOfWork;
+    }
+
+    private int count(String table) throws SQLException {
+        try (Statement statement = dbManager.getConnection().createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    @Test
+    void Commit_ThanhCong_GhiMatchVaSuKien() throws SQLException {
+        Match match = new Match(brazil, spain, "Venue", "Referee", false);
+        MatchUnitOfWork unitOfWork = registerMatch(new MatchUnitOfWork(dbManager), match);
+
+        unitOfWork.commit();
+
+        assertTrue(match.getId() > 0);
+        assertEquals(1, count("matches"));
+        assertEquals(1, count("goals"));
+        assertEquals(1, count("cards"));
+        assertEquals(goalsBefore + 1, scorer.getGoals());
+        assertEquals(1, booked.getYellowCards());
+        assertTrue(unitOfWork.isEmpty());
+        assertFalse(unitOfWork.isFailed());
+    }
+
+    @Test
+    void Commit_LoiGiuaTransaction_RollbackVaHoanTacTrangThai() throws SQLException {
+        try (Statement statement = dbManager.getConnection().createStatement()) {
+            statement.execute("DROP TABLE cards");
+        }
+        Match match = new Match(brazil, spain, "Venue", "Referee", false);
+        MatchUnitOfWork unitOfWork = registerMatch(new MatchUnitOfWork(dbManager), match);
+        assertEquals(goalsBefore + 1, scorer.getGoals());
+
+        assertThrows(SQLException.class, unitOfWork::commit);
+
+        assertEquals(0, count("matches"));
+        assertEquals(0, count("goals"));
+        assertEquals(goalsBefore, scorer.getGoals());
+        assertEquals(0, booked.getYellowCards());
+        assertEquals(0, match.getId());
+        assertTrue(unitOfWork.isFailed());
+        assertTrue(unitOfWork.isEmpty());
+    }
+
+    @Test
+    void SauKhiRollback_DungLai_ThrowIllegalStateException() throws SQLException {
+        try (Statement statement = dbManager.getConnection().createStatement()) {
+            statement.execute("DROP TABLE cards");
+        }
+        Match match = new Match(brazil, spain, "Venue", "Referee", false);
+        MatchUnitOfWork unitOfWork = registerMatch(new MatchUnitOfWork(dbManager), match);
+        assertThrows(SQLException.class, unitOfWork::commit);
+
+        assertThrows(IllegalStateException.class, unitOfWork::commit);
+        Goal lateGoal = new Goal(scorer, brazil, 30, match);
+        int goalsAfterRollback = scorer.getGoals();
+        assertThrows(IllegalStateException.class, () -> unitOfWork.registerGoal(lateGoal));
+        assertEquals(goalsAfterRollback, scorer.getGoals());
+    }
+
+    @Test
+    void Commit_LoiTrongPhase_KhongChuyenCountersSangPendingUpdates() throws SQLException {
+        try (Statement statement = dbManager.getConnection().createStatement()) {
+            statement.execute("DROP TABLE cards");
+        }
+        PendingUpdates pendingUpdates = new PendingUpdates(dbManager);
+        Match match = new Match(brazil, spain, "Venue", "Referee", false);
+        MatchUnitOfWork unitOfWork = registerMatch(new MatchUnitOfWork(dbManager, pendingUpdates), match);
+        unitOfWork.registerTeamUpdate(brazil);
+
+        assertThrows(SQLException.class, unitOfWork::commit);
+
+        assertEquals(0, pendingUpdates.size());
+    }
+
+    @Test
+    void Commit_Loi_HoanTacThongKeTeamVaBangXepHang() throws SQLException {
+        try (Statement statement = dbManager.getConnection().createStatement()) {
+            statement.execute("DROP TABLE cards");
+        }
+        // Spain đứng đầu bảng từ trận trước
+        spain.updateMatchStatistics(1, 0);
+        Group group = new Group("A", List.of(spain, brazil), new ArrayList<>());
+        StandingsTable standingsTable = new StandingsTable(List.of(group));
+        List<Team> standingsBefore = new ArrayList<>(standingsTable.getStandings(group));
+        Match match = new Match(brazil, spain, "Venue", "Referee", false);
+        MatchUnitOfWork unitOfWork = registerMatch(new MatchUnitOfWork(dbManager), match);
+        unitOfWork.setStandingsTable(standingsTable);
+        unitOfWork.registerTeamUpdate(brazil);
+        unitOfWork.registerTeamUpdate(spain);
+        match.updateMatchResult(3, 0);
+        standingsTable.applyResult(match);
+        spain.setYellowCards(spain.getYellowCards() + 1);
+        standingsTable.refresh(spain);
+        assertEquals(spain, standingsBefore.get(0));
+        assertEquals(brazil, standingsTable.getStandings(group).get(0));
+
+        assertThrows(SQLException.class, unitOfWork::commit);
+
+        assertEquals(0, brazil.getPoints());
+        assertEquals(0, brazil.getWins());
+        assertEquals(0, brazil.getGoalsFor());
+        assertEquals(3, spain.getPoints());
+        assertEquals(0, spain.getLosses());
+        assertEquals(1, spain.getGoalDifference());
+        assertEquals(0, spain.getYellowCards());
+        assertEquals(standingsBefore, standingsTable.getStandings(group));
+    }
+}
@@ -0,0 +1,129 @@
+package com.worldcup;
+
+import com.worldcup.database.Migration;
+import com.worldcup.database.MigrationRunner;
+import com.worldcup.database.SchemaMigrations;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MigrationRunnerTest {
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    private List<String> names(String type) throws SQLException {
+        List<String> names = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                     "SELECT name FROM sqlite_master WHERE type = '" + type + "' AND name NOT LIKE 'sqlite_%' ORDER BY name")) {
+            while (rs.next()) {
+                names.add(rs.getString(1));
+            }
+        }
+        return names;
+    }
+
+    @Test
+    void Migrate_DatabaseMoi_LenVersionMoiNhatVaTaoIndexes() throws SQLException {
+        MigrationRunner runner = new MigrationRunner(connection, SchemaMigrations.all());
+
+        runner.migrate();
+
+        assertEquals(2, runner.getLatestVersion());
+        assertEquals(2, runner.getCurrentVersion());
+        assertEquals(List.of("assistant_coaches", "cards", "goals", "groups", "matches", "players",
+                "substitutions", "teams", "tournament_stats", "tournaments"), names("table"));
+        assertEquals(List.of("idx_cards_match", "idx_cards_player", "idx_cards_team_type", "idx_goals_match",
+                "idx_goals_player", "idx_goals_team", "idx_matches_team_a", "idx_matches_team_b", "idx_matches_type",
+                "idx_players_team_name", "idx_substitutions_match_team", "idx_substitutions_team",
+                "idx_teams_tournament_group", "idx_tournament_stats_tournament"), names("index"));
+    }
+
+    @Test
+    void Migrate_ChayLaiLanHai_KhongThayDoiSchema() throws SQLException {
+        MigrationRunner runner = new MigrationRunner(connection, SchemaMigrations.all());
+        runner.migrate();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO tournaments (name, year, host_country) VALUES ('World Cup', 2026, 'Mexico')");
+        }
+        List<String> tables = names("table");
+        List<String> indexes = names("index");
+
+        runner.migrate();
+
+        assertEquals(2, runner.getCurrentVersion());
+        assertEquals(tables, names("table"));
+        assertEquals(indexes, names("index"));
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM tournaments")) {
+            assertTrue(rs.next());
+            assertEquals(1, rs.getInt(1));
+        }
+    }
+
+    @Test
+    void MigrateTo_Version1_XoaIndexesGiuBang() throws SQLException {
+        MigrationRunner runner = new MigrationRunner(connection, SchemaMigrations.all());
+        runner.migrate();
+
+        runner.migrateTo(1);
+
+        assertEquals(1, runner.getCurrentVersion());
+        assertEquals(10, names("table").size());
+        assertTrue(names("index").isEmpty());
+    }
+
+    @Test
+    void Migrate_MigrationLoi_RollbackVaGiuVersion() throws SQLException {
+        Migration broken = new Migration(3, "Broken",
+                List.of("CREATE INDEX idx_teams_name ON teams(name)", "CREATE INDEX idx_missing ON missing_table(id)"),
+                List.of("DROP INDEX IF EXISTS idx_teams_name"));
+        List<Migration> migrations = new ArrayList<>(SchemaMigrations.all());
+        migrations.add(broken);
+        MigrationRunner runner = new MigrationRunner(connection, migrations);
+
+        assertThrows(SQLException.class, runner::migrate);
+
+        assertEquals(2, runner.getCurrentVersion());
+        assertFalse(names("index").contains("idx_teams_name"));
+        assertTrue(connection.getAutoCommit());
+    }
+
+    @Test
+    void Migrate_DatabaseMoiHonCode_ThrowSQLException() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA user_version = 3");
+        }
+        MigrationRunner runner = new MigrationRunner(connection, SchemaMigrations.all());
+
+        assertThrows(SQLException.class, runner::migrate);
+        assertEquals(3, runner.getCurrentVersion());
+    }
+
+    @Test
+    void KhoiTao_VersionKhongLienTiep_ThrowIllegalArgumentException() {
+        Migration v2 = new Migration(2, "Skip V1", List.of(), List.of());
+
+        assertThrows(IllegalArgumentException.class, () -> new MigrationRunner(connection, List.of(v2)));
+    }
+}
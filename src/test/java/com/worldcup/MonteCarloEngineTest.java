@@ -0,0 +1,111 @@
+package com.worldcup;
+
+import com.worldcup.model.Group;
+import com.worldcup.model.Team;
+import com.worldcup.simulation.MonteCarloEngine;
+import com.worldcup.simulation.MonteCarloResult;
+import com.worldcup.simulation.MonteCarloResult.Stage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class MonteCarloEngineTest {
+
+    private static final String[] GROUP_NAMES = {"A", "B", "C", "D", "E", "F", "G", "H"};
+
+    private List<Group> groups;
+
+    @BeforeEach
+    void setUp() {
+        groups = new ArrayList<>();
+        for (int g = 0; g < GROUP_NAMES.length; g++) {
+            Group group = new Group(GROUP_NAMES[g]);
+            for (int i = 1; i <= 4; i++) {
+                group.addTeam(createTeam("Team" + GROUP_NAMES[g] + i));
+            }
+            groups.add(group);
+        }
+    }
+
+    private Team createTeam(String name) {
+        return new Team(name, "Region", "Coach", List.of("Assistant1"), "Medical", false);
+    }
+
+    @Test
+    void Run_MoiGiai_DungSoDoiMoiVong() throws Exception {
+        MonteCarloResult result = new MonteCarloEngine(groups).run(5_000, 1L, 2);
+
+        long[] expected = {16, 8, 4, 2, 1};
+        for (Stage stage : Stage.values()) {
+            long total = 0;
+            for (String teamName : result.getTeamNames()) {
+                total += result.getCount(teamName, stage);
+            }
+            assertEquals(expected[stage.ordinal()] * 5_000, total, stage.name());
+        }
+    }
+
+    @Test
+    void Run_XacSuatGiamDanTheoVong() throws Exception {
+        MonteCarloResult result = new MonteCarloEngine(groups).run(5_000, 7L, 2);
+
+        for (String teamName : result.getTeamNames()) {
+            double previous = 1.0;
+            for (Stage stage : Stage.values()) {
+                double probability = result.getProbability(teamName, stage);
+                assertTrue(probability <= previous, teamName + " " + stage);
+                previous = probability;
+            }
+        }
+    }
+
+    @Test
+    void Run_CungSeed_KetQuaGiongNhauVoiMoiSoThread() throws Exception {
+        MonteCarloEngine engine = new MonteCarloEngine(groups);
+        MonteCarloResult singleThread = engine.run(20_000, 42L, 1);
+        MonteCarloResult multiThread = engine.run(20_000, 42L, 4);
+
+        for (String teamName : engine.getTeamNames()) {
+            for (Stage stage : Stage.values()) {
+                assertEquals(singleThread.getCount(teamName, stage), multiThread.getCount(teamName, stage));
+            }
+        }
+    }
+
+    @Test
+    void Run_CacDoiNgangNhau_XacSuatVoDichXapXiDeuNhau() throws Exception {
+        MonteCarloResult result = new MonteCarloEngine(groups).run(200_000, 3L, 2);
+
+        for (String teamName : result.getTeamNames()) {
+            assertEquals(1.0 / 32, result.getProbability(teamName, Stage.CHAMPION), 0.01);
+            assertEquals(0.5, result.getProbability(teamName, Stage.ROUND_OF_16), 0.05);
+        }
+    }
+
+    @Test
+    void Run_KhongLanNao_XacSuatBang0() throws Exception {
+        MonteCarloResult result = new MonteCarloEngine(groups).run(0, 1L, 1);
+        assertEquals(0.0, result.getProbability("TeamA1", Stage.CHAMPION));
+    }
+
+    @Test
+    void MonteCarloEngine_SaiSoBang_NemException() {
+        groups.remove(groups.size() - 1);
+        assertThrows(IllegalArgumentException.class, () -> new MonteCarloEngine(groups));
+    }
+
+    @Test
+    void MonteCarloEngine_DoiNamTrongHaiBang_NemException() {
+        groups.get(1).getTeams().set(0, groups.get(0).getTeams().get(0));
+        assertThrows(IllegalArgumentException.class, () -> new MonteCarloEngine(groups));
+    }
+
+    @Test
+    void GetProbability_DoiKhongTonTai_NemException() throws Exception {
+        MonteCarloResult result = new MonteCarloEngine(groups).run(10, 1L, 1);
+        assertThrows(IllegalArgumentException.class, () -> result.getProbability("Unknown", Stage.FINAL));
+    }
+}
@@ -0,0 +1,129 @@
+package com.worldcup;
+
+import com.worldcup.database.DatabaseManager;
+import com.worldcup.manager.ObjectManager;
+import com.worldcup.manager.ScorerLeaderboard;
+import com.worldcup.model.Player;
+import com.worldcup.model.Team;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ObjectManagerTest {
+
+    @TempDir
+    Path directory;
+
+    private DatabaseManager dbManager;
+    private ObjectManager objectManager;
+
+    @BeforeEach
+    void setUp() {
+        dbManager = new DatabaseManager("jdbc:sqlite:" + directory.resolve("worldcup.db"), 1);
+        objectManager = ObjectManager.getInstance(dbManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ObjectManager.setSimulatorThread(false);
+        dbManager.close();
+    }
+
+    private Team team(String name) {
+        List<Player> starting = new ArrayList<>();
+        List<Player> substitutes = new ArrayList<>();
+        for (int i = 1; i <= 16; i++) {
+            Player player = new Player(name + " Player " + i, i, "MF");
+            (i <= 11 ? starting : substitutes).add(player);
+        }
+        Team team = new Team(name, "Europe", "Coach", List.of("Assistant1"), "Medical Staff",
+                starting, substitutes, false);
+        team.setTournamentId(1);
+        return team;
+    }
+
+    /**
+     * Lưu team và players, sau đó trả về bản sao chưa có id player như khi nạp lại từ nơi khác
+     */
+    private Team savedTeamWithoutPlayerIds(String name) throws SQLException {
+        Team saved = team(name);
+        objectManager.saveTeams(List.of(saved));
+        objectManager.savePlayers(Map.of(saved.getId(), saved.getPlayers()));
+        objectManager.getIdentityMap().clear();
+
+        Team copy = team(name);
+        copy.setId(saved.getId());
+        return copy;
+    }
+
+    @Test
+    void ResolvePlayerIds_NapMotLan_GanIdChoMoiPlayer() throws SQLException {
+        Team team = savedTeamWithoutPlayerIds("Brazil");
+
+        objectManager.resolvePlayerIds(team);
+
+        assertTrue(objectManager.getIdentityMap().isComplete(team.getId()));
+        for (Player player : team.getPlayers()) {
+            assertTrue(player.getId() > 0, player.getName());
+        }
+    }
+
+    @Test
+    void SimulatorThread_CanTraDatabase_ThrowIllegalStateException() throws SQLException {
+        Team team = savedTeamWithoutPlayerIds("Brazil");
+        Player player = team.getStartingPlayers().get(0);
+
+        ObjectManager.setSimulatorThread(true);
+
+        assertThrows(IllegalStateException.class, () -> objectManager.resolvePlayerId(player, team));
+        assertThrows(IllegalStateException.class, () -> objectManager.getTeamId("Spain", 1));
+        assertEquals(0, player.getId());
+    }
+
+    @Test
+    void SimulatorThread_SauKhiResolveTruoc_ChiTraIdentityMap() throws SQLException {
+        Team team = savedTeamWithoutPlayerIds("Brazil");
+        objectManager.resolvePlayerIds(team);
+        Team sameTeam = team("Brazil");
+        sameTeam.setId(team.getId());
+
+        ObjectManager.setSimulatorThread(true);
+        Player player = sameTeam.getSubstitutePlayers().get(0);
+        objectManager.resolvePlayerId(player, sameTeam);
+
+        assertEquals(team.getSubstitutePlayers().get(0).getId(), player.getId());
+    }
+
+    @Test
+    void KhoiTao_DungLaiBangVuaPhaLuoiTuTournamentMoiNhat() throws SQLException {
+        Team team = savedTeamWithoutPlayerIds("Brazil");
+        objectManager.resolvePlayerIds(team);
+        try (Statement statement = dbManager.getConnection().createStatement()) {
+            statement.execute("INSERT INTO tournaments (id, name, year, host_country) VALUES (1, 'World Cup', 2026, 'Mexico')");
+            statement.execute("INSERT INTO matches (team_a_id, team_b_id, team_a_score, team_b_score, match_type) VALUES ("
+                    + team.getId() + ", " + team.getId() + ", 2, 0, 'GROUP')");
+            for (int i = 0; i < 2; i++) {
+                statement.execute("INSERT INTO goals (match_id, player_id, team_id, minute) VALUES (1, "
+                        + team.getStartingPlayers().get(0).getId() + ", " + team.getId() + ", " + (10 + i) + ")");
+            }
+        }
+        dbManager.close();
+        dbManager = new DatabaseManager("jdbc:sqlite:" + directory.resolve("worldcup.db"), 1);
+
+        ScorerLeaderboard leaderboard = ObjectManager.getInstance(dbManager).getScorerLeaderboard();
+
+        assertTrue(leaderboard.isComplete(1));
+        assertEquals(team.getStartingPlayers().get(0).getId(), leaderboard.leader().orElseThrow().getPlayerId());
+        assertEquals(2, leaderboard.leader().orElseThrow().getGoals());
+    }
+}
@@ -0,0 +1,67 @@
+package com.worldcup;
+
+import com.worldcup.model.Card;
+import com.worldcup.repository.impl.PlayerCounterBuffer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlayerCounterBufferTest {
+
+    private PlayerCounterBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new PlayerCounterBuffer(null);
+    }
+
+    @Test
+    void Add_CungPlayer_CongDonVaoMotEntry() {
+        buffer.addGoal(7);
+        buffer.addGoal(7);
+        buffer.addCard(7, Card.CardType.YELLOW);
+        buffer.addCard(7, Card.CardType.RED);
+
+        assertEquals(1, buffer.size());
+        assertEquals(2, buffer.getPendingGoals(7));
+        assertEquals(1, buffer.getPendingYellowCards(7));
+        assertEquals(1, buffer.getPendingRedCards(7));
+    }
+
+    @Test
+    void Add_NhieuPlayer_MoiPlayerMotEntry() {
+        buffer.addGoal(1);
+        buffer.addCard(2, Card.CardType.YELLOW);
+
+        assertEquals(2, buffer.size());
+        assertEquals(1, buffer.getPendingGoals(1));
+        assertEquals(0, buffer.getPendingGoals(2));
+        assertEquals(1, buffer.getPendingYellowCards(2));
+    }
+
+    @Test
+    void Add_PlayerChuaCoId_NemException() {
+        assertThrows(IllegalArgumentException.class, () -> buffer.addGoal(0));
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    void TransferFrom_CongDonVaLamRongBufferNguon() {
+        PlayerCounterBuffer match = new PlayerCounterBuffer(null);
+        buffer.addGoal(5);
+        match.addGoal(5);
+        match.addCard(6, Card.CardType.RED);
+
+        buffer.transferFrom(match);
+
+        assertTrue(match.isEmpty());
+        assertEquals(2, buffer.size());
+        assertEquals(2, buffer.getPendingGoals(5));
+        assertEquals(1, buffer.getPendingRedCards(6));
+    }
+
+    @Test
+    void Flush_BufferRong_KhongCanDatabase() throws Exception {
+        assertEquals(0, buffer.flush());
+    }
+}
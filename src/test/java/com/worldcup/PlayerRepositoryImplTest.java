@@ -0,0 +1,194 @@
+package com.worldcup;
+
+import com.worldcup.database.DatabaseManager;
+import com.worldcup.model.Player;
+import com.worldcup.repository.impl.PlayerRepositoryImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlayerRepositoryImplTest {
+
+    @TempDir
+    Path directory;
+
+    private DatabaseManager dbManager;
+    private PlayerRepositoryImpl playerRepository;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dbManager = new DatabaseManager("jdbc:sqlite:" + directory.resolve("worldcup.db"), 1);
+        playerRepository = new PlayerRepositoryImpl(dbManager);
+        try (Statement statement = dbManager.getConnection().createStatement()) {
+            statement.execute("INSERT INTO tournaments (name, year, host_country) VALUES ('World Cup', 2026, 'Mexico')");
+            statement.execute("""
+                INSERT INTO teams (name, region, coach, medical_staff, tournament_id)
+                VALUES ('Brazil', 'South America', 'Coach', 'Medical', 1), ('Spain', 'Europe', 'Coach', 'Medical', 1)
+            """);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        dbManager.close();
+    }
+
+    private List<Player> players(String team, int count) {
+        List<Player> players = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            players.add(new Player(team + " Player " + i, i, "MF"));
+        }
+        return players;
+    }
+
+    private String nameOf(int playerId) throws SQLException {
+        try (PreparedStatement pstmt = dbManager.getConnection().prepareStatement("SELECT name FROM players WHERE id = ?")) {
+            pstmt.setInt(1, playerId);
+            ResultSet rs = pstmt.executeQuery();
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+
+    private long countPlayers() throws SQLException {
+        try (Statement statement = dbManager.getConnection().createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM players")) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    private Set<Integer> startingIds(int teamId) throws SQLException {
+        Set<Integer> ids = new HashSet<>();
+        try (PreparedStatement pstmt = dbManager.getConnection()
+                .prepareStatement("SELECT id FROM players WHERE team_id = ? AND is_starting = 1")) {
+            pstmt.setInt(1, teamId);
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+        }
+        return ids;
+    }
+
+    private List<Integer> ids(List<Player> players) {
+        List<Integer> ids = new ArrayList<>();
+        for (Player player : players) {
+            ids.add(player.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Lưu 16 cầu thủ cho mỗi team, tất cả chưa đá chính
+     */
+    private Map<Integer, List<Player>> saveTwoTeams() throws SQLException {
+        Map<Integer, List<Player>> playersByTeamId = new LinkedHashMap<>();
+        playersByTeamId.put(1, players("Brazil", 16));
+        playersByTeamId.put(2, players("Spain", 16));
+        playerRepository.saveAll(playersByTeamId);
+        return playersByTeamId;
+    }
+
+    @Test
+    void SaveAll_NhieuTeam_MoiPlayerNhanIdCuaRowCuaMinh() throws SQLException {
+        Map<Integer, List<Player>> playersByTeamId = new LinkedHashMap<>();
+        playersByTeamId.put(1, players("Brazil", 16));
+        playersByTeamId.put(2, players("Spain", 16));
+
+        playerRepository.saveAll(playersByTeamId);
+
+        assertEquals(32, countPlayers());
+        for (List<Player> players : playersByTeamId.values()) {
+            for (Player player : players) {
+                assertEquals(player.getName(), nameOf(player.getId()));
+                assertTrue(player.getDirtyColumns().isEmpty());
+            }
+        }
+    }
+
+    @Test
+    void SaveAll_TrungSoAo_BoQuaRowTrungVaMapDungCacRowConLai() throws SQLException {
+        Player existing = new Player("Existing", 10, "FW");
+        playerRepository.save(existing, 1);
+        List<Player> brazil = players("Brazil", 12);
+        Player sameJerseyInBatch = new Player("Brazil Duplicate", 3, "DF");
+        brazil.add(sameJerseyInBatch);
+
+        playerRepository.saveAll(Map.of(1, brazil));
+
+        // Số áo 10 đã có trong database và số áo 3 bị lặp lại trong cùng batch
+        assertEquals(12, countPlayers());
+        assertEquals(0, brazil.get(9).getId());
+        assertEquals(0, sameJerseyInBatch.getId());
+        assertEquals("Existing", nameOf(existing.getId()));
+        for (Player player : brazil) {
+            if (player.getId() > 0) {
+                assertEquals(player.getName(), nameOf(player.getId()));
+            }
+        }
+    }
+
+    @Test
+    void SaveAll_LoiKhacTrungSoAo_ThrowSQLException() {
+        List<Player> brazil = players("Brazil", 3);
+        brazil.get(1).setPosition(null);
+
+        assertThrows(SQLException.class, () -> playerRepository.saveAll(Map.of(1, brazil)));
+    }
+
+    @Test
+    void UpdateLineup_DoiHaiCauThu_ChiCapNhatRowThayDoi() throws SQLException {
+        Map<Integer, List<Player>> playersByTeamId = saveTwoTeams();
+        List<Integer> brazil = ids(playersByTeamId.get(1));
+        List<Integer> spain = ids(playersByTeamId.get(2));
+        assertEquals(11, playerRepository.updateLineup(1, brazil.subList(0, 11)));
+        assertEquals(11, playerRepository.updateLineup(2, spain.subList(0, 11)));
+
+        List<Integer> lineup = new ArrayList<>(brazil.subList(2, 13));
+        int updated = playerRepository.updateLineup(1, lineup);
+
+        // Hai cầu thủ rời sân và hai cầu thủ vào sân
+        assertEquals(4, updated);
+        assertEquals(new HashSet<>(lineup), startingIds(1));
+        assertEquals(new HashSet<>(spain.subList(0, 11)), startingIds(2));
+    }
+
+    @Test
+    void UpdateLineup_DanhSachRong_DatIsStarting0ChoCaTeam() throws SQLException {
+        Map<Integer, List<Player>> playersByTeamId = saveTwoTeams();
+        List<Integer> spain = ids(playersByTeamId.get(2));
+        playerRepository.updateLineup(1, ids(playersByTeamId.get(1)).subList(0, 11));
+        playerRepository.updateLineup(2, spain.subList(0, 11));
+
+        assertEquals(11, playerRepository.updateLineup(1, List.of()));
+
+        assertTrue(startingIds(1).isEmpty());
+        assertEquals(new HashSet<>(spain.subList(0, 11)), startingIds(2));
+        assertEquals(0, playerRepository.updateLineup(1, List.of()));
+    }
+
+    @Test
+    void UpdateLineup_GoiLaiCungDoiHinh_TraVe0() throws SQLException {
+        Map<Integer, List<Player>> playersByTeamId = saveTwoTeams();
+        List<Integer> lineup = ids(playersByTeamId.get(1)).subList(5, 16);
+        assertEquals(11, playerRepository.updateLineup(1, lineup));
+
+        assertEquals(0, playerRepository.updateLineup(1, lineup));
+
+        assertEquals(new HashSet<>(lineup), startingIds(1));
+    }
+}
@@ -4,6 +4,10 @@ import com.worldcup.model.Player;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 public class PlayerTest {
     // BR6: Khởi tạo cầu thủ cơ bản
     @Test
@@ -471,4 +475,29 @@ public class PlayerTest {
         player.scoreGoal();
         assertEquals(1, player.getGoals());
     }
+
+    @Test
+    void GetDirtyColumns_SauKhiLuu_Rong() {
+        Player player = new Player("Messi", 10, "Forward");
+        player.markPersisted();
+        assertFalse(player.isDirty());
+    }
+
+    @Test
+    void GetDirtyColumns_GhiBanVaNhanThe_ChiCacCotThayDoi() {
+        Player player = new Player("Messi", 10, "Forward");
+        player.markPersisted();
+        player.scoreGoal();
+        player.receiveYellowCard();
+        assertEquals(List.of("yellow_cards", "goals"), new ArrayList<>(player.getDirtyColumns().keySet()));
+        assertEquals(1, player.getDirtyColumns().get("goals"));
+    }
+
+    @Test
+    void GetDirtyColumns_DoiTrangThaiDaChinh_ChiCotIsStarting() {
+        Player player = new Player("Messi", 10, "Forward");
+        player.markPersisted();
+        player.setStarting(true);
+        assertEquals(Map.of("is_starting", true), player.getDirtyColumns());
+    }
 }
@@ -0,0 +1,84 @@
+package com.worldcup;
+
+import com.worldcup.generator.DataGenerator;
+import com.worldcup.generator.RandomSource;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class RandomSourceTest {
+
+    private List<Integer> draw(RandomSource random, int count) {
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            values.add(random.nextInt(1000));
+        }
+        return values;
+    }
+
+    @Test
+    void Seeded_CungSeed_CungDaySo() {
+        assertEquals(draw(RandomSource.seeded(42), 50), draw(RandomSource.seeded(42), 50));
+    }
+
+    @Test
+    void Seeded_KhacSeed_KhacDaySo() {
+        assertNotEquals(draw(RandomSource.seeded(1), 50), draw(RandomSource.seeded(2), 50));
+    }
+
+    @Test
+    void Split_CungSeed_CacNhanhLapLaiDuoc() {
+        RandomSource first = RandomSource.seeded(7);
+        RandomSource second = RandomSource.seeded(7);
+
+        assertEquals(draw(first.split(), 20), draw(second.split(), 20));
+        assertEquals(draw(first.split(), 20), draw(second.split(), 20));
+        assertEquals(draw(first, 20), draw(second, 20));
+    }
+
+    @Test
+    void Split_NhanhDocLapVoiNguonGoc() {
+        RandomSource root = RandomSource.seeded(7);
+        RandomSource branch = root.split();
+        assertNotEquals(draw(root, 20), draw(branch, 20));
+    }
+
+    @Test
+    void Shuffle_GiuNguyenPhanTu_VaLapLaiDuoc() {
+        List<Integer> original = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            original.add(i);
+        }
+        List<Integer> first = new ArrayList<>(original);
+        List<Integer> second = new ArrayList<>(original);
+
+        RandomSource.seeded(3).shuffle(first);
+        RandomSource.seeded(3).shuffle(second);
+
+        assertEquals(first, second);
+        assertNotEquals(original, first);
+        assertEquals(original, first.stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    void DataGenerator_BindRandom_DungNguonDaGanVaKhoiPhuc() {
+        RandomSource previous = DataGenerator.bindRandom(RandomSource.seeded(11));
+        int first = DataGenerator.random().nextInt(1000);
+        RandomSource bound = DataGenerator.bindRandom(previous);
+
+        assertEquals(RandomSource.seeded(11).nextInt(1000), first);
+        assertSame(previous, DataGenerator.random());
+        assertNotSame(previous, bound);
+    }
+
+    @Test
+    void DataGenerator_SetSeed_SinhDoiBongLapLaiDuoc() {
+        DataGenerator.setSeed(5);
+        String firstTeam = DataGenerator.generateTeams(4).get(0).getName();
+        DataGenerator.setSeed(5);
+        assertEquals(firstTeam, DataGenerator.generateTeams(4).get(0).getName());
+    }
+}
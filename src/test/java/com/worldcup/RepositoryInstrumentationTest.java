@@ -0,0 +1,113 @@
+package com.worldcup;
+
+import com.worldcup.repository.metrics.MethodStatistics;
+import com.worldcup.repository.metrics.RepositoryInstrumentation;
+import com.worldcup.repository.metrics.RepositoryMetrics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class RepositoryInstrumentationTest {
+
+    public interface SampleRepository {
+        List<String> findAll() throws SQLException;
+
+        Optional<String> findById(int id) throws SQLException;
+
+        void saveAll(Map<Integer, List<String>> itemsByTeamId) throws SQLException;
+
+        void delete(int id) throws SQLException;
+    }
+
+    private static class SampleRepositoryImpl implements SampleRepository {
+        @Override
+        public List<String> findAll() {
+            return List.of("a", "b", "c");
+        }
+
+        @Override
+        public Optional<String> findById(int id) {
+            return id == 1 ? Optional.of("a") : Optional.empty();
+        }
+
+        @Override
+        public void saveAll(Map<Integer, List<String>> itemsByTeamId) {
+        }
+
+        @Override
+        public void delete(int id) throws SQLException {
+            throw new SQLException("locked");
+        }
+    }
+
+    private SampleRepository repository;
+    private RepositoryMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        repository = RepositoryInstrumentation.instrument(SampleRepository.class, new SampleRepositoryImpl());
+        metrics = RepositoryInstrumentation.metricsFor("SampleRepository");
+        metrics.reset();
+    }
+
+    private MethodStatistics statisticsOf(String method) {
+        return metrics.getMethods().stream()
+                .filter(statistics -> statistics.getMethod().equals(method))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    void Instrument_GoiMethod_DemSoLanVaSoRowKetQua() throws Exception {
+        assertEquals(3, repository.findAll().size());
+        repository.findAll();
+
+        MethodStatistics statistics = statisticsOf("findAll");
+        assertEquals(2, statistics.getCalls());
+        assertEquals(6, statistics.getRows());
+        assertEquals(0, statistics.getErrors());
+        assertTrue(statistics.getMaxMicros() >= statistics.getP50Micros());
+    }
+
+    @Test
+    void Instrument_Optional_Rows0Hoac1() throws Exception {
+        repository.findById(1);
+        repository.findById(2);
+        assertEquals(1, statisticsOf("findById").getRows());
+    }
+
+    @Test
+    void Instrument_GhiHangLoat_RowsLaKichThuocThamSo() throws Exception {
+        repository.saveAll(Map.of(1, List.of("a", "b"), 2, List.of("c")));
+        assertEquals(3, statisticsOf("saveAll").getRows());
+    }
+
+    @Test
+    void Instrument_NemException_GiuNguyenExceptionVaDemLoi() {
+        SQLException e = assertThrows(SQLException.class, () -> repository.delete(1));
+        assertEquals("locked", e.getMessage());
+        assertEquals(1, statisticsOf("delete").getErrors());
+        assertEquals(1, metrics.getTotalErrors());
+    }
+
+    @Test
+    void Instrument_DangKyMXBean() throws Exception {
+        repository.findAll();
+        ObjectName name = new ObjectName("com.worldcup:type=Repository,name=SampleRepository");
+        assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+        assertEquals(1L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "TotalCalls"));
+    }
+
+    @Test
+    void Summary_ChuaRepositoryDaDuocGoi() throws Exception {
+        repository.findAll();
+        assertTrue(RepositoryInstrumentation.summary().contains("SampleRepository"));
+    }
+}
@@ -0,0 +1,174 @@
+package com.worldcup;
+
+import com.worldcup.manager.ScorerLeaderboard;
+import com.worldcup.manager.ScorerLeaderboard.Scorer;
+import com.worldcup.model.Goal;
+import com.worldcup.model.Match;
+import com.worldcup.model.Player;
+import com.worldcup.model.Team;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScorerLeaderboardTest {
+
+    private ScorerLeaderboard leaderboard;
+    private Team brazil;
+    private Match match;
+
+    @BeforeEach
+    void setUp() {
+        leaderboard = new ScorerLeaderboard();
+        brazil = team("Brazil", 1);
+        match = new Match(brazil, team("Spain", 1), "Venue", "Referee", false);
+    }
+
+    private Team team(String name, int tournamentId) {
+        List<Player> starting = new ArrayList<>();
+        List<Player> substitutes = new ArrayList<>();
+        for (int i = 1; i <= 11; i++) {
+            starting.add(new Player(name + " Player " + i, i, "MF"));
+        }
+        for (int i = 12; i <= 16; i++) {
+            substitutes.add(new Player(name + " Player " + i, i, "MF"));
+        }
+        Team team = new Team(name, "Europe", "Coach", List.of("Assistant1"), "Medical Staff",
+                starting, substitutes, false);
+        team.setTournamentId(tournamentId);
+        return team;
+    }
+
+    private Player player(int id, String name) {
+        Player player = new Player(name, id, "ST");
+        player.setId(id);
+        return player;
+    }
+
+    private void score(Player player, Team team, int times) {
+        for (int i = 0; i < times; i++) {
+            leaderboard.addGoal(new Goal(player, team, 10 + i, match));
+        }
+    }
+
+    @Test
+    void AddGoal_XepTheoSoBanRoiTen() {
+        leaderboard.startTournament(1);
+        score(player(1, "Zico"), brazil, 2);
+        score(player(2, "Adriano"), brazil, 2);
+        score(player(3, "Ronaldo"), brazil, 3);
+
+        List<Scorer> top = leaderboard.top(0);
+        assertEquals(List.of("Ronaldo", "Adriano", "Zico"),
+                List.of(top.get(0).getPlayerName(), top.get(1).getPlayerName(), top.get(2).getPlayerName()));
+        assertEquals(3, leaderboard.leader().orElseThrow().getGoals());
+        assertEquals(2, leaderboard.getGoals(1));
+        assertTrue(leaderboard.isComplete(1));
+    }
+
+    @Test
+    void AddGoal_CauThuTrungTen_KhongBiGop() {
+        leaderboard.startTournament(1);
+        score(player(1, "Silva"), brazil, 1);
+        score(player(2, "Silva"), brazil, 2);
+
+        assertEquals(2, leaderboard.size());
+        assertEquals(2, leaderboard.leader().orElseThrow().getPlayerId());
+        assertEquals(1, leaderboard.getGoals(1));
+    }
+
+    @Test
+    void AddGoal_PlayerChuaCoId_BiBoQua() {
+        leaderboard.startTournament(1);
+        score(new Player("Unsaved", 9, "ST"), brazil, 1);
+
+        assertEquals(0, leaderboard.size());
+        assertTrue(leaderboard.leader().isEmpty());
+    }
+
+    @Test
+    void AddGoal_TournamentKhac_ChuyenBangVaChuaDayDu() {
+        leaderboard.startTournament(1);
+        score(player(1, "Pele"), brazil, 1);
+
+        score(player(5, "Messi"), team("Argentina", 2), 1);
+
+        assertEquals(2, leaderboard.getTournamentId());
+        assertFalse(leaderboard.isComplete(2));
+        assertFalse(leaderboard.isComplete(1));
+        assertEquals(0, leaderboard.getGoals(1));
+    }
+
+    @Test
+    void StartTournament_CungId_VanXoaBangCu() {
+        leaderboard.startTournament(1);
+        score(player(1, "Pele"), brazil, 1);
+
+        leaderboard.startTournament(1);
+
+        assertEquals(0, leaderboard.size());
+        assertTrue(leaderboard.isComplete(1));
+    }
+
+    @Test
+    void Top_GioiHanK() {
+        leaderboard.startTournament(1);
+        for (int id = 1; id <= 10; id++) {
+            score(player(id, "Player " + id), brazil, id);
+        }
+
+        List<Scorer> top = leaderboard.top(3);
+        assertEquals(List.of(10, 9, 8), List.of(top.get(0).getGoals(), top.get(1).getGoals(), top.get(2).getGoals()));
+        assertEquals(10, leaderboard.top(20).size());
+    }
+
+    @Test
+    void TopK_HeapGioiHan_GiongSapXepToanBo() {
+        List<Scorer> scorers = new ArrayList<>();
+        for (int id = 1; id <= 50; id++) {
+            scorers.add(new Scorer(id, "Player " + (id % 7), "Brazil", "ST", id % 5));
+        }
+        List<Scorer> sorted = new ArrayList<>(scorers);
+        sorted.sort(ScorerLeaderboard.RANKING);
+
+        assertEquals(sorted.subList(0, 10), ScorerLeaderboard.topK(scorers, 10));
+        assertEquals(sorted, ScorerLeaderboard.topK(scorers, 0));
+        assertEquals(sorted, ScorerLeaderboard.topK(scorers, 100));
+    }
+
+    @Test
+    void AddGoal_ChiGiuCapacityCauThu_TopVanGiongSapXepToanBo() {
+        leaderboard = new ScorerLeaderboard(3);
+        leaderboard.startTournament(1);
+        SplittableRandom random = new SplittableRandom(42);
+        Map<Integer, Player> players = new HashMap<>();
+        Map<Integer, Integer> goals = new HashMap<>();
+        for (int n = 0; n < 500; n++) {
+            int id = 1 + random.nextInt(40);
+            Player player = players.computeIfAbsent(id, key -> player(key, "Player " + (key % 13)));
+            score(player, brazil, 1);
+            goals.merge(id, 1, Integer::sum);
+
+            List<Scorer> expected = new ArrayList<>();
+            goals.forEach((playerId, count) ->
+                    expected.add(new Scorer(playerId, players.get(playerId).getName(), "Brazil", "ST", count)));
+            expected.sort(ScorerLeaderboard.RANKING);
+            List<Scorer> top = leaderboard.top(3);
+            for (int i = 0; i < top.size(); i++) {
+                assertEquals(expected.get(i).getPlayerId(), top.get(i).getPlayerId());
+                assertEquals(expected.get(i).getGoals(), top.get(i).getGoals());
+            }
+            assertEquals(Math.min(3, expected.size()), top.size());
+        }
+
+        assertEquals(goals.size(), leaderboard.size());
+        assertEquals(goals.size(), leaderboard.top(0).size());
+        assertEquals(goals.get(7).intValue(), leaderboard.getGoals(7));
+    }
+}
@@ -0,0 +1,134 @@
+package com.worldcup;
+
+import com.worldcup.model.Group;
+import com.worldcup.model.Match;
+import com.worldcup.model.Player;
+import com.worldcup.model.StandingsTable;
+import com.worldcup.model.Team;
+import com.worldcup.model.TeamStandingComparator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class StandingsTableTest {
+
+    private Team brazil;
+    private Team argentina;
+    private Team germany;
+    private Team spain;
+    private Group group;
+    private StandingsTable standingsTable;
+
+    @BeforeEach
+    void setUp() {
+        brazil = createTeam("Brazil", "South America");
+        argentina = createTeam("Argentina", "South America");
+        germany = createTeam("Germany", "Europe");
+        spain = createTeam("Spain", "Europe");
+
+        group = new Group("A");
+        group.addTeam(brazil);
+        group.addTeam(argentina);
+        group.addTeam(germany);
+        group.addTeam(spain);
+
+        standingsTable = new StandingsTable(List.of(group));
+    }
+
+    private Team createTeam(String name, String region) {
+        List<Player> starting = new ArrayList<>();
+        List<Player> substitute = new ArrayList<>();
+        for (int i = 1; i <= 11; i++) {
+            starting.add(new Player(name + "Starting" + i, i, "Position" + (i % 4)));
+        }
+        for (int i = 12; i <= 16; i++) {
+            substitute.add(new Player(name + "Sub" + i, i, "Position" + (i % 4)));
+        }
+        return new Team(name, region, "Coach", List.of("Assistant1"), "Medical", starting, substitute, false);
+    }
+
+    private void play(Team teamA, Team teamB, int teamAScore, int teamBScore) {
+        Match match = new Match(teamA, teamB, "Stadium", "Referee", false);
+        match.updateMatchResult(teamAScore, teamBScore);
+        standingsTable.applyResult(match);
+    }
+
+    @Test
+    void StandingsTable_ChuaCoTranNao_XepTheoTen() {
+        assertEquals(List.of(argentina, brazil, germany, spain), standingsTable.getStandings(group));
+    }
+
+    @Test
+    void StandingsTable_KhongSapXepLaiGroupTeams() {
+        play(spain, brazil, 2, 0);
+
+        assertEquals(List.of(brazil, argentina, germany, spain), group.getTeams());
+        assertEquals(spain, standingsTable.getStandings(group).get(0));
+    }
+
+    @Test
+    void ApplyResult_DoiThang_CapNhatThongKeVaLenDau() {
+        play(germany, argentina, 3, 1);
+
+        assertEquals(3, germany.getPoints());
+        assertEquals(2, germany.getGoalDifference());
+        assertEquals(1, argentina.getLosses());
+        assertEquals(List.of(germany, brazil, spain, argentina), standingsTable.getStandings(group));
+    }
+
+    @Test
+    void ApplyResult_HoaNhau_MoiDoiMotDiem() {
+        play(brazil, spain, 1, 1);
+
+        assertEquals(1, brazil.getPoints());
+        assertEquals(1, spain.getPoints());
+        assertEquals(List.of(brazil, spain, argentina, germany), standingsTable.getStandings(group));
+    }
+
+    @Test
+    void ApplyResult_CaVongBang_TrungVoiSortToanBo() {
+        play(brazil, argentina, 2, 1);
+        play(germany, spain, 0, 0);
+        play(brazil, germany, 1, 3);
+        play(argentina, spain, 4, 0);
+        play(brazil, spain, 1, 1);
+        play(argentina, germany, 2, 2);
+
+        List<Team> expected = new ArrayList<>(group.getTeams());
+        expected.sort(new TeamStandingComparator());
+        assertEquals(expected, standingsTable.getStandings(group));
+        assertEquals(List.of(germany, argentina), standingsTable.getTopTwo(group));
+    }
+
+    @Test
+    void Refresh_ThePhatThayDoi_XepLaiKhiBangDiem() {
+        play(brazil, argentina, 1, 1);
+        assertEquals(List.of(argentina, brazil), standingsTable.getTopTwo(group));
+
+        argentina.setYellowCards(2);
+        standingsTable.refresh(argentina);
+
+        assertEquals(List.of(brazil, argentina), standingsTable.getTopTwo(group));
+    }
+
+    @Test
+    void ApplyResult_HaiDoiKhacBang_NemException() {
+        Team france = createTeam("France", "Europe");
+        Group groupB = new Group("B");
+        groupB.addTeam(france);
+        standingsTable.addGroup(groupB);
+
+        Match match = new Match(brazil, france, "Stadium", "Referee", false);
+        match.updateMatchResult(1, 0);
+        assertThrows(IllegalArgumentException.class, () -> standingsTable.applyResult(match));
+    }
+
+    @Test
+    void GetStandings_KhongSuaDuoc() {
+        assertThrows(UnsupportedOperationException.class,
+                () -> standingsTable.getStandings(group).remove(0));
+    }
+}
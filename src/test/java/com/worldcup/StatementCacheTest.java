@@ -0,0 +1,101 @@
+package com.worldcup;
+
+import com.worldcup.database.StatementCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StatementCacheTest {
+
+    private Connection connection;
+    private StatementCache cache;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+        cache = new StatementCache(connection, 2);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        cache.close();
+        connection.close();
+    }
+
+    @Test
+    void Prepare_CungSQL_TraVeStatementDaCacheVaDemHit() throws SQLException {
+        PreparedStatement first = cache.prepare("SELECT ?");
+        PreparedStatement second = cache.prepare("SELECT ?");
+
+        assertSame(first, second);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0.5, cache.getHitRatio());
+    }
+
+    @Test
+    void Prepare_VuotCapacity_DayRaStatementItDungNhatVaClose() throws SQLException {
+        PreparedStatement one = cache.prepare("SELECT 1");
+        PreparedStatement two = cache.prepare("SELECT 2");
+        // Dùng lại "SELECT 1" nên "SELECT 2" là statement ít dùng nhất
+        cache.prepare("SELECT 1");
+        cache.prepare("SELECT 3");
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertTrue(two.isClosed());
+        assertFalse(one.isClosed());
+        assertSame(one, cache.prepare("SELECT 1"));
+    }
+
+    @Test
+    void Prepare_SauKhiBiDayRa_PrepareLaiVaTinhMiss() throws SQLException {
+        PreparedStatement evicted = cache.prepare("SELECT 1");
+        cache.prepare("SELECT 2");
+        cache.prepare("SELECT 3");
+
+        PreparedStatement prepared = cache.prepare("SELECT 1");
+
+        assertNotSame(evicted, prepared);
+        assertFalse(prepared.isClosed());
+        assertEquals(0, cache.getHits());
+        assertEquals(4, cache.getMisses());
+        assertEquals(2, cache.getEvictions());
+    }
+
+    @Test
+    void Prepare_StatementDaBiClose_PrepareLai() throws SQLException {
+        PreparedStatement closed = cache.prepare("SELECT 1");
+        closed.close();
+
+        PreparedStatement prepared = cache.prepare("SELECT 1");
+
+        assertNotSame(closed, prepared);
+        assertEquals(0, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    void Close_DongMoiStatementTrongCache() throws SQLException {
+        PreparedStatement one = cache.prepare("SELECT 1");
+        PreparedStatement two = cache.prepare("SELECT 2");
+
+        cache.close();
+
+        assertTrue(one.isClosed());
+        assertTrue(two.isClosed());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void Constructor_CapacityKhongHopLe_ThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new StatementCache(connection, 0));
+    }
+}
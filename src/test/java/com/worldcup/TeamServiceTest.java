@@ -0,0 +1,123 @@
+package com.worldcup;
+
+import com.worldcup.automation.WorldCupAutomation;
+import com.worldcup.database.DatabaseManager;
+import com.worldcup.model.Group;
+import com.worldcup.model.Team;
+import com.worldcup.model.TeamStandingComparator;
+import com.worldcup.service.TeamService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TeamServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private DatabaseManager dbManager;
+    private TeamService teamService;
+    private int tournamentId;
+    private List<Group> groups;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dbManager = new DatabaseManager("jdbc:sqlite:" + directory.resolve("worldcup.db"), 1);
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            WorldCupAutomation automation = new WorldCupAutomation(dbManager);
+            automation.setSeed(42);
+            automation.runCompleteWorldCup();
+        } finally {
+            System.setOut(out);
+        }
+
+        teamService = new TeamService(dbManager);
+        tournamentId = (int) queryLong("SELECT MAX(id) FROM tournaments", 0);
+        groups = new ArrayList<>();
+        try (PreparedStatement pstmt = dbManager.getConnection()
+                .prepareStatement("SELECT name FROM groups WHERE tournament_id = ? ORDER BY name")) {
+            pstmt.setInt(1, tournamentId);
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                groups.add(new Group(rs.getString(1)));
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        dbManager.close();
+    }
+
+    private long queryLong(String sql, int teamId) throws SQLException {
+        try (PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
+            if (teamId > 0) {
+                pstmt.setInt(1, teamId);
+            }
+            ResultSet rs = pstmt.executeQuery();
+            assertTrue(rs.next(), sql);
+            return rs.getLong(1);
+        }
+    }
+
+    private static List<String> names(List<Team> teams) {
+        return teams.stream().map(Team::getName).collect(Collectors.toList());
+    }
+
+    @Test
+    void GetTeamsByGroupsSortedWithPlayers_TatCaGroups_SapXepVaCoDuPlayers() throws SQLException {
+        Map<Group, List<Team>> teamsByGroup = teamService.getTeamsByGroupsSortedWithPlayers(tournamentId, groups);
+
+        assertEquals(8, teamsByGroup.size());
+        assertEquals(groups, new ArrayList<>(teamsByGroup.keySet()));
+        for (List<Team> teams : teamsByGroup.values()) {
+            assertEquals(4, teams.size());
+            List<Team> sorted = new ArrayList<>(teams);
+            sorted.sort(new TeamStandingComparator());
+            assertEquals(sorted, teams);
+            for (Team team : teams) {
+                long players = queryLong("SELECT COUNT(*) FROM players WHERE team_id = ?", team.getId());
+                long starting = queryLong("SELECT COUNT(*) FROM players WHERE team_id = ? AND is_starting = 1", team.getId());
+                assertEquals(players, team.getStartingPlayers().size() + team.getSubstitutePlayers().size());
+                assertEquals(starting, team.getStartingPlayers().size());
+            }
+        }
+    }
+
+    @Test
+    void GetTeamsByGroupSorted_TungGroup_CungThuTuVoiBangXepHang() throws SQLException {
+        Map<String, List<Team>> standings = teamService.getGroupStandings(tournamentId);
+
+        assertEquals(8, standings.size());
+        for (Group group : groups) {
+            List<String> expected = names(standings.get(group.getName()));
+            assertEquals(expected, names(teamService.getTeamsByGroupSorted(tournamentId, group.getName())));
+            assertEquals(expected, names(teamService.getTeamsByGroupSortedWithPlayers(tournamentId, group)));
+        }
+    }
+
+    @Test
+    void GetTeamsByGroupsSortedWithPlayers_GroupKhongCoTrongTournament_DanhSachRong() throws SQLException {
+        Group unknown = new Group("Z");
+
+        Map<Group, List<Team>> teamsByGroup = teamService.getTeamsByGroupsSortedWithPlayers(tournamentId, List.of(unknown));
+
+        assertTrue(teamsByGroup.get(unknown).isEmpty());
+    }
+}
@@ -8,6 +8,7 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public class TeamTest {
 
@@ -541,4 +542,48 @@ public class TeamTest {
         assertTrue(result.contains("goalDiff=0"));
         assertTrue(result.contains("record=0-0-0"));
     }
+
+    // ========== DIRTY TRACKING TESTS ==========
+
+    @Test
+    void GetDirtyColumns_TeamChuaLuu_TatCaCacCot() {
+        Team team = new Team("Brazil", "South America", "Coach", assistants1, "Medical", false);
+        assertEquals(List.of("name", "region", "coach", "medical_staff", "is_host", "tournament_id", "group_id"),
+                new ArrayList<>(team.getDirtyColumns().keySet()));
+    }
+
+    @Test
+    void GetDirtyColumns_SauKhiLuu_Rong() {
+        Team team = new Team("Brazil", "South America", "Coach", assistants1, "Medical", false);
+        team.markPersisted();
+        assertTrue(team.getDirtyColumns().isEmpty());
+        assertFalse(team.isDirty());
+    }
+
+    @Test
+    void GetDirtyColumns_KetQuaTranDau_KhongLamTeamThayDoi() {
+        Team team = new Team("Brazil", "South America", "Coach", assistants1, "Medical", false);
+        team.markPersisted();
+        team.updateMatchStatistics(3, 1);
+        team.setYellowCards(1);
+        assertFalse(team.isDirty());
+    }
+
+    @Test
+    void GetDirtyColumns_DoiBang_ChiCotGroupId() {
+        Team team = new Team("Brazil", "South America", "Coach", assistants1, "Medical", false);
+        team.markPersisted();
+        team.setGroupId(3);
+        assertEquals(Map.of("group_id", 3), team.getDirtyColumns());
+    }
+
+    @Test
+    void GetDirtyColumns_DoiRoiDoiLai_KhongThayDoi() {
+        Team team = new Team("Brazil", "South America", "Coach", assistants1, "Medical", false);
+        team.setTournamentId(7);
+        team.markPersisted();
+        team.setTournamentId(8);
+        team.setTournamentId(7);
+        assertFalse(team.isDirty());
+    }
 }
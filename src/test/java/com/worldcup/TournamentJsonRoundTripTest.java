@@ -0,0 +1,170 @@
+package com.worldcup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.worldcup.database.DatabaseManager;
+import com.worldcup.database.TournamentJsonExporter;
+import com.worldcup.database.TournamentJsonImporter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TournamentJsonRoundTripTest {
+
+    private static final String[] TABLES = {
+            "tournaments", "groups", "teams", "assistant_coaches", "players", "matches",
+            "goals", "cards", "substitutions", "tournament_stats"
+    };
+
+    @TempDir
+    Path directory;
+
+    private DatabaseManager source;
+    private DatabaseManager target;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        source = new DatabaseManager("jdbc:sqlite:" + directory.resolve("source.db"), 1);
+        target = new DatabaseManager("jdbc:sqlite:" + directory.resolve("target.db"), 1);
+
+        // Id nguồn cố ý lệch khỏi id mà database đích sẽ cấp
+        execute(source, """
+            INSERT INTO tournaments (id, name, year, host_country, start_date) VALUES (7, 'World Cup', 2026, 'Mexico', '2026-06-11');
+            INSERT INTO groups (id, name, tournament_id) VALUES (20, 'A', 7);
+            INSERT INTO teams (id, name, region, coach, medical_staff, is_host, group_id, tournament_id) VALUES
+                (10, 'Mexico', 'North America', 'Coach A', 'Medical A', 1, 20, 7),
+                (11, 'Brazil', 'South America', 'Coach B', 'Medical B', 0, 20, 7),
+                (12, 'Spain', 'Europe', 'Coach C', 'Medical C', 0, 99, 7);
+            INSERT INTO assistant_coaches (id, name, team_id) VALUES (30, 'Assistant', 11);
+            INSERT INTO players (id, name, jersey_number, position, team_id, is_starting, goals) VALUES
+                (100, 'Lozano', 22, 'LW', 10, 1, 2),
+                (101, 'Vinicius', 7, 'LW', 11, 1, 0),
+                (102, 'Rodrygo', 11, 'RW', 11, 0, 1),
+                (103, 'Pedri', 8, 'CM', 12, 1, 0);
+            INSERT INTO matches (id, team_a_id, team_b_id, team_a_score, team_b_score, match_type, winner_id) VALUES
+                (50, 10, 11, 2, 1, 'GROUP', 10),
+                (51, 11, 12, 0, 0, 'GROUP', NULL),
+                (52, 10, 12, 1, 0, 'FINAL', 77);
+            INSERT INTO goals (id, match_id, player_id, team_id, minute) VALUES
+                (500, 50, 100, 10, 12), (501, 50, 100, 10, 80), (502, 50, 102, 11, 55);
+            INSERT INTO cards (id, match_id, player_id, team_id, card_type, minute) VALUES
+                (600, 50, 101, 11, 'YELLOW', 44), (601, 51, 103, 12, 'RED', 70);
+            INSERT INTO substitutions (id, match_id, team_id, player_in_id, player_out_id, minute) VALUES
+                (700, 50, 11, 102, 101, 60);
+            INSERT INTO tournament_stats (tournament_id, total_goals, total_matches, top_scorer_id, top_scorer_goals,
+                champion_id, runner_up_id, third_place_id_01, third_place_id_02) VALUES (7, 3, 3, 100, 2, 10, 12, 11, 999);
+        """);
+        execute(target, """
+            INSERT INTO tournaments (name, year, host_country) VALUES ('Existing', 2022, 'Qatar');
+            INSERT INTO teams (name, region, coach, medical_staff, tournament_id) VALUES ('Qatar', 'Asia', 'Coach', 'Medical', 1);
+        """);
+    }
+
+    @AfterEach
+    void tearDown() {
+        source.close();
+        target.close();
+    }
+
+    private void execute(DatabaseManager dbManager, String script) throws SQLException {
+        try (Statement statement = dbManager.getConnection().createStatement()) {
+            for (String sql : script.split(";")) {
+                if (!sql.isBlank()) {
+                    statement.execute(sql);
+                }
+            }
+        }
+    }
+
+    private long queryLong(DatabaseManager dbManager, String sql) throws SQLException {
+        try (Statement statement = dbManager.getConnection().createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            assertTrue(rs.next(), sql);
+            return rs.getLong(1);
+        }
+    }
+
+    private Path exportSource() throws IOException, SQLException {
+        Path file = directory.resolve("export.json");
+        try (Connection conn = source.getReadConnection()) {
+            assertEquals(1, new TournamentJsonExporter(conn).export(file, 7));
+        }
+        return file;
+    }
+
+    @Test
+    void ExportImport_SoRowMoiBangGiuNguyen() throws IOException, SQLException {
+        assertEquals(1, new TournamentJsonImporter(target).importFile(exportSource()));
+
+        for (String table : TABLES) {
+            long existing = table.equals("tournaments") || table.equals("teams") ? 1 : 0;
+            assertEquals(queryLong(source, "SELECT COUNT(*) FROM " + table) + existing,
+                    queryLong(target, "SELECT COUNT(*) FROM " + table), table);
+        }
+    }
+
+    @Test
+    void ExportImport_KhoaNgoaiDuocMapSangIdMoi() throws IOException, SQLException {
+        new TournamentJsonImporter(target).importFile(exportSource());
+        long tournamentId = queryLong(target, "SELECT id FROM tournaments WHERE name = 'World Cup'");
+        assertNotEquals(7, tournamentId);
+
+        assertEquals(3, queryLong(target, "SELECT COUNT(*) FROM teams WHERE tournament_id = " + tournamentId));
+        assertEquals(2, queryLong(target, """
+            SELECT COUNT(*) FROM teams t JOIN groups g ON g.id = t.group_id
+            WHERE g.name = 'A' AND g.tournament_id = t.tournament_id
+        """));
+        assertEquals(2, queryLong(target, """
+            SELECT COUNT(*) FROM goals g JOIN players p ON p.id = g.player_id JOIN teams t ON t.id = g.team_id
+            WHERE p.name = 'Lozano' AND t.name = 'Mexico'
+        """));
+        assertEquals(1, queryLong(target, """
+            SELECT COUNT(*) FROM substitutions s
+            JOIN players pin ON pin.id = s.player_in_id JOIN players pout ON pout.id = s.player_out_id
+            JOIN matches m ON m.id = s.match_id JOIN teams ta ON ta.id = m.team_a_id
+            WHERE pin.name = 'Rodrygo' AND pout.name = 'Vinicius' AND ta.name = 'Mexico'
+        """));
+        assertEquals(1, queryLong(target, """
+            SELECT COUNT(*) FROM tournament_stats s
+            JOIN players p ON p.id = s.top_scorer_id JOIN teams c ON c.id = s.champion_id
+            JOIN teams r ON r.id = s.runner_up_id JOIN teams tp ON tp.id = s.third_place_id_01
+            WHERE p.name = 'Lozano' AND c.name = 'Mexico' AND r.name = 'Spain' AND tp.name = 'Brazil'
+        """));
+    }
+
+    @Test
+    void ExportImport_ThamChieuOptionalKhongCoTrongFile_GhiNull() throws IOException, SQLException {
+        new TournamentJsonImporter(target).importFile(exportSource());
+
+        assertEquals(1, queryLong(target, "SELECT COUNT(*) FROM teams WHERE name = 'Spain' AND group_id IS NULL"));
+        assertEquals(1, queryLong(target, "SELECT COUNT(*) FROM matches WHERE match_type = 'FINAL' AND winner_id IS NULL"));
+        assertEquals(1, queryLong(target, "SELECT COUNT(*) FROM tournament_stats WHERE third_place_id_02 IS NULL"));
+    }
+
+    @Test
+    void Export_Standings_CungThuTuVoiTeamStandingComparator() throws IOException, SQLException {
+        // Brazil và Spain cùng 1 điểm, hiệu số -1, Spain ghi nhiều bàn hơn
+        // nhưng Brazil 1 thẻ vàng còn Spain 1 thẻ đỏ (= 2 thẻ vàng) nên Brazil xếp trên
+        execute(source, "UPDATE teams SET group_id = 20 WHERE id = 12");
+        execute(source, "UPDATE matches SET team_a_score = 1, team_b_score = 1 WHERE id = 51");
+        execute(source, "INSERT INTO matches (team_a_id, team_b_id, team_a_score, team_b_score, match_type, winner_id) VALUES (10, 12, 3, 2, 'GROUP', 10)");
+
+        JsonNode standings = new ObjectMapper().readTree(exportSource().toFile())
+                .get("tournaments").get(0).get("standings");
+
+        assertEquals(10, standings.get(0).get("team_id").asInt());
+        assertEquals(11, standings.get(1).get("team_id").asInt());
+        assertEquals(12, standings.get(2).get("team_id").asInt());
+        assertEquals(1, standings.get(2).get("red_cards").asInt());
+    }
+}
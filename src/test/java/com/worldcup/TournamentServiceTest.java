@@ -0,0 +1,194 @@
+package com.worldcup;
+
+import com.worldcup.automation.WorldCupAutomation;
+import com.worldcup.database.DatabaseManager;
+import com.worldcup.service.TournamentService;
+import com.worldcup.service.TournamentService.TournamentStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TournamentServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private DatabaseManager dbManager;
+    private TournamentService tournamentService;
+    private PrintStream out;
+
+    @BeforeEach
+    void setUp() {
+        dbManager = new DatabaseManager("jdbc:sqlite:" + directory.resolve("worldcup.db"), 1);
+        tournamentService = new TournamentService(dbManager);
+        out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(out);
+        dbManager.close();
+    }
+
+    private void execute(String script) throws SQLException {
+        try (Statement statement = dbManager.getConnection().createStatement()) {
+            for (String sql : script.split(";")) {
+                if (!sql.isBlank()) {
+                    statement.execute(sql);
+                }
+            }
+        }
+    }
+
+    private int queryInt(String sql, int tournamentId) throws SQLException {
+        try (PreparedStatement pstmt = dbManager.getConnection().prepareStatement(sql)) {
+            for (int i = 1; i <= pstmt.getParameterMetaData().getParameterCount(); i++) {
+                pstmt.setInt(i, tournamentId);
+            }
+            ResultSet rs = pstmt.executeQuery();
+            assertTrue(rs.next(), sql);
+            return rs.getInt(1);
+        }
+    }
+
+    /**
+     * Hai tournaments, mỗi tournament hai teams có hai cầu thủ và một match giữa hai teams
+     */
+    private void insertTwoTournaments() throws SQLException {
+        execute("""
+            INSERT INTO tournaments (name, year, host_country) VALUES ('World Cup', 2022, 'Qatar');
+            INSERT INTO tournaments (name, year, host_country) VALUES ('World Cup', 2026, 'Mexico');
+            INSERT INTO teams (name, region, coach, medical_staff, tournament_id) VALUES ('Brazil', 'South America', 'Coach', 'Medical', 1);
+            INSERT INTO teams (name, region, coach, medical_staff, tournament_id) VALUES ('Spain', 'Europe', 'Coach', 'Medical', 1);
+            INSERT INTO teams (name, region, coach, medical_staff, tournament_id) VALUES ('Brazil', 'South America', 'Coach', 'Medical', 2);
+            INSERT INTO teams (name, region, coach, medical_staff, tournament_id) VALUES ('Spain', 'Europe', 'Coach', 'Medical', 2);
+            INSERT INTO players (name, jersey_number, position, team_id) VALUES ('Vinicius', 7, 'FW', 1);
+            INSERT INTO players (name, jersey_number, position, team_id) VALUES ('Alisson', 1, 'GK', 1);
+            INSERT INTO players (name, jersey_number, position, team_id) VALUES ('Morata', 7, 'FW', 2);
+            INSERT INTO players (name, jersey_number, position, team_id) VALUES ('Unai Simon', 1, 'GK', 2);
+            INSERT INTO players (name, jersey_number, position, team_id) VALUES ('Vinicius', 7, 'FW', 3);
+            INSERT INTO players (name, jersey_number, position, team_id) VALUES ('Alisson', 1, 'GK', 3);
+            INSERT INTO players (name, jersey_number, position, team_id) VALUES ('Morata', 7, 'FW', 4);
+            INSERT INTO players (name, jersey_number, position, team_id) VALUES ('Unai Simon', 1, 'GK', 4);
+            INSERT INTO matches (team_a_id, team_b_id, match_type) VALUES (1, 2, 'GROUP');
+            INSERT INTO matches (team_a_id, team_b_id, match_type) VALUES (3, 4, 'GROUP')
+        """);
+    }
+
+    @Test
+    void CalculateTournamentStats_SauMoPhong_BangCacTruyVanCount() throws SQLException {
+        WorldCupAutomation automation = new WorldCupAutomation(dbManager);
+        automation.setSeed(42);
+        automation.runCompleteWorldCup();
+        int tournamentId = queryInt("SELECT MAX(id) FROM tournaments", 0);
+
+        TournamentStats stats = tournamentService.calculateTournamentStats(tournamentId);
+
+        assertEquals(63, stats.totalMatches);
+        assertEquals(queryInt("SELECT COUNT(*) FROM goals g JOIN teams t ON t.id = g.team_id WHERE t.tournament_id = ?",
+                tournamentId), stats.totalGoals);
+        assertEquals(queryInt("""
+            SELECT COUNT(*) FROM cards c JOIN teams t ON t.id = c.team_id
+            WHERE t.tournament_id = ? AND c.card_type = 'YELLOW'
+        """, tournamentId), stats.totalYellowCards);
+        assertEquals(queryInt("""
+            SELECT COUNT(*) FROM cards c JOIN teams t ON t.id = c.team_id
+            WHERE t.tournament_id = ? AND c.card_type = 'RED'
+        """, tournamentId), stats.totalRedCards);
+        assertEquals(queryInt("""
+            SELECT COUNT(*) FROM substitutions s JOIN teams t ON t.id = s.team_id WHERE t.tournament_id = ?
+        """, tournamentId), stats.totalSubstitutions);
+        assertEquals(queryInt("""
+            SELECT MAX(n) FROM (
+                SELECT COUNT(*) AS n FROM goals g JOIN players p ON p.id = g.player_id
+                JOIN teams t ON t.id = p.team_id WHERE t.tournament_id = ? GROUP BY p.id
+            )
+        """, tournamentId), stats.topScorerGoals);
+        assertEquals(stats.topScorerGoals, queryInt("SELECT COUNT(*) FROM goals WHERE player_id = ?", stats.topScorerId));
+        assertTrue(stats.totalGoals > 0);
+    }
+
+    @Test
+    void CalculateTournamentStats_HaiTournament_ChiDemTournamentCanTinh() throws SQLException {
+        insertTwoTournaments();
+        execute("""
+            INSERT INTO goals (match_id, player_id, team_id, minute) VALUES (1, 1, 1, 10);
+            INSERT INTO goals (match_id, player_id, team_id, minute) VALUES (1, 1, 1, 20);
+            INSERT INTO cards (match_id, player_id, team_id, card_type, minute) VALUES (1, 3, 2, 'RED', 30);
+            INSERT INTO goals (match_id, player_id, team_id, minute) VALUES (2, 7, 4, 15);
+            INSERT INTO cards (match_id, player_id, team_id, card_type, minute) VALUES (2, 6, 3, 'YELLOW', 40);
+            INSERT INTO cards (match_id, player_id, team_id, card_type, minute) VALUES (2, 8, 4, 'YELLOW', 50);
+            INSERT INTO substitutions (match_id, team_id, player_in_id, player_out_id, minute) VALUES (2, 4, 8, 7, 60)
+        """);
+
+        TournamentStats stats = tournamentService.calculateTournamentStats(2);
+
+        assertEquals(1, stats.totalMatches);
+        assertEquals(1, stats.totalGoals);
+        assertEquals(2, stats.totalYellowCards);
+        assertEquals(0, stats.totalRedCards);
+        assertEquals(1, stats.totalSubstitutions);
+        assertEquals(7, stats.topScorerId);
+        assertEquals("Morata", stats.topScorerName);
+        assertEquals(1, stats.topScorerGoals);
+    }
+
+    @Test
+    void CalculateTournamentStats_VuaPhaLuoiBangBan_ChonTheoTen() throws SQLException {
+        insertTwoTournaments();
+        execute("""
+            INSERT INTO goals (match_id, player_id, team_id, minute) VALUES (1, 3, 2, 10);
+            INSERT INTO goals (match_id, player_id, team_id, minute) VALUES (1, 1, 1, 20);
+            INSERT INTO goals (match_id, player_id, team_id, minute) VALUES (1, 3, 2, 30);
+            INSERT INTO goals (match_id, player_id, team_id, minute) VALUES (1, 1, 1, 40);
+            INSERT INTO goals (match_id, player_id, team_id, minute) VALUES (1, 2, 1, 50)
+        """);
+
+        TournamentStats stats = tournamentService.calculateTournamentStats(1);
+
+        assertEquals(5, stats.totalGoals);
+        assertEquals(3, stats.topScorerId);
+        assertEquals("Morata", stats.topScorerName);
+        assertEquals(2, stats.topScorerGoals);
+    }
+
+    @Test
+    void CalculateTournamentStats_TournamentKhongCoSuKien_TraVeSo0() throws SQLException {
+        insertTwoTournaments();
+        execute("INSERT INTO goals (match_id, player_id, team_id, minute) VALUES (1, 1, 1, 10)");
+
+        TournamentStats stats = tournamentService.calculateTournamentStats(2);
+
+        assertEquals(1, stats.totalMatches);
+        assertEquals(0, stats.totalGoals);
+        assertEquals(0, stats.totalYellowCards);
+        assertEquals(0, stats.totalRedCards);
+        assertEquals(0, stats.totalSubstitutions);
+        assertEquals(0, stats.topScorerId);
+        assertNull(stats.topScorerName);
+        assertEquals(0, stats.topScorerGoals);
+    }
+
+    @Test
+    void CalculateTournamentStats_TournamentKhongTonTai_TraVeSo0() throws SQLException {
+        TournamentStats stats = tournamentService.calculateTournamentStats(99);
+
+        assertEquals(0, stats.totalMatches);
+        assertEquals(0, stats.totalGoals);
+        assertEquals(0, stats.totalYellowCards);
+        assertEquals(0, stats.topScorerId);
+        assertNull(stats.topScorerName);
+    }
+}
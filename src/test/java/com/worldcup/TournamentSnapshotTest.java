@@ -0,0 +1,219 @@
+package com.worldcup;
+
+import com.worldcup.database.TournamentSnapshot;
+import com.worldcup.database.TournamentSnapshotWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TournamentSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    private TournamentSnapshotWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        writer = new TournamentSnapshotWriter(7, "FIFA World Cup 2026", 2026, "Mexico", "2026-06-11", null);
+        writer.addGroup(1, "A");
+        writer.addGroup(2, "B");
+        writer.addTeam(10, "Mexico", "North America", "Coach A", "Medical A", true, 1);
+        writer.addTeam(11, "Brazil", "South America", "Coach B", "Medical B", false, 1);
+        writer.addPlayer(100, 10, "Hirving Lozano", 22, "LW", 1, 0, 2, true, true);
+        writer.addPlayer(101, 11, "Vinícius Júnior", 7, "LW", 0, 1, 0, false, false);
+        writer.addMatch(50, 10, 11, 2, 0, "GROUP", "2026/06/11", "Estadio Azteca", "Referee", 10);
+        writer.addMatch(51, 11, 10, 1, 1, "GROUP", "2026/06/15", "Estadio Azteca", "Referee", 0);
+        writer.addGoal(500, 50, 100, 10, 12, "REGULAR");
+        writer.addGoal(501, 50, 100, 10, 80, "REGULAR");
+        writer.addCard(600, 50, 101, 11, 44, "RED");
+        writer.addSubstitution(700, 51, 11, 101, 100, 60);
+        writer.setStats(3, 2, 1, 1, 1, 100, 2, 10, 11, 0, 0);
+    }
+
+    private TournamentSnapshot writeAndOpen() throws IOException {
+        Path file = directory.resolve("tournament-7.wcsnap");
+        writer.write(file);
+        return TournamentSnapshot.open(file);
+    }
+
+    private byte[] bytes() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.write(out);
+        return out.toByteArray();
+    }
+
+    private Path writeBytes(byte[] bytes) throws IOException {
+        Path file = directory.resolve("corrupt.wcsnap");
+        Files.write(file, bytes);
+        return file;
+    }
+
+    /**
+     * Vị trí index entry của section, theo thứ tự ghi: STRING_INDEX, STRING_DATA rồi TEAMS..GROUPS
+     */
+    private static int indexEntry(int type) {
+        int position = type <= TournamentSnapshot.STRING_DATA ? type - 1 : type - TournamentSnapshot.TEAMS + 2;
+        return TournamentSnapshot.HEADER_SIZE + position * TournamentSnapshot.INDEX_ENTRY_SIZE;
+    }
+
+    @Test
+    void Open_HeaderVaThongKe_DocDungGiaTri() throws IOException {
+        TournamentSnapshot snapshot = writeAndOpen();
+
+        assertEquals(7, snapshot.getTournamentId());
+        assertEquals(2026, snapshot.getYear());
+        assertEquals("FIFA World Cup 2026", snapshot.getName());
+        assertEquals("Mexico", snapshot.getHostCountry());
+        assertNull(snapshot.getEndDate());
+        assertTrue(snapshot.hasStats());
+        assertEquals(3, snapshot.getTotalGoals());
+        assertEquals(10, snapshot.getChampionId());
+        assertEquals(100, snapshot.getTopScorerId());
+    }
+
+    @Test
+    void Records_TeamPlayerMatch_DocDungField() throws IOException {
+        TournamentSnapshot snapshot = writeAndOpen();
+
+        assertEquals(2, snapshot.teams().size());
+        assertEquals("Brazil", snapshot.teams().name(1));
+        assertTrue(snapshot.teams().isHost(0));
+        assertEquals("Mexico", snapshot.teams().nameOf(snapshot.getChampionId()));
+
+        assertEquals("Vinícius Júnior", snapshot.players().name(1));
+        assertEquals(2, snapshot.players().goals(0));
+        assertTrue(snapshot.players().isStarting(0));
+        assertFalse(snapshot.players().isEligible(1));
+
+        assertEquals(0, snapshot.matches().winnerId(1));
+        assertEquals("Estadio Azteca", snapshot.matches().venue(0));
+        assertEquals("RED", snapshot.cards().type(0));
+        assertEquals(80, snapshot.goals().minute(1));
+        assertEquals(100, snapshot.substitutions().playerOutId(0));
+    }
+
+    @Test
+    void String_GiaTriLap_ChiLuuMotLanTrongDictionary() throws IOException {
+        TournamentSnapshot snapshot = writeAndOpen();
+
+        // name, host (trùng tên team Mexico), 1 ngày, các string của teams / players / matches / events
+        assertEquals(snapshot.getHostCountry(), snapshot.teams().name(0));
+        assertTrue(snapshot.getStringCount() < 25);
+    }
+
+    @Test
+    void IndexOf_TimTheoId_BinarySearch() throws IOException {
+        TournamentSnapshot snapshot = writeAndOpen();
+
+        assertEquals(1, snapshot.teams().indexOf(11));
+        assertEquals(-1, snapshot.teams().indexOf(12));
+        assertEquals(0, snapshot.matches().indexOf(50));
+        assertNull(snapshot.teams().nameOf(99));
+    }
+
+    @Test
+    void AddTeam_IdKhongTangDan_NemException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> writer.addTeam(11, "Spain", "Europe", "Coach", "Medical", false, 2));
+    }
+
+    @Test
+    void SetStats_GoiHaiLan_NemException() {
+        assertThrows(IllegalStateException.class, () -> writer.setStats(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0));
+    }
+
+    @Test
+    void Open_SnapshotKhongCoDuLieu_SectionRong() throws IOException {
+        Path file = directory.resolve("empty.wcsnap");
+        new TournamentSnapshotWriter(1, "Empty", 2030, "Spain", null, null).write(file);
+        TournamentSnapshot snapshot = TournamentSnapshot.open(file);
+
+        assertEquals(0, snapshot.teams().size());
+        assertFalse(snapshot.hasStats());
+        assertEquals(0, snapshot.getChampionId());
+        assertThrows(IndexOutOfBoundsException.class, () -> snapshot.teams().id(0));
+    }
+
+    @Test
+    void Open_FileKhongPhaiSnapshot_NemIOException() throws IOException {
+        Path file = directory.resolve("invalid.wcsnap");
+        Files.write(file, new byte[64]);
+
+        assertThrows(IOException.class, () -> TournamentSnapshot.open(file));
+    }
+
+    @Test
+    void Groups_DocTenTheoIdCuaTeam() throws IOException {
+        TournamentSnapshot snapshot = writeAndOpen();
+
+        assertEquals(2, snapshot.groups().size());
+        assertEquals("B", snapshot.groups().name(1));
+        assertEquals("A", snapshot.groups().nameOf(snapshot.teams().groupId(0)));
+        assertNull(snapshot.groups().nameOf(3));
+    }
+
+    @Test
+    void Open_FileBiCatCut_NemIOException() throws IOException {
+        byte[] bytes = bytes();
+        Path file = writeBytes(Arrays.copyOf(bytes, bytes.length - 10));
+
+        assertThrows(IOException.class, () -> TournamentSnapshot.open(file));
+    }
+
+    @Test
+    void Open_RecordNganHonSoField_NemIOException() throws IOException {
+        byte[] bytes = bytes();
+        ByteBuffer.wrap(bytes).putInt(indexEntry(TournamentSnapshot.TEAMS) + 8, 8);
+
+        assertThrows(IOException.class, () -> TournamentSnapshot.open(writeBytes(bytes)));
+    }
+
+    @Test
+    void Open_RecordThongKeNganHon_NemIOException() throws IOException {
+        byte[] bytes = bytes();
+        ByteBuffer.wrap(bytes).putInt(indexEntry(TournamentSnapshot.STATS) + 8, 4 * Integer.BYTES);
+
+        assertThrows(IOException.class, () -> TournamentSnapshot.open(writeBytes(bytes)));
+    }
+
+    @Test
+    void Open_KichThuocRecordAm_NemIOException() throws IOException {
+        byte[] bytes = bytes();
+        ByteBuffer.wrap(bytes).putInt(indexEntry(TournamentSnapshot.PLAYERS) + 8, -36);
+
+        assertThrows(IOException.class, () -> TournamentSnapshot.open(writeBytes(bytes)));
+    }
+
+    @Test
+    void Open_StringVuotQuaStringData_NemIOException() throws IOException {
+        byte[] bytes = bytes();
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int stringIndex = buffer.getInt(indexEntry(TournamentSnapshot.STRING_INDEX) + 12);
+        buffer.putInt(stringIndex + 4, 100_000);
+
+        assertThrows(IOException.class, () -> TournamentSnapshot.open(writeBytes(bytes)));
+    }
+
+    @Test
+    void Open_SnapshotKhongCoSectionGroups_KhongCoGroupNao() throws IOException {
+        byte[] bytes = bytes();
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        // Như file ghi trước khi có section GROUPS: type lạ được bỏ qua
+        buffer.putInt(indexEntry(TournamentSnapshot.GROUPS), 99);
+
+        TournamentSnapshot snapshot = TournamentSnapshot.open(writeBytes(bytes));
+
+        assertEquals(0, snapshot.groups().size());
+        assertEquals(2, snapshot.teams().size());
+    }
+}
@@ -0,0 +1,180 @@
+package com.worldcup;
+
+import com.worldcup.automation.WorldCupAutomation;
+import com.worldcup.database.DatabaseManager;
+import com.worldcup.model.Team;
+import com.worldcup.service.TeamService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WorldCupAutomationTest {
+
+    @TempDir
+    Path directory;
+
+    private DatabaseManager dbManager;
+    private PrintStream out;
+
+    @BeforeEach
+    void setUp() {
+        dbManager = new DatabaseManager("jdbc:sqlite:" + directory.resolve("worldcup.db"), 1);
+        // Output của mô phỏng rất dài
+        out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(out);
+        dbManager.close();
+    }
+
+    private void runTournament(long seed, boolean clearOldData) {
+        runTournament(dbManager, seed, clearOldData, false);
+    }
+
+    private void runTournament(DatabaseManager dbManager, long seed, boolean clearOldData, boolean parallel) {
+        WorldCupAutomation automation = new WorldCupAutomation(dbManager);
+        automation.setSeed(seed);
+        automation.setClearOldData(clearOldData);
+        automation.setParallelGroupStage(parallel);
+        automation.runCompleteWorldCup();
+    }
+
+    private long queryLong(String sql) throws SQLException {
+        return queryLong(dbManager, sql);
+    }
+
+    private long queryLong(DatabaseManager dbManager, String sql) throws SQLException {
+        try (Statement statement = dbManager.getConnection().createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            assertTrue(rs.next(), sql);
+            return rs.getLong(1);
+        }
+    }
+
+    private List<String> queryRows(DatabaseManager dbManager, String sql) throws SQLException {
+        List<String> rows = new ArrayList<>();
+        try (Statement statement = dbManager.getConnection().createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            int columns = rs.getMetaData().getColumnCount();
+            while (rs.next()) {
+                StringBuilder row = new StringBuilder();
+                for (int i = 1; i <= columns; i++) {
+                    row.append(rs.getString(i)).append('|');
+                }
+                rows.add(row.toString());
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Kết quả của tournament theo tên đội / cầu thủ, không phụ thuộc id và match_date (lấy theo giờ hệ thống)
+     */
+    private List<String> results(DatabaseManager dbManager) throws SQLException {
+        String match = "ta.name, tb.name, m.match_type";
+        String matchJoin = """
+            JOIN matches m ON m.id = e.match_id
+            JOIN teams ta ON ta.id = m.team_a_id JOIN teams tb ON tb.id = m.team_b_id
+        """;
+        List<String> results = new ArrayList<>();
+        results.addAll(queryRows(dbManager, """
+            SELECT ta.name, tb.name, m.match_type, m.team_a_score, m.team_b_score, w.name, m.venue, m.referee
+            FROM matches m
+            JOIN teams ta ON ta.id = m.team_a_id JOIN teams tb ON tb.id = m.team_b_id
+            LEFT JOIN teams w ON w.id = m.winner_id
+            ORDER BY 1, 2, 3
+        """));
+        results.addAll(queryRows(dbManager, "SELECT 'goal', " + match + ", p.name, e.minute FROM goals e "
+                + matchJoin + " JOIN players p ON p.id = e.player_id ORDER BY 2, 3, 4, 5, 6"));
+        results.addAll(queryRows(dbManager, "SELECT 'card', " + match + ", p.name, e.card_type, e.minute FROM cards e "
+                + matchJoin + " JOIN players p ON p.id = e.player_id ORDER BY 2, 3, 4, 5, 6, 7"));
+        results.addAll(queryRows(dbManager, "SELECT 'sub', " + match + ", pin.name, pout.name, e.minute FROM substitutions e "
+                + matchJoin + " JOIN players pin ON pin.id = e.player_in_id JOIN players pout ON pout.id = e.player_out_id"
+                + " ORDER BY 2, 3, 4, 5, 6, 7"));
+        results.addAll(queryRows(dbManager, """
+            SELECT p.name, p.goals, p.yellow_cards, p.red_cards, p.is_eligible, p.is_starting
+            FROM players p JOIN teams t ON t.id = p.team_id
+            ORDER BY t.name, p.jersey_number
+        """));
+        results.addAll(queryRows(dbManager, """
+            SELECT c.name, r.name, t1.name, t2.name, p.name, s.total_goals, s.total_matches,
+                   s.total_yellow_cards, s.total_red_cards, s.total_substitutions, s.top_scorer_goals
+            FROM tournament_stats s
+            JOIN teams c ON c.id = s.champion_id JOIN teams r ON r.id = s.runner_up_id
+            LEFT JOIN teams t1 ON t1.id = s.third_place_id_01 LEFT JOIN teams t2 ON t2.id = s.third_place_id_02
+            LEFT JOIN players p ON p.id = s.top_scorer_id
+        """));
+
+        int tournamentId = (int) queryLong(dbManager, "SELECT MAX(id) FROM tournaments");
+        for (Map.Entry<String, List<Team>> group : new TeamService(dbManager).getGroupStandings(tournamentId).entrySet()) {
+            for (Team team : group.getValue()) {
+                results.add(group.getKey() + "|" + team.getName() + "|" + team.getPoints() + "|" + team.getGoalDifference()
+                        + "|" + team.getGoalsFor());
+            }
+        }
+        return results;
+    }
+
+    private long teamsInOwnTournamentGroups() throws SQLException {
+        return queryLong("""
+            SELECT COUNT(*) FROM teams t
+            JOIN groups g ON g.id = t.group_id AND g.tournament_id = t.tournament_id
+        """);
+    }
+
+    @Test
+    void HaiLanChay_XoaDuLieuCu_TeamsVanJoinVoiGroupsMoi() throws SQLException {
+        runTournament(42, true);
+        runTournament(42, true);
+
+        // Lần chạy thứ hai nhận id groups mới từ AUTOINCREMENT
+        assertTrue(queryLong("SELECT MIN(id) FROM groups") > 8);
+        assertEquals(32, queryLong("SELECT COUNT(*) FROM teams"));
+        assertEquals(32, teamsInOwnTournamentGroups());
+    }
+
+    @Test
+    void HaiLanChay_GiuDuLieuCu_MoiTournamentDungGroupsCuaMinh() throws SQLException {
+        runTournament(42, false);
+        runTournament(43, false);
+
+        assertEquals(2, queryLong("SELECT COUNT(*) FROM tournaments"));
+        assertEquals(64, teamsInOwnTournamentGroups());
+        assertEquals(4, queryLong("""
+            SELECT MAX(n) FROM (SELECT COUNT(*) AS n FROM teams GROUP BY group_id)
+        """));
+    }
+
+    @Test
+    void CungSeed_ChayTuanTuVaSongSong_KetQuaGiongNhau() throws SQLException {
+        DatabaseManager parallelDatabase = new DatabaseManager("jdbc:sqlite:" + directory.resolve("parallel.db"), 1);
+        try {
+            runTournament(dbManager, 42, true, false);
+            runTournament(parallelDatabase, 42, true, true);
+
+            List<String> sequential = results(dbManager);
+            assertEquals(63, queryLong("SELECT COUNT(*) FROM matches"));
+            assertEquals(1, queryLong("SELECT COUNT(*) FROM tournament_stats s JOIN teams c ON c.id = s.champion_id"));
+            assertTrue(sequential.size() > 63 + 32 * 16);
+            assertEquals(sequential, results(parallelDatabase));
+        } finally {
+            parallelDatabase.close();
+        }
+    }
+}